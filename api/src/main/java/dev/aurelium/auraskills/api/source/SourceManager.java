@@ -16,7 +16,7 @@ public interface SourceManager {
      *
      * @param typeClass the class of the {@link XpSource} type
      * @param <T> an instance of XpSource
-     * @return a list of sources
+     * @return an unmodifiable list of sources
      */
     @NotNull
     <T extends XpSource> List<SkillSource<T>> getSourcesOfType(Class<T> typeClass);
@@ -35,6 +35,22 @@ public interface SourceManager {
     @Nullable
     String getUnitName(XpSource source, Locale locale);
 
+    /**
+     * Disables xp accumulation, which combines the xp of sources giving many gains at once
+     * (like blocks broken by Treecapitator) into one XpGainEvent. Call this if your plugin needs
+     * an XpGainEvent for every gain, such as to count blocks. Must be called after AuraSkills is enabled.
+     *
+     * @param pluginName the name of your plugin, logged to show why accumulation is disabled
+     */
+    void disableXpAccumulation(String pluginName);
+
+    /**
+     * Gets whether xp accumulation is enabled in the config and not disabled by any plugin.
+     *
+     * @return whether xp gains are accumulated
+     */
+    boolean isXpAccumulationEnabled();
+
     @Internal
     SourceIncome loadSourceIncome(ConfigNode source);
 
@@ -96,6 +96,11 @@ tasks {
         relocate("com.archyx.polyglot", "dev.aurelium.auraskills.polyglot")
         relocate("org.atteo.evo.inflector", "dev.aurelium.auraskills.inflector")
         relocate("com.tcoded.folialib", "dev.aurelium.auraskills.folialib")
+        // Avoids clashing with other plugins that bundle a different H2 version. The driver class name
+        // passed to Hikari is relocated with it, and merged service files list the relocated driver.
+        relocate("org.h2", "dev.aurelium.auraskills.h2")
+
+        mergeServiceFiles()
 
         exclude("acf-*.properties")
 
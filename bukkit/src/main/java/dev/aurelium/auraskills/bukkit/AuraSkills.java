@@ -88,6 +88,7 @@ import dev.aurelium.auraskills.common.source.SourceTypeRegistry;
 import dev.aurelium.auraskills.common.stat.StatLoader;
 import dev.aurelium.auraskills.common.stat.StatManager;
 import dev.aurelium.auraskills.common.stat.StatRegistry;
+import dev.aurelium.auraskills.common.storage.StorageException;
 import dev.aurelium.auraskills.common.storage.StorageFactory;
 import dev.aurelium.auraskills.common.storage.StorageProvider;
 import dev.aurelium.auraskills.common.storage.StorageType;
@@ -240,6 +241,7 @@ public class AuraSkills extends JavaPlugin implements AuraSkillsPlugin {
         // Load config.yml file
         configProvider = new BukkitConfigProvider(this, testSession.configOverrides());
         configProvider.loadOptions(); // Also loads external plugin hooks
+        scheduler.loadAsyncOptions();
         initializeNbtApi();
         initializeMenus(); // Generate menu files
         // Initialize and migrate storage (connect to SQL database if enabled)
@@ -249,6 +251,7 @@ public class AuraSkills extends JavaPlugin implements AuraSkillsPlugin {
         worldManager = new BukkitWorldManager(this);
         worldManager.loadWorlds(); // Requires generateConfigs before
         regionManager = new BukkitRegionManager(this);
+        scheduler.executeAsync(() -> regionManager.getLegacyMigrator().migrateAll()); // Convert .asrg files to the binary format
         backupProvider = new BackupProvider(this);
         xpRequirements = new XpRequirements(this);
         leaderboardManager = new LeaderboardManager(this, new BukkitLeaderboardExclusion(this));
@@ -282,6 +285,7 @@ public class AuraSkills extends JavaPlugin implements AuraSkillsPlugin {
             loadSkills(); // Load skills, stats, abilities, etc from configs
             levelManager.registerLevelers(); // Requires skills loaded
             levelManager.loadXpRequirements(); // Requires skills loaded
+            levelManager.loadSkillCoinsRewards();
             uiProvider.getBossBarManager().loadOptions(); // Requires skills registered
             requirementManager = new RequirementManager(this); // Requires skills registered
             rewardManager.loadRewards(); // Requires skills loaded
@@ -298,7 +302,7 @@ public class AuraSkills extends JavaPlugin implements AuraSkillsPlugin {
             // Call SkillsLoadEvent
             SkillsLoadEvent event = new SkillsLoadEvent(skillManager.getSkillValues());
             Bukkit.getPluginManager().callEvent(event);
-            scheduler.executeAsync(() -> {
+            scheduler.executeAsyncCompute(() -> {
                 leaderboardManager.updateLeaderboards(); // Immediately update leaderboards
             });
             // Start other timer tasks
@@ -328,6 +332,9 @@ public class AuraSkills extends JavaPlugin implements AuraSkillsPlugin {
 
     @Override
     public void onDisable() {
+        if (levelManager != null) {
+            levelManager.getXpAccumulator().flush();
+        }
         if (scheduler != null) {
             scheduler.shutdown();
         }
@@ -335,12 +342,13 @@ public class AuraSkills extends JavaPlugin implements AuraSkillsPlugin {
             // Save users
             for (User user : userManager.getUserMap().values()) {
                 user.cleanUp(); // Remove Fleeting
-                try {
-                    storageProvider.save(user);
-                } catch (Exception e) {
-                    e.printStackTrace();
-                }
             }
+            try {
+                storageProvider.saveAllSafely(userManager.getUserMap().values());
+            } catch (StorageException e) {
+                logger().severe(e.getMessage());
+            }
+            storageProvider.shutdown();
             userManager.getUserMap().clear();
         }
         if (regionManager != null) {
@@ -439,11 +447,15 @@ public class AuraSkills extends JavaPlugin implements AuraSkillsPlugin {
     }
 
     private void initStorageProvider() {
-        // MySQL storage
-        StorageType type = configBoolean(Option.SQL_ENABLED) ? StorageType.MYSQL : StorageType.YAML;
+        // MySQL or embedded H2 storage
+        StorageType type = StorageType.YAML;
+        if (configBoolean(Option.SQL_ENABLED)) {
+            type = configString(Option.SQL_TYPE).equalsIgnoreCase("h2") ? StorageType.H2 : StorageType.MYSQL;
+        }
         StorageFactory storageFactory = new BukkitStorageFactory(this);
         storageProvider = storageFactory.createStorageProvider(type);
         storageProvider.startAutoSaving();
+        storageProvider.getAntiAfkLogSink().start();
     }
 
     private void registerSkillCoinsEconomy() {
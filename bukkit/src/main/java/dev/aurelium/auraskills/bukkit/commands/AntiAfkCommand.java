@@ -6,20 +6,17 @@ import co.aikar.commands.MinecraftMessageKeys;
 import co.aikar.commands.PaperCommandManager;
 import co.aikar.commands.annotation.*;
 import dev.aurelium.auraskills.bukkit.AuraSkills;
+import dev.aurelium.auraskills.common.antiafk.AntiAfkLogSink;
 import dev.aurelium.auraskills.common.message.type.CommandMessage;
 import dev.aurelium.auraskills.common.user.AntiAfkLog;
-import dev.aurelium.auraskills.common.user.User;
 import dev.aurelium.auraskills.common.util.text.TextUtil;
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.command.CommandSender;
-import org.bukkit.entity.Player;
 
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
 
@@ -49,40 +46,20 @@ public class AntiAfkCommand extends BaseCommand {
             return;
         }
         int offset = (page - 1) * perPage;
-        Player bukkitPlayer = offlinePlayer.getPlayer();
 
-        if (offlinePlayer.isOnline() && bukkitPlayer != null) {
-            User user = plugin.getUser(bukkitPlayer);
-
-            if (user.getStoredAntiAfkLogs().isEmpty()) {
-                // Load if stored logs have not been loaded
-                plugin.getScheduler().executeAsync(() -> {
-                    List<AntiAfkLog> loaded = plugin.getStorageProvider().loadAntiAfkLogs(offlinePlayer.getUniqueId());
-                    user.setStoredAntiAfkLogs(new ArrayList<>(loaded)); // Set loaded into User cache
-                    loaded.addAll(user.getSessionAntiAfkLogs()); // Add the logs created this session to the stored logs
-                    List<AntiAfkLog> logs = getMostRecent(loaded, offset, perPage);
-
-                    // Send message back on main thread
-                    plugin.getScheduler().executeSync(() -> sendLogsMessage(sender, offlinePlayer, logs, page, perPage, loaded.size()));
-                });
-            } else {
-                List<AntiAfkLog> allLogs = user.getStoredAntiAfkLogs().get();
-                allLogs.addAll(user.getSessionAntiAfkLogs());
-
-                List<AntiAfkLog> logs = getMostRecent(allLogs, offset, perPage);
-
-                sendLogsMessage(sender, bukkitPlayer, logs, page, perPage, allLogs.size());
-            }
-        } else {
-            // Load logs from storage async for offline users
-            plugin.getScheduler().executeAsync(() -> {
-                List<AntiAfkLog> loaded = plugin.getStorageProvider().loadAntiAfkLogs(offlinePlayer.getUniqueId());
-                List<AntiAfkLog> logs = getMostRecent(loaded, offset, perPage);
+        // Load logs from storage async
+        plugin.getScheduler().executeAsync(() -> {
+            try {
+                AntiAfkLogSink.LogPage logPage = plugin.getStorageProvider().getAntiAfkLogSink()
+                        .loadPage(offlinePlayer.getUniqueId(), offset, perPage);
 
                 // Send message back on main thread
-                plugin.getScheduler().executeSync(() -> sendLogsMessage(sender, offlinePlayer, logs, page, perPage, loaded.size()));
-            });
-        }
+                plugin.getScheduler().executeSync(() -> sendLogsMessage(sender, offlinePlayer, logPage.logs(), page, perPage, logPage.total()));
+            } catch (Exception e) {
+                plugin.logger().warn("Failed to load anti-AFK logs from storage for UUID " + offlinePlayer.getUniqueId());
+                e.printStackTrace();
+            }
+        });
     }
 
     private void sendLogsMessage(CommandSender recipient, OfflinePlayer target, List<AntiAfkLog> logs, int page, int perPage, int total) {
@@ -117,15 +94,4 @@ public class AntiAfkCommand extends BaseCommand {
         recipient.sendMessage(sb.toString());
     }
 
-    private List<AntiAfkLog> getMostRecent(List<AntiAfkLog> logs, int offset, int limit) {
-        List<AntiAfkLog> copied = new ArrayList<>(logs);
-        copied.sort(Comparator.comparingLong(AntiAfkLog::timestamp).reversed());
-
-        List<AntiAfkLog> limited = new ArrayList<>();
-        for (int i = offset; i < offset + limit && i < copied.size(); i++) {
-            limited.add(copied.get(i));
-        }
-        return limited;
-    }
-
 }
@@ -36,13 +36,9 @@ public class BackupCommand extends BaseCommand {
             issuer.sendMessage(plugin.getPrefix(locale) + plugin.getMsg(CommandMessage.BACKUP_SAVE_SAVING, locale));
             try {
                 File file = backupProvider.saveBackup(true);
-                if (file != null) {
-                    MessageBuilder.create(plugin).locale(locale).prefix().message(CommandMessage.BACKUP_SAVE_SAVED,
-                            "type", plugin.getStorageProvider().getClass().getSimpleName(),
-                            "file", file.getName()).send(issuer);
-                } else {
-                    throw new IllegalArgumentException("Did not save backup due to too many entries");
-                }
+                MessageBuilder.create(plugin).locale(locale).prefix().message(CommandMessage.BACKUP_SAVE_SAVED,
+                        "type", plugin.getStorageProvider().getClass().getSimpleName(),
+                        "file", file.getName()).send(issuer);
             } catch (Exception e) {
                 issuer.sendMessage(plugin.getPrefix(locale) + TextUtil.replace(plugin.getMsg(CommandMessage.BACKUP_SAVE_ERROR, locale),
                         "{type}", plugin.getStorageProvider().getClass().getSimpleName()));
@@ -64,8 +60,8 @@ public class BackupCommand extends BaseCommand {
             issuer.sendMessage(plugin.getPrefix(locale) + plugin.getMsg(CommandMessage.BACKUP_LOAD_FILE_NOT_FOUND, locale));
             return;
         }
-        if (!file.getName().endsWith(".yml")) {
-            issuer.sendMessage(plugin.getPrefix(locale) + plugin.getMsg(CommandMessage.BACKUP_LOAD_MUST_BE_YAML, locale));
+        if (!file.getName().endsWith(".yml") && !file.getName().endsWith(BackupProvider.COMPRESSED_EXTENSION)) {
+            issuer.sendMessage(plugin.getPrefix(locale) + plugin.getMsg(CommandMessage.BACKUP_LOAD_INVALID_FILE, locale));
             return;
         }
 
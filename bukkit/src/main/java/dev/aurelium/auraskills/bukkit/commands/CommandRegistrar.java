@@ -260,6 +260,7 @@ public class CommandRegistrar {
         manager.registerCommand(new XpCommand(plugin));
         manager.registerCommand(new PresetCommand(plugin));
         manager.registerCommand(new StorageCommand(plugin));
+        manager.registerCommand(new DebugCommand(plugin));
         manager.registerCommand(new OpenMenuCommand(plugin));
         manager.registerCommand(new ManaAbilityCommand(plugin));
         manager.registerCommand(new TraitCommand(plugin));
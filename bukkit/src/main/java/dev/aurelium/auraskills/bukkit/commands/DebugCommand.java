@@ -0,0 +1,53 @@
+package dev.aurelium.auraskills.bukkit.commands;
+
+import co.aikar.commands.BaseCommand;
+import co.aikar.commands.annotation.CommandAlias;
+import co.aikar.commands.annotation.CommandPermission;
+import co.aikar.commands.annotation.Subcommand;
+import dev.aurelium.auraskills.bukkit.AuraSkills;
+import dev.aurelium.auraskills.common.scheduler.AsyncLane;
+import org.bukkit.ChatColor;
+import org.bukkit.command.CommandSender;
+
+import java.util.Locale;
+
+@CommandAlias("%skills_alias")
+@Subcommand("debug")
+public class DebugCommand extends BaseCommand {
+
+    private final AuraSkills plugin;
+
+    public DebugCommand(AuraSkills plugin) {
+        this.plugin = plugin;
+    }
+
+    @Subcommand("scheduler")
+    @CommandPermission("auraskills.command.debug")
+    public void onScheduler(CommandSender sender) {
+        sender.sendMessage(ChatColor.GOLD + "Async lanes:");
+        for (AsyncLane lane : plugin.getScheduler().getAsyncLanes()) {
+            String threads = lane.isVirtual() ? "virtual" : lane.getThreads() + " threads";
+            sender.sendMessage(ChatColor.YELLOW + lane.getName() + ChatColor.GRAY + " (" + threads + ")");
+            sender.sendMessage(ChatColor.GRAY + "  Queued: " + ChatColor.WHITE + lane.getQueued() +
+                    ChatColor.GRAY + ", active: " + ChatColor.WHITE + lane.getActive() +
+                    ChatColor.GRAY + ", completed: " + ChatColor.WHITE + lane.getCompleted() +
+                    ChatColor.GRAY + ", overflowed: " + ChatColor.WHITE + lane.getOverflowed() +
+                    ChatColor.GRAY + ", dropped: " + ChatColor.WHITE + lane.getDropped());
+            sender.sendMessage(ChatColor.GRAY + "  Wait ms p50/p95/p99: " + ChatColor.WHITE + formatPercentiles(lane, true));
+            sender.sendMessage(ChatColor.GRAY + "  Run ms p50/p95/p99: " + ChatColor.WHITE + formatPercentiles(lane, false));
+        }
+    }
+
+    private String formatPercentiles(AsyncLane lane, boolean wait) {
+        StringBuilder sb = new StringBuilder();
+        for (double percentile : new double[] {50, 95, 99}) {
+            if (!sb.isEmpty()) {
+                sb.append("/");
+            }
+            double value = wait ? lane.getWaitPercentile(percentile) : lane.getRunPercentile(percentile);
+            sb.append(String.format(Locale.ROOT, "%.2f", value));
+        }
+        return sb.toString();
+    }
+
+}
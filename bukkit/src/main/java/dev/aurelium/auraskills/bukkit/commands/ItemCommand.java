@@ -347,7 +347,7 @@ public class ItemCommand extends BaseCommand {
                 // Add to unclaimed items if leftover
                 if (leftoverItem != null) {
                     User user = plugin.getUser(player);
-                    user.getUnclaimedItems().add(new KeyIntPair(key, leftoverItem.getAmount()));
+                    user.addUnclaimedItem(new KeyIntPair(key, leftoverItem.getAmount()));
 
                     String message = plugin.getMsg(LevelerMessage.UNCLAIMED_ITEM, locale);
                     if (!message.isEmpty()) {
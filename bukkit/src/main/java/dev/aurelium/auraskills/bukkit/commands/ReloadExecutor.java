@@ -2,9 +2,11 @@ package dev.aurelium.auraskills.bukkit.commands;
 
 import dev.aurelium.auraskills.bukkit.AuraSkills;
 import dev.aurelium.auraskills.bukkit.hooks.HologramsHook;
+import dev.aurelium.auraskills.bukkit.hooks.WorldGuardHook;
 import dev.aurelium.auraskills.bukkit.source.BlockLeveler;
 import dev.aurelium.auraskills.bukkit.trait.AnvilDiscountTrait;
 import dev.aurelium.auraskills.bukkit.trait.DamageReductionTrait;
+import dev.aurelium.auraskills.bukkit.user.BukkitUser;
 import dev.aurelium.auraskills.common.message.type.CommandMessage;
 import dev.aurelium.auraskills.common.user.User;
 import org.bukkit.Bukkit;
@@ -36,12 +38,14 @@ public class ReloadExecutor {
         // Load skills
         plugin.loadSkills();
         plugin.getLevelManager().loadXpRequirements();
+        plugin.getLevelManager().loadSkillCoinsRewards();
         plugin.getUiProvider().getBossBarManager().loadOptions();
         plugin.getRewardManager().loadRewards();
         plugin.getLootManager().loadLootTables();
         plugin.getTraitManager().getTraitImpl(DamageReductionTrait.class).resetFormula();
         plugin.getTraitManager().getTraitImpl(AnvilDiscountTrait.class).resetFormula();
         plugin.getLevelManager().getLeveler(BlockLeveler.class).clearSourceCache();
+        plugin.getModifierManager().getItemModifierCache().clear();
         // Reload shop configuration
         plugin.getShopManager().getShop().loadConfiguration();
         // Load menus
@@ -52,6 +56,9 @@ public class ReloadExecutor {
         if (plugin.getHookManager().isRegistered(HologramsHook.class)) {
             plugin.getHookManager().getHook(HologramsHook.class).loadConfig();
         }
+        if (plugin.getHookManager().isRegistered(WorldGuardHook.class)) {
+            plugin.getHookManager().getHook(WorldGuardHook.class).clearCache();
+        }
         reloadPlayers();
         sender.sendMessage(plugin.getPrefix(locale) + plugin.getMsg(CommandMessage.RELOAD_RELOADED, locale));
     }
@@ -60,6 +67,7 @@ public class ReloadExecutor {
         for (Player player : Bukkit.getOnlinePlayers()) {
             User user = plugin.getUser(player);
             plugin.getStatManager().recalculateStats(user);
+            ((BukkitUser) user).invalidatePermissionMultipliers();
         }
     }
 
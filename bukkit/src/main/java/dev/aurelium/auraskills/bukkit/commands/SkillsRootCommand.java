@@ -13,8 +13,10 @@ import dev.aurelium.auraskills.bukkit.menus.SourcesMenu.SortType;
 import dev.aurelium.auraskills.bukkit.storage.Uninstaller;
 import dev.aurelium.auraskills.bukkit.util.UpdateChecker;
 import dev.aurelium.auraskills.common.config.Option;
+import dev.aurelium.auraskills.common.leaderboard.LeaderboardManager;
 import dev.aurelium.auraskills.common.leaderboard.SkillValue;
 import dev.aurelium.auraskills.common.message.type.CommandMessage;
+import dev.aurelium.auraskills.common.storage.StorageException;
 import dev.aurelium.auraskills.common.ui.ActionBarType;
 import dev.aurelium.auraskills.common.user.User;
 import dev.aurelium.auraskills.common.user.UserState;
@@ -30,6 +32,7 @@ import org.bukkit.entity.Player;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 @CommandAlias("%skills_alias")
 public class SkillsRootCommand extends BaseCommand {
@@ -73,32 +76,35 @@ public class SkillsRootCommand extends BaseCommand {
     public void onTop(CommandSender sender, String[] args) {
         Locale locale = plugin.getLocale(sender);
         if (args.length == 0) {
-            List<SkillValue> lb = plugin.getLeaderboardManager().getPowerLeaderboard(1, 10);
-            sender.sendMessage(plugin.getMsg(CommandMessage.TOP_POWER_HEADER, locale));
-            for (SkillValue skillValue : lb) {
-                String name = Bukkit.getOfflinePlayer(skillValue.id()).getName();
-                sender.sendMessage(plugin.getMsg(CommandMessage.TOP_POWER_ENTRY, locale)
-                        .replace("{rank}", String.valueOf(lb.indexOf(skillValue) + 1))
-                        .replace("{player}", name != null ? name : "?")
-                        .replace("{level}", String.valueOf(skillValue.level())));
-            }
+            whenLoaded(plugin.getLeaderboardManager().getPowerLeaderboardAsync(1, 10), lb -> {
+                sender.sendMessage(plugin.getMsg(CommandMessage.TOP_POWER_HEADER, locale));
+                for (SkillValue skillValue : lb) {
+                    String name = Bukkit.getOfflinePlayer(skillValue.id()).getName();
+                    sender.sendMessage(plugin.getMsg(CommandMessage.TOP_POWER_ENTRY, locale)
+                            .replace("{rank}", String.valueOf(lb.indexOf(skillValue) + 1))
+                            .replace("{player}", name != null ? name : "?")
+                            .replace("{level}", String.valueOf(skillValue.level())));
+                }
+            });
         } else if (args.length == 1) {
             if (args[0].equalsIgnoreCase("average")) {
-                List<SkillValue> lb = plugin.getLeaderboardManager().getAverageLeaderboard(1, 10);
-                sender.sendMessage(plugin.getMsg(CommandMessage.TOP_AVERAGE_HEADER, locale));
-                sendLeaderboardEntries(sender, locale, lb);
+                whenLoaded(plugin.getLeaderboardManager().getAverageLeaderboardAsync(1, 10), lb -> {
+                    sender.sendMessage(plugin.getMsg(CommandMessage.TOP_AVERAGE_HEADER, locale));
+                    sendLeaderboardEntries(sender, locale, lb);
+                });
             } else {
                 try {
                     int page = Integer.parseInt(args[0]);
-                    List<SkillValue> lb = plugin.getLeaderboardManager().getPowerLeaderboard(page, 10);
-                    sender.sendMessage(plugin.getMsg(CommandMessage.TOP_POWER_HEADER_PAGE, locale).replace("{page}", String.valueOf(page)));
-                    for (SkillValue skillValue : lb) {
-                        String name = Bukkit.getOfflinePlayer(skillValue.id()).getName();
-                        sender.sendMessage(plugin.getMsg(CommandMessage.TOP_POWER_ENTRY, locale)
-                                .replace("{rank}", String.valueOf((page - 1) * 10 + lb.indexOf(skillValue) + 1))
-                                .replace("{player}", name != null ? name : "?")
-                                .replace("{level}", String.valueOf(skillValue.level())));
-                    }
+                    whenLoaded(plugin.getLeaderboardManager().getPowerLeaderboardAsync(page, 10), lb -> {
+                        sender.sendMessage(plugin.getMsg(CommandMessage.TOP_POWER_HEADER_PAGE, locale).replace("{page}", String.valueOf(page)));
+                        for (SkillValue skillValue : lb) {
+                            String name = Bukkit.getOfflinePlayer(skillValue.id()).getName();
+                            sender.sendMessage(plugin.getMsg(CommandMessage.TOP_POWER_ENTRY, locale)
+                                    .replace("{rank}", String.valueOf((page - 1) * 10 + lb.indexOf(skillValue) + 1))
+                                    .replace("{player}", name != null ? name : "?")
+                                    .replace("{level}", String.valueOf(skillValue.level())));
+                        }
+                    });
                 } catch (Exception e) {
                     String skillName = args[0].toLowerCase(Locale.ROOT);
                     Skill skill = plugin.getSkillRegistry().getFromKey(skillName);
@@ -106,15 +112,17 @@ public class SkillsRootCommand extends BaseCommand {
                         skill = plugin.getSkillRegistry().getOrNull(NamespacedId.fromDefault(skillName));
                     }
                     if (skill != null && skill.isEnabled()) {
-                        List<SkillValue> lb = plugin.getLeaderboardManager().getLeaderboard(skill, 1, 10);
-                        sender.sendMessage(plugin.getMsg(CommandMessage.TOP_SKILL_HEADER, locale).replace("{skill}", skill.getDisplayName(locale)));
-                        for (SkillValue skillValue : lb) {
-                            String name = Bukkit.getOfflinePlayer(skillValue.id()).getName();
-                            sender.sendMessage(plugin.getMsg(CommandMessage.TOP_SKILL_ENTRY, locale)
-                                    .replace("{rank}", String.valueOf(lb.indexOf(skillValue) + 1))
-                                    .replace("{player}", name != null ? name : "?")
-                                    .replace("{level}", String.valueOf(skillValue.level())));
-                        }
+                        Skill topSkill = skill;
+                        whenLoaded(plugin.getLeaderboardManager().getLeaderboardAsync(skill, 1, 10), lb -> {
+                            sender.sendMessage(plugin.getMsg(CommandMessage.TOP_SKILL_HEADER, locale).replace("{skill}", topSkill.getDisplayName(locale)));
+                            for (SkillValue skillValue : lb) {
+                                String name = Bukkit.getOfflinePlayer(skillValue.id()).getName();
+                                sender.sendMessage(plugin.getMsg(CommandMessage.TOP_SKILL_ENTRY, locale)
+                                        .replace("{rank}", String.valueOf(lb.indexOf(skillValue) + 1))
+                                        .replace("{player}", name != null ? name : "?")
+                                        .replace("{level}", String.valueOf(skillValue.level())));
+                            }
+                        });
                     } else {
                         sender.sendMessage(plugin.getMsg(CommandMessage.TOP_USAGE, locale));
                     }
@@ -124,10 +132,11 @@ public class SkillsRootCommand extends BaseCommand {
             if (args[0].equalsIgnoreCase("average")) {
                 try {
                     int page = Integer.parseInt(args[1]);
-                    List<SkillValue> lb = plugin.getLeaderboardManager().getAverageLeaderboard(page, 10);
-                    sender.sendMessage(TextUtil.replace(plugin.getMsg(CommandMessage.TOP_AVERAGE_HEADER_PAGE, locale),
-                            "{page}", String.valueOf(page)));
-                    sendLeaderboardEntries(sender, locale, lb);
+                    whenLoaded(plugin.getLeaderboardManager().getAverageLeaderboardAsync(page, 10), lb -> {
+                        sender.sendMessage(TextUtil.replace(plugin.getMsg(CommandMessage.TOP_AVERAGE_HEADER_PAGE, locale),
+                                "{page}", String.valueOf(page)));
+                        sendLeaderboardEntries(sender, locale, lb);
+                    });
                 } catch (Exception e) {
                     sender.sendMessage(plugin.getMsg(CommandMessage.TOP_USAGE, locale));
                 }
@@ -136,15 +145,16 @@ public class SkillsRootCommand extends BaseCommand {
                 if (skill != null) {
                     try {
                         int page = Integer.parseInt(args[1]);
-                        List<SkillValue> lb = plugin.getLeaderboardManager().getLeaderboard(skill, page, 10);
-                        sender.sendMessage(plugin.getMsg(CommandMessage.TOP_SKILL_HEADER_PAGE, locale).replace("{page}", String.valueOf(page)).replace("{skill}", skill.getDisplayName(locale)));
-                        for (SkillValue skillValue : lb) {
-                            String name = Bukkit.getOfflinePlayer(skillValue.id()).getName();
-                            sender.sendMessage(plugin.getMsg(CommandMessage.TOP_SKILL_ENTRY, locale)
-                                    .replace("{rank}", String.valueOf((page - 1) * 10 + lb.indexOf(skillValue) + 1))
-                                    .replace("{player}", name != null ? name : "?")
-                                    .replace("{level}", String.valueOf(skillValue.level())));
-                        }
+                        whenLoaded(plugin.getLeaderboardManager().getLeaderboardAsync(skill, page, 10), lb -> {
+                            sender.sendMessage(plugin.getMsg(CommandMessage.TOP_SKILL_HEADER_PAGE, locale).replace("{page}", String.valueOf(page)).replace("{skill}", skill.getDisplayName(locale)));
+                            for (SkillValue skillValue : lb) {
+                                String name = Bukkit.getOfflinePlayer(skillValue.id()).getName();
+                                sender.sendMessage(plugin.getMsg(CommandMessage.TOP_SKILL_ENTRY, locale)
+                                        .replace("{rank}", String.valueOf((page - 1) * 10 + lb.indexOf(skillValue) + 1))
+                                        .replace("{player}", name != null ? name : "?")
+                                        .replace("{level}", String.valueOf(skillValue.level())));
+                            }
+                        });
                     } catch (Exception e) {
                         sender.sendMessage(plugin.getMsg(CommandMessage.TOP_USAGE, locale));
                     }
@@ -155,6 +165,15 @@ public class SkillsRootCommand extends BaseCommand {
         }
     }
 
+    // Runs the action on the main thread once a leaderboard lookup completes, right away if it's already loaded
+    private <T> void whenLoaded(CompletableFuture<T> future, Consumer<T> action) {
+        if (future.isDone()) {
+            action.accept(future.join());
+            return;
+        }
+        future.thenAccept(value -> plugin.getScheduler().executeSync(() -> action.accept(value)));
+    }
+
     private void sendLeaderboardEntries(CommandSender sender, Locale locale, List<SkillValue> lb) {
         for (SkillValue skillValue : lb) {
             String name = Bukkit.getOfflinePlayer(skillValue.id()).getName();
@@ -171,12 +190,11 @@ public class SkillsRootCommand extends BaseCommand {
     public void onSave(CommandSender sender) {
         plugin.getScheduler().executeAsync(() -> {
             Locale locale = plugin.getLocale(sender);
-            for (User user : plugin.getUserManager().getOnlineUsers()) {
-                try {
-                    plugin.getStorageProvider().saveSafely(user);
-                } catch (Exception e) {
-                    e.printStackTrace();
-                }
+            try {
+                plugin.getStorageProvider().saveAllSafely(plugin.getUserManager().getOnlineUsers());
+            } catch (StorageException e) {
+                plugin.logger().severe(e.getMessage());
+                return;
             }
             plugin.getScheduler().executeSync(() -> sender.sendMessage(plugin.getPrefix(locale) + plugin.getMsg(CommandMessage.SAVE_SAVED, locale)));
         });
@@ -188,7 +206,7 @@ public class SkillsRootCommand extends BaseCommand {
     public void onUpdateLeaderboards(CommandSender sender, @Default("1") int samples) {
         Locale locale = plugin.getLocale(sender);
         if (plugin.getLeaderboardManager().isNotSorting()) {
-            plugin.getScheduler().executeAsync(() -> {
+            plugin.getScheduler().executeAsyncCompute(() -> {
                 long sum = 0;
                 for (int i = 0; i < samples; i++) {
                     long timeMs = plugin.getLeaderboardManager().updateLeaderboards();
@@ -234,16 +252,33 @@ public class SkillsRootCommand extends BaseCommand {
     @Description("%desc_rank")
     public void onRank(Player player) {
         Locale locale = plugin.getLocale(player);
-        player.sendMessage(plugin.getMsg(CommandMessage.RANK_HEADER, locale));
-        player.sendMessage(plugin.getMsg(CommandMessage.RANK_POWER, locale)
-                .replace("{rank}", String.valueOf(plugin.getLeaderboardManager().getPowerRank(player.getUniqueId())))
-                .replace("{total}", String.valueOf(plugin.getLeaderboardManager().getPowerLeaderboard().size())));
-        for (Skill skill : plugin.getSkillManager().getEnabledSkills()) {
-            player.sendMessage(plugin.getMsg(CommandMessage.RANK_ENTRY, locale)
-                    .replace("{skill}", String.valueOf(skill.getDisplayName(locale)))
-                    .replace("{rank}", String.valueOf(plugin.getLeaderboardManager().getSkillRank(skill, player.getUniqueId())))
-                    .replace("{total}", String.valueOf(plugin.getLeaderboardManager().getLeaderboard(skill).size())));
+        LeaderboardManager manager = plugin.getLeaderboardManager();
+        UUID uuid = player.getUniqueId();
+        List<Skill> skills = new ArrayList<>(plugin.getSkillManager().getEnabledSkills());
+        CompletableFuture<Integer> powerRank = manager.getPowerRankAsync(uuid);
+        CompletableFuture<Integer> powerSize = manager.getPowerLeaderboardSizeAsync();
+        List<CompletableFuture<Integer>> ranks = new ArrayList<>();
+        List<CompletableFuture<Integer>> sizes = new ArrayList<>();
+        for (Skill skill : skills) {
+            ranks.add(manager.getSkillRankAsync(skill, uuid));
+            sizes.add(manager.getLeaderboardSizeAsync(skill));
         }
+        List<CompletableFuture<Integer>> all = new ArrayList<>(ranks);
+        all.addAll(sizes);
+        all.add(powerRank);
+        all.add(powerSize);
+        whenLoaded(CompletableFuture.allOf(all.toArray(new CompletableFuture[0])), ignored -> {
+            player.sendMessage(plugin.getMsg(CommandMessage.RANK_HEADER, locale));
+            player.sendMessage(plugin.getMsg(CommandMessage.RANK_POWER, locale)
+                    .replace("{rank}", String.valueOf(powerRank.join()))
+                    .replace("{total}", String.valueOf(powerSize.join())));
+            for (int i = 0; i < skills.size(); i++) {
+                player.sendMessage(plugin.getMsg(CommandMessage.RANK_ENTRY, locale)
+                        .replace("{skill}", String.valueOf(skills.get(i).getDisplayName(locale)))
+                        .replace("{rank}", String.valueOf(ranks.get(i).join()))
+                        .replace("{total}", String.valueOf(sizes.get(i).join())));
+            }
+        });
     }
 
     @Subcommand("lang")
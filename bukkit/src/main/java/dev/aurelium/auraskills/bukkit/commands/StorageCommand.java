@@ -7,6 +7,7 @@ import co.aikar.commands.annotation.Subcommand;
 import dev.aurelium.auraskills.api.skill.Skill;
 import dev.aurelium.auraskills.bukkit.AuraSkills;
 import dev.aurelium.auraskills.common.storage.StorageProvider;
+import dev.aurelium.auraskills.common.storage.UserPrefetcher;
 import dev.aurelium.auraskills.common.user.UserState;
 import org.bukkit.ChatColor;
 import org.bukkit.command.CommandSender;
@@ -104,4 +105,15 @@ public class StorageCommand extends BaseCommand {
         sender.sendMessage("Removed all stat and trait modifiers for all users. Successfully applied to " + success + " users, failed to apply for " + failed + " users, " + skipped + " users had no modifiers to remove.");
     }
 
+    @Subcommand("prefetch")
+    @CommandPermission("auraskills.command.storage")
+    public void onPrefetch(CommandSender sender) {
+        UserPrefetcher prefetcher = plugin.getStorageProvider().getPrefetcher();
+        long hits = prefetcher.getHits();
+        long total = hits + prefetcher.getMisses();
+        String rate = total > 0 ? String.format("%.1f%%", hits * 100.0 / total) : "N/A";
+        sender.sendMessage("Joins with prefetched data: " + hits + "/" + total + " (" + rate + "), expired before join: " +
+                prefetcher.getExpired() + ", waiting for join: " + prefetcher.getSize());
+    }
+
 }
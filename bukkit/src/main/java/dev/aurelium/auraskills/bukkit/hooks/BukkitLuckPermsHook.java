@@ -1,10 +1,12 @@
 package dev.aurelium.auraskills.bukkit.hooks;
 
+import dev.aurelium.auraskills.bukkit.user.BukkitUser;
 import dev.aurelium.auraskills.common.AuraSkillsPlugin;
 import dev.aurelium.auraskills.common.hooks.Hook;
 import dev.aurelium.auraskills.common.hooks.LuckPermsHook;
 import net.luckperms.api.event.node.NodeAddEvent;
 import net.luckperms.api.event.node.NodeRemoveEvent;
+import net.luckperms.api.event.user.UserDataRecalculateEvent;
 import net.luckperms.api.model.PermissionHolder;
 import net.luckperms.api.model.group.Group;
 import net.luckperms.api.model.user.User;
@@ -39,6 +41,10 @@ public class BukkitLuckPermsHook extends LuckPermsHook implements Listener {
 
         this.usePermissionCache = config.node("use_permission_cache").getBoolean(true);
 
+        // Parsed permission multipliers are only refreshed periodically unless invalidated
+        luckPerms.getEventBus().subscribe(UserDataRecalculateEvent.class,
+                event -> invalidateMultipliers(event.getUser().getUniqueId()));
+
         if (!this.usePermissionCache) return;
 
         luckPerms.getEventBus().subscribe(NodeAddEvent.class,
@@ -67,6 +73,7 @@ public class BukkitLuckPermsHook extends LuckPermsHook implements Listener {
                         // In case if someone logs out in that 500 ms timeframe
                         if (player == null || !player.isOnline()) return;
                         permissionCache.put(user.getUniqueId(), getMultiplierPermissions(user.getUniqueId()));
+                        invalidateMultipliers(user.getUniqueId());
                     },
                     500,
                     TimeUnit.MILLISECONDS
@@ -97,11 +104,18 @@ public class BukkitLuckPermsHook extends LuckPermsHook implements Listener {
                     // In case if someone logs out in that 500 ms timeframe
                     if (player == null || !player.isOnline()) continue;
                     permissionCache.put(uuid, getMultiplierPermissions(uuid));
+                    invalidateMultipliers(uuid);
                 }
             }, 500, TimeUnit.MILLISECONDS);
         }
     }
 
+    private void invalidateMultipliers(UUID uuid) {
+        if (plugin.getUserManager().getUser(uuid) instanceof BukkitUser user) {
+            user.invalidatePermissionMultipliers();
+        }
+    }
+
     public Set<String> getMultiplierPermissions(Player player) {
         return permissionCache.computeIfAbsent(player.getUniqueId(), this::getMultiplierPermissions);
     }
@@ -127,6 +141,7 @@ public class BukkitLuckPermsHook extends LuckPermsHook implements Listener {
         plugin.getScheduler().executeAsync(() -> {
             if (!event.getPlayer().isOnline()) return;
             permissionCache.put(uuid, getMultiplierPermissions(uuid));
+            invalidateMultipliers(uuid);
         });
     }
 
@@ -1,12 +1,15 @@
 package dev.aurelium.auraskills.bukkit.hooks;
 
 import com.sk89q.worldedit.bukkit.BukkitAdapter;
+import com.sk89q.worldedit.math.BlockVector3;
 import com.sk89q.worldguard.LocalPlayer;
 import com.sk89q.worldguard.WorldGuard;
 import com.sk89q.worldguard.bukkit.WorldGuardPlugin;
 import com.sk89q.worldguard.protection.ApplicableRegionSet;
+import com.sk89q.worldguard.protection.RegionResultSet;
 import com.sk89q.worldguard.protection.flags.StateFlag;
 import com.sk89q.worldguard.protection.managers.RegionManager;
+import com.sk89q.worldguard.protection.regions.ProtectedCuboidRegion;
 import com.sk89q.worldguard.protection.regions.ProtectedRegion;
 import com.sk89q.worldguard.protection.regions.RegionContainer;
 import dev.aurelium.auraskills.api.skill.Skill;
@@ -18,17 +21,25 @@ import dev.aurelium.auraskills.common.util.text.TextUtil;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
+import org.jetbrains.annotations.Nullable;
 import org.spongepowered.configurate.ConfigurationNode;
 import org.spongepowered.configurate.serialize.SerializationException;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class WorldGuardHook extends Hook {
 
+    // WorldGuard has no event for region changes, so cached sections expire quickly instead
+    private static final long CACHE_DURATION_MS = 2000;
+    private static final int MAX_CACHED_SECTIONS = 4096;
+
     private final AuraSkills plugin;
+    private final Map<SectionKey, CachedSection> sectionCache = new ConcurrentHashMap<>();
+    private final Map<Skill, String> skillFlagKeys = new ConcurrentHashMap<>();
     private RegionContainer container;
-    private List<String> blockedRegions;
-    private List<String> blockedCheckBlockReplaceRegions;
+    private Set<String> blockedRegions;
+    private Set<String> blockedCheckBlockReplaceRegions;
 
     public WorldGuardHook(AuraSkills plugin, ConfigurationNode config) {
         super(plugin, config);
@@ -42,85 +53,139 @@ public class WorldGuardHook extends Hook {
 
     public void loadRegions(ConfigurationNode config) throws SerializationException {
         container = WorldGuard.getInstance().getPlatform().getRegionContainer();
-        blockedRegions = new LinkedList<>();
-        blockedRegions.addAll(config.node("blocked_regions").getList(String.class, new ArrayList<>()));
-        blockedCheckBlockReplaceRegions = new LinkedList<>();
-        blockedCheckBlockReplaceRegions.addAll(config.node("blocked_check_replace_regions").getList(String.class, new ArrayList<>()));
+        blockedRegions = new HashSet<>(config.node("blocked_regions").getList(String.class, new ArrayList<>()));
+        blockedCheckBlockReplaceRegions = new HashSet<>(config.node("blocked_check_replace_regions").getList(String.class, new ArrayList<>()));
+        clearCache();
     }
 
     public boolean isBlocked(Location location, Player player, FlagKey flagKey) {
-        if (isInBlockedRegion(location)) {
+        ApplicableRegionSet set = getApplicableRegions(location);
+        if (set == null) {
+            return false;
+        }
+        if (containsAny(set, blockedRegions)) {
             return true;
         }
-        return blockedByFlag(location, player, flagKey);
+        return isDenied(set, WorldGuardPlugin.inst().wrapPlayer(player), getStateFlag(flagKey.toString()));
     }
 
     public boolean isBlocked(Location location, Player player, Skill skill) {
-        if (isInBlockedRegion(location)) {
+        ApplicableRegionSet set = getApplicableRegions(location);
+        if (set == null) {
+            return false;
+        }
+        if (containsAny(set, blockedRegions)) {
             return true;
         }
-        if (blockedByFlag(location, player, FlagKey.XP_GAIN)) {
+        LocalPlayer localPlayer = WorldGuardPlugin.inst().wrapPlayer(player);
+        if (isDenied(set, localPlayer, getStateFlag(FlagKey.XP_GAIN.toString()))) {
             return true;
         }
-        return blockedBySkillFlag(location, player, skill);
+        String flagKey = skillFlagKeys.computeIfAbsent(skill,
+                s -> "xp-gain-" + TextUtil.replace(s.name().toLowerCase(Locale.ROOT), "_", "-"));
+        return isDenied(set, localPlayer, getStateFlag(flagKey));
     }
 
-    private boolean isInBlockedRegion(Location location) {
-        return isInRegionList(location, blockedRegions);
+    public boolean isInBlockedCheckRegion(Location location) {
+        ApplicableRegionSet set = getApplicableRegions(location);
+        return set != null && containsAny(set, blockedCheckBlockReplaceRegions);
     }
 
-    public boolean isInBlockedCheckRegion(Location location) {
-        return isInRegionList(location, blockedCheckBlockReplaceRegions);
+    /**
+     * Clears cached regions so that changes to regions are seen immediately.
+     */
+    public void clearCache() {
+        sectionCache.clear();
     }
 
-    private boolean isInRegionList(Location location, List<String> blockedRegions) {
-        if (location.getWorld() == null) {
+    private boolean containsAny(ApplicableRegionSet set, Set<String> regionIds) {
+        if (regionIds.isEmpty()) {
             return false;
         }
-        RegionManager regions = container.get(BukkitAdapter.adapt(location.getWorld()));
-        if (regions == null) {
-            return false;
-        }
-        ApplicableRegionSet set = regions.getApplicableRegions(BukkitAdapter.adapt(location).toVector().toBlockPoint());
         for (ProtectedRegion region : set) {
-            if (blockedRegions.contains(region.getId())) {
+            if (regionIds.contains(region.getId())) {
                 return true;
             }
         }
         return false;
     }
 
-    private boolean blockedByFlag(Location location, Player player, FlagKey flagKey) {
+    @Nullable
+    private StateFlag getStateFlag(String flagKey) {
         WorldGuardFlags flags = plugin.getWorldGuardFlags();
-        if (flags == null) return false;
+        if (flags == null) return null;
 
-        StateFlag flag = flags.getStateFlag(flagKey.toString());
-        return queryFlagState(location, player, flag);
+        return flags.getStateFlag(flagKey);
     }
 
-    private boolean blockedBySkillFlag(Location location, Player player, Skill skill) {
-        WorldGuardFlags flags = plugin.getWorldGuardFlags();
-        if (flags == null) return false;
+    private boolean isDenied(ApplicableRegionSet set, LocalPlayer player, @Nullable StateFlag flag) {
+        if (flag == null) return false;
 
-        String flagKey = "xp-gain-" + TextUtil.replace(skill.name().toLowerCase(Locale.ROOT), "_", "-");
-        StateFlag flag = flags.getStateFlag(flagKey);
-        return queryFlagState(location, player, flag);
+        return set.queryState(player, flag) == StateFlag.State.DENY;
     }
 
-    private boolean queryFlagState(Location location, Player player, StateFlag flag) {
-        if (flag == null) return false;
-
+    /**
+     * Gets the regions at a location the same way as {@link RegionManager#getApplicableRegions(BlockVector3)},
+     * but only checking the regions that intersect the chunk section of the location.
+     *
+     * @param location the location
+     * @return the regions, or null if the world has no region manager
+     */
+    @Nullable
+    private ApplicableRegionSet getApplicableRegions(Location location) {
         World world = location.getWorld();
-        if (world == null) return false;
-
-        RegionManager regions = container.get(BukkitAdapter.adapt(location.getWorld()));
+        if (world == null) {
+            return null;
+        }
+        RegionManager regions = container.get(BukkitAdapter.adapt(world));
         if (regions == null) {
-            return false;
+            return null;
         }
-        ApplicableRegionSet set = regions.getApplicableRegions(BukkitAdapter.adapt(location).toVector().toBlockPoint());
-        LocalPlayer localPlayer = WorldGuardPlugin.inst().wrapPlayer(player);
-        StateFlag.State state = set.queryState(localPlayer, flag);
-        return state == StateFlag.State.DENY;
+        int x = location.getBlockX();
+        int y = location.getBlockY();
+        int z = location.getBlockZ();
+        SectionKey key = new SectionKey(world.getUID(), x >> 4, y >> 4, z >> 4);
+        long now = System.currentTimeMillis();
+        CachedSection section = sectionCache.get(key);
+        if (section == null || section.expiresAt() < now || section.manager() != regions) {
+            if (sectionCache.size() >= MAX_CACHED_SECTIONS) {
+                sectionCache.clear();
+            }
+            section = loadSection(regions, key, now + CACHE_DURATION_MS);
+            sectionCache.put(key, section);
+        }
+
+        BlockVector3 point = BlockVector3.at(x, y, z);
+        Set<ProtectedRegion> applicable = new HashSet<>();
+        for (ProtectedRegion region : section.regions()) {
+            if (!region.contains(point)) continue;
+            // Parents apply too, like in WorldGuard's own lookup
+            ProtectedRegion current = region;
+            while (current != null && applicable.add(current)) {
+                current = current.getParent();
+            }
+        }
+        return new RegionResultSet(applicable, section.globalRegion());
+    }
+
+    private CachedSection loadSection(RegionManager regions, SectionKey key, long expiresAt) {
+        BlockVector3 min = BlockVector3.at(key.x() << 4, key.y() << 4, key.z() << 4);
+        BlockVector3 max = min.add(15, 15, 15);
+        ProtectedRegion bounds = new ProtectedCuboidRegion("auraskills_section", min, max);
+        List<ProtectedRegion> intersecting = new ArrayList<>();
+        for (ProtectedRegion region : regions.getApplicableRegions(bounds)) {
+            intersecting.add(region);
+        }
+        return new CachedSection(regions, intersecting, regions.getRegion(ProtectedRegion.GLOBAL_REGION), expiresAt);
+    }
+
+    private record SectionKey(UUID world, int x, int y, int z) {
+
+    }
+
+    private record CachedSection(RegionManager manager, List<ProtectedRegion> regions,
+                                 @Nullable ProtectedRegion globalRegion, long expiresAt) {
+
     }
 
     @Override
@@ -131,7 +131,7 @@ public class BukkitItemRegistry implements ItemRegistry {
             // Handle items that could not fit in the inventory
             if (leftoverItem != null) {
                 // Add unclaimed item key and amount to player data
-                user.getUnclaimedItems().add(new KeyIntPair(key.toString(), leftoverItem.getAmount()));
+                user.addUnclaimedItem(new KeyIntPair(key.toString(), leftoverItem.getAmount()));
                 // Notify player
                 plugin.getScheduler().executeSync(() -> player.sendMessage(plugin.getPrefix(user.getLocale()) + plugin.getMsg(LevelerMessage.UNCLAIMED_ITEM, user.getLocale())));
             }
@@ -18,12 +18,17 @@ public class BukkitModifierManager implements ModifierManager {
 
     private final AuraSkills plugin;
     private final ItemStateManager manager;
+    private final ItemModifierCache itemModifierCache = new ItemModifierCache();
 
     public BukkitModifierManager(AuraSkills plugin) {
         this.plugin = plugin;
         this.manager = new ItemStateManager(plugin);
     }
 
+    public ItemModifierCache getItemModifierCache() {
+        return itemModifierCache;
+    }
+
     public void applyModifiers(Player player, boolean reload) {
         User user = plugin.getUser(player);
 
@@ -0,0 +1,98 @@
+package dev.aurelium.auraskills.bukkit.item;
+
+import dev.aurelium.auraskills.api.item.ModifierType;
+import dev.aurelium.auraskills.api.skill.Multiplier;
+import dev.aurelium.auraskills.api.skill.Skill;
+import dev.aurelium.auraskills.api.stat.StatModifier;
+import dev.aurelium.auraskills.api.trait.TraitModifier;
+import org.bukkit.Material;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches the modifiers, multipliers, and requirements decoded from items, so that equipping
+ * or unequipping an item that was seen before doesn't decode its persistent data again.
+ * Entries are keyed by the raw keys and values of the item's AuraSkills containers rather than the whole
+ * item, so changes like durability don't cause a new decode. Items without AuraSkills data aren't decoded or cached.
+ */
+public class ItemModifierCache {
+
+    private static final int MAX_SIZE = 1024;
+    private static final ItemModifiers EMPTY = new ItemModifiers(List.of(), List.of(), List.of(), Map.of());
+
+    private final Map<Key, ItemModifiers> cache = new ConcurrentHashMap<>();
+    private final Decoder decoder;
+
+    public ItemModifierCache() {
+        this(ItemModifierCache::decode);
+    }
+
+    ItemModifierCache(Decoder decoder) {
+        this.decoder = decoder;
+    }
+
+    /**
+     * Gets the decoded modifiers of an item, decoding them if the item's data isn't cached.
+     *
+     * @param skillsItem the item
+     * @param type the modifier type
+     * @param offhand whether the item is in the off hand, which changes modifier names
+     * @return the decoded modifiers
+     */
+    public ItemModifiers get(SkillsItem skillsItem, ModifierType type, boolean offhand) {
+        List<Object> data = skillsItem.getModifierData(type);
+        if (data.isEmpty()) {
+            return EMPTY;
+        }
+        Key key = new Key(skillsItem.getMaterial(), type, offhand, data);
+        ItemModifiers modifiers = cache.get(key);
+        if (modifiers != null) {
+            return modifiers;
+        }
+        modifiers = decoder.decode(skillsItem, type, offhand);
+        if (cache.size() >= MAX_SIZE) {
+            cache.clear();
+        }
+        cache.put(key, modifiers);
+        return modifiers;
+    }
+
+    static ItemModifiers decode(SkillsItem skillsItem, ModifierType type, boolean offhand) {
+        return new ItemModifiers(
+                List.copyOf(skillsItem.getStatModifiers(type, offhand)),
+                List.copyOf(skillsItem.getTraitModifiers(type, offhand)),
+                List.copyOf(skillsItem.getMultipliers(type, offhand)),
+                Map.copyOf(skillsItem.getRequirements(type)));
+    }
+
+    /**
+     * Removes all decoded modifiers, such as when stats, traits, or skills are reloaded.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public record ItemModifiers(List<StatModifier> statModifiers, List<TraitModifier> traitModifiers,
+                                List<Multiplier> multipliers, Map<Skill, Integer> requirements) {
+
+    }
+
+    // Modifier names depend on the material for armor and whether the item is in the off hand
+    private record Key(Material material, ModifierType type, boolean offhand, List<Object> data) {
+
+    }
+
+    @FunctionalInterface
+    interface Decoder {
+
+        ItemModifiers decode(SkillsItem skillsItem, ModifierType type, boolean offhand);
+
+    }
+
+}
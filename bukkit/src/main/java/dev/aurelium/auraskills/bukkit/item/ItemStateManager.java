@@ -11,6 +11,7 @@ import dev.aurelium.auraskills.api.stat.ReloadableIdentifier;
 import dev.aurelium.auraskills.api.stat.StatModifier;
 import dev.aurelium.auraskills.api.trait.TraitModifier;
 import dev.aurelium.auraskills.bukkit.AuraSkills;
+import dev.aurelium.auraskills.bukkit.item.ItemModifierCache.ItemModifiers;
 import dev.aurelium.auraskills.bukkit.user.BukkitUser;
 import dev.aurelium.auraskills.common.user.User;
 import org.bukkit.Bukkit;
@@ -99,16 +100,17 @@ public class ItemStateManager {
         ModifierType type = getModifierType(slot);
         Set<ReloadableIdentifier> toReload = Sets.newConcurrentHashSet();
         SkillsItem skillsItem = new SkillsItem(item, plugin);
+        ItemModifiers modifiers = getModifierCache().get(skillsItem, type, slot == EquipmentSlot.OFF_HAND);
 
-        for (StatModifier modifier : skillsItem.getStatModifiers(type, slot == EquipmentSlot.OFF_HAND)) {
+        for (StatModifier modifier : modifiers.statModifiers()) {
             user.removeStatModifier(modifier.name(), false);
             toReload.add(modifier.stat());
         }
-        for (TraitModifier modifier : skillsItem.getTraitModifiers(type, slot == EquipmentSlot.OFF_HAND)) {
+        for (TraitModifier modifier : modifiers.traitModifiers()) {
             user.removeTraitModifier(modifier.name(), false);
             toReload.add(modifier.trait());
         }
-        for (Multiplier multiplier : skillsItem.getMultipliers(type, slot == EquipmentSlot.OFF_HAND)) {
+        for (Multiplier multiplier : modifiers.multipliers()) {
             user.removeMultiplier(multiplier.name());
         }
 
@@ -124,16 +126,17 @@ public class ItemStateManager {
         ModifierType type = getModifierType(slot);
 
         SkillsItem skillsItem = new SkillsItem(item, plugin);
-        if (skillsItem.meetsRequirements(type, player)) {
-            for (StatModifier modifier : skillsItem.getStatModifiers(type, slot == EquipmentSlot.OFF_HAND)) {
+        ItemModifiers modifiers = getModifierCache().get(skillsItem, type, slot == EquipmentSlot.OFF_HAND);
+        if (skillsItem.meetsRequirements(type, player, modifiers.requirements())) {
+            for (StatModifier modifier : modifiers.statModifiers()) {
                 user.addStatModifier(modifier, false);
                 toReload.add(modifier.stat());
             }
-            for (TraitModifier modifier : skillsItem.getTraitModifiers(type, slot == EquipmentSlot.OFF_HAND)) {
+            for (TraitModifier modifier : modifiers.traitModifiers()) {
                 user.addTraitModifier(modifier, false);
                 toReload.add(modifier.trait());
             }
-            for (Multiplier multiplier : skillsItem.getMultipliers(type, slot == EquipmentSlot.OFF_HAND)) {
+            for (Multiplier multiplier : modifiers.multipliers()) {
                 user.addMultiplier(multiplier);
             }
         }
@@ -161,6 +164,10 @@ public class ItemStateManager {
         return item;
     }
 
+    private ItemModifierCache getModifierCache() {
+        return plugin.getModifierManager().getItemModifierCache();
+    }
+
     private ModifierType getModifierType(EquipmentSlot slot) {
         return switch (slot) {
             case HAND, OFF_HAND -> ModifierType.ITEM;
@@ -37,6 +37,14 @@ import java.util.concurrent.ConcurrentHashMap;
 
 public class SkillsItem {
 
+    // Keys are shared since a SkillsItem is created every time a held or worn item changes
+    private static final Map<String, NamespacedKey> KEYS = new ConcurrentHashMap<>();
+    private static final NamespacedKey VALUE_KEY = key("value");
+    private static final NamespacedKey OPERATION_KEY = key("operation");
+    private static final NamespacedKey STAT_KEY = key("stat");
+    private static final NamespacedKey TRAIT_KEY = key("trait");
+    private static final NamespacedKey GLOBAL_KEY = key("global");
+
     private final AuraSkills plugin;
     private final ItemStack item;
     private final ItemMeta meta;
@@ -52,6 +60,10 @@ public class SkillsItem {
         return item;
     }
 
+    public Material getMaterial() {
+        return item.getType();
+    }
+
     public List<StatModifier> getStatModifiers(ModifierType type) {
         return getStatModifiers(type, false);
     }
@@ -62,16 +74,16 @@ public class SkillsItem {
             List<PersistentDataContainer> containers = getContainerList(MetaType.MODIFIER, type);
 
             for (PersistentDataContainer container : containers) {
-                double value = container.getOrDefault(new NamespacedKey(plugin, "value"), PersistentDataType.DOUBLE, 0.0);
+                double value = container.getOrDefault(VALUE_KEY, PersistentDataType.DOUBLE, 0.0);
                 if (value == 0.0) continue;
 
-                String statName = container.get(new NamespacedKey(plugin, "stat"), PersistentDataType.STRING);
+                String statName = container.get(STAT_KEY, PersistentDataType.STRING);
                 if (statName == null) continue;
 
                 Stat stat = plugin.getStatRegistry().getOrNull(NamespacedId.fromDefault(statName));
                 if (stat == null) continue;
 
-                String operationName = container.getOrDefault(new NamespacedKey(plugin, "operation"), PersistentDataType.STRING, Operation.ADD.toString());
+                String operationName = container.getOrDefault(OPERATION_KEY, PersistentDataType.STRING, Operation.ADD.toString());
                 Operation operation = Operation.parse(operationName);
 
                 String modifierName = getModifierName(stat, type, offhand);
@@ -112,16 +124,16 @@ public class SkillsItem {
             List<PersistentDataContainer> containers = getContainerList(MetaType.TRAIT_MODIFIER, type);
 
             for (PersistentDataContainer container : containers) {
-                double value = container.getOrDefault(new NamespacedKey(plugin, "value"), PersistentDataType.DOUBLE, 0.0);
+                double value = container.getOrDefault(VALUE_KEY, PersistentDataType.DOUBLE, 0.0);
                 if (value == 0.0) continue;
 
-                String traitName = container.get(new NamespacedKey(plugin, "trait"), PersistentDataType.STRING);
+                String traitName = container.get(TRAIT_KEY, PersistentDataType.STRING);
                 if (traitName == null) continue;
 
                 Trait trait = plugin.getTraitRegistry().getOrNull(NamespacedId.fromDefault(traitName));
                 if (trait == null) continue;
 
-                String operationName = container.getOrDefault(new NamespacedKey(plugin, "operation"), PersistentDataType.STRING, Operation.ADD.toString());
+                String operationName = container.getOrDefault(OPERATION_KEY, PersistentDataType.STRING, Operation.ADD.toString());
                 Operation operation = Operation.parse(operationName);
 
                 String modifierName = getModifierName(trait, type, offhand);
@@ -170,8 +182,8 @@ public class SkillsItem {
 
         container.set(getTypeKey(metaType), PersistentDataType.STRING, identified.getId().toString());
 
-        container.set(new NamespacedKey(plugin, "value"), PersistentDataType.DOUBLE, value);
-        container.set(new NamespacedKey(plugin, "operation"), PersistentDataType.STRING, operation.toString().toLowerCase(Locale.ROOT));
+        container.set(VALUE_KEY, PersistentDataType.DOUBLE, value);
+        container.set(OPERATION_KEY, PersistentDataType.STRING, operation.toString().toLowerCase(Locale.ROOT));
 
         containers.add(container);
         saveContainerList(containers, metaType, modifierType);
@@ -200,7 +212,7 @@ public class SkillsItem {
 
                 var oldContainer = meta.getPersistentDataContainer();
                 String name = getContainerName(metaType, modifierType);
-                NamespacedKey metaKey = new NamespacedKey(plugin, name);
+                NamespacedKey metaKey = key(name);
                 var metaContainer = oldContainer.get(metaKey, PersistentDataType.TAG_CONTAINER);
 
                 if (metaContainer == null) continue; // Skip if no container exists
@@ -232,9 +244,9 @@ public class SkillsItem {
 
             created.set(getTypeKey(metaType), PersistentDataType.STRING, identified.getId().toString());
 
-            created.set(new NamespacedKey(plugin, "value"), PersistentDataType.DOUBLE, value);
+            created.set(VALUE_KEY, PersistentDataType.DOUBLE, value);
             // All existing modifiers are Operation.ADD
-            created.set(new NamespacedKey(plugin, "operation"), PersistentDataType.STRING, Operation.ADD.toString().toLowerCase(Locale.ROOT));
+            created.set(OPERATION_KEY, PersistentDataType.STRING, Operation.ADD.toString().toLowerCase(Locale.ROOT));
 
             list.add(created);
         }
@@ -242,18 +254,15 @@ public class SkillsItem {
     }
 
     private NamespacedKey getTypeKey(MetaType metaType) {
-        String key = "stat";
-        if (metaType == MetaType.MODIFIER) {
-            key = "stat";
-        } else if (metaType == MetaType.TRAIT_MODIFIER) {
-            key = "trait";
+        if (metaType == MetaType.TRAIT_MODIFIER) {
+            return TRAIT_KEY;
         }
-        return new NamespacedKey(plugin, key);
+        return STAT_KEY;
     }
 
     public void removeAll(MetaType metaType, ModifierType modifierType) {
         PersistentDataContainer parent = meta.getPersistentDataContainer();
-        parent.remove(new NamespacedKey(plugin, getContainerName(metaType, modifierType)));
+        parent.remove(key(getContainerName(metaType, modifierType)));
     }
 
     public List<Multiplier> getMultipliers(ModifierType type) {
@@ -312,14 +321,14 @@ public class SkillsItem {
 
     public void addRequirement(ModifierType type, Skill skill, int level) {
         PersistentDataContainer container = getContainer(MetaType.REQUIREMENT, type);
-        NamespacedKey key = new NamespacedKey(plugin, skill.getId().toString());
+        NamespacedKey key = key(skill.getId().toString());
         container.set(key, PersistentDataType.INTEGER, level);
         saveTagContainer(container, MetaType.REQUIREMENT, type);
     }
 
     public void removeRequirement(ModifierType type, Skill skill) {
         PersistentDataContainer container = getContainer(MetaType.REQUIREMENT, type);
-        NamespacedKey key = new NamespacedKey(plugin, skill.getId().toString());
+        NamespacedKey key = key(skill.getId().toString());
         container.remove(key);
         saveTagContainer(container, MetaType.REQUIREMENT, type);
         removeEmpty(container, MetaType.REQUIREMENT, type);
@@ -327,13 +336,13 @@ public class SkillsItem {
 
     public void addIgnore() {
         PersistentDataContainer container = meta.getPersistentDataContainer();
-        NamespacedKey key = new NamespacedKey(plugin, ManaAbilityProvider.IGNORE_INTERACT_KEY);
+        NamespacedKey key = key(ManaAbilityProvider.IGNORE_INTERACT_KEY);
         container.set(key, PersistentDataType.BYTE, (byte) 1);
     }
 
     public void removeIgnore() {
         PersistentDataContainer container = meta.getPersistentDataContainer();
-        NamespacedKey key = new NamespacedKey(plugin, ManaAbilityProvider.IGNORE_INTERACT_KEY);
+        NamespacedKey key = key(ManaAbilityProvider.IGNORE_INTERACT_KEY);
         container.remove(key);
     }
 
@@ -373,10 +382,22 @@ public class SkillsItem {
     }
 
     public boolean meetsRequirements(ModifierType type, Player player) {
+        return meetsRequirements(type, player, getRequirements(type));
+    }
+
+    /**
+     * Checks whether the player meets global requirements and the given requirements
+     * decoded from the item.
+     *
+     * @param type the modifier type
+     * @param player the player
+     * @param itemRequirements the requirements on the item from {@link #getRequirements(ModifierType)}
+     * @return whether the player meets the requirements
+     */
+    public boolean meetsRequirements(ModifierType type, Player player, Map<Skill, Integer> itemRequirements) {
         if (!plugin.configBoolean(Option.REQUIREMENT_ENABLED)) return true;
         if (player.hasMetadata("NPC")) return true;
         User user = plugin.getUser(player);
-        Map<Skill, Integer> itemRequirements = getRequirements(type);
 
         // If override_global is true, only check global if the item has no defined NBT requirements
         if (!plugin.configBoolean(Option.REQUIREMENT_OVERRIDE_GLOBAL) || itemRequirements.isEmpty()) {
@@ -388,7 +409,7 @@ public class SkillsItem {
             }
         }
         // Check requirements on item
-        for (Map.Entry<Skill, Integer> entry : getRequirements(type).entrySet()) {
+        for (Map.Entry<Skill, Integer> entry : itemRequirements.entrySet()) {
             if (user.getSkillLevel(entry.getKey()) < entry.getValue()) {
                 return false;
             }
@@ -406,6 +427,50 @@ public class SkillsItem {
         return requirements;
     }
 
+    /**
+     * Gets the keys and values of the modifier, multiplier, and requirement containers of a modifier type
+     * without decoding them into modifiers. Items with equal data and material decode to the same modifiers.
+     *
+     * @param type the modifier type
+     * @return the data as keys followed by their values, which is empty if the item has no data of the type
+     */
+    public List<Object> getModifierData(ModifierType type) {
+        Set<NamespacedKey> rootKeys = meta.getPersistentDataContainer().getKeys();
+        List<Object> data = new ArrayList<>();
+        for (MetaType metaType : MetaType.values()) {
+            if (!rootKeys.contains(key(getContainerName(metaType, type)))) continue;
+
+            data.add(metaType);
+            if (isContainerList(metaType, type)) {
+                List<PersistentDataContainer> containers = getContainerList(metaType, type);
+                data.add(containers.size());
+                for (PersistentDataContainer container : containers) {
+                    addValues(container, data);
+                }
+            } else {
+                addValues(getContainer(metaType, type), data);
+            }
+        }
+        return data.isEmpty() ? List.of() : List.copyOf(data);
+    }
+
+    // Adds the values of the types read when decoding, so items decoding differently never have equal data
+    private void addValues(PersistentDataContainer container, List<Object> data) {
+        List<NamespacedKey> keys = new ArrayList<>(container.getKeys());
+        keys.sort(Comparator.comparing(NamespacedKey::toString));
+        data.add(keys.size());
+        for (NamespacedKey key : keys) {
+            data.add(key.toString());
+            if (container.has(key, PersistentDataType.DOUBLE)) {
+                data.add(container.get(key, PersistentDataType.DOUBLE));
+            } else if (container.has(key, PersistentDataType.INTEGER)) {
+                data.add(container.get(key, PersistentDataType.INTEGER));
+            } else if (container.has(key, PersistentDataType.STRING)) {
+                data.add(container.get(key, PersistentDataType.STRING));
+            }
+        }
+    }
+
     public void addModifierLore(ModifierType type, NamespaceIdentified identified, double value, Operation operation, Locale locale) {
         List<String> lore;
         if (meta.getLore() != null) {
@@ -529,16 +594,16 @@ public class SkillsItem {
 
     private NamespacedKey getSkillKey(@Nullable Skill skill) {
         if (skill != null) {
-            return new NamespacedKey(plugin, skill.getId().toString());
+            return key(skill.getId().toString());
         } else {
-            return new NamespacedKey(plugin, "global");
+            return GLOBAL_KEY;
         }
     }
 
     private PersistentDataContainer getContainer(MetaType metaType, ModifierType modifierType) {
         var container = meta.getPersistentDataContainer();
         String name = getContainerName(metaType, modifierType);
-        NamespacedKey metaKey = new NamespacedKey(plugin, name); // Key for identifying meta type, like auraskills:modifiers
+        NamespacedKey metaKey = key(name); // Key for identifying meta type, like auraskills:modifiers
         if (!container.has(metaKey, PersistentDataType.TAG_CONTAINER)) {
             return container.getAdapterContext().newPersistentDataContainer();
         }
@@ -554,7 +619,7 @@ public class SkillsItem {
     private List<PersistentDataContainer> getContainerList(MetaType metaType, ModifierType modifierType) {
         var container = meta.getPersistentDataContainer();
         String name = getContainerName(metaType, modifierType);
-        NamespacedKey metaKey = new NamespacedKey(plugin, name);
+        NamespacedKey metaKey = key(name);
 
         List<PersistentDataContainer> metaContainerList;
         if (VersionUtils.isAtLeastVersion(20, 4)) {
@@ -579,7 +644,7 @@ public class SkillsItem {
     private boolean isContainerList(MetaType metaType, ModifierType modifierType) {
         var container = meta.getPersistentDataContainer();
         String name = getContainerName(metaType, modifierType);
-        NamespacedKey metaKey = new NamespacedKey(plugin, name);
+        NamespacedKey metaKey = key(name);
         if (VersionUtils.isAtLeastVersion(20, 4)) {
             return container.has(metaKey, PersistentDataType.LIST.dataContainers());
         } else {
@@ -590,14 +655,14 @@ public class SkillsItem {
     private boolean isTagContainer(MetaType metaType, ModifierType modifierType) {
         var container = meta.getPersistentDataContainer();
         String name = getContainerName(metaType, modifierType);
-        NamespacedKey metaKey = new NamespacedKey(plugin, name);
+        NamespacedKey metaKey = key(name);
         return container.has(metaKey, PersistentDataType.TAG_CONTAINER);
     }
 
     private void saveTagContainer(PersistentDataContainer container, MetaType metaType, ModifierType modifierType) {
         PersistentDataContainer parent = meta.getPersistentDataContainer();
         String name = getContainerName(metaType, modifierType);
-        parent.set(new NamespacedKey(plugin, name), PersistentDataType.TAG_CONTAINER, container);
+        parent.set(key(name), PersistentDataType.TAG_CONTAINER, container);
     }
 
     @SuppressWarnings("deprecation")
@@ -605,9 +670,9 @@ public class SkillsItem {
         PersistentDataContainer parent = meta.getPersistentDataContainer();
         String name = getContainerName(metaType, modifierType);
         if (VersionUtils.isAtLeastVersion(20, 4)) {
-            parent.set(new NamespacedKey(plugin, name), PersistentDataType.LIST.dataContainers(), containers);
+            parent.set(key(name), PersistentDataType.LIST.dataContainers(), containers);
         } else {
-            parent.set(new NamespacedKey(plugin, name), PersistentDataType.TAG_CONTAINER_ARRAY, containers.toArray(new PersistentDataContainer[0]));
+            parent.set(key(name), PersistentDataType.TAG_CONTAINER_ARRAY, containers.toArray(new PersistentDataContainer[0]));
         }
     }
 
@@ -617,7 +682,7 @@ public class SkillsItem {
         }
 
         PersistentDataContainer parent = meta.getPersistentDataContainer();
-        NamespacedKey metaKey = new NamespacedKey(plugin, getContainerName(metaType, modifierType));
+        NamespacedKey metaKey = key(getContainerName(metaType, modifierType));
         parent.remove(metaKey);
     }
 
@@ -627,10 +692,14 @@ public class SkillsItem {
         }
 
         var parent = meta.getPersistentDataContainer();
-        NamespacedKey metaKey = new NamespacedKey(plugin, getContainerName(metaType, modifierType));
+        NamespacedKey metaKey = key(getContainerName(metaType, modifierType));
         parent.remove(metaKey);
     }
 
+    private static NamespacedKey key(String key) {
+        return KEYS.computeIfAbsent(key, k -> new NamespacedKey(NamespacedId.AURASKILLS, k));
+    }
+
     private String getContainerName(MetaType metaType, ModifierType modifierType) {
         return modifierType.toString().toLowerCase(Locale.ROOT) + "_" + metaType.getKey();
     }
@@ -51,7 +51,7 @@ public class UnclaimedItemsMenu implements InventoryProvider {
                     // Give item on click
                     ItemStack leftoverItem = ItemUtils.addItemToInventory(player, item);
                     if (leftoverItem == null) { // All items were added
-                        user.getUnclaimedItems().remove(keyIntPair);
+                        user.removeUnclaimedItem(keyIntPair);
                         if (!user.getUnclaimedItems().isEmpty()) {
                             init(player, contents);
                         } else {
@@ -9,7 +9,10 @@ import dev.aurelium.auraskills.common.storage.sql.SqlStorageProvider;
 import dev.aurelium.auraskills.common.user.User;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 
@@ -26,6 +29,24 @@ public class PlayerJoinQuit implements Listener {
         this.plugin = plugin;
     }
 
+    // Monitor so the load is skipped for logins denied by other plugins
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+        // A load delay gives other servers time to save the user, so loading early could read old data
+        if (plugin.getStorageProvider() instanceof SqlStorageProvider && plugin.configInt(Option.SQL_LOAD_DELAY) > 0) {
+            return;
+        }
+        try {
+            plugin.getStorageProvider().prefetch(event.getUniqueId());
+        } catch (Exception e) {
+            plugin.logger().warn("Error prefetching user data of " + event.getName() + ", it will be loaded on join");
+            e.printStackTrace();
+        }
+    }
+
     @EventHandler
     public void onJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
@@ -56,6 +77,8 @@ public class PlayerJoinQuit implements Listener {
             return;
         }
         User user = plugin.getUser(player);
+        // Give accumulated xp before saving
+        plugin.getLevelManager().getXpAccumulator().flush();
 
         // Unload shop cooldowns (saves them to storage)
         plugin.getShopManager().getShop().unloadCooldowns(user.getUuid().toString());
@@ -65,12 +88,25 @@ public class PlayerJoinQuit implements Listener {
                 plugin.getStorageProvider().saveSafely(user);
                 plugin.getUserManager().removeUser(player.getUniqueId());
             } catch (Exception e) {
-                e.printStackTrace();
+                // Keep the user loaded so the data is saved again on the next join or shutdown
+                plugin.logger().severe("Failed to save data of " + player.getName() + " on quit, keeping it in memory", e);
             }
         });
     }
 
+    // Runs first so trait levels read by other world change listeners account for disabled worlds
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onChangedWorld(PlayerChangedWorldEvent event) {
+        User user = plugin.getUserManager().getUser(event.getPlayer().getUniqueId());
+        if (user != null) {
+            user.getUserStats().invalidateTraitLevels();
+        }
+    }
+
     private void loadUserAsync(Player player) {
+        if (plugin.getStorageProvider().promotePrefetched(player.getUniqueId(), wrap(player))) {
+            return;
+        }
         plugin.getScheduler().executeAsync(() -> {
             try {
                 plugin.getStorageProvider().load(player.getUniqueId(), wrap(player));
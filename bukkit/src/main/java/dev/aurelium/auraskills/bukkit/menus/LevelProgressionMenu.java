@@ -496,7 +496,7 @@ public class LevelProgressionMenu {
     }
 
     private int getLbSize(Skill skill) {
-        return plugin.getLeaderboardManager().getLeaderboard(skill).size();
+        return plugin.getLeaderboardManager().getLeaderboardSize(skill);
     }
 
 }
@@ -4,7 +4,9 @@ import dev.aurelium.auraskills.api.source.SkillSource;
 import dev.aurelium.auraskills.api.source.type.BlockXpSource;
 import dev.aurelium.auraskills.bukkit.AuraSkills;
 import dev.aurelium.auraskills.bukkit.source.BlockLeveler;
-import dev.aurelium.auraskills.common.region.*;
+import dev.aurelium.auraskills.common.region.ChunkData;
+import dev.aurelium.auraskills.common.region.Region;
+import dev.aurelium.auraskills.common.region.RegionManager;
 import org.bukkit.Bukkit;
 import org.bukkit.World;
 import org.bukkit.block.Block;
@@ -22,20 +24,13 @@ public class BukkitRegionManager extends RegionManager {
     }
 
     public boolean isPlacedBlock(Block block) {
-        int chunkX = block.getChunk().getX();
-        int chunkZ = block.getChunk().getZ();
-
-        int regionX = (int) Math.floor((double) chunkX / 32.0);
-        int regionZ = (int) Math.floor((double) chunkZ / 32.0);
-
-        Region region = regions.get(new RegionCoordinate(block.getWorld().getName(), regionX, regionZ));
+        int x = block.getX();
+        int z = block.getZ();
+        Region region = getRegion(block.getWorld().getName(), x >> 9, z >> 9);
         if (region != null) {
-            byte regionChunkX = (byte) (chunkX - regionX * 32);
-            byte regionChunkZ = (byte) (chunkZ - regionZ * 32);
-            ChunkData chunkData = region.getChunkData(new ChunkCoordinate(regionChunkX, regionChunkZ));
+            ChunkData chunkData = region.getChunkData((x >> 4) & 31, (z >> 4) & 31);
             if (chunkData != null) {
-                BlockPosition blockPosition = new BlockPosition(block.getX(), block.getY(), block.getZ());
-                return chunkData.isPlacedBlock(blockPosition);
+                return chunkData.isPlacedBlock(x, block.getY(), z);
             }
         }
         return false;
@@ -74,54 +69,35 @@ public class BukkitRegionManager extends RegionManager {
 
     private void addLoadRegionAsync(Block block) {
         plugin.getScheduler().executeAsync(() -> {
-            Region region = getRegionFromBlock(block);
-            if (region == null) {
-                int regionX = (int) Math.floor((double) block.getChunk().getX() / 32.0);
-                int regionZ = (int) Math.floor((double) block.getChunk().getZ() / 32.0);
-                region = new Region(block.getWorld().getName(), regionX, regionZ);
-
-                RegionCoordinate regionCoordinate = new RegionCoordinate(block.getWorld().getName(), regionX, regionZ);
-                regions.put(regionCoordinate, region);
-            }
-            loadRegion(region);
+            Region region = getOrLoadRegion(block.getWorld().getName(), block.getX() >> 9, block.getZ() >> 9);
             addToRegion(block, region);
         });
     }
 
     private void addToRegion(Block block, Region region) {
-        byte regionChunkX = (byte) (block.getChunk().getX() - region.getX() * 32);
-        byte regionChunkZ = (byte) (block.getChunk().getZ() - region.getZ() * 32);
-        ChunkData chunkData = region.getChunkData(new ChunkCoordinate(regionChunkX, regionChunkZ));
+        int x = block.getX();
+        int z = block.getZ();
         // Create chunk data if it does not exist
-        if (chunkData == null) {
-            chunkData = new ChunkData(region, regionChunkX, regionChunkZ);
-            region.setChunkData(new ChunkCoordinate(regionChunkX, regionChunkZ), chunkData);
-        }
-        chunkData.addPlacedBlock(new BlockPosition(block.getX(), block.getY(), block.getZ()));
+        ChunkData chunkData = region.getOrCreateChunkData((x >> 4) & 31, (z >> 4) & 31);
+        chunkData.addPlacedBlock(x, block.getY(), z);
     }
 
     public void removePlacedBlock(Block block) {
         Region region = getRegionFromBlock(block);
         if (region != null) {
-            byte regionChunkX = (byte) (block.getChunk().getX() - region.getX() * 32);
-            byte regionChunkZ = (byte) (block.getChunk().getZ() - region.getZ() * 32);
-            ChunkData chunkData = region.getChunkData(new ChunkCoordinate(regionChunkX, regionChunkZ));
+            int x = block.getX();
+            int z = block.getZ();
+            ChunkData chunkData = region.getChunkData((x >> 4) & 31, (z >> 4) & 31);
             if (chunkData != null) {
-                chunkData.removePlacedBlock(new BlockPosition(block.getX(), block.getY(), block.getZ()));
+                chunkData.removePlacedBlock(x, block.getY(), z);
             }
         }
     }
 
+    // Block coordinates shift by 4 to get the chunk and a further 5 to get the region
     @Nullable
     private Region getRegionFromBlock(Block block) {
-        int chunkX = block.getChunk().getX();
-        int chunkZ = block.getChunk().getZ();
-
-        int regionX = (int) Math.floor((double) chunkX / 32.0);
-        int regionZ = (int) Math.floor((double) chunkZ / 32.0);
-
-        RegionCoordinate regionCoordinate = new RegionCoordinate(block.getWorld().getName(), regionX, regionZ);
-        return regions.get(regionCoordinate);
+        return getRegion(block.getWorld().getName(), block.getX() >> 9, block.getZ() >> 9);
     }
 
     @Override
@@ -32,16 +32,7 @@ public class RegionListener implements Listener {
         Region region = regionManager.getRegion(regionCoordinate);
 
         if (region == null || region.shouldReload()) {
-            plugin.getScheduler().executeAsync(() -> {
-                Region obtainedRegion = regionManager.getRegion(regionCoordinate);
-                if (obtainedRegion == null) {
-                    obtainedRegion = new Region(event.getWorld().getName(), regionX, regionZ);
-                    regionManager.setRegion(regionCoordinate, obtainedRegion);
-                    regionManager.loadRegion(obtainedRegion);
-                } else if (obtainedRegion.shouldReload()) {
-                    regionManager.loadRegion(obtainedRegion);
-                }
-            });
+            plugin.getScheduler().executeAsync(() -> regionManager.getOrLoadRegion(regionCoordinate.getWorldName(), regionX, regionZ));
         }
     }
 
@@ -155,7 +155,7 @@ public class Treecapitator extends ReadiedManaAbility {
 
             tree.incrementBlocksBroken();
             if (adjSource != null && giveXp) {
-                plugin.getLevelManager().addXp(user, manaAbility.getSkill(), adjSource, adjSource.getXp());
+                plugin.getLevelManager().addBurstXp(user, manaAbility.getSkill(), adjSource, adjSource.getXp());
             }
             // Continue breaking blocks
             Block originalBlock = tree.getOriginalBlock();
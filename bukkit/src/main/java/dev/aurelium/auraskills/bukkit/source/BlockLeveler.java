@@ -1,10 +1,10 @@
 package dev.aurelium.auraskills.bukkit.source;
 
+import dev.aurelium.auraskills.api.event.mana.ManaAbilityBlockBreakEvent;
 import dev.aurelium.auraskills.api.skill.Skill;
 import dev.aurelium.auraskills.api.source.SkillSource;
 import dev.aurelium.auraskills.api.source.XpSource;
 import dev.aurelium.auraskills.api.source.type.BlockXpSource;
-import dev.aurelium.auraskills.api.source.type.BlockXpSource.BlockTriggers;
 import dev.aurelium.auraskills.api.trait.Trait;
 import dev.aurelium.auraskills.bukkit.AuraSkills;
 import dev.aurelium.auraskills.bukkit.skills.mining.MiningAbilities;
@@ -28,14 +28,14 @@ import org.bukkit.metadata.MetadataValue;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 public class BlockLeveler extends SourceLeveler {
 
     private final BlockLevelerHelper helper;
-    private final Map<UniqueBlock, SkillSource<BlockXpSource>> sourceCache;
+    @Nullable
+    private volatile BlockSourceIndex sourceIndex; // Built lazily from the loaded sources
 
     private final Set<Material> collectShearBlocks = Set.of(
             Material.BEEHIVE,
@@ -54,11 +54,10 @@ public class BlockLeveler extends SourceLeveler {
     public BlockLeveler(AuraSkills plugin) {
         super(plugin, SourceTypes.BLOCK);
         this.helper = new BlockLevelerHelper(plugin);
-        this.sourceCache = new ConcurrentHashMap<>();
     }
 
     public void clearSourceCache() {
-        this.sourceCache.clear();
+        this.sourceIndex = null;
     }
 
     @EventHandler(priority = EventPriority.MONITOR)
@@ -97,7 +96,12 @@ public class BlockLeveler extends SourceLeveler {
         double multiplier = helper.getBlocksBroken(block, source);
         multiplier *= helper.getStateMultiplier(block, source);
 
-        plugin.getLevelManager().addXp(user, skill, source, source.getXp() * multiplier);
+        if (event instanceof ManaAbilityBlockBreakEvent) {
+            // Blocks broken by Terraform or Treecapitator are broken many at once
+            plugin.getLevelManager().addBurstXp(user, skill, source, source.getXp() * multiplier);
+        } else {
+            plugin.getLevelManager().addXp(user, skill, source, source.getXp() * multiplier);
+        }
         applyBlockLuck(skill, player, user, block, source, dropFunction);
     }
 
@@ -229,47 +233,14 @@ public class BlockLeveler extends SourceLeveler {
 
     @Nullable
     public SkillSource<BlockXpSource> getSource(Block block, BlockXpSource.BlockTriggers trigger) {
-        // Optimize by immediately rejecting air blocks
-        if (block.getType().isAir()) {
-            return null;
-        }
-
-        var cacheKey = new UniqueBlock(block.getType(), block.getBlockData().getAsString(true), trigger);
-        SkillSource<BlockXpSource> cachedSource = sourceCache.get(cacheKey);
-        // Cache hit
-        if (cachedSource != null) {
-            return cachedSource;
-        }
-
+        // The source list is shared until skills are loaded again, so a different instance means the index is stale
         List<SkillSource<BlockXpSource>> sources = plugin.getSkillManager().getSourcesOfType(BlockXpSource.class);
-        sources = filterByTrigger(sources, trigger);
-        for (SkillSource<BlockXpSource> entry : sources) {
-            BlockXpSource source = entry.source();
-
-            // Check block type (material)
-            boolean blockMatches = false;
-            for (String blockName : source.getBlocks()) {
-                if (block.getType().name().equalsIgnoreCase(blockName)) {
-                    blockMatches = true;
-                    break;
-                }
-            }
-            if (!blockMatches) {
-                continue;
-            }
-
-            // Check block state
-            if (source.getStates() != null) {
-                // Skip if no state matches
-                if (!matchesStates(block, source.getStates())) {
-                    continue;
-                }
-            }
-            // Update cache
-            sourceCache.put(cacheKey, entry);
-            return entry;
+        BlockSourceIndex index = sourceIndex;
+        if (index == null || !index.isBuiltFrom(sources)) {
+            index = BlockSourceIndex.build(sources);
+            sourceIndex = index;
         }
-        return null;
+        return index.getSource(block, trigger);
     }
 
     private boolean matchesStates(Block block, BlockXpSource.BlockXpSourceState[] states) {
@@ -299,21 +270,6 @@ public class BlockLeveler extends SourceLeveler {
         return false;
     }
 
-    private List<SkillSource<BlockXpSource>> filterByTrigger(List<SkillSource<BlockXpSource>> sources, BlockXpSource.BlockTriggers trigger) {
-        List<SkillSource<BlockXpSource>> filtered = new ArrayList<>();
-        for (SkillSource<BlockXpSource> entry : sources) {
-            BlockXpSource source = entry.source();
-            // Check if trigger matches any of the source triggers
-            for (BlockXpSource.BlockTriggers sourceTrigger : source.getTriggers()) {
-                if (sourceTrigger == trigger) {
-                    filtered.add(entry);
-                    break;
-                }
-            }
-        }
-        return filtered;
-    }
-
     public static Map<String, Object> parseFromBlockData(String input) {
         Map<String, Object> result = new HashMap<>();
         // Check if the input is valid
@@ -390,8 +346,4 @@ public class BlockLeveler extends SourceLeveler {
         return value;
     }
 
-    public record UniqueBlock(Material material, String blockData, BlockTriggers trigger) {
-
-    }
-
 }
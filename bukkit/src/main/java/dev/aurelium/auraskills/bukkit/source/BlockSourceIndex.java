@@ -0,0 +1,177 @@
+package dev.aurelium.auraskills.bukkit.source;
+
+import dev.aurelium.auraskills.api.source.SkillSource;
+import dev.aurelium.auraskills.api.source.type.BlockXpSource;
+import dev.aurelium.auraskills.api.source.type.BlockXpSource.BlockTriggers;
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lookup index from material and trigger to the block sources that can match it, built once
+ * whenever sources are loaded. Materials without any source resolve with a single array lookup,
+ * and sources with states are matched once per distinct block data and cached, including misses.
+ */
+public class BlockSourceIndex {
+
+    private static final Object NO_MATCH = new Object();
+
+    private final List<SkillSource<BlockXpSource>> sources;
+    private final Entry[][] entries; // Indexed by material ordinal then trigger ordinal
+
+    private BlockSourceIndex(List<SkillSource<BlockXpSource>> sources, Entry[][] entries) {
+        this.sources = sources;
+        this.entries = entries;
+    }
+
+    public boolean isBuiltFrom(List<SkillSource<BlockXpSource>> sources) {
+        return this.sources == sources;
+    }
+
+    public static BlockSourceIndex build(List<SkillSource<BlockXpSource>> sources) {
+        Material[] materials = Material.values();
+        BlockTriggers[] triggers = BlockTriggers.values();
+        // Keep candidates in source order so the first matching source wins like a linear scan would
+        Map<Material, Map<BlockTriggers, List<Candidate>>> candidates = new EnumMap<>(Material.class);
+        for (SkillSource<BlockXpSource> entry : sources) {
+            BlockXpSource source = entry.source();
+            if (source.getBlocks() == null || source.getTriggers() == null) continue;
+
+            Candidate candidate = new Candidate(entry, compileStates(source.getStates()));
+            for (String blockName : source.getBlocks()) {
+                Material material = Material.getMaterial(blockName.toUpperCase(Locale.ROOT));
+                if (material == null) continue;
+
+                for (BlockTriggers trigger : source.getTriggers()) {
+                    List<Candidate> list = candidates.computeIfAbsent(material, m -> new EnumMap<>(BlockTriggers.class))
+                            .computeIfAbsent(trigger, t -> new ArrayList<>());
+                    if (!list.contains(candidate)) {
+                        list.add(candidate);
+                    }
+                }
+            }
+        }
+        Entry[][] entries = new Entry[materials.length][];
+        for (Map.Entry<Material, Map<BlockTriggers, List<Candidate>>> materialEntry : candidates.entrySet()) {
+            Entry[] byTrigger = new Entry[triggers.length];
+            for (Map.Entry<BlockTriggers, List<Candidate>> triggerEntry : materialEntry.getValue().entrySet()) {
+                byTrigger[triggerEntry.getKey().ordinal()] = new Entry(triggerEntry.getValue().toArray(new Candidate[0]));
+            }
+            entries[materialEntry.getKey().ordinal()] = byTrigger;
+        }
+        return new BlockSourceIndex(sources, entries);
+    }
+
+    @Nullable
+    public SkillSource<BlockXpSource> getSource(Block block, BlockTriggers trigger) {
+        Entry[] byTrigger = entries[block.getType().ordinal()];
+        if (byTrigger == null) {
+            return null;
+        }
+        Entry entry = byTrigger[trigger.ordinal()];
+        if (entry == null) {
+            return null;
+        }
+        return entry.getSource(block);
+    }
+
+    @Nullable
+    private static CompiledState[] compileStates(BlockXpSource.BlockXpSourceState[] states) {
+        if (states == null) {
+            return null;
+        }
+        List<CompiledState> compiled = new ArrayList<>();
+        for (BlockXpSource.BlockXpSourceState state : states) {
+            if (state == null) continue;
+            Map<String, Object> stateMap = state.getStateMap();
+            String[] keys = new String[stateMap.size()];
+            Object[] values = new Object[stateMap.size()];
+            int i = 0;
+            for (Map.Entry<String, Object> stateEntry : stateMap.entrySet()) {
+                keys[i] = stateEntry.getKey();
+                values[i] = stateEntry.getValue();
+                i++;
+            }
+            compiled.add(new CompiledState(keys, values));
+        }
+        return compiled.toArray(new CompiledState[0]);
+    }
+
+    private static class Entry {
+
+        private final Candidate[] candidates;
+        // Sources without states always match, so their result doesn't depend on block data
+        @Nullable
+        private final SkillSource<BlockXpSource> constantResult;
+        private final Map<BlockData, Object> stateCache;
+
+        private Entry(Candidate[] candidates) {
+            this.candidates = candidates;
+            this.constantResult = candidates[0].states() == null ? candidates[0].source() : null;
+            this.stateCache = new ConcurrentHashMap<>();
+        }
+
+        @Nullable
+        @SuppressWarnings("unchecked")
+        private SkillSource<BlockXpSource> getSource(Block block) {
+            if (constantResult != null) {
+                return constantResult;
+            }
+            BlockData blockData = block.getBlockData();
+            Object cached = stateCache.get(blockData);
+            if (cached == null) {
+                cached = match(blockData);
+                // The number of distinct block data values per material is small and fixed, so this stays bounded
+                stateCache.put(blockData, cached);
+            }
+            return cached == NO_MATCH ? null : (SkillSource<BlockXpSource>) cached;
+        }
+
+        private Object match(BlockData blockData) {
+            Map<String, Object> blockDataMap = BlockLeveler.parseFromBlockData(blockData.getAsString(true));
+            for (Candidate candidate : candidates) {
+                if (candidate.matches(blockDataMap)) {
+                    return candidate.source();
+                }
+            }
+            return NO_MATCH;
+        }
+
+    }
+
+    private record Candidate(SkillSource<BlockXpSource> source, CompiledState[] states) {
+
+        private boolean matches(Map<String, Object> blockDataMap) {
+            if (states == null) {
+                return true;
+            }
+            // If one state matches, then the block matches
+            for (CompiledState state : states) {
+                if (state.matches(blockDataMap)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+    }
+
+    private record CompiledState(String[] keys, Object[] values) {
+
+        private boolean matches(Map<String, Object> blockDataMap) {
+            for (int i = 0; i < keys.length; i++) {
+                Object value = blockDataMap.get(keys[i]);
+                if (value == null || !value.equals(values[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+    }
+
+}
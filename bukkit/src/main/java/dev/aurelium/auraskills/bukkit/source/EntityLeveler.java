@@ -28,14 +28,18 @@ import org.bukkit.persistence.PersistentDataType;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
 
 public class EntityLeveler extends SourceLeveler {
 
     private final NamespacedKey spawnerMobKey;
     private final NamespacedKey roseStackerSpawner;
+    @Nullable
+    private volatile TriggerIndex triggerIndex; // Built lazily from the loaded sources
 
     public EntityLeveler(AuraSkills plugin) {
         super(plugin, SourceTypes.ENTITY);
@@ -174,8 +178,7 @@ public class EntityLeveler extends SourceLeveler {
 
     @Nullable
     public SkillSource<EntityXpSource> getSource(LivingEntity entity, EntityXpSource.EntityDamagers eventDamager, EntityXpSource.EntityTriggers trigger, DamageCause damageCause) {
-        var sources = plugin.getSkillManager().getSourcesOfType(EntityXpSource.class);
-        sources = filterByTrigger(sources, trigger);
+        var sources = getSourcesByTrigger(trigger);
 
         for (SkillSource<EntityXpSource> entry : sources) {
             EntityXpSource source = entry.source();
@@ -237,19 +240,38 @@ public class EntityLeveler extends SourceLeveler {
         return false;
     }
 
-    private List<SkillSource<EntityXpSource>> filterByTrigger(List<SkillSource<EntityXpSource>> sources, EntityXpSource.EntityTriggers trigger) {
-        List<SkillSource<EntityXpSource>> filtered = new ArrayList<>();
-        for (SkillSource<EntityXpSource> entry : sources) {
-            EntityXpSource source = entry.source();
-            // Check if trigger matches any of the source triggers
-            for (EntityXpSource.EntityTriggers sourceTrigger : source.getTriggers()) {
-                if (sourceTrigger == trigger) {
-                    filtered.add(entry);
-                    break;
+    private List<SkillSource<EntityXpSource>> getSourcesByTrigger(EntityXpSource.EntityTriggers trigger) {
+        // The source list is shared until skills are loaded again, so a different instance means the index is stale
+        List<SkillSource<EntityXpSource>> sources = plugin.getSkillManager().getSourcesOfType(EntityXpSource.class);
+        TriggerIndex index = triggerIndex;
+        if (index == null || index.sources() != sources) {
+            index = TriggerIndex.build(sources);
+            triggerIndex = index;
+        }
+        return index.byTrigger().getOrDefault(trigger, List.of());
+    }
+
+    private record TriggerIndex(List<SkillSource<EntityXpSource>> sources,
+                                Map<EntityXpSource.EntityTriggers, List<SkillSource<EntityXpSource>>> byTrigger) {
+
+        static TriggerIndex build(List<SkillSource<EntityXpSource>> sources) {
+            Map<EntityXpSource.EntityTriggers, List<SkillSource<EntityXpSource>>> byTrigger = new EnumMap<>(EntityXpSource.EntityTriggers.class);
+            for (EntityXpSource.EntityTriggers trigger : EntityXpSource.EntityTriggers.values()) {
+                List<SkillSource<EntityXpSource>> filtered = new ArrayList<>();
+                for (SkillSource<EntityXpSource> entry : sources) {
+                    // Check if trigger matches any of the source triggers
+                    for (EntityXpSource.EntityTriggers sourceTrigger : entry.source().getTriggers()) {
+                        if (sourceTrigger == trigger) {
+                            filtered.add(entry);
+                            break;
+                        }
+                    }
                 }
+                byTrigger.put(trigger, List.copyOf(filtered));
             }
+            return new TriggerIndex(sources, byTrigger);
         }
-        return filtered;
+
     }
 
     @EventHandler(priority = EventPriority.MONITOR)
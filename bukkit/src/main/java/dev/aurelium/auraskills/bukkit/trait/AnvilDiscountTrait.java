@@ -1,7 +1,6 @@
 package dev.aurelium.auraskills.bukkit.trait;
 
 import com.ezylang.evalex.EvaluationException;
-import com.ezylang.evalex.Expression;
 import com.ezylang.evalex.parser.ParseException;
 import dev.aurelium.auraskills.api.stat.Stats;
 import dev.aurelium.auraskills.api.trait.Trait;
@@ -9,6 +8,7 @@ import dev.aurelium.auraskills.api.trait.Traits;
 import dev.aurelium.auraskills.api.util.NumberUtil;
 import dev.aurelium.auraskills.bukkit.AuraSkills;
 import dev.aurelium.auraskills.bukkit.util.VersionUtils;
+import dev.aurelium.auraskills.common.formula.Formula;
 import dev.aurelium.auraskills.common.user.User;
 import org.bukkit.entity.HumanEntity;
 import org.bukkit.entity.Player;
@@ -23,7 +23,7 @@ import java.util.Locale;
 public class AnvilDiscountTrait extends TraitImpl {
 
     @Nullable
-    private Expression formula;
+    private Formula formula;
 
     AnvilDiscountTrait(AuraSkills plugin) {
         super(plugin, Traits.ANVIL_DISCOUNT);
@@ -96,11 +96,9 @@ public class AnvilDiscountTrait extends TraitImpl {
     private double getDiscount(double traitValue) {
         try {
             if (formula == null) {
-                formula = new Expression(Traits.ANVIL_DISCOUNT.optionString("formula"));
+                formula = Formula.compile(Traits.ANVIL_DISCOUNT.optionString("formula"), "value");
             }
-            formula.with("value", traitValue);
-
-            return formula.evaluate().getNumberValue().doubleValue();
+            return formula.evaluate(traitValue);
         } catch (EvaluationException | ParseException | UnsupportedOperationException e) {
             plugin.logger().warn("Failed to evaluate formula for trait auraskills/anvil_discount: " + e.getMessage());
         }
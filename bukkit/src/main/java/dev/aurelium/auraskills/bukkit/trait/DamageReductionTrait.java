@@ -1,7 +1,6 @@
 package dev.aurelium.auraskills.bukkit.trait;
 
 import com.ezylang.evalex.EvaluationException;
-import com.ezylang.evalex.Expression;
 import com.ezylang.evalex.parser.ParseException;
 import dev.aurelium.auraskills.api.damage.DamageMeta;
 import dev.aurelium.auraskills.api.damage.DamageModifier;
@@ -10,6 +9,7 @@ import dev.aurelium.auraskills.api.trait.Trait;
 import dev.aurelium.auraskills.api.trait.Traits;
 import dev.aurelium.auraskills.api.util.NumberUtil;
 import dev.aurelium.auraskills.bukkit.AuraSkills;
+import dev.aurelium.auraskills.common.formula.Formula;
 import dev.aurelium.auraskills.common.user.User;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -21,7 +21,7 @@ import java.util.Locale;
 public class DamageReductionTrait extends TraitImpl {
 
     @Nullable
-    private Expression formula;
+    private Formula formula;
 
     DamageReductionTrait(AuraSkills plugin) {
         super(plugin, Traits.DAMAGE_REDUCTION);
@@ -65,11 +65,9 @@ public class DamageReductionTrait extends TraitImpl {
         Trait trait = Traits.DAMAGE_REDUCTION;
         try {
             if (formula == null) {
-                formula = new Expression(trait.optionString("formula"));
+                formula = Formula.compile(trait.optionString("formula"), "value");
             }
-            formula.with("value", value);
-
-            return formula.evaluate().getNumberValue().doubleValue();
+            return formula.evaluate(value);
         } catch (EvaluationException | ParseException | UnsupportedOperationException e) {
             plugin.logger().warn("Failed to evaluate formula for trait auraskills/damage_reduction: " + e.getMessage());
         }
@@ -7,6 +7,7 @@ import dev.aurelium.auraskills.bukkit.hooks.BukkitLuckPermsHook;
 import dev.aurelium.auraskills.bukkit.item.TraitModifiers;
 import dev.aurelium.auraskills.bukkit.item.UserEquipment;
 import dev.aurelium.auraskills.common.api.implementation.ApiSkillsUser;
+import dev.aurelium.auraskills.common.ref.PlayerRef;
 import dev.aurelium.auraskills.common.user.User;
 import net.kyori.adventure.text.Component;
 import org.bukkit.Bukkit;
@@ -15,17 +16,24 @@ import org.bukkit.permissions.PermissionAttachmentInfo;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
-import java.util.Set;
 import java.util.UUID;
 
+import static dev.aurelium.auraskills.bukkit.ref.BukkitPlayerRef.unwrap;
+
 public class BukkitUser extends User {
 
+    private static final long PERMISSION_MULTIPLIER_REFRESH_MS = 10000;
+
     @Nullable
-    private final Player player;
+    private volatile Player player;
     private final AuraSkills plugin;
     // Non-persistent data
     private final UserEquipment equipment;
+    @Nullable
+    private volatile PermissionMultipliers permissionMultipliers;
 
     public BukkitUser(UUID uuid, @Nullable Player player, AuraSkills plugin) {
         super(uuid, plugin);
@@ -87,58 +95,37 @@ public class BukkitUser extends User {
         if (player == null) {
             return 0.0;
         }
-        double multiplier = 0.0;
-
-        if (plugin.getHookManager().isRegistered(BukkitLuckPermsHook.class)
-                && plugin.getHookManager().getHook(BukkitLuckPermsHook.class).usePermissionCache()) {
-            Set<String> permissions = plugin.getHookManager().getHook(BukkitLuckPermsHook.class).getMultiplierPermissions(player);
-            for (String permission : permissions) {
-                multiplier += getMultiplierFromPermission(permission, skill);
-            }
-            return multiplier;
-        } else {
-            for (PermissionAttachmentInfo permission : player.getEffectivePermissions()) {
-                if (!permission.getValue()) continue;
-                multiplier += getMultiplierFromPermission(permission.getPermission(), skill);
-            }
+        PermissionMultipliers multipliers = permissionMultipliers;
+        // Refreshed periodically since permission attachments can change without an event
+        if (multipliers == null || multipliers.isOlderThan(PERMISSION_MULTIPLIER_REFRESH_MS)) {
+            multipliers = PermissionMultipliers.parse(getMultiplierPermissions(player), plugin.getSkillRegistry().getValues());
+            permissionMultipliers = multipliers;
         }
-
-        return multiplier;
+        return multipliers.get(skill);
     }
 
-    private double getMultiplierFromPermission(String permission, @Nullable Skill skill) {
-        final String prefix = "auraskills.multiplier.";
-        if (!permission.startsWith(prefix)) {
-            return 0.0;
-        }
-
-        permission = permission.substring(prefix.length());
-
-        if (isNumeric(permission)) {
-            return Double.parseDouble(permission) / 100.0;
+    private Iterable<String> getMultiplierPermissions(Player player) {
+        if (plugin.getHookManager().isRegistered(BukkitLuckPermsHook.class)
+                && plugin.getHookManager().getHook(BukkitLuckPermsHook.class).usePermissionCache()) {
+            return plugin.getHookManager().getHook(BukkitLuckPermsHook.class).getMultiplierPermissions(player);
         }
-
-        if (skill != null) {
-            String namespacedName = skill.toString().toLowerCase(Locale.ROOT) + ".";
-            String plainName = skill.name().toLowerCase(Locale.ROOT) + ".";
-
-            if (permission.startsWith(namespacedName)) {
-                permission = permission.substring(namespacedName.length());
-            } else if (permission.startsWith(plainName)) {
-                permission = permission.substring(plainName.length());
-            } else {
-                return 0.0;
-            }
-
-            if (isNumeric(permission)) {
-                return Double.parseDouble(permission) / 100.0;
-            }
+        List<String> permissions = new ArrayList<>();
+        for (PermissionAttachmentInfo permission : player.getEffectivePermissions()) {
+            if (!permission.getValue()) continue;
+            permissions.add(permission.getPermission());
         }
+        return permissions;
+    }
 
-        return 0.0;
+    /**
+     * Makes permission multipliers be parsed again the next time they are used, called when
+     * the permissions of the player change.
+     */
+    public void invalidatePermissionMultipliers() {
+        permissionMultipliers = null;
     }
 
-    private boolean isNumeric(String str) {
+    static boolean isNumeric(String str) {
         if (str == null || str.isEmpty()) {
             return false;
         }
@@ -217,6 +204,12 @@ public class BukkitUser extends User {
         return player.hasPermission(permission);
     }
 
+    @Override
+    public void attachPlayer(PlayerRef ref) {
+        this.player = unwrap(ref);
+        invalidatePermissionMultipliers();
+    }
+
     @Override
     public boolean canSelectJob(@NotNull Skill skill) {
         if (player == null) return true;
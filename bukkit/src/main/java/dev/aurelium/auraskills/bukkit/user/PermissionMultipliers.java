@@ -0,0 +1,92 @@
+package dev.aurelium.auraskills.bukkit.user;
+
+import dev.aurelium.auraskills.api.skill.Skill;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The XP multipliers a player gets from auraskills.multiplier permissions, parsed once from
+ * the permission nodes so that getting a multiplier doesn't parse strings.
+ */
+public class PermissionMultipliers {
+
+    private static final String PREFIX = "auraskills.multiplier.";
+
+    private final double global;
+    // Skills with a skill-specific multiplier mapped to their total including the global multiplier
+    private final Map<Skill, Double> skillTotals;
+    private final long createdAt;
+
+    private PermissionMultipliers(double global, Map<Skill, Double> skillTotals, long createdAt) {
+        this.global = global;
+        this.skillTotals = skillTotals;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Parses the multiplier permissions in a list of granted permissions.
+     *
+     * @param permissions the permissions the player has set to true
+     * @param skills the skills to parse skill-specific multipliers for
+     * @return the parsed multipliers
+     */
+    public static PermissionMultipliers parse(Iterable<String> permissions, Collection<Skill> skills) {
+        double global = 0.0;
+        Map<Skill, Double> skillValues = new IdentityHashMap<>();
+        for (String permission : permissions) {
+            if (!permission.startsWith(PREFIX)) continue;
+
+            String value = permission.substring(PREFIX.length());
+            if (BukkitUser.isNumeric(value)) {
+                global += Double.parseDouble(value) / 100.0;
+                continue;
+            }
+            for (Skill skill : skills) {
+                String skillValue = getSkillValue(value, skill);
+                if (skillValue != null && BukkitUser.isNumeric(skillValue)) {
+                    skillValues.merge(skill, Double.parseDouble(skillValue) / 100.0, Double::sum);
+                }
+            }
+        }
+        Map<Skill, Double> skillTotals = new IdentityHashMap<>();
+        for (Map.Entry<Skill, Double> entry : skillValues.entrySet()) {
+            skillTotals.put(entry.getKey(), global + entry.getValue());
+        }
+        return new PermissionMultipliers(global, skillTotals, System.currentTimeMillis());
+    }
+
+    @Nullable
+    private static String getSkillValue(String value, Skill skill) {
+        String namespacedName = skill.toString().toLowerCase(Locale.ROOT) + ".";
+        String plainName = skill.name().toLowerCase(Locale.ROOT) + ".";
+
+        if (value.startsWith(namespacedName)) {
+            return value.substring(namespacedName.length());
+        } else if (value.startsWith(plainName)) {
+            return value.substring(plainName.length());
+        }
+        return null;
+    }
+
+    /**
+     * Gets the multiplier for a skill, including the global multiplier.
+     *
+     * @param skill the skill, or null to get only the global multiplier
+     * @return the multiplier, where 0.5 means 50% more XP
+     */
+    public double get(@Nullable Skill skill) {
+        if (skill == null) {
+            return global;
+        }
+        return skillTotals.getOrDefault(skill, global);
+    }
+
+    public boolean isOlderThan(long maxAgeMs) {
+        return System.currentTimeMillis() - createdAt > maxAgeMs;
+    }
+
+}
@@ -3,6 +3,7 @@ package dev.aurelium.auraskills.bukkit.util;
 import dev.aurelium.auraskills.bukkit.AuraSkills;
 import dev.aurelium.auraskills.common.config.Option;
 import dev.aurelium.auraskills.common.storage.sql.SqlStorageProvider;
+import dev.aurelium.auraskills.common.storage.sql.pool.H2ConnectionPool;
 import dev.aurelium.auraskills.common.storage.sql.pool.MySqlConnectionPool;
 import org.bstats.bukkit.Metrics;
 import org.bstats.charts.SimplePie;
@@ -25,6 +26,8 @@ public class MetricsUtil {
             if (plugin.getStorageProvider() instanceof SqlStorageProvider sql) {
                 if (sql.getPool() instanceof MySqlConnectionPool) {
                     type = "mysql";
+                } else if (sql.getPool() instanceof H2ConnectionPool) {
+                    type = "h2";
                 }
             }
             return type;
@@ -0,0 +1,95 @@
+package dev.aurelium.auraskills.bukkit.item;
+
+import dev.aurelium.auraskills.api.item.ModifierType;
+import dev.aurelium.auraskills.api.stat.Stats;
+import dev.aurelium.auraskills.api.util.AuraSkillsModifier.Operation;
+import dev.aurelium.auraskills.bukkit.AuraSkills;
+import dev.aurelium.auraskills.bukkit.item.ItemModifierCache.ItemModifiers;
+import dev.aurelium.auraskills.bukkit.item.SkillsItem.MetaType;
+import dev.aurelium.auraskills.common.util.TestSession;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.Damageable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ItemModifierCacheTest {
+
+    private AuraSkills plugin;
+    private ItemModifierCache cache;
+    private int decodes;
+
+    @BeforeEach
+    void setUp() {
+        MockBukkit.mock();
+        plugin = MockBukkit.load(AuraSkills.class, TestSession.create());
+        cache = new ItemModifierCache((skillsItem, type, offhand) -> {
+            decodes++;
+            return ItemModifierCache.decode(skillsItem, type, offhand);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        MockBukkit.unmock();
+    }
+
+    @Test
+    void testHitForSameData() {
+        ItemStack item = createItem(5.0);
+        ItemModifiers first = cache.get(new SkillsItem(item, plugin), ModifierType.ITEM, false);
+        assertEquals(1, first.statModifiers().size());
+        assertEquals(5.0, first.statModifiers().getFirst().value());
+        assertEquals(1, cache.size());
+        assertEquals(1, decodes);
+
+        // Equipping the same item again doesn't decode it
+        assertSame(first, cache.get(new SkillsItem(item.clone(), plugin), ModifierType.ITEM, false));
+        assertEquals(1, decodes);
+
+        // Durability isn't part of the AuraSkills data, so the decoded modifiers are reused
+        ItemStack damaged = item.clone();
+        Damageable meta = (Damageable) damaged.getItemMeta();
+        meta.setDamage(10);
+        damaged.setItemMeta(meta);
+        assertSame(first, cache.get(new SkillsItem(damaged, plugin), ModifierType.ITEM, false));
+        assertEquals(1, cache.size());
+        assertEquals(1, decodes);
+    }
+
+    @Test
+    void testMissForDifferentData() {
+        ItemModifiers first = cache.get(new SkillsItem(createItem(5.0), plugin), ModifierType.ITEM, false);
+        ItemModifiers second = cache.get(new SkillsItem(createItem(8.0), plugin), ModifierType.ITEM, false);
+
+        assertNotSame(first, second);
+        assertEquals(8.0, second.statModifiers().getFirst().value());
+        assertEquals(2, cache.size());
+        assertEquals(2, decodes);
+
+        // The off hand uses different modifier names
+        assertNotSame(first, cache.get(new SkillsItem(createItem(5.0), plugin), ModifierType.ITEM, true));
+        assertEquals(3, decodes);
+    }
+
+    @Test
+    void testItemWithoutDataNotCached() {
+        ItemModifiers modifiers = cache.get(new SkillsItem(new ItemStack(Material.DIAMOND_SWORD), plugin), ModifierType.ITEM, false);
+
+        assertTrue(modifiers.statModifiers().isEmpty());
+        assertTrue(modifiers.requirements().isEmpty());
+        assertEquals(0, cache.size());
+        assertEquals(0, decodes);
+    }
+
+    private ItemStack createItem(double value) {
+        SkillsItem skillsItem = new SkillsItem(new ItemStack(Material.DIAMOND_SWORD), plugin);
+        skillsItem.addModifier(MetaType.MODIFIER, ModifierType.ITEM, Stats.STRENGTH, value, Operation.ADD);
+        return skillsItem.getItem();
+    }
+
+}
@@ -0,0 +1,97 @@
+package dev.aurelium.auraskills.bukkit.storage;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import dev.aurelium.auraskills.api.stat.StatModifier;
+import dev.aurelium.auraskills.api.stat.Stats;
+import dev.aurelium.auraskills.api.trait.TraitModifier;
+import dev.aurelium.auraskills.api.trait.Traits;
+import dev.aurelium.auraskills.bukkit.AuraSkills;
+import dev.aurelium.auraskills.common.storage.StorageProvider;
+import dev.aurelium.auraskills.common.storage.backup.BackupProvider;
+import dev.aurelium.auraskills.common.user.UserState;
+import dev.aurelium.auraskills.common.util.TestSession;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+
+import static dev.aurelium.auraskills.api.skill.Skills.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BackupProviderTest {
+
+    // Stored as is since the modifier keeps counting down while offline
+    private static final long EXPIRATION_TIME = 4102444800000L;
+
+    private AuraSkills plugin;
+    private StorageProvider storage;
+    private BackupProvider backupProvider;
+
+    @BeforeEach
+    void setUp() {
+        MockBukkit.mock();
+        plugin = MockBukkit.load(AuraSkills.class, TestSession.create());
+        storage = plugin.getStorageProvider();
+        backupProvider = plugin.getBackupProvider();
+    }
+
+    @AfterEach
+    void tearDown() {
+        MockBukkit.unmock();
+    }
+
+    @Test
+    void testSaveAndLoadCompressedBackup() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        storage.applyState(createState(uuid, 15, 42.5));
+
+        File file = backupProvider.saveBackup(false);
+        assertTrue(file.getName().endsWith(BackupProvider.COMPRESSED_EXTENSION));
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new FileInputStream(file)), StandardCharsets.UTF_8))) {
+            JsonObject header = JsonParser.parseString(reader.readLine()).getAsJsonObject();
+            assertEquals(3, header.get("backup_version").getAsInt());
+            JsonObject user = JsonParser.parseString(reader.readLine()).getAsJsonObject();
+            assertEquals(uuid.toString(), user.get("uuid").getAsString());
+            assertNull(reader.readLine());
+        }
+
+        // Overwrite the data, then restore it from the backup
+        storage.applyState(createState(uuid, 1, 0.0));
+        backupProvider.loadBackup(file);
+
+        UserState state = storage.loadState(uuid);
+        assertNotNull(state);
+        assertEquals(15, state.skillLevels().get(FARMING));
+        assertEquals(42.5, state.skillXp().get(FARMING));
+        assertEquals(25.0, state.mana());
+        assertEquals(100.0, state.skillCoins());
+        assertEquals(5.0, state.statModifiers().get("backup_stat").value());
+        TraitModifier traitModifier = state.traitModifiers().get("backup_trait");
+        assertTrue(traitModifier.isTemporary());
+        assertEquals(EXPIRATION_TIME, traitModifier.getExpirationTime());
+    }
+
+    private UserState createState(UUID uuid, int level, double xp) {
+        Map<String, StatModifier> statModifiers = new ConcurrentHashMap<>();
+        statModifiers.put("backup_stat", new StatModifier("backup_stat", Stats.STRENGTH, 5.0));
+        TraitModifier traitModifier = new TraitModifier("backup_trait", Traits.MAX_MANA, 3.0);
+        traitModifier.makeTemporary(EXPIRATION_TIME, false);
+        Map<String, TraitModifier> traitModifiers = new ConcurrentHashMap<>();
+        traitModifiers.put("backup_trait", traitModifier);
+        return new UserState(uuid, new ConcurrentHashMap<>(Map.of(FARMING, level)), new ConcurrentHashMap<>(Map.of(FARMING, xp)),
+                statModifiers, traitModifiers, 25.0, 100.0);
+    }
+
+}
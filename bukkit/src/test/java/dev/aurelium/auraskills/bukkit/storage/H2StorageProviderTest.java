@@ -0,0 +1,150 @@
+package dev.aurelium.auraskills.bukkit.storage;
+
+import dev.aurelium.auraskills.api.stat.StatModifier;
+import dev.aurelium.auraskills.api.stat.Stats;
+import dev.aurelium.auraskills.api.trait.TraitModifier;
+import dev.aurelium.auraskills.api.trait.Traits;
+import dev.aurelium.auraskills.bukkit.AuraSkills;
+import dev.aurelium.auraskills.common.leaderboard.LeaderboardKey;
+import dev.aurelium.auraskills.common.leaderboard.LeaderboardQueries;
+import dev.aurelium.auraskills.common.leaderboard.SkillValue;
+import dev.aurelium.auraskills.common.storage.sql.SqlStorageProvider;
+import dev.aurelium.auraskills.common.storage.sql.pool.H2ConnectionPool;
+import dev.aurelium.auraskills.common.user.User;
+import dev.aurelium.auraskills.common.user.UserState;
+import dev.aurelium.auraskills.common.util.TestSession;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockbukkit.mockbukkit.MockBukkit;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static dev.aurelium.auraskills.api.skill.Skills.*;
+import static java.util.Objects.requireNonNull;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class H2StorageProviderTest {
+
+    @TempDir
+    Path tempDir;
+    private AuraSkills plugin;
+    private H2ConnectionPool pool;
+    private SqlStorageProvider storage;
+
+    @BeforeEach
+    void setUp() {
+        MockBukkit.mock();
+        plugin = MockBukkit.load(AuraSkills.class, TestSession.create());
+        pool = new H2ConnectionPool(plugin, tempDir.resolve("auraskills").toFile());
+        pool.enable();
+        storage = new SqlStorageProvider(plugin, pool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        storage.shutdown();
+        pool.disable();
+        MockBukkit.unmock();
+    }
+
+    @Test
+    void testSaveAndLoadState() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        User user = plugin.getUserManager().createNewUser(uuid, null);
+        user.setSkillLevel(FARMING, 12);
+        user.setSkillXp(FARMING, 40.5);
+        user.setSkillCoins(100.0);
+        storage.saveSafely(user);
+
+        UserState state = storage.loadState(uuid);
+        assertEquals(12, state.skillLevels().get(FARMING));
+        assertEquals(40.5, state.skillXp().get(FARMING));
+        assertEquals(100.0, state.skillCoins());
+
+        // Saving again updates the existing rows
+        user.setSkillLevel(FARMING, 13);
+        storage.saveSafely(user);
+        assertEquals(13, storage.loadState(uuid).skillLevels().get(FARMING));
+        assertEquals(1, storage.loadStates(false, true).size());
+    }
+
+    @Test
+    void testLoadUser() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        User user = plugin.getUserManager().createNewUser(uuid, null);
+        user.setSkillLevel(FARMING, 12);
+        user.setSkillXp(FARMING, 40.5);
+        user.setSkillLevel(MINING, 7);
+        user.setSkillCoins(100.0);
+        user.addStatModifier(new StatModifier("loaded_stat", Stats.STRENGTH, 5.0), false);
+        user.addTraitModifier(new TraitModifier("loaded_trait", Traits.MAX_MANA, 3.0), false);
+        storage.saveSafely(user);
+        plugin.getUserManager().removeUser(uuid);
+
+        // Loading on join reads all tables in one joined query
+        storage.load(uuid, null);
+        User loaded = plugin.getUserManager().getUser(uuid);
+        assertNotNull(loaded);
+        assertNotSame(user, loaded);
+        assertEquals(12, loaded.getSkillLevel(FARMING));
+        assertEquals(40.5, loaded.getSkillXp(FARMING));
+        assertEquals(7, loaded.getSkillLevel(MINING));
+        assertEquals(100.0, loaded.getSkillCoins());
+        assertEquals(5.0, requireNonNull(loaded.getStatModifier("loaded_stat")).value());
+        assertEquals(3.0, requireNonNull(loaded.getTraitModifier("loaded_trait")).value());
+    }
+
+    @Test
+    void testLeaderboardQueries() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        User firstUser = plugin.getUserManager().createNewUser(first, null);
+        firstUser.setSkillLevel(MINING, 20);
+        User secondUser = plugin.getUserManager().createNewUser(second, null);
+        secondUser.setSkillLevel(MINING, 5);
+        storage.saveAllSafely(List.of(firstUser, secondUser));
+
+        LeaderboardQueries queries = requireNonNull(storage.getLeaderboardQueries());
+        LeaderboardKey key = LeaderboardKey.skill(MINING);
+        List<SkillValue> values = queries.getValues(key, 0, 10, Set.of());
+        assertEquals(List.of(first, second), values.stream().map(SkillValue::id).toList());
+        assertEquals(1, queries.countAhead(key, requireNonNull(queries.getValue(key, second)), Set.of()));
+        assertEquals(1, queries.count(key, Set.of(first)));
+    }
+
+    @Test
+    void testApplyStates() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        Map<String, StatModifier> statModifiers = new ConcurrentHashMap<>();
+        statModifiers.put("applied", new StatModifier("applied", Stats.LUCK, 4.0));
+        storage.applyStates(List.of(
+                new UserState(first, new ConcurrentHashMap<>(Map.of(FORAGING, 8)), new ConcurrentHashMap<>(Map.of(FORAGING, 3.0)),
+                        statModifiers, new ConcurrentHashMap<>(), 10.0, 50.0),
+                new UserState(second, new ConcurrentHashMap<>(Map.of(FORAGING, 2)), new ConcurrentHashMap<>(),
+                        new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), 0.0, 0.0)));
+
+        UserState firstState = storage.loadState(first);
+        assertEquals(8, firstState.skillLevels().get(FORAGING));
+        assertEquals(3.0, firstState.skillXp().get(FORAGING));
+        assertEquals(50.0, firstState.skillCoins());
+        assertEquals(4.0, firstState.statModifiers().get("applied").value());
+        assertEquals(2, storage.loadState(second).skillLevels().get(FORAGING));
+
+        // Applying again updates the existing rows
+        statModifiers.put("applied", new StatModifier("applied", Stats.LUCK, 6.0));
+        storage.applyStates(List.of(new UserState(first, new ConcurrentHashMap<>(Map.of(FORAGING, 9)), new ConcurrentHashMap<>(),
+                statModifiers, new ConcurrentHashMap<>(), 10.0, 50.0)));
+        firstState = storage.loadState(first);
+        assertEquals(9, firstState.skillLevels().get(FORAGING));
+        assertEquals(6.0, firstState.statModifiers().get("applied").value());
+    }
+
+}
@@ -3,6 +3,7 @@ package dev.aurelium.auraskills.bukkit.user;
 import dev.aurelium.auraskills.api.skill.Skills;
 import dev.aurelium.auraskills.api.user.SkillsUser;
 import dev.aurelium.auraskills.bukkit.AuraSkills;
+import dev.aurelium.auraskills.common.user.UserChanges;
 import dev.aurelium.auraskills.common.util.TestSession;
 import org.bukkit.permissions.PermissionAttachment;
 import org.junit.jupiter.api.AfterAll;
@@ -12,6 +13,7 @@ import org.mockbukkit.mockbukkit.MockBukkit;
 import org.mockbukkit.mockbukkit.ServerMock;
 import org.mockbukkit.mockbukkit.entity.PlayerMock;
 
+import java.util.Set;
 import java.util.UUID;
 
 import static dev.aurelium.auraskills.api.skill.Skills.*;
@@ -102,11 +104,16 @@ public class BukkitUserTest {
         permissionAttachment.setPermission("auraskills.multiplier.10", true);
         permissionAttachment.setPermission("auraskills.multiplier.malformed", true);
 
+        // Parsed multipliers are reused until invalidated
+        assertEquals(0.5, user.getPermissionMultiplier(null));
+        user.invalidatePermissionMultipliers();
+
         assertEquals(0.6, user.getPermissionMultiplier(null));
         assertEquals(0.6, user.getPermissionMultiplier(FARMING));
 
         permissionAttachment.setPermission("auraskills.multiplier.farming.40", true);
         permissionAttachment.setPermission("auraskills.multiplier.auraskills/mining.100", true);
+        user.invalidatePermissionMultipliers();
 
         assertEquals(0.6, user.getPermissionMultiplier(null));
         assertEquals(1, user.getPermissionMultiplier(FARMING));
@@ -190,4 +197,32 @@ public class BukkitUserTest {
         assertTrue(userWithoutPlayer.canSelectJob(MINING));
     }
 
+    @Test
+    void testUnsavedChanges() {
+        PlayerMock player = server.addPlayer();
+        BukkitUser user = new BukkitUser(player.getUniqueId(), player, plugin);
+        user.takeChanges();
+
+        assertFalse(user.hasUnsavedChanges());
+
+        user.setSkillLevel(FARMING, 5);
+        user.setSkillCoins(10);
+        user.getAbilityData(MINING.getAbilities().get(0)).setData("counter", 1);
+
+        assertTrue(user.hasUnsavedChanges());
+
+        UserChanges changes = user.takeChanges();
+
+        assertEquals(Set.of(FARMING), changes.skills());
+        assertTrue(changes.has(UserChanges.Type.PROFILE));
+        assertTrue(changes.has(UserChanges.Type.KEY_VALUES));
+        assertFalse(changes.has(UserChanges.Type.MODIFIERS));
+        assertFalse(user.hasUnsavedChanges());
+
+        // Changes from a failed save are kept for the next one
+        user.restoreChanges(changes);
+
+        assertTrue(user.hasUnsavedChanges());
+    }
+
 }
@@ -1,6 +1,7 @@
 plugins {
     `java-library`
     `java-test-fixtures`
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 repositories {
@@ -21,6 +22,7 @@ dependencies {
     implementation("com.zaxxer:HikariCP:5.1.0") {
         exclude("org.slf4j", "slf4j-api")
     }
+    implementation("com.h2database:h2:2.3.232")
     implementation("org.atteo:evo-inflector:1.3")
     implementation("com.github.Querz:NBT:6.1")
     compileOnly("com.google.guava:guava:33.2.1-jre")
@@ -33,6 +35,7 @@ dependencies {
     testFixturesImplementation(platform("org.junit:junit-bom:5.13.2"))
     testFixturesImplementation("org.junit.jupiter:junit-jupiter")
     testFixturesRuntimeOnly("org.junit.platform:junit-platform-launcher")
+    jmh("com.google.guava:guava:33.2.1-jre")
 }
 
 val compiler = javaToolchains.compilerFor {
@@ -52,6 +55,10 @@ tasks {
     }
 }
 
+jmh {
+    jmhVersion = "1.37"
+}
+
 java {
     toolchain {
         languageVersion = JavaLanguageVersion.of(21)
@@ -0,0 +1,62 @@
+package dev.aurelium.auraskills.common.formula;
+
+import com.ezylang.evalex.Expression;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares compiled formulas with the previous EvalEx usage: parsing a new expression with the
+ * state value substituted for crop age multipliers, and setting variables on a shared expression
+ * for trait formulas.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormulaBenchmark {
+
+    private static final String STATE_MULTIPLIER = "age-1";
+    private static final String TRAIT_FORMULA = "-1 * 1.01^(-1 * value) + 1";
+
+    private Expression sharedExpression;
+    private Formula traitFormula;
+    private MemoizedFormula stateFormula;
+    private int age;
+    private double value;
+
+    @Setup
+    public void setup() throws Exception {
+        sharedExpression = new Expression(TRAIT_FORMULA);
+        traitFormula = Formula.compile(TRAIT_FORMULA, "value");
+        stateFormula = Formula.compile(STATE_MULTIPLIER, "age").memoize(0, 31);
+    }
+
+    @Benchmark
+    public double stateMultiplierReplaceAndParse() throws Exception {
+        age = (age + 1) & 7;
+        Expression expression = new Expression(STATE_MULTIPLIER.replace("age", String.valueOf(age)));
+        return expression.evaluate().getNumberValue().doubleValue();
+    }
+
+    @Benchmark
+    public double stateMultiplierMemoized() throws Exception {
+        age = (age + 1) & 7;
+        return stateFormula.evaluate(age);
+    }
+
+    @Benchmark
+    public double traitFormulaSharedExpression() throws Exception {
+        value += 0.5;
+        return sharedExpression.with("value", value).evaluate().getNumberValue().doubleValue();
+    }
+
+    @Benchmark
+    public double traitFormulaCompiled() throws Exception {
+        value += 0.5;
+        return traitFormula.evaluate(value);
+    }
+
+}
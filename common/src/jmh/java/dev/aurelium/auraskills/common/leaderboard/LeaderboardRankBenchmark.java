@@ -0,0 +1,82 @@
+package dev.aurelium.auraskills.common.leaderboard;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares looking up a player's rank with {@link Leaderboard} against scanning the sorted list,
+ * which is what rank placeholders did for every online player on each refresh, and updating
+ * one player in place against re-sorting the whole list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LeaderboardRankBenchmark {
+
+    @Param({"1000", "80000"})
+    private int players;
+
+    private List<SkillValue> sorted;
+    private Leaderboard leaderboard;
+    private UUID[] lookups;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        sorted = new ArrayList<>(players);
+        for (int i = 0; i < players; i++) {
+            sorted.add(new SkillValue(new UUID(random.nextLong(), random.nextLong()), random.nextInt(100), random.nextDouble() * 1000));
+        }
+        sorted.sort(new LeaderboardSorter());
+        leaderboard = new Leaderboard(new LeaderboardSorter(), sorted);
+        lookups = new UUID[1024];
+        for (int i = 0; i < lookups.length; i++) {
+            lookups[i] = sorted.get(random.nextInt(players)).id();
+        }
+    }
+
+    @Benchmark
+    public int indexedRank() {
+        return leaderboard.getRank(nextLookup());
+    }
+
+    @Benchmark
+    public int linearScanRank() {
+        UUID id = nextLookup();
+        for (int i = 0; i < sorted.size(); i++) {
+            if (sorted.get(i).id().equals(id)) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    @Benchmark
+    public int incrementalUpdate() {
+        UUID id = nextLookup();
+        leaderboard.update(new SkillValue(id, next % 100, next));
+        return leaderboard.getRank(id);
+    }
+
+    @Benchmark
+    public List<SkillValue> fullResort() {
+        List<SkillValue> copy = new ArrayList<>(sorted);
+        copy.sort(new LeaderboardSorter());
+        return copy;
+    }
+
+    private UUID nextLookup() {
+        next = (next + 1) & (lookups.length - 1);
+        return lookups[next];
+    }
+
+}
@@ -0,0 +1,92 @@
+package dev.aurelium.auraskills.common.region;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the previous ConcurrentHashMap based placed block storage with {@link PlacedBlockSet}.
+ * Run with {@code -prof gc} and compare gc.alloc.rate.norm of the populate benchmarks to see the
+ * heap cost per tracked block (bytes per op divided by blocksPerChunk).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlacedBlockBenchmark {
+
+    private static final int LOOKUPS = 1024;
+
+    @Param({"64", "4096"})
+    private int blocksPerChunk;
+
+    private ConcurrentMap<BlockPosition, BlockPosition> map;
+    private PlacedBlockSet set;
+    private int[] xs;
+    private int[] ys;
+    private int[] zs;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        map = new ConcurrentHashMap<>();
+        set = new PlacedBlockSet();
+        for (int i = 0; i < blocksPerChunk; i++) {
+            int x = random.nextInt(16);
+            int y = random.nextInt(384) - 64;
+            int z = random.nextInt(16);
+            BlockPosition position = new BlockPosition(x, y, z);
+            map.put(position, position);
+            set.add(PlacedBlockSet.pack(x, y, z));
+        }
+        // Mix of hits and misses, roughly matching break events on a partially built area
+        xs = new int[LOOKUPS];
+        ys = new int[LOOKUPS];
+        zs = new int[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            xs[i] = random.nextInt(16);
+            ys[i] = random.nextInt(384) - 64;
+            zs[i] = random.nextInt(16);
+        }
+    }
+
+    @Benchmark
+    public boolean lookupMap() {
+        int i = cursor++ & (LOOKUPS - 1);
+        return map.containsKey(new BlockPosition(xs[i], ys[i], zs[i]));
+    }
+
+    @Benchmark
+    public boolean lookupSet() {
+        int i = cursor++ & (LOOKUPS - 1);
+        return set.contains(PlacedBlockSet.pack(xs[i], ys[i], zs[i]));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public ConcurrentMap<BlockPosition, BlockPosition> populateMap() {
+        ConcurrentMap<BlockPosition, BlockPosition> populated = new ConcurrentHashMap<>();
+        for (int i = 0; i < blocksPerChunk; i++) {
+            BlockPosition position = new BlockPosition(i & 15, i >> 8, (i >> 4) & 15);
+            populated.put(position, position);
+        }
+        return populated;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public PlacedBlockSet populateSet() {
+        PlacedBlockSet populated = new PlacedBlockSet();
+        for (int i = 0; i < blocksPerChunk; i++) {
+            populated.add(PlacedBlockSet.pack(i & 15, i >> 8, (i >> 4) & 15));
+        }
+        return populated;
+    }
+
+}
@@ -0,0 +1,104 @@
+package dev.aurelium.auraskills.common.region;
+
+import net.querz.nbt.io.NBTUtil;
+import net.querz.nbt.io.NamedTag;
+import net.querz.nbt.tag.CompoundTag;
+import net.querz.nbt.tag.ListTag;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares loading a large region from the legacy NBT format with the binary {@link RegionFile} format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegionFileBenchmark {
+
+    @Param({"256", "1024"})
+    private int chunks;
+
+    @Param({"500"})
+    private int blocksPerChunk;
+
+    private Path directory;
+    private File nbtFile;
+    private Path binaryFile;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("region-benchmark");
+        nbtFile = directory.resolve("r.0.0.asrg").toFile();
+        binaryFile = directory.resolve("r.0.0.asrb");
+
+        Random random = new Random(42);
+        CompoundTag root = new CompoundTag();
+        List<RegionFile.EncodedChunk> encoded = new ArrayList<>();
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int chunkX = chunk / 32;
+            int chunkZ = chunk % 32;
+            ListTag<CompoundTag> placedBlocks = new ListTag<>(CompoundTag.class);
+            int[] packed = new int[blocksPerChunk];
+            for (int i = 0; i < blocksPerChunk; i++) {
+                int x = chunkX * 16 + random.nextInt(16);
+                int y = random.nextInt(384) - 64;
+                int z = chunkZ * 16 + random.nextInt(16);
+                CompoundTag block = new CompoundTag();
+                block.putInt("x", x);
+                block.putInt("y", y);
+                block.putInt("z", z);
+                placedBlocks.add(block);
+                packed[i] = PlacedBlockSet.pack(x, y, z);
+            }
+            CompoundTag chunkTag = new CompoundTag();
+            chunkTag.put("placed_blocks", placedBlocks);
+            root.put("chunk[" + chunkX + "," + chunkZ + "]", chunkTag);
+            encoded.add(RegionFile.encodeChunk(chunkX, chunkZ, packed));
+        }
+        NBTUtil.write(new NamedTag(nbtFile.getName(), root), nbtFile);
+        RegionFile.write(binaryFile, encoded);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(nbtFile.toPath());
+        Files.deleteIfExists(binaryFile);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public Region loadNbt() throws IOException {
+        Region region = new Region("world", 0, 0);
+        NamedTag namedTag = NBTUtil.read(nbtFile);
+        CompoundTag compoundTag = (CompoundTag) namedTag.getTag();
+        for (String key : compoundTag.keySet()) {
+            int commaIndex = key.indexOf(",");
+            byte chunkX = Byte.parseByte(key.substring(key.indexOf("[") + 1, commaIndex));
+            byte chunkZ = Byte.parseByte(key.substring(commaIndex + 1, key.lastIndexOf("]")));
+            ChunkData chunkData = region.getOrCreateChunkData(chunkX, chunkZ);
+            for (CompoundTag block : compoundTag.getCompoundTag(key).getListTag("placed_blocks").asCompoundTagList()) {
+                chunkData.addPlacedBlock(block.getInt("x"), block.getInt("y"), block.getInt("z"));
+            }
+        }
+        return region;
+    }
+
+    @Benchmark
+    public Region loadBinary() throws IOException {
+        Region region = new Region("world", 0, 0);
+        RegionFile.read(binaryFile, region);
+        return region;
+    }
+
+}
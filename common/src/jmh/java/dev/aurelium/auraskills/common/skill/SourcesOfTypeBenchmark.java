@@ -0,0 +1,88 @@
+package dev.aurelium.auraskills.common.skill;
+
+import com.google.common.collect.ImmutableList;
+import dev.aurelium.auraskills.api.registry.NamespacedId;
+import dev.aurelium.auraskills.api.skill.Skill;
+import dev.aurelium.auraskills.api.skill.Skills;
+import dev.aurelium.auraskills.api.source.SkillSource;
+import dev.aurelium.auraskills.api.source.SourceValues;
+import dev.aurelium.auraskills.api.source.XpSource;
+import dev.aurelium.auraskills.api.source.type.StatisticXpSource;
+import dev.aurelium.auraskills.common.AuraSkillsPlugin;
+import dev.aurelium.auraskills.common.source.type.JumpingSource;
+import dev.aurelium.auraskills.common.source.type.StatisticSource;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of resolving the sources of a type once per event, comparing the cached views
+ * in {@link SkillManager} with the previous approach of filtering every source into a new list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SourcesOfTypeBenchmark {
+
+    @Param({"20", "200"})
+    private int sourcesPerSkill;
+
+    private SkillManager skillManager;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        AuraSkillsPlugin plugin = (AuraSkillsPlugin) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {AuraSkillsPlugin.class}, (proxy, method, args) -> null);
+        skillManager = new SkillManager(plugin);
+        Field providerField = Skills.class.getDeclaredField("provider");
+        providerField.setAccessible(true);
+        for (Skills skill : Skills.values()) {
+            providerField.set(skill, skillManager.getSupplier());
+            ImmutableList.Builder<XpSource> sources = ImmutableList.builder();
+            for (int i = 0; i < sourcesPerSkill; i++) {
+                NamespacedId id = NamespacedId.of("benchmark", skill.name().toLowerCase() + "_" + i);
+                SourceValues values = new SourceValues(null, null, id, 1.0, null, null, null);
+                // Only a few sources per skill are of the type being looked up, like most real skills
+                if (i % 10 == 0) {
+                    sources.add(new StatisticSource(plugin, values, "jump", 1.0, 1));
+                } else {
+                    sources.add(new JumpingSource(plugin, values, 1));
+                }
+            }
+            skillManager.register(skill, new LoadedSkill(skill, ImmutableList.of(), null, sources.build(),
+                    new SkillOptions(Map.of("enabled", true))));
+        }
+    }
+
+    @Benchmark
+    public List<SkillSource<StatisticXpSource>> cachedView() {
+        return skillManager.getSourcesOfType(StatisticXpSource.class);
+    }
+
+    @Benchmark
+    public List<SkillSource<StatisticXpSource>> filterEveryCall() {
+        return filterSources(StatisticXpSource.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends XpSource> List<SkillSource<T>> filterSources(Class<T> typeClass) {
+        var list = new ArrayList<SkillSource<T>>();
+        for (Skill skill : skillManager.getEnabledSkills()) {
+            for (XpSource source : skill.getSources()) {
+                if (typeClass.isAssignableFrom(source.getClass())) {
+                    list.add(new SkillSource<>((T) source, skill));
+                }
+            }
+        }
+        return list;
+    }
+
+}
@@ -0,0 +1,264 @@
+package dev.aurelium.auraskills.common.user;
+
+import dev.aurelium.auraskills.api.skill.Skill;
+import dev.aurelium.auraskills.api.stat.Stat;
+import dev.aurelium.auraskills.api.stat.StatModifier;
+import dev.aurelium.auraskills.api.stat.StatProvider;
+import dev.aurelium.auraskills.api.stat.Stats;
+import dev.aurelium.auraskills.api.trait.Trait;
+import dev.aurelium.auraskills.api.trait.TraitHandler;
+import dev.aurelium.auraskills.api.trait.TraitModifier;
+import dev.aurelium.auraskills.api.trait.TraitProvider;
+import dev.aurelium.auraskills.api.trait.Traits;
+import dev.aurelium.auraskills.api.util.AuraSkillsModifier;
+import dev.aurelium.auraskills.api.util.AuraSkillsModifier.Operation;
+import dev.aurelium.auraskills.common.AuraSkillsPlugin;
+import dev.aurelium.auraskills.common.config.ConfigProvider;
+import dev.aurelium.auraskills.common.config.Option;
+import dev.aurelium.auraskills.common.config.OptionValue;
+import dev.aurelium.auraskills.common.ref.PlayerRef;
+import dev.aurelium.auraskills.common.region.WorldManager;
+import dev.aurelium.auraskills.common.skill.SkillManager;
+import dev.aurelium.auraskills.common.trait.TraitManager;
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.openjdk.jmh.annotations.*;
+import org.spongepowered.configurate.ConfigurationNode;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.text.NumberFormat;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading a bonus trait level for a user with many item and armor modifiers, comparing the cached
+ * value, a recalculation after invalidation, and the previous approach of copying all modifiers into a list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BonusTraitLevelBenchmark {
+
+    @Param({"8", "64"})
+    private int modifiersPerSlot;
+
+    private final Map<Stat, Trait> directTraits = new HashMap<>();
+    private TraitManager traitManager;
+    private UserStats userStats;
+    private Trait trait;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        Trait[] traits = Traits.values();
+        Stat[] stats = Stats.values();
+        for (int i = 0; i < stats.length; i++) {
+            directTraits.put(stats[i], traits[i % traits.length]);
+        }
+        injectProvider(Stats.class, StatProvider.class, (method, args) -> switch (method) {
+            case "isEnabled" -> true;
+            case "getTraits" -> List.of(directTraits.get((Stat) args[0]));
+            case "getTraitModifier" -> 1.0;
+            default -> null;
+        });
+        injectProvider(Traits.class, TraitProvider.class, (method, args) -> switch (method) {
+            case "isEnabled" -> true;
+            case "optionDouble" -> 0.0;
+            default -> null;
+        });
+
+        Map<String, Object> services = new HashMap<>();
+        AuraSkillsPlugin plugin = (AuraSkillsPlugin) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {AuraSkillsPlugin.class}, (proxy, method, args) -> services.get(method.getName()));
+        services.put("config", new ConfigProvider(plugin, Map.of()) {
+            {
+                options.put(Option.SKILLCOINS_STARTING_BALANCE, new OptionValue(0.0));
+            }
+
+            @Override
+            public void registerHooks(ConfigurationNode config) {
+            }
+
+            @Override
+            public Object parseColor(String value) {
+                return value;
+            }
+        });
+        services.put("getSkillManager", new SkillManager(plugin));
+        services.put("getWorldManager", new WorldManager() {
+            @Override
+            public boolean isBlockedWorld(String worldName) {
+                return false;
+            }
+
+            @Override
+            public boolean isDisabledWorld(String worldName) {
+                return false;
+            }
+        });
+        traitManager = new TraitManager(plugin) {
+            @Override
+            public double getBaseLevel(User user, Trait trait) {
+                return 0.0;
+            }
+
+            @Override
+            public Set<Stat> getLinkedStats(Trait trait) {
+                Set<Stat> linked = new HashSet<>();
+                directTraits.forEach((stat, linkedTrait) -> {
+                    if (linkedTrait.equals(trait)) linked.add(stat);
+                });
+                return linked;
+            }
+
+            @Override
+            public void registerTraitHandler(TraitHandler traitHandler) {
+            }
+
+            @Override
+            public String getMenuDisplay(Trait trait, double value, Locale locale, @Nullable NumberFormat format) {
+                return "";
+            }
+        };
+        services.put("getTraitManager", traitManager);
+
+        userStats = new BenchmarkUser(plugin).getUserStats();
+        trait = directTraits.get(Stats.STRENGTH);
+        Operation[] operations = Operation.values();
+        String[] slots = {"Item", "Helmet", "Chestplate", "Leggings", "Boots", "Offhand"};
+        int index = 0;
+        for (String slot : slots) {
+            for (int i = 0; i < modifiersPerSlot; i++) {
+                Stat stat = stats[index % stats.length];
+                Operation operation = operations[index % operations.length];
+                double value = operation == Operation.MULTIPLY ? 1.01 : 2.0;
+                userStats.addStatModifier(new StatModifier("AuraSkills.Modifiers." + slot + "." + index, stat, value, operation), false);
+                userStats.addTraitModifier(new TraitModifier("AuraSkills.TraitModifiers." + slot + "." + index,
+                        traits[index % traits.length], value, operation), false);
+                index++;
+            }
+        }
+    }
+
+    @Benchmark
+    public double cached() {
+        return userStats.getBonusTraitLevel(trait);
+    }
+
+    @Benchmark
+    public double recalculated() {
+        userStats.invalidateTraitLevels();
+        return userStats.getBonusTraitLevel(trait);
+    }
+
+    @Benchmark
+    public double copyToList() {
+        double level = 0.0;
+        for (Stat stat : traitManager.getLinkedStats(trait)) {
+            level += userStats.getStatLevel(stat) * stat.getTraitModifier(trait);
+        }
+        List<AuraSkillsModifier<?>> modifiers = new ArrayList<>(userStats.getTraitModifiers().values());
+        for (StatModifier statMod : userStats.getStatModifiers().values()) {
+            if (statMod.stat().hasDirectTrait() && trait.equals(statMod.stat().getTraits().get(0))) {
+                if (statMod.operation() == Operation.MULTIPLY || statMod.operation() == Operation.ADD_PERCENT) {
+                    modifiers.add(statMod);
+                }
+            }
+        }
+        double addModSum = 0.0;
+        double multiplyModProduct = 1.0;
+        double addPercentSum = 0.0;
+        for (AuraSkillsModifier<?> modifier : modifiers) {
+            if (!modifier.type().equals(trait)) {
+                if (!(modifier.type() instanceof Stat stat) || !stat.hasDirectTrait() || !trait.equals(stat.getTraits().get(0))) {
+                    continue;
+                }
+            }
+            switch (modifier.operation()) {
+                case ADD -> addModSum += modifier.value();
+                case MULTIPLY -> multiplyModProduct *= modifier.value();
+                case ADD_PERCENT -> addPercentSum += modifier.value();
+            }
+        }
+        return (level + addModSum) * multiplyModProduct * (1 + addPercentSum / 100);
+    }
+
+    private interface ProviderHandler {
+        Object handle(String method, Object[] args);
+    }
+
+    private static <E extends Enum<E>> void injectProvider(Class<E> enumClass, Class<?> providerClass, ProviderHandler handler)
+            throws ReflectiveOperationException {
+        Object provider = Proxy.newProxyInstance(BonusTraitLevelBenchmark.class.getClassLoader(), new Class<?>[] {providerClass},
+                (proxy, method, args) -> handler.handle(method.getName(), args));
+        Field field = enumClass.getDeclaredField("provider");
+        field.setAccessible(true);
+        for (E constant : enumClass.getEnumConstants()) {
+            field.set(constant, provider);
+        }
+    }
+
+    private static class BenchmarkUser extends User {
+
+        private BenchmarkUser(AuraSkillsPlugin plugin) {
+            super(UUID.randomUUID(), plugin);
+        }
+
+        @Override
+        public String getUsername() {
+            return "benchmark";
+        }
+
+        @Override
+        public void sendMessage(String message) {
+        }
+
+        @Override
+        public void sendMessage(Component component) {
+        }
+
+        @Override
+        public double getPermissionMultiplier(Skill skill) {
+            return 0.0;
+        }
+
+        @Override
+        public boolean hasSkillPermission(Skill skill) {
+            return true;
+        }
+
+        @Override
+        public void setCommandLocale(Locale locale) {
+        }
+
+        @Override
+        public int getPermissionJobLimit() {
+            return 0;
+        }
+
+        @Override
+        public String getWorld() {
+            return "world";
+        }
+
+        @Override
+        public boolean hasPermission(String permission) {
+            return true;
+        }
+
+        @Override
+        public void attachPlayer(PlayerRef ref) {
+        }
+
+        @Override
+        public boolean canSelectJob(@NotNull Skill skill) {
+            return true;
+        }
+
+    }
+
+}
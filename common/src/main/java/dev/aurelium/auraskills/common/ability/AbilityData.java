@@ -4,12 +4,14 @@ import dev.aurelium.auraskills.api.ability.AbstractAbility;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 
 public class AbilityData {
 
     private final AbstractAbility ability;
     private final Map<String, Object> data;
+    private volatile boolean changed;
 
     public AbilityData(AbstractAbility ability) {
         this.ability = ability;
@@ -30,11 +32,32 @@ public class AbilityData {
     }
 
     public void setData(String key, Object value) {
-        this.data.put(key, value);
+        if (!Objects.equals(this.data.put(key, value), value)) {
+            changed = true;
+        }
     }
 
     public void remove(String key) {
-        this.data.remove(key);
+        if (this.data.remove(key) != null) {
+            changed = true;
+        }
+    }
+
+    /**
+     * Checks whether the data changed since the last call and resets the flag.
+     *
+     * @return true if the data changed
+     */
+    public boolean pollChanged() {
+        if (changed) {
+            changed = false;
+            return true;
+        }
+        return false;
+    }
+
+    public boolean isChanged() {
+        return changed;
     }
 
     /**
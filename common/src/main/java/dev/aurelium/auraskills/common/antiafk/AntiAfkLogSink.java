@@ -0,0 +1,132 @@
+package dev.aurelium.auraskills.common.antiafk;
+
+import dev.aurelium.auraskills.common.AuraSkillsPlugin;
+import dev.aurelium.auraskills.common.config.Option;
+import dev.aurelium.auraskills.common.scheduler.TaskRunnable;
+import dev.aurelium.auraskills.common.user.AntiAfkLog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Append-only storage for anti-AFK logs, separate from user data so that logging doesn't make
+ * user saves slower. Appended logs are queued and written in batches by a timer, and logs older
+ * than the configured retention are deleted on startup.
+ */
+public abstract class AntiAfkLogSink {
+
+    private static final long FLUSH_INTERVAL_MS = 5000;
+    private static final long DAY_MS = 24 * 60 * 60 * 1000L;
+    // Logs beyond this are dropped if storage can't keep up, instead of growing memory without bound
+    private static final int MAX_PENDING = 10000;
+
+    protected final AuraSkillsPlugin plugin;
+    private final Queue<Entry> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final LongAdder dropped = new LongAdder();
+
+    public AntiAfkLogSink(AuraSkillsPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Queues a log to be written.
+     *
+     * @param uuid the uuid of the player the log is about
+     * @param log the log
+     */
+    public void append(UUID uuid, AntiAfkLog log) {
+        if (pendingCount.incrementAndGet() > MAX_PENDING) {
+            pendingCount.decrementAndGet();
+            dropped.increment();
+            return;
+        }
+        pending.add(new Entry(uuid, log));
+    }
+
+    /**
+     * Starts the timer writing queued logs and deletes expired logs asynchronously.
+     */
+    public void start() {
+        var task = new TaskRunnable() {
+            @Override
+            public void run() {
+                flush();
+            }
+        };
+        plugin.getScheduler().timerAsync(task, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        int retentionDays = plugin.configInt(Option.ANTI_AFK_LOG_RETENTION_DAYS);
+        if (retentionDays > 0) {
+            plugin.getScheduler().executeAsync(() -> {
+                try {
+                    deleteBefore(System.currentTimeMillis() - retentionDays * DAY_MS);
+                } catch (Exception e) {
+                    plugin.logger().warn("Failed to delete expired anti-AFK logs: " + e.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * Writes every queued log.
+     */
+    public synchronized void flush() {
+        List<Entry> batch = new ArrayList<>();
+        Entry entry;
+        while ((entry = pending.poll()) != null) {
+            batch.add(entry);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        pendingCount.addAndGet(-batch.size());
+        try {
+            write(batch);
+        } catch (Exception e) {
+            plugin.logger().warn("Failed to write " + batch.size() + " anti-AFK logs: " + e.getMessage());
+        }
+        long droppedCount = dropped.sumThenReset();
+        if (droppedCount > 0) {
+            plugin.logger().warn("Dropped " + droppedCount + " anti-AFK logs because too many were waiting to be written");
+        }
+    }
+
+    /**
+     * Loads a page of a player's logs, newest first. Queued logs are written first so they are included.
+     *
+     * @param uuid the uuid of the player
+     * @param offset the number of logs to skip
+     * @param limit the maximum number of logs to return
+     * @return the page and the total number of logs of the player
+     * @throws Exception if the logs can't be read
+     */
+    public LogPage loadPage(UUID uuid, int offset, int limit) throws Exception {
+        flush();
+        return query(uuid, offset, limit);
+    }
+
+    public void shutdown() {
+        flush();
+    }
+
+    protected abstract void write(List<Entry> entries) throws Exception;
+
+    protected abstract LogPage query(UUID uuid, int offset, int limit) throws Exception;
+
+    protected abstract void deleteBefore(long time) throws Exception;
+
+    public record Entry(UUID uuid, AntiAfkLog log) {
+
+    }
+
+    public record LogPage(List<AntiAfkLog> logs, int total) {
+
+    }
+
+}
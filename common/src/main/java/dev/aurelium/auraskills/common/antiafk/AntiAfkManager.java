@@ -80,7 +80,7 @@ public abstract class AntiAfkManager {
 
         // Log message
         var log = new AntiAfkLog(System.currentTimeMillis(), message, logLocation.coordinates(), logLocation.worldName());
-        user.getSessionAntiAfkLogs().add(log);
+        plugin.getStorageProvider().getAntiAfkLogSink().append(user.getUuid(), log);
 
         // Send to online players with notify permission
         for (User notified : plugin.getUserManager().getOnlineUsers()) {
@@ -3,6 +3,7 @@ package dev.aurelium.auraskills.common.api.implementation;
 import dev.aurelium.auraskills.api.config.ConfigNode;
 import dev.aurelium.auraskills.api.source.*;
 import dev.aurelium.auraskills.common.AuraSkillsPlugin;
+import dev.aurelium.auraskills.common.config.Option;
 import dev.aurelium.auraskills.common.message.MessageKey;
 import dev.aurelium.auraskills.common.source.income.IncomeLoader;
 import dev.aurelium.auraskills.common.util.text.TextUtil;
@@ -54,6 +55,16 @@ public class ApiSourceManager implements SourceManager {
         return unitName;
     }
 
+    @Override
+    public void disableXpAccumulation(String pluginName) {
+        plugin.getLevelManager().getXpAccumulator().disable(pluginName);
+    }
+
+    @Override
+    public boolean isXpAccumulationEnabled() {
+        return plugin.configBoolean(Option.LEVELER_XP_ACCUMULATION_ENABLED) && !plugin.getLevelManager().getXpAccumulator().isDisabled();
+    }
+
     @Override
     public SourceIncome loadSourceIncome(ConfigNode source) {
         return incomeLoader.loadSourceIncome(((ApiConfigNode) source).getBacking());
@@ -4,6 +4,7 @@ public enum Option {
 
     // Mysql Options
     SQL_ENABLED("sql.enabled", OptionType.BOOLEAN),
+    SQL_TYPE("sql.type", OptionType.STRING),
     SQL_HOST("sql.host", OptionType.STRING),
     SQL_PORT("sql.port", OptionType.INT),
     SQL_DATABASE("sql.database", OptionType.STRING),
@@ -13,11 +14,14 @@ public enum Option {
     SQL_ALWAYS_LOAD_ON_JOIN("sql.always_load_on_join", OptionType.BOOLEAN),
     SQL_SSL("sql.ssl", OptionType.BOOLEAN),
     SQL_OPTIMIZE_LEADERBOARD_UPDATING("experimental.optimize_leaderboard_updating", OptionType.BOOLEAN),
+    SQL_LEADERBOARD_QUERIES("experimental.sql_leaderboard_queries", OptionType.BOOLEAN),
     SQL_POOL_MAXIMUM_POOL_SIZE("sql.pool.maximum_pool_size", OptionType.INT),
     SQL_POOL_MINIMUM_IDLE("sql.pool.minimum_idle", OptionType.INT),
     SQL_POOL_CONNECTION_TIMEOUT("sql.pool.connection_timeout", OptionType.INT),
     SQL_POOL_MAX_LIFETIME("sql.pool.max_lifetime", OptionType.INT),
     SQL_POOL_KEEPALIVE_TIME("sql.pool.keepalive_time", OptionType.INT),
+    SQL_WRITE_QUEUE_BATCH_SIZE("sql.write_queue.batch_size", OptionType.INT),
+    SQL_WRITE_QUEUE_CAPACITY("sql.write_queue.capacity", OptionType.INT),
     DEFAULT_LANGUAGE("default_language", OptionType.STRING),
     TRY_DETECT_CLIENT_LANGUAGE("try_detect_client_language", OptionType.BOOLEAN),
     // Action bar options
@@ -70,6 +74,7 @@ public enum Option {
     ANTI_AFK_ENABLED("anti_afk.enabled", OptionType.BOOLEAN),
     ANTI_AFK_LOGGING_ENABLED("anti_afk.logging_enabled", OptionType.BOOLEAN),
     ANTI_AFK_LOG_THRESHOLD("anti_afk.log_threshold", OptionType.STRING),
+    ANTI_AFK_LOG_RETENTION_DAYS("anti_afk.log_retention_days", OptionType.INT),
     ANTI_AFK_CHECKS_BLOCK_A_ENABLED("anti_afk.checks.block_a.enabled", OptionType.BOOLEAN),
     ANTI_AFK_CHECKS_BLOCK_A_MIN_COUNT("anti_afk.checks.block_a.min_count", OptionType.INT),
     ANTI_AFK_CHECKS_DAMAGE_A_ENABLED("anti_afk.checks.damage_a.enabled", OptionType.BOOLEAN),
@@ -118,6 +123,10 @@ public enum Option {
     ON_DEATH_RESET_XP_RATIO("on_death.reset_xp_ratio", OptionType.DOUBLE),
     AUTO_SAVE_ENABLED("auto_save.enabled", OptionType.BOOLEAN),
     AUTO_SAVE_INTERVAL_TICKS("auto_save.interval_ticks", OptionType.INT),
+    ASYNC_EXECUTOR_TYPE("async_executor.type", OptionType.STRING),
+    ASYNC_EXECUTOR_IO_THREADS("async_executor.io_threads", OptionType.INT),
+    ASYNC_EXECUTOR_COMPUTE_THREADS("async_executor.compute_threads", OptionType.INT),
+    ASYNC_EXECUTOR_QUEUE_SIZE("async_executor.queue_size", OptionType.INT),
     // Leveler options
     LEVELER_TITLE_ENABLED("leveler.title.enabled", OptionType.BOOLEAN),
     LEVELER_TITLE_FADE_IN("leveler.title.fade_in", OptionType.INT),
@@ -129,6 +138,8 @@ public enum Option {
     LEVELER_SOUND_VOLUME("leveler.sound.volume", OptionType.DOUBLE),
     LEVELER_SOUND_PITCH("leveler.sound.pitch", OptionType.DOUBLE),
     LEVELER_DOUBLE_CHECK_DELAY("leveler.double_check_delay", OptionType.INT),
+    LEVELER_XP_ACCUMULATION_ENABLED("leveler.xp_accumulation.enabled", OptionType.BOOLEAN),
+    LEVELER_XP_ACCUMULATION_WINDOW_MS("leveler.xp_accumulation.window_ms", OptionType.INT),
     MANA_ENABLED("mana.enabled", OptionType.BOOLEAN),
     MANA_COOLDOWN_TIMER_PERIOD("mana.cooldown_timer_period", OptionType.INT),
     // Modifier options
@@ -178,7 +189,6 @@ public enum Option {
     CHECK_FOR_UPDATES("check_for_updates", OptionType.BOOLEAN),
     AUTOMATIC_BACKUPS_ENABLED("automatic_backups.enabled", OptionType.BOOLEAN),
     AUTOMATIC_BACKUPS_MINIMUM_INTERVAL_HOURS("automatic_backups.minimum_interval_hours", OptionType.DOUBLE),
-    AUTOMATIC_BACKUPS_MAX_USERS("automatic_backups.max_users", OptionType.INT),
     SAVE_BLANK_PROFILES("save_blank_profiles", OptionType.BOOLEAN);
 
     private final String path;
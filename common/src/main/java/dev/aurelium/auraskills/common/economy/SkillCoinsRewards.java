@@ -0,0 +1,74 @@
+package dev.aurelium.auraskills.common.economy;
+
+import dev.aurelium.auraskills.api.skill.Skill;
+import org.spongepowered.configurate.ConfigurationNode;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the level_rewards section of shop_config.yml, so looking up the
+ * SkillCoins reward for a level up doesn't need to read or parse any config.
+ */
+public class SkillCoinsRewards {
+
+    public static final SkillCoinsRewards DISABLED = new SkillCoinsRewards(false, 0.0, 1.0, Map.of());
+    // Scaling factors are precomputed for levels below this, higher levels compute them directly
+    private static final int PRECOMPUTED_LEVELS = 1000;
+
+    private final boolean enabled;
+    private final double baseReward;
+    private final double rewardMultiplier;
+    private final Map<String, Double> skillRewards;
+    private final double[] levelScaling;
+
+    private SkillCoinsRewards(boolean enabled, double baseReward, double rewardMultiplier, Map<String, Double> skillRewards) {
+        this.enabled = enabled;
+        this.baseReward = baseReward;
+        this.rewardMultiplier = rewardMultiplier;
+        this.skillRewards = skillRewards;
+        this.levelScaling = new double[enabled ? PRECOMPUTED_LEVELS : 0];
+        for (int level = 0; level < levelScaling.length; level++) {
+            levelScaling[level] = Math.pow(rewardMultiplier, level / 10.0);
+        }
+    }
+
+    public static SkillCoinsRewards fromConfig(ConfigurationNode rewardsConfig) {
+        if (!rewardsConfig.node("enabled").getBoolean(true)) {
+            return DISABLED;
+        }
+        double baseReward = rewardsConfig.node("base_reward").getDouble(50.0);
+        double multiplier = rewardsConfig.node("reward_multiplier").getDouble(1.2);
+
+        // Load skill-specific overrides
+        Map<String, Double> skillRewards = new HashMap<>();
+        for (Map.Entry<Object, ? extends ConfigurationNode> entry : rewardsConfig.node("skill_rewards").childrenMap().entrySet()) {
+            skillRewards.put(entry.getKey().toString(), entry.getValue().getDouble(baseReward));
+        }
+        return new SkillCoinsRewards(true, baseReward, multiplier, Map.copyOf(skillRewards));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gets the SkillCoins reward for reaching a level, scaled exponentially as
+     * base * multiplier ^ (level / 10).
+     *
+     * @param skill the skill that leveled up
+     * @param level the level reached
+     * @return the reward, or 0 if level rewards are disabled
+     */
+    public double getReward(Skill skill, int level) {
+        if (!enabled) {
+            return 0.0;
+        }
+        double base = skillRewards.getOrDefault(skill.getId().getKey(), baseReward);
+        if (level >= 0 && level < levelScaling.length) {
+            return base * levelScaling[level];
+        }
+        return base * Math.pow(rewardMultiplier, level / 10.0);
+    }
+
+}
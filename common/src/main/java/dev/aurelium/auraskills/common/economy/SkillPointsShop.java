@@ -35,6 +35,7 @@ public class SkillPointsShop {
     private double levelBaseCost;
     private double levelCostMultiplier;
     private int maxPurchasableLevels;
+    private boolean levelPurchaseEnabled;
     private int restockInterval; // in minutes
     private final Map<String, Double> skillSpecificLevelCosts;
     private final Map<String, Integer> skillMaxLevels;
@@ -173,6 +174,7 @@ public class SkillPointsShop {
 
             // Load level purchase settings
             ConfigurationNode levelConfig = config.node("level_purchase");
+            levelPurchaseEnabled = levelConfig.node("enabled").getBoolean(true);
             levelBaseCost = levelConfig.node("base_cost").getDouble(100.0);
             levelCostMultiplier = levelConfig.node("cost_multiplier").getDouble(1.5);
             maxPurchasableLevels = levelConfig.node("max_purchasable_levels").getInt(0);
@@ -552,16 +554,7 @@ public class SkillPointsShop {
         int nextLevel = currentLevel + 1;
         
         // Check if level purchasing is enabled
-        ConfigurationNode levelConfig = null;
-        try {
-            ConfigurateLoader loader = new ConfigurateLoader(plugin, TypeSerializerCollection.builder().build());
-            ConfigurationNode config = loader.loadEmbeddedFile("shop_config.yml");
-            levelConfig = config.node("level_purchase");
-        } catch (Exception e) {
-            return new LevelPurchaseResult(false, "Configuration error");
-        }
-        
-        if (!levelConfig.node("enabled").getBoolean(true)) {
+        if (!levelPurchaseEnabled) {
             return new LevelPurchaseResult(false, "Level purchasing is disabled");
         }
         
@@ -0,0 +1,298 @@
+package dev.aurelium.auraskills.common.formula;
+
+import com.ezylang.evalex.EvaluationException;
+import com.ezylang.evalex.Expression;
+import com.ezylang.evalex.data.EvaluationValue;
+import com.ezylang.evalex.functions.FunctionIfc;
+import com.ezylang.evalex.functions.basic.*;
+import com.ezylang.evalex.operators.OperatorIfc;
+import com.ezylang.evalex.operators.arithmetic.*;
+import com.ezylang.evalex.operators.booleans.*;
+import com.ezylang.evalex.parser.ASTNode;
+import com.ezylang.evalex.parser.ParseException;
+import com.ezylang.evalex.parser.Token;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A numeric EvalEx expression parsed once and compiled into a tree of double operations,
+ * with variables bound by position. Unlike {@link Expression}, a formula has no mutable state
+ * and can be evaluated from several threads at once.
+ *
+ * <p>Expressions using functions or operators without a compiled version are evaluated
+ * by EvalEx instead, using one parsed copy per thread.
+ */
+public final class Formula {
+
+    private final String source;
+    private final String[] variables;
+    private final Node root;
+    private final boolean compiled;
+
+    private Formula(String source, String[] variables, Node root, boolean compiled) {
+        this.source = source;
+        this.variables = variables;
+        this.root = root;
+        this.compiled = compiled;
+    }
+
+    /**
+     * Parses and compiles an expression.
+     *
+     * @param source the expression string
+     * @param variables the names of the variables in the expression, in the order their values
+     *                  are passed to {@link #evaluate(double...)}
+     * @return the compiled formula
+     * @throws ParseException if the expression is invalid or uses a variable that isn't passed
+     */
+    public static Formula compile(String source, String... variables) throws ParseException {
+        Expression expression = new Expression(source);
+        expression.validate();
+        Map<String, EvaluationValue> constants = expression.getConstants();
+        for (String used : expression.getUsedVariables()) {
+            if (indexOf(variables, used) == -1 && !constants.containsKey(used)) {
+                throw new ParseException(source, "Unknown variable " + used);
+            }
+        }
+        try {
+            Node root = compileNode(expression.getAbstractSyntaxTree(), variables, constants);
+            return new Formula(source, variables.clone(), root, true);
+        } catch (UnsupportedNodeException e) {
+            return new Formula(source, variables.clone(), interpreted(source, variables), false);
+        }
+    }
+
+    /**
+     * Evaluates the formula.
+     *
+     * @param values the values of the variables, in the order they were passed to {@link #compile(String, String...)}
+     * @return the result, where true and false are 1 and 0
+     * @throws EvaluationException if the formula can't be evaluated with the values
+     */
+    public double evaluate(double... values) throws EvaluationException {
+        if (values.length != variables.length) {
+            throw new IllegalArgumentException("Expected " + variables.length + " variable values but got " + values.length);
+        }
+        return root.eval(values);
+    }
+
+    /**
+     * Creates a view of a single variable formula that stores the results for every integer
+     * in a range, such as levels or the age of a crop.
+     *
+     * @param min the lowest value stored
+     * @param max the highest value stored
+     * @return the memoized formula
+     */
+    public MemoizedFormula memoize(int min, int max) {
+        if (variables.length != 1) {
+            throw new IllegalStateException("Only formulas with one variable can be memoized");
+        }
+        return new MemoizedFormula(this, min, max);
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Gets whether the formula was compiled, or is evaluated by EvalEx because it uses a
+     * function or operator without a compiled version.
+     *
+     * @return whether the formula is compiled
+     */
+    public boolean isCompiled() {
+        return compiled;
+    }
+
+    private static int indexOf(String[] variables, String name) {
+        for (int i = 0; i < variables.length; i++) {
+            // EvalEx variable names are case-insensitive
+            if (variables[i].equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Node compileNode(ASTNode node, String[] variables, Map<String, EvaluationValue> constants) {
+        Token token = node.getToken();
+        List<ASTNode> params = node.getParameters();
+        switch (token.getType()) {
+            case NUMBER_LITERAL -> {
+                double value = parseNumber(token.getValue());
+                return values -> value;
+            }
+            case VARIABLE_OR_CONSTANT -> {
+                int index = indexOf(variables, token.getValue());
+                if (index != -1) {
+                    return values -> values[index];
+                }
+                EvaluationValue constant = constants.get(token.getValue());
+                if (constant != null && constant.isNumberValue()) {
+                    double value = constant.getNumberValue().doubleValue();
+                    return values -> value;
+                } else if (constant != null && constant.isBooleanValue()) {
+                    double value = toDouble(constant.getBooleanValue());
+                    return values -> value;
+                }
+                throw new UnsupportedNodeException();
+            }
+            case PREFIX_OPERATOR -> {
+                Node operand = compileNode(params.getFirst(), variables, constants);
+                return compilePrefix(token.getOperatorDefinition(), operand);
+            }
+            case INFIX_OPERATOR -> {
+                Node left = compileNode(params.get(0), variables, constants);
+                Node right = compileNode(params.get(1), variables, constants);
+                return compileInfix(token, left, right);
+            }
+            case FUNCTION -> {
+                Node[] args = new Node[params.size()];
+                for (int i = 0; i < args.length; i++) {
+                    args[i] = compileNode(params.get(i), variables, constants);
+                }
+                return compileFunction(token.getFunctionDefinition(), args);
+            }
+            default -> throw new UnsupportedNodeException();
+        }
+    }
+
+    private static Node compilePrefix(OperatorIfc operator, Node operand) {
+        if (operator instanceof PrefixMinusOperator) {
+            return values -> -operand.eval(values);
+        } else if (operator instanceof PrefixPlusOperator) {
+            return operand;
+        } else if (operator instanceof PrefixNotOperator) {
+            return values -> toDouble(operand.eval(values) == 0);
+        }
+        throw new UnsupportedNodeException();
+    }
+
+    private static Node compileInfix(Token token, Node left, Node right) {
+        OperatorIfc operator = token.getOperatorDefinition();
+        return switch (operator) {
+            case InfixPlusOperator o -> values -> left.eval(values) + right.eval(values);
+            case InfixMinusOperator o -> values -> left.eval(values) - right.eval(values);
+            case InfixMultiplicationOperator o -> values -> left.eval(values) * right.eval(values);
+            case InfixDivisionOperator o -> values -> {
+                double divisor = right.eval(values);
+                if (divisor == 0) {
+                    throw new EvaluationException(token, "Division by zero");
+                }
+                return left.eval(values) / divisor;
+            };
+            case InfixModuloOperator o -> values -> {
+                double divisor = right.eval(values);
+                if (divisor == 0) {
+                    throw new EvaluationException(token, "Division by zero");
+                }
+                return left.eval(values) % divisor;
+            };
+            case InfixPowerOfOperator o -> values -> Math.pow(left.eval(values), right.eval(values));
+            case InfixGreaterOperator o -> values -> toDouble(left.eval(values) > right.eval(values));
+            case InfixGreaterEqualsOperator o -> values -> toDouble(left.eval(values) >= right.eval(values));
+            case InfixLessOperator o -> values -> toDouble(left.eval(values) < right.eval(values));
+            case InfixLessEqualsOperator o -> values -> toDouble(left.eval(values) <= right.eval(values));
+            case InfixEqualsOperator o -> values -> toDouble(left.eval(values) == right.eval(values));
+            case InfixNotEqualsOperator o -> values -> toDouble(left.eval(values) != right.eval(values));
+            // Right side is only evaluated if needed, like in EvalEx
+            case InfixAndOperator o -> values -> toDouble(left.eval(values) != 0 && right.eval(values) != 0);
+            case InfixOrOperator o -> values -> toDouble(left.eval(values) != 0 || right.eval(values) != 0);
+            default -> throw new UnsupportedNodeException();
+        };
+    }
+
+    private static Node compileFunction(FunctionIfc function, Node[] args) {
+        return switch (function) {
+            case AbsFunction f -> values -> Math.abs(args[0].eval(values));
+            case CeilingFunction f -> values -> Math.ceil(args[0].eval(values));
+            case FloorFunction f -> values -> Math.floor(args[0].eval(values));
+            case SqrtFunction f -> values -> Math.sqrt(args[0].eval(values));
+            case LogFunction f -> values -> Math.log(args[0].eval(values));
+            case Log10Function f -> values -> Math.log10(args[0].eval(values));
+            case NotFunction f -> values -> toDouble(args[0].eval(values) == 0);
+            case IfFunction f -> values -> args[0].eval(values) != 0 ? args[1].eval(values) : args[2].eval(values);
+            case RoundFunction f -> values -> BigDecimal.valueOf(args[0].eval(values))
+                    .setScale((int) args[1].eval(values), RoundingMode.HALF_EVEN).doubleValue();
+            case MinFunction f -> values -> {
+                double min = args[0].eval(values);
+                for (int i = 1; i < args.length; i++) {
+                    min = Math.min(min, args[i].eval(values));
+                }
+                return min;
+            };
+            case MaxFunction f -> values -> {
+                double max = args[0].eval(values);
+                for (int i = 1; i < args.length; i++) {
+                    max = Math.max(max, args[i].eval(values));
+                }
+                return max;
+            };
+            case SumFunction f -> values -> {
+                double sum = 0;
+                for (Node arg : args) {
+                    sum += arg.eval(values);
+                }
+                return sum;
+            };
+            default -> throw new UnsupportedNodeException();
+        };
+    }
+
+    private static double parseNumber(String value) {
+        try {
+            String lower = value.toLowerCase(Locale.ROOT);
+            if (lower.startsWith("0x")) {
+                return Long.parseLong(lower.substring(2), 16);
+            }
+            return new BigDecimal(value).doubleValue();
+        } catch (NumberFormatException e) {
+            throw new UnsupportedNodeException();
+        }
+    }
+
+    private static double toDouble(boolean value) {
+        return value ? 1.0 : 0.0;
+    }
+
+    // Evaluates the expression with EvalEx, parsing one copy per thread since expressions store variable values
+    private static Node interpreted(String source, String[] variables) {
+        ThreadLocal<Expression> expressions = ThreadLocal.withInitial(() -> new Expression(source));
+        return values -> {
+            Expression expression = expressions.get();
+            for (int i = 0; i < variables.length; i++) {
+                expression.with(variables[i], values[i]);
+            }
+            try {
+                EvaluationValue result = expression.evaluate();
+                if (result.isBooleanValue()) {
+                    return toDouble(result.getBooleanValue());
+                }
+                return result.getNumberValue().doubleValue();
+            } catch (ParseException e) {
+                throw new EvaluationException(null, e.getMessage());
+            }
+        };
+    }
+
+    @FunctionalInterface
+    private interface Node {
+
+        double eval(double[] values) throws EvaluationException;
+
+    }
+
+    private static class UnsupportedNodeException extends RuntimeException {
+
+        UnsupportedNodeException() {
+            super(null, null, false, false);
+        }
+
+    }
+
+}
@@ -0,0 +1,54 @@
+package dev.aurelium.auraskills.common.formula;
+
+import com.ezylang.evalex.EvaluationException;
+
+/**
+ * A formula with one variable whose results for a range of integers are evaluated once when
+ * created. Values outside the range are evaluated normally.
+ */
+public final class MemoizedFormula {
+
+    private final Formula formula;
+    private final int min;
+    private final double[] results;
+    // Whether the value could be evaluated, values that failed are evaluated again to throw the exception
+    private final boolean[] valid;
+
+    MemoizedFormula(Formula formula, int min, int max) {
+        if (max < min) {
+            throw new IllegalArgumentException("max must not be less than min");
+        }
+        this.formula = formula;
+        this.min = min;
+        this.results = new double[max - min + 1];
+        this.valid = new boolean[results.length];
+        for (int i = 0; i < results.length; i++) {
+            try {
+                results[i] = formula.evaluate(min + i);
+                valid[i] = true;
+            } catch (EvaluationException ignored) {
+            }
+        }
+    }
+
+    public double evaluate(int value) throws EvaluationException {
+        int index = value - min;
+        if (index >= 0 && index < results.length && valid[index]) {
+            return results[index];
+        }
+        return formula.evaluate(value);
+    }
+
+    public double evaluate(double value) throws EvaluationException {
+        int intValue = (int) value;
+        if (intValue == value) {
+            return evaluate(intValue);
+        }
+        return formula.evaluate(value);
+    }
+
+    public Formula getFormula() {
+        return formula;
+    }
+
+}
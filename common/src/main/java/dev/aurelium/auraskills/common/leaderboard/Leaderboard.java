@@ -0,0 +1,239 @@
+package dev.aurelium.auraskills.common.leaderboard;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * A leaderboard kept sorted as values change, backed by a treap where every node knows the
+ * size of its subtree. Updating a player, looking up a rank and getting a place are all
+ * O(log n), so the leaderboard can follow XP and level changes without re-sorting.
+ */
+public class Leaderboard {
+
+    private final Comparator<SkillValue> order;
+    private final Map<UUID, SkillValue> entries = new HashMap<>();
+    @Nullable
+    private Node root;
+    private long seed = 0x2545F4914F6CDD1DL;
+
+    public Leaderboard(Comparator<SkillValue> comparator) {
+        // Ties are broken by UUID so that every value has a distinct position
+        this.order = comparator.thenComparing(SkillValue::id);
+    }
+
+    public Leaderboard(Comparator<SkillValue> comparator, Collection<SkillValue> values) {
+        this(comparator);
+        for (SkillValue value : values) {
+            update(value);
+        }
+    }
+
+    /**
+     * Adds a player's value or moves it to its new position if the player is already on the leaderboard.
+     *
+     * @param value the player's current value
+     */
+    public synchronized void update(SkillValue value) {
+        SkillValue previous = entries.put(value.id(), value);
+        if (previous != null) {
+            if (previous.equals(value)) {
+                return;
+            }
+            root = delete(root, previous);
+        }
+        root = insert(root, new Node(value, nextPriority()));
+    }
+
+    public synchronized void remove(UUID id) {
+        SkillValue previous = entries.remove(id);
+        if (previous != null) {
+            root = delete(root, previous);
+        }
+    }
+
+    /**
+     * Gets the rank of a player, starting at 1 for first place.
+     *
+     * @param id the player's UUID
+     * @return the rank, or 0 if the player is not on the leaderboard
+     */
+    public synchronized int getRank(UUID id) {
+        SkillValue value = entries.get(id);
+        if (value == null) {
+            return 0;
+        }
+        int rank = 1;
+        Node node = root;
+        while (node != null) {
+            int compare = order.compare(value, node.value);
+            if (compare < 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left);
+                if (compare == 0) {
+                    break;
+                }
+                rank++;
+                node = node.right;
+            }
+        }
+        return rank;
+    }
+
+    public synchronized List<SkillValue> getPage(int page, int numPerPage) {
+        int from = Math.min((Math.max(page, 1) - 1) * numPerPage, size(root));
+        int to = Math.min(from + numPerPage, size(root));
+        List<SkillValue> values = new ArrayList<>(to - from);
+        for (int index = from; index < to; index++) {
+            values.add(select(index));
+        }
+        return values;
+    }
+
+    /**
+     * Gets every value in order as a new list. Prefer {@link #getPage(int, int)} or {@link #size()}
+     * since this copies the whole leaderboard.
+     *
+     * @return an unmodifiable copy of the leaderboard
+     */
+    public synchronized List<SkillValue> getValues() {
+        List<SkillValue> values = new ArrayList<>(size(root));
+        Deque<Node> stack = new ArrayDeque<>();
+        Node node = root;
+        while (node != null || !stack.isEmpty()) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+            node = stack.pop();
+            values.add(node.value);
+            node = node.right;
+        }
+        return Collections.unmodifiableList(values);
+    }
+
+    public synchronized int size() {
+        return size(root);
+    }
+
+    private SkillValue select(int index) {
+        Node node = root;
+        while (node != null) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node.value;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+        throw new IndexOutOfBoundsException(index);
+    }
+
+    private Node insert(@Nullable Node node, Node inserted) {
+        if (node == null) {
+            return inserted;
+        }
+        if (order.compare(inserted.value, node.value) < 0) {
+            node.left = insert(node.left, inserted);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, inserted);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.updateSize();
+        return node;
+    }
+
+    @Nullable
+    private Node delete(@Nullable Node node, SkillValue value) {
+        if (node == null) {
+            return null;
+        }
+        int compare = order.compare(value, node.value);
+        if (compare < 0) {
+            node.left = delete(node.left, value);
+        } else if (compare > 0) {
+            node.right = delete(node.right, value);
+        } else {
+            return merge(node.left, node.right);
+        }
+        node.updateSize();
+        return node;
+    }
+
+    // Joins two subtrees where every value in left comes before every value in right
+    @Nullable
+    private Node merge(@Nullable Node left, @Nullable Node right) {
+        if (left == null) return right;
+        if (right == null) return left;
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.updateSize();
+            return left;
+        } else {
+            right.left = merge(left, right.left);
+            right.updateSize();
+            return right;
+        }
+    }
+
+    private Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        node.updateSize();
+        left.updateSize();
+        return left;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        node.updateSize();
+        right.updateSize();
+        return right;
+    }
+
+    private int nextPriority() {
+        // xorshift, only used under the lock
+        seed ^= seed << 13;
+        seed ^= seed >>> 7;
+        seed ^= seed << 17;
+        return (int) seed;
+    }
+
+    private static int size(@Nullable Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static class Node {
+
+        private final SkillValue value;
+        private final int priority;
+        @Nullable
+        private Node left;
+        @Nullable
+        private Node right;
+        private int size = 1;
+
+        private Node(SkillValue value, int priority) {
+            this.value = value;
+            this.priority = priority;
+        }
+
+        private void updateSize() {
+            size = 1 + Leaderboard.size(left) + Leaderboard.size(right);
+        }
+
+    }
+
+}
@@ -31,6 +31,10 @@ public abstract class LeaderboardExclusion {
         excludedPlayers.remove(uuid);
     }
 
+    public Set<UUID> getExcludedPlayers() {
+        return Collections.unmodifiableSet(excludedPlayers);
+    }
+
     public void loadFromFile() {
         File file = new File(plugin.getPluginFolder(), FILE_PATH);
         try {
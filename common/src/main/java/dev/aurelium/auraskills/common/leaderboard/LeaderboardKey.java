@@ -0,0 +1,29 @@
+package dev.aurelium.auraskills.common.leaderboard;
+
+import dev.aurelium.auraskills.api.skill.Skill;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Identifies one of the leaderboards.
+ *
+ * @param type the kind of leaderboard
+ * @param skill the skill of a skill leaderboard, or null for the power and average leaderboards
+ */
+public record LeaderboardKey(Type type, @Nullable Skill skill) {
+
+    public static final LeaderboardKey POWER = new LeaderboardKey(Type.POWER, null);
+    public static final LeaderboardKey AVERAGE = new LeaderboardKey(Type.AVERAGE, null);
+
+    public static LeaderboardKey skill(Skill skill) {
+        return new LeaderboardKey(Type.SKILL, skill);
+    }
+
+    public enum Type {
+
+        SKILL,
+        POWER,
+        AVERAGE
+
+    }
+
+}
@@ -2,12 +2,14 @@ package dev.aurelium.auraskills.common.leaderboard;
 
 import dev.aurelium.auraskills.api.skill.Skill;
 import dev.aurelium.auraskills.common.AuraSkillsPlugin;
+import dev.aurelium.auraskills.common.config.Option;
 import dev.aurelium.auraskills.common.scheduler.TaskRunnable;
 import dev.aurelium.auraskills.common.user.User;
 import dev.aurelium.auraskills.common.user.UserState;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
@@ -15,80 +17,291 @@ public class LeaderboardManager {
 
     private final AuraSkillsPlugin plugin;
     private final LeaderboardExclusion leaderboardExclusion;
-    private final Map<Skill, List<SkillValue>> skillLeaderboards;
+    private final Map<Skill, Leaderboard> skillLeaderboards;
 
-    private List<SkillValue> powerLeaderboard;
-    private List<SkillValue> averageLeaderboard;
+    private volatile Leaderboard powerLeaderboard;
+    private volatile Leaderboard averageLeaderboard;
+    // Set when leaderboards are ranked by storage queries instead of kept in memory
+    @Nullable
+    private volatile QueriedLeaderboards queried;
     private volatile boolean sorting = false;
-    private long previousFetchTime = 0; // The first time leaderboards sort, all users should be fetched
+    private long previousFetchTime = 0;
 
     public LeaderboardManager(AuraSkillsPlugin plugin, LeaderboardExclusion leaderboardExclusion) {
         this.plugin = plugin;
         this.leaderboardExclusion = leaderboardExclusion;
         this.skillLeaderboards = new ConcurrentHashMap<>();
-        this.powerLeaderboard = new ArrayList<>();
-        this.averageLeaderboard = new ArrayList<>();
+        this.powerLeaderboard = new Leaderboard(new LeaderboardSorter());
+        this.averageLeaderboard = new Leaderboard(new AverageSorter());
         // Load excluded players
         this.leaderboardExclusion.loadFromFile();
     }
 
+    /**
+     * Starts the periodic refresh. Leaderboards are updated in place as users gain XP, so this only
+     * catches changes made outside the level manager, and offline changes written to storage by other
+     * servers when the storage provider can tell which users changed.
+     */
     public void startLeaderboardUpdater() {
         plugin.getScheduler().timerAsync(new TaskRunnable() {
             @Override
             public void run() {
-                updateLeaderboardsSync();
+                refreshLeaderboards();
             }
         }, 5 * 60, 5 * 60, TimeUnit.SECONDS);
     }
 
+    /**
+     * Rebuilds every leaderboard from the users in memory and all users in storage.
+     * Called on startup and when storage contents change in bulk.
+     *
+     * @return the time taken in milliseconds
+     */
     public long updateLeaderboards() {
-        return updateLeaderboardsSync();
-    }
-
-    private long updateLeaderboardsSync() {
         if (sorting) return 0;
         long start = System.currentTimeMillis();
         try {
             setSorting(true);
+            LeaderboardQueries queries = plugin.getStorageProvider().getLeaderboardQueries();
+            if (queries != null && plugin.configBoolean(Option.SQL_LEADERBOARD_QUERIES)) {
+                useQueries(queries);
+                return System.currentTimeMillis() - start;
+            }
+            queried = null;
             // Initialize lists
-            Map<Skill, List<SkillValue>> skillLeaderboards = new ConcurrentHashMap<>();
+            Map<Skill, List<SkillValue>> skillLeaderboards = new HashMap<>();
             for (Skill skill : plugin.getSkillRegistry().getValues()) {
                 skillLeaderboards.put(skill, new ArrayList<>());
             }
             List<SkillValue> powerLeaderboard = new ArrayList<>();
             List<SkillValue> averageLeaderboard = new ArrayList<>();
-            // Add players already in memory
-            addLoadedPlayersToLeaderboards(skillLeaderboards, powerLeaderboard, averageLeaderboard);
             // Add offline players
-            addOfflinePlayers(skillLeaderboards, powerLeaderboard, averageLeaderboard, previousFetchTime);
-            // Sort leaderboards and set as current
-            sortLeaderboards(skillLeaderboards, powerLeaderboard, averageLeaderboard);
+            addOfflinePlayers(skillLeaderboards, powerLeaderboard, averageLeaderboard);
+            // Build leaderboards and set as current
+            publishLeaderboards(skillLeaderboards, powerLeaderboard, averageLeaderboard);
+            // Add players in memory after publishing so changes made while loading from storage aren't lost
+            for (User user : plugin.getUserManager().getUserMap().values()) {
+                updateUser(user);
+            }
 
-            setSorting(false);
             previousFetchTime = start;
-
-            return System.currentTimeMillis() - start;
         } catch (Exception e) {
             plugin.logger().warn("Error updating leaderboards: " + e.getMessage());
             e.printStackTrace();
+        } finally {
             setSorting(false);
         }
         return System.currentTimeMillis() - start;
     }
 
+    private void useQueries(LeaderboardQueries queries) {
+        QueriedLeaderboards queried = new QueriedLeaderboards(plugin, queries, leaderboardExclusion);
+        this.queried = queried;
+        // Free the in-memory leaderboards since storage ranks the players
+        skillLeaderboards.clear();
+        setPowerLeaderboard(List.of());
+        setAverageLeaderboard(List.of());
+        for (Skill skill : plugin.getSkillManager().getEnabledSkills()) {
+            queried.warmUp(LeaderboardKey.skill(skill));
+        }
+        queried.warmUp(LeaderboardKey.POWER);
+        queried.warmUp(LeaderboardKey.AVERAGE);
+    }
+
+    private void refreshLeaderboards() {
+        if (sorting) return;
+        QueriedLeaderboards queried = this.queried;
+        if (queried != null) {
+            // Query results expire by themselves
+            queried.prune();
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            setSorting(true);
+            for (User user : plugin.getUserManager().getUserMap().values()) {
+                updateUser(user);
+            }
+            if (previousFetchTime > 0 && plugin.configBoolean(Option.SQL_OPTIMIZE_LEADERBOARD_UPDATING)) {
+                // Only users changed since the last fetch are loaded
+                for (UserState state : plugin.getStorageProvider().loadStates(true, true, previousFetchTime)) {
+                    updateValues(state.uuid(), state.skillLevels(), state.skillXp());
+                }
+                previousFetchTime = start;
+            }
+        } catch (Exception e) {
+            plugin.logger().warn("Error refreshing leaderboards: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            setSorting(false);
+        }
+    }
+
+    /**
+     * Updates the positions of a user on the leaderboard of a skill and the power and average leaderboards.
+     * Called by the level manager whenever the user's XP or level changes.
+     *
+     * @param user the user
+     * @param skill the skill that changed
+     */
+    public void updateUser(User user, Skill skill) {
+        if (queried != null) return;
+        UUID id = user.getUuid();
+        if (leaderboardExclusion.isExcludedPlayer(id)) {
+            removeUser(id);
+            return;
+        }
+        skillLeaderboards.computeIfAbsent(skill, this::createSkillLeaderboard)
+                .update(new SkillValue(id, user.getSkillLevel(skill), user.getSkillXp(skill)));
+        updateTotals(user);
+    }
+
+    /**
+     * Updates the positions of a user on every leaderboard.
+     *
+     * @param user the user
+     */
+    public void updateUser(User user) {
+        if (queried != null) return;
+        UUID id = user.getUuid();
+        if (leaderboardExclusion.isExcludedPlayer(id)) {
+            removeUser(id);
+            return;
+        }
+        for (Skill skill : plugin.getSkillManager().getSkillValues()) {
+            skillLeaderboards.computeIfAbsent(skill, this::createSkillLeaderboard)
+                    .update(new SkillValue(id, user.getSkillLevel(skill), user.getSkillXp(skill)));
+        }
+        updateTotals(user);
+    }
+
+    public void removeUser(UUID id) {
+        for (Leaderboard leaderboard : skillLeaderboards.values()) {
+            leaderboard.remove(id);
+        }
+        powerLeaderboard.remove(id);
+        averageLeaderboard.remove(id);
+    }
+
+    private void updateTotals(User user) {
+        powerLeaderboard.update(getTotalValue(user, LeaderboardKey.Type.POWER));
+        averageLeaderboard.update(getTotalValue(user, LeaderboardKey.Type.AVERAGE));
+    }
+
+    private SkillValue getTotalValue(User user, LeaderboardKey.Type type) {
+        int powerLevel = 0;
+        double powerXp = 0;
+        int numEnabled = 0;
+        for (Skill skill : plugin.getSkillManager().getSkillValues()) {
+            if (skill.isEnabled()) {
+                powerLevel += user.getSkillLevel(skill);
+                powerXp += user.getSkillXp(skill);
+                numEnabled++;
+            }
+        }
+        if (type == LeaderboardKey.Type.AVERAGE) {
+            return new SkillValue(user.getUuid(), 0, (double) powerLevel / numEnabled);
+        }
+        return new SkillValue(user.getUuid(), powerLevel, powerXp);
+    }
+
+    // The value of a loaded user is newer than the stored one, so it's used to rank them
+    @Nullable
+    private SkillValue getCurrentValue(LeaderboardKey key, UUID id) {
+        User user = plugin.getUserManager().getUser(id);
+        if (user == null) {
+            return null;
+        }
+        return switch (key.type()) {
+            case SKILL -> {
+                Skill skill = Objects.requireNonNull(key.skill());
+                yield new SkillValue(id, user.getSkillLevel(skill), user.getSkillXp(skill));
+            }
+            case POWER, AVERAGE -> getTotalValue(user, key.type());
+        };
+    }
+
+    private void updateValues(UUID id, Map<Skill, Integer> skillLevels, Map<Skill, Double> skillXp) {
+        if (leaderboardExclusion.isExcludedPlayer(id)) {
+            removeUser(id);
+            return;
+        }
+        int powerLevel = 0;
+        double powerXp = 0.0;
+        int numEnabled = 0;
+        for (Map.Entry<Skill, Integer> entry : skillLevels.entrySet()) {
+            Skill skill = entry.getKey();
+            int level = entry.getValue();
+            double xp = skillXp.getOrDefault(skill, 0.0);
+            skillLeaderboards.computeIfAbsent(skill, this::createSkillLeaderboard).update(new SkillValue(id, level, xp));
+
+            if (skill.isEnabled()) {
+                powerLevel += level;
+                powerXp += xp;
+                numEnabled++;
+            }
+        }
+        powerLeaderboard.update(new SkillValue(id, powerLevel, powerXp));
+        averageLeaderboard.update(new SkillValue(id, 0, (double) powerLevel / numEnabled));
+    }
+
+    private Leaderboard createSkillLeaderboard(Skill skill) {
+        return new Leaderboard(new LeaderboardSorter());
+    }
+
+    /**
+     * Gets the whole leaderboard of a skill. Prefer {@link #getLeaderboard(Skill, int, int)}
+     * since this copies every value, or reads every page from storage and blocks when leaderboards are queried.
+     */
     public List<SkillValue> getLeaderboard(Skill skill) {
-        return skillLeaderboards.computeIfAbsent(skill, s -> new ArrayList<>());
+        QueriedLeaderboards queried = this.queried;
+        if (queried != null) {
+            return getAll(queried, LeaderboardKey.skill(skill));
+        }
+        Leaderboard leaderboard = skillLeaderboards.get(skill);
+        return leaderboard != null ? leaderboard.getValues() : List.of();
+    }
+
+    public CompletableFuture<Integer> getLeaderboardSizeAsync(Skill skill) {
+        QueriedLeaderboards queried = this.queried;
+        if (queried != null) {
+            return queried.getSizeAsync(LeaderboardKey.skill(skill));
+        }
+        return CompletableFuture.completedFuture(getLeaderboardSize(skill));
+    }
+
+    public int getLeaderboardSize(Skill skill) {
+        QueriedLeaderboards queried = this.queried;
+        if (queried != null) {
+            return queried.getSize(LeaderboardKey.skill(skill));
+        }
+        Leaderboard leaderboard = skillLeaderboards.get(skill);
+        return leaderboard != null ? leaderboard.size() : 0;
     }
 
     public void setLeaderboard(Skill skill, List<SkillValue> leaderboard) {
-        this.skillLeaderboards.put(skill, leaderboard);
+        this.skillLeaderboards.put(skill, new Leaderboard(new LeaderboardSorter(), leaderboard));
     }
 
     public List<SkillValue> getLeaderboard(Skill skill, int page, int numPerPage) {
-        List<SkillValue> leaderboard = skillLeaderboards.computeIfAbsent(skill, k -> new ArrayList<>());
-        int from = (Math.max(page, 1) - 1) * numPerPage;
-        int to = from + numPerPage;
-        return leaderboard.subList(Math.min(from, leaderboard.size()), Math.min(to, leaderboard.size()));
+        QueriedLeaderboards queried = this.queried;
+        if (queried != null) {
+            return queried.getPage(LeaderboardKey.skill(skill), page, numPerPage);
+        }
+        Leaderboard leaderboard = skillLeaderboards.get(skill);
+        return leaderboard != null ? leaderboard.getPage(page, numPerPage) : List.of();
+    }
+
+    /**
+     * Gets a page of the leaderboard of a skill, waiting for storage if the page isn't cached
+     * when leaderboards are queried.
+     */
+    public CompletableFuture<List<SkillValue>> getLeaderboardAsync(Skill skill, int page, int numPerPage) {
+        QueriedLeaderboards queried = this.queried;
+        if (queried != null) {
+            return queried.getPageAsync(LeaderboardKey.skill(skill), page, numPerPage);
+        }
+        return CompletableFuture.completedFuture(getLeaderboard(skill, page, numPerPage));
     }
 
     @Nullable
@@ -101,64 +314,129 @@ public class LeaderboardManager {
     }
 
     public List<SkillValue> getPowerLeaderboard() {
-        return powerLeaderboard;
+        QueriedLeaderboards queried = this.queried;
+        if (queried != null) {
+            return getAll(queried, LeaderboardKey.POWER);
+        }
+        return powerLeaderboard.getValues();
+    }
+
+    public int getPowerLeaderboardSize() {
+        QueriedLeaderboards queried = this.queried;
+        if (queried != null) {
+            return queried.getSize(LeaderboardKey.POWER);
+        }
+        return powerLeaderboard.size();
+    }
+
+    public CompletableFuture<Integer> getPowerLeaderboardSizeAsync() {
+        QueriedLeaderboards queried = this.queried;
+        if (queried != null) {
+            return queried.getSizeAsync(LeaderboardKey.POWER);
+        }
+        return CompletableFuture.completedFuture(powerLeaderboard.size());
+    }
+
+    public CompletableFuture<List<SkillValue>> getPowerLeaderboardAsync(int page, int numPerPage) {
+        QueriedLeaderboards queried = this.queried;
+        if (queried != null) {
+            return queried.getPageAsync(LeaderboardKey.POWER, page, numPerPage);
+        }
+        return CompletableFuture.completedFuture(powerLeaderboard.getPage(page, numPerPage));
     }
 
     public List<SkillValue> getPowerLeaderboard(int page, int numPerPage) {
-        int from = (Math.max(page, 1) - 1) * numPerPage;
-        int to = from + numPerPage;
-        return powerLeaderboard.subList(Math.min(from, powerLeaderboard.size()), Math.min(to, powerLeaderboard.size()));
+        QueriedLeaderboards queried = this.queried;
+        if (queried != null) {
+            return queried.getPage(LeaderboardKey.POWER, page, numPerPage);
+        }
+        return powerLeaderboard.getPage(page, numPerPage);
     }
 
     public void setPowerLeaderboard(List<SkillValue> leaderboard) {
-        this.powerLeaderboard = leaderboard;
+        this.powerLeaderboard = new Leaderboard(new LeaderboardSorter(), leaderboard);
     }
 
     public List<SkillValue> getAverageLeaderboard() {
-        return averageLeaderboard;
+        QueriedLeaderboards queried = this.queried;
+        if (queried != null) {
+            return getAll(queried, LeaderboardKey.AVERAGE);
+        }
+        return averageLeaderboard.getValues();
+    }
+
+    public CompletableFuture<List<SkillValue>> getAverageLeaderboardAsync(int page, int numPerPage) {
+        QueriedLeaderboards queried = this.queried;
+        if (queried != null) {
+            return queried.getPageAsync(LeaderboardKey.AVERAGE, page, numPerPage);
+        }
+        return CompletableFuture.completedFuture(averageLeaderboard.getPage(page, numPerPage));
     }
 
     public List<SkillValue> getAverageLeaderboard(int page, int numPerPage) {
-        int from = (Math.max(page, 1) - 1) * numPerPage;
-        int to = from + numPerPage;
-        return averageLeaderboard.subList(Math.min(from, averageLeaderboard.size()), Math.min(to, averageLeaderboard.size()));
+        QueriedLeaderboards queried = this.queried;
+        if (queried != null) {
+            return queried.getPage(LeaderboardKey.AVERAGE, page, numPerPage);
+        }
+        return averageLeaderboard.getPage(page, numPerPage);
     }
 
     public void setAverageLeaderboard(List<SkillValue> leaderboard) {
-        this.averageLeaderboard = leaderboard;
+        this.averageLeaderboard = new Leaderboard(new AverageSorter(), leaderboard);
+    }
+
+    public CompletableFuture<Integer> getSkillRankAsync(Skill skill, UUID id) {
+        QueriedLeaderboards queried = this.queried;
+        if (queried != null) {
+            LeaderboardKey key = LeaderboardKey.skill(skill);
+            return queried.getRankAsync(key, id, getCurrentValue(key, id));
+        }
+        return CompletableFuture.completedFuture(getSkillRank(skill, id));
     }
 
     public int getSkillRank(Skill skill, UUID id) {
-        List<SkillValue> leaderboard = skillLeaderboards.get(skill);
+        QueriedLeaderboards queried = this.queried;
+        if (queried != null) {
+            LeaderboardKey key = LeaderboardKey.skill(skill);
+            return queried.getRank(key, id, getCurrentValue(key, id));
+        }
+        Leaderboard leaderboard = skillLeaderboards.get(skill);
         if (leaderboard == null) return 0;
 
-        for (int i = 0; i < leaderboard.size(); i++) {
-            SkillValue skillValue = leaderboard.get(i);
-            if (skillValue.id().equals(id)) {
-                return i + 1;
-            }
+        return leaderboard.getRank(id);
+    }
+
+    public CompletableFuture<Integer> getPowerRankAsync(UUID id) {
+        QueriedLeaderboards queried = this.queried;
+        if (queried != null) {
+            return queried.getRankAsync(LeaderboardKey.POWER, id, getCurrentValue(LeaderboardKey.POWER, id));
         }
-        return 0;
+        return CompletableFuture.completedFuture(powerLeaderboard.getRank(id));
     }
 
     public int getPowerRank(UUID id) {
-        for (int i = 0; i < powerLeaderboard.size(); i++) {
-            SkillValue skillValue = powerLeaderboard.get(i);
-            if (skillValue.id().equals(id)) {
-                return i + 1;
-            }
+        QueriedLeaderboards queried = this.queried;
+        if (queried != null) {
+            return queried.getRank(LeaderboardKey.POWER, id, getCurrentValue(LeaderboardKey.POWER, id));
         }
-        return 0;
+        return powerLeaderboard.getRank(id);
     }
 
     public int getAverageRank(UUID id) {
-        for (int i = 0; i < averageLeaderboard.size(); i++) {
-            SkillValue skillValue = averageLeaderboard.get(i);
-            if (skillValue.id().equals(id)) {
-                return i + 1;
-            }
+        QueriedLeaderboards queried = this.queried;
+        if (queried != null) {
+            return queried.getRank(LeaderboardKey.AVERAGE, id, getCurrentValue(LeaderboardKey.AVERAGE, id));
+        }
+        return averageLeaderboard.getRank(id);
+    }
+
+    private List<SkillValue> getAll(QueriedLeaderboards queried, LeaderboardKey key) {
+        try {
+            return queried.getAll(key);
+        } catch (Exception e) {
+            plugin.logger().warn("Error querying leaderboard: " + e.getMessage());
+            return List.of();
         }
-        return 0;
     }
 
     public boolean isNotSorting() {
@@ -173,41 +451,8 @@ public class LeaderboardManager {
         return leaderboardExclusion;
     }
 
-    private void addLoadedPlayersToLeaderboards(Map<Skill, List<SkillValue>> skillLb, List<SkillValue> powerLb, List<SkillValue> averageLb) {
-        for (User user : plugin.getUserManager().getUserMap().values()) {
-            UUID id = user.getUuid();
-
-            if (leaderboardExclusion.isExcludedPlayer(id)) {
-                continue;
-            }
-
-            int powerLevel = 0;
-            double powerXp = 0;
-            int numEnabled = 0;
-            for (Skill skill : plugin.getSkillManager().getSkillValues()) {
-                int level = user.getSkillLevel(skill);
-                double xp = user.getSkillXp(skill);
-                // Add to lists
-                SkillValue skillLevel = new SkillValue(id, level, xp);
-                skillLb.get(skill).add(skillLevel);
-
-                if (skill.isEnabled()) {
-                    powerLevel += level;
-                    powerXp += xp;
-                    numEnabled++;
-                }
-            }
-            // Add power and average
-            SkillValue powerValue = new SkillValue(id, powerLevel, powerXp);
-            powerLb.add(powerValue);
-            double averageLevel = (double) powerLevel / numEnabled;
-            SkillValue averageValue = new SkillValue(id, 0, averageLevel);
-            averageLb.add(averageValue);
-        }
-    }
-
-    private void addOfflinePlayers(Map<Skill, List<SkillValue>> skillLb, List<SkillValue> powerLb, List<SkillValue> averageLb, long previousFetchTime) throws Exception {
-        List<UserState> offlineStates = plugin.getStorageProvider().loadStates(true, true, previousFetchTime);
+    private void addOfflinePlayers(Map<Skill, List<SkillValue>> skillLb, List<SkillValue> powerLb, List<SkillValue> averageLb) throws Exception {
+        List<UserState> offlineStates = plugin.getStorageProvider().loadStates(true, true);
         for (UserState state : offlineStates) {
             if (leaderboardExclusion.isExcludedPlayer(state.uuid())) {
                 continue;
@@ -238,18 +483,10 @@ public class LeaderboardManager {
         }
     }
 
-    private void sortLeaderboards(Map<Skill, List<SkillValue>> skillLb, List<SkillValue> powerLb, List<SkillValue> averageLb) {
-        LeaderboardSorter sorter = new LeaderboardSorter();
-        for (Skill skill : plugin.getSkillManager().getSkillValues()) {
-            skillLb.computeIfAbsent(skill, k -> new ArrayList<>()).sort(sorter);
-        }
-        powerLb.sort(sorter);
-        AverageSorter averageSorter = new AverageSorter();
-        averageLb.sort(averageSorter);
-
-        // Add skill leaderboards to map
+    private void publishLeaderboards(Map<Skill, List<SkillValue>> skillLb, List<SkillValue> powerLb, List<SkillValue> averageLb) {
+        // Leaderboards insert values in order themselves, so the lists don't need sorting first
         for (Skill skill : plugin.getSkillManager().getSkillValues()) {
-            setLeaderboard(skill, skillLb.get(skill));
+            setLeaderboard(skill, skillLb.computeIfAbsent(skill, k -> new ArrayList<>()));
         }
         setPowerLeaderboard(powerLb);
         setAverageLeaderboard(averageLb);
@@ -0,0 +1,56 @@
+package dev.aurelium.auraskills.common.leaderboard;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Leaderboards ranked by the storage backend, so that only the requested values are loaded
+ * instead of every user. Values use the same form as the in-memory leaderboards, where average
+ * leaderboard values store the average level as the xp.
+ */
+public interface LeaderboardQueries {
+
+    /**
+     * Gets part of a leaderboard in order.
+     *
+     * @param key the leaderboard
+     * @param offset the number of values to skip from first place
+     * @param limit the maximum number of values to get
+     * @param excluded players to leave out
+     * @return the values in order
+     */
+    List<SkillValue> getValues(LeaderboardKey key, int offset, int limit, Set<UUID> excluded) throws Exception;
+
+    /**
+     * Gets the stored value of a player.
+     *
+     * @param key the leaderboard
+     * @param id the player's UUID
+     * @return the value, or null if the player has no stored data
+     */
+    @Nullable
+    SkillValue getValue(LeaderboardKey key, UUID id) throws Exception;
+
+    /**
+     * Counts the players ranked ahead of a value, so the rank of the value is the count plus one.
+     *
+     * @param key the leaderboard
+     * @param value the value to rank
+     * @param excluded players to leave out
+     * @return the number of players ahead
+     */
+    int countAhead(LeaderboardKey key, SkillValue value, Set<UUID> excluded) throws Exception;
+
+    /**
+     * Counts the players on a leaderboard.
+     *
+     * @param key the leaderboard
+     * @param excluded players to leave out
+     * @return the number of players
+     */
+    int count(LeaderboardKey key, Set<UUID> excluded) throws Exception;
+
+}
@@ -0,0 +1,215 @@
+package dev.aurelium.auraskills.common.leaderboard;
+
+import dev.aurelium.auraskills.common.AuraSkillsPlugin;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Leaderboards read through {@link LeaderboardQueries} with each result cached for a short time.
+ * Synchronous lookups never wait for storage: they return the last fetched result, or an empty result
+ * before the first fetch completes, and refresh expired results asynchronously. Callers that can wait,
+ * like commands, use the async lookups, which complete once the first fetch is done.
+ */
+public class QueriedLeaderboards {
+
+    private static final long CACHE_DURATION_MS = 30000;
+    private static final long UNUSED_EXPIRY_MS = 10 * 60000;
+    // Small pages are served from aligned blocks so single place lookups share one query
+    private static final int BLOCK_SIZE = 10;
+    // Page size used when reading a whole leaderboard
+    private static final int FULL_PAGE_SIZE = 1000;
+
+    @Nullable
+    private final AuraSkillsPlugin plugin;
+    private final LeaderboardQueries queries;
+    private final LeaderboardExclusion exclusion;
+    private final Executor executor;
+    private final Map<Object, CachedResult<?>> cache = new ConcurrentHashMap<>();
+
+    public QueriedLeaderboards(AuraSkillsPlugin plugin, LeaderboardQueries queries, LeaderboardExclusion exclusion) {
+        this(plugin, queries, exclusion, task -> plugin.getScheduler().executeAsync(task));
+    }
+
+    QueriedLeaderboards(@Nullable AuraSkillsPlugin plugin, LeaderboardQueries queries, LeaderboardExclusion exclusion, Executor executor) {
+        this.plugin = plugin;
+        this.queries = queries;
+        this.exclusion = exclusion;
+        this.executor = executor;
+    }
+
+    public List<SkillValue> getPage(LeaderboardKey key, int page, int numPerPage) {
+        return getPageAsync(key, page, numPerPage).getNow(List.of());
+    }
+
+    /**
+     * Gets a page of a leaderboard, waiting for the query if it hasn't been fetched yet.
+     *
+     * @param key the leaderboard
+     * @param page the page, starting at 1
+     * @param numPerPage the number of values per page
+     * @return a future completed with the values
+     */
+    public CompletableFuture<List<SkillValue>> getPageAsync(LeaderboardKey key, int page, int numPerPage) {
+        int offset = (Math.max(page, 1) - 1) * numPerPage;
+        int blockStart = offset / BLOCK_SIZE * BLOCK_SIZE;
+        if (offset + numPerPage <= blockStart + BLOCK_SIZE) {
+            return getValues(key, blockStart, BLOCK_SIZE).thenApply(block -> {
+                int from = Math.min(offset - blockStart, block.size());
+                return block.subList(from, Math.min(from + numPerPage, block.size()));
+            });
+        }
+        return getValues(key, offset, numPerPage);
+    }
+
+    /**
+     * Reads a whole leaderboard from storage in pages without caching it. Blocks until every page is read.
+     *
+     * @param key the leaderboard
+     * @return every value in order
+     */
+    public List<SkillValue> getAll(LeaderboardKey key) throws Exception {
+        List<SkillValue> values = new ArrayList<>();
+        Set<UUID> excluded = excluded();
+        while (true) {
+            List<SkillValue> page = queries.getValues(key, values.size(), FULL_PAGE_SIZE, excluded);
+            values.addAll(page);
+            if (page.size() < FULL_PAGE_SIZE) {
+                return values;
+            }
+        }
+    }
+
+    /**
+     * Gets the rank of a player.
+     *
+     * @param key the leaderboard
+     * @param id the player's UUID
+     * @param current the player's current value if loaded, which is newer than the stored value
+     * @return the rank, or 0 if unknown or the player is not on the leaderboard
+     */
+    public int getRank(LeaderboardKey key, UUID id, @Nullable SkillValue current) {
+        return getRankAsync(key, id, current).getNow(0);
+    }
+
+    /**
+     * Gets the rank of a player, waiting for the query if it hasn't been fetched yet.
+     *
+     * @param key the leaderboard
+     * @param id the player's UUID
+     * @param current the player's current value if loaded, which is newer than the stored value
+     * @return a future completed with the rank, or 0 if the player is not on the leaderboard
+     */
+    public CompletableFuture<Integer> getRankAsync(LeaderboardKey key, UUID id, @Nullable SkillValue current) {
+        if (exclusion.isExcludedPlayer(id)) {
+            return CompletableFuture.completedFuture(0);
+        }
+        return get(new RankKey(key, id), 0, () -> {
+            SkillValue value = current != null ? current : queries.getValue(key, id);
+            return value != null ? queries.countAhead(key, value, excluded()) + 1 : 0;
+        });
+    }
+
+    public int getSize(LeaderboardKey key) {
+        return getSizeAsync(key).getNow(0);
+    }
+
+    public CompletableFuture<Integer> getSizeAsync(LeaderboardKey key) {
+        return get(new SizeKey(key), 0, () -> queries.count(key, excluded()));
+    }
+
+    /**
+     * Starts fetching the first page and size of a leaderboard so they are ready when first used.
+     *
+     * @param key the leaderboard
+     */
+    public void warmUp(LeaderboardKey key) {
+        getPageAsync(key, 1, BLOCK_SIZE);
+        getSizeAsync(key);
+    }
+
+    /**
+     * Removes results that haven't been used recently, such as the ranks of players who left.
+     */
+    public void prune() {
+        long now = System.currentTimeMillis();
+        cache.values().removeIf(result -> now - result.lastUsed > UNUSED_EXPIRY_MS);
+    }
+
+    private CompletableFuture<List<SkillValue>> getValues(LeaderboardKey key, int offset, int limit) {
+        return get(new PageKey(key, offset, limit), List.of(), () -> queries.getValues(key, offset, limit, excluded()));
+    }
+
+    private Set<UUID> excluded() {
+        return Set.copyOf(exclusion.getExcludedPlayers());
+    }
+
+    // Completes immediately with the cached value if there is one, refreshing it in the background once expired
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> get(Object cacheKey, T fallback, Callable<T> query) {
+        CachedResult<T> result = (CachedResult<T>) cache.computeIfAbsent(cacheKey, k -> new CachedResult<>());
+        long now = System.currentTimeMillis();
+        result.lastUsed = now;
+        CompletableFuture<T> fetch;
+        synchronized (result) {
+            fetch = result.fetch;
+            if (fetch == null && now - result.fetchedAt > CACHE_DURATION_MS) {
+                fetch = new CompletableFuture<>();
+                result.fetch = fetch;
+                CompletableFuture<T> started = fetch;
+                executor.execute(() -> fetch(result, started, fallback, query));
+            }
+        }
+        T value = result.value;
+        if (value != null) {
+            return CompletableFuture.completedFuture(value);
+        }
+        return fetch != null ? fetch : CompletableFuture.completedFuture(fallback);
+    }
+
+    private <T> void fetch(CachedResult<T> result, CompletableFuture<T> future, T fallback, Callable<T> query) {
+        try {
+            result.value = query.call();
+        } catch (Exception e) {
+            if (plugin != null) {
+                plugin.logger().warn("Error querying leaderboard: " + e.getMessage());
+            }
+        }
+        synchronized (result) {
+            // Also set on failure so a broken query isn't retried on every lookup
+            result.fetchedAt = System.currentTimeMillis();
+            result.fetch = null;
+        }
+        T value = result.value;
+        future.complete(value != null ? value : fallback);
+    }
+
+    private record PageKey(LeaderboardKey key, int offset, int limit) {
+
+    }
+
+    private record RankKey(LeaderboardKey key, UUID id) {
+
+    }
+
+    private record SizeKey(LeaderboardKey key) {
+
+    }
+
+    private static class CachedResult<T> {
+
+        @Nullable
+        private volatile T value;
+        private volatile long fetchedAt;
+        private volatile long lastUsed;
+        // The fetch in progress, if any
+        @Nullable
+        private CompletableFuture<T> fetch;
+
+    }
+
+}
@@ -6,13 +6,17 @@ import dev.aurelium.auraskills.api.source.XpSource;
 import dev.aurelium.auraskills.common.AuraSkillsPlugin;
 import dev.aurelium.auraskills.common.config.ConfigurateLoader;
 import dev.aurelium.auraskills.common.config.Option;
+import dev.aurelium.auraskills.common.economy.SkillCoinsRewards;
 import dev.aurelium.auraskills.common.hooks.EconomyHook;
 import dev.aurelium.auraskills.common.jobs.JobsBatchData;
+import dev.aurelium.auraskills.common.leaderboard.LeaderboardManager;
 import dev.aurelium.auraskills.common.reward.SkillReward;
 import dev.aurelium.auraskills.common.scheduler.Tick;
 import dev.aurelium.auraskills.common.user.User;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.spongepowered.configurate.ConfigurationNode;
+import org.spongepowered.configurate.serialize.TypeSerializerCollection;
 
 import java.util.List;
 import java.util.Locale;
@@ -25,10 +29,18 @@ public abstract class LevelManager {
 
     private final AuraSkillsPlugin plugin;
     protected final XpRequirements xpRequirements;
+    private final XpAccumulator xpAccumulator;
+    @Nullable
+    private volatile SkillCoinsRewards skillCoinsRewards;
 
     public LevelManager(AuraSkillsPlugin plugin) {
         this.plugin = plugin;
         this.xpRequirements = plugin.getXpRequirements();
+        this.xpAccumulator = new XpAccumulator(plugin, this);
+    }
+
+    public XpAccumulator getXpAccumulator() {
+        return xpAccumulator;
     }
 
     public double getPermissionMultiplier(@NotNull User user, @Nullable Skill skill) {
@@ -60,6 +72,24 @@ public abstract class LevelManager {
         addXpRaw(user, skill, res.second(), source);
     }
 
+    /**
+     * Adds xp from a source that gives many gains in a short time, like blocks broken by a mana ability.
+     * If xp accumulation is enabled and no plugin disabled it, gains are combined and given at the end
+     * of the accumulation window.
+     *
+     * @param user the user to give xp to
+     * @param skill the skill to give xp in
+     * @param source the source of the xp
+     * @param amount the xp before multipliers
+     */
+    public void addBurstXp(User user, Skill skill, @Nullable XpSource source, double amount) {
+        if (plugin.configBoolean(Option.LEVELER_XP_ACCUMULATION_ENABLED) && !xpAccumulator.isDisabled()) {
+            xpAccumulator.add(user, skill, source, amount);
+        } else {
+            addXp(user, skill, source, amount);
+        }
+    }
+
     protected void addXpRaw(User user, Skill skill, double amount, @Nullable XpSource xpSource) {
         if (amount <= 0.0) return;
 
@@ -67,6 +97,7 @@ public abstract class LevelManager {
 
         user.addSkillXp(skill, amount);
         checkLevelUp(user, skill);
+        updateLeaderboards(user, skill);
         // Send action bar and boss bar
         sendXpUi(user, skill, amount, income);
     }
@@ -133,6 +164,7 @@ public abstract class LevelManager {
         user.setSkillXp(skill, amount);
         // Check if player leveled up
         checkLevelUp(user, skill);
+        updateLeaderboards(user, skill);
         // Sends action bar message
         double xpAmount = amount - originalAmount;
 
@@ -151,6 +183,13 @@ public abstract class LevelManager {
         }
     }
 
+    private void updateLeaderboards(User user, Skill skill) {
+        LeaderboardManager leaderboardManager = plugin.getLeaderboardManager();
+        if (leaderboardManager != null) {
+            leaderboardManager.updateUser(user, skill);
+        }
+    }
+
     public void checkLevelUp(User user, Skill skill) {
         int currentLevel = user.getSkillLevel(skill);
         double currentXp = user.getSkillXp(skill);
@@ -171,6 +210,7 @@ public abstract class LevelManager {
 
         user.setSkillXp(skill, currentXp - xpRequirements.getXpRequired(skill, level));
         user.setSkillLevel(skill, level);
+        updateLeaderboards(user, skill);
         
         // Give SkillCoins reward
         double coinsReward = calculateSkillCoinsReward(skill, level);
@@ -205,30 +245,27 @@ public abstract class LevelManager {
     }
 
     private double calculateSkillCoinsReward(Skill skill, int level) {
+        SkillCoinsRewards rewards = skillCoinsRewards;
+        if (rewards == null) {
+            loadSkillCoinsRewards();
+            rewards = skillCoinsRewards;
+        }
+        return rewards.getReward(skill, level);
+    }
+
+    /**
+     * Loads the SkillCoins level up rewards from shop_config.yml, called on load and reload.
+     */
+    public void loadSkillCoinsRewards() {
         try {
-            ConfigurateLoader loader = new ConfigurateLoader(plugin, org.spongepowered.configurate.serialize.TypeSerializerCollection.builder().build());
-            org.spongepowered.configurate.ConfigurationNode config = loader.loadEmbeddedFile("shop_config.yml");
-            
-            org.spongepowered.configurate.ConfigurationNode rewardsConfig = config.node("level_rewards");
-            if (!rewardsConfig.node("enabled").getBoolean(true)) {
-                return 0.0;
-            }
-            
-            double baseReward = rewardsConfig.node("base_reward").getDouble(50.0);
-            double multiplier = rewardsConfig.node("reward_multiplier").getDouble(1.2);
-            
-            // Check for skill-specific override
-            String skillKey = skill.getId().getKey();
-            org.spongepowered.configurate.ConfigurationNode skillRewardsNode = rewardsConfig.node("skill_rewards", skillKey);
-            if (!skillRewardsNode.virtual()) {
-                baseReward = skillRewardsNode.getDouble(baseReward);
-            }
-            
-            // Calculate reward with exponential scaling
-            return baseReward * Math.pow(multiplier, level / 10.0);
+            ConfigurateLoader loader = new ConfigurateLoader(plugin, TypeSerializerCollection.builder().build());
+            ConfigurationNode embedded = loader.loadEmbeddedFile("shop_config.yml");
+            ConfigurationNode user = loader.loadUserFile("shop_config.yml");
+            ConfigurationNode config = loader.loadContentAndMerge(null, "shop_config.yml", embedded, user);
+            skillCoinsRewards = SkillCoinsRewards.fromConfig(config.node("level_rewards"));
         } catch (Exception e) {
-            plugin.logger().warn("Failed to calculate SkillCoins reward: " + e.getMessage());
-            return 0.0;
+            plugin.logger().warn("Failed to load SkillCoins rewards: " + e.getMessage());
+            skillCoinsRewards = SkillCoinsRewards.DISABLED;
         }
     }
 
@@ -0,0 +1,114 @@
+package dev.aurelium.auraskills.common.level;
+
+import dev.aurelium.auraskills.api.skill.Skill;
+import dev.aurelium.auraskills.api.source.XpSource;
+import dev.aurelium.auraskills.common.AuraSkillsPlugin;
+import dev.aurelium.auraskills.common.config.Option;
+import dev.aurelium.auraskills.common.user.User;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Combines xp gains of the same user, skill, and source within a short window into a single
+ * gain, so that sources giving many gains at once (like Treecapitator) call one XpGainEvent
+ * and check for level ups and update the UI once instead of for every block. Plugins that
+ * need an event for every gain can disable it through the API.
+ */
+public class XpAccumulator {
+
+    @Nullable
+    private final AuraSkillsPlugin plugin;
+    private final XpGiver giver;
+    private final Consumer<Runnable> flushScheduler;
+    private final Map<Key, Double> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final Set<String> disabledBy = ConcurrentHashMap.newKeySet();
+
+    public XpAccumulator(AuraSkillsPlugin plugin, LevelManager levelManager) {
+        this(plugin, levelManager::addXp, flush -> {
+            int windowMs = Math.max(plugin.configInt(Option.LEVELER_XP_ACCUMULATION_WINDOW_MS), 1);
+            plugin.getScheduler().scheduleSync(flush, windowMs, TimeUnit.MILLISECONDS);
+        });
+    }
+
+    XpAccumulator(@Nullable AuraSkillsPlugin plugin, XpGiver giver, Consumer<Runnable> flushScheduler) {
+        this.plugin = plugin;
+        this.giver = giver;
+        this.flushScheduler = flushScheduler;
+    }
+
+    /**
+     * Adds xp to be given when the current window ends.
+     *
+     * @param user the user to give xp to
+     * @param skill the skill to give xp in
+     * @param source the source of the xp
+     * @param amount the xp before multipliers
+     */
+    public void add(User user, Skill skill, @Nullable XpSource source, double amount) {
+        if (amount == 0) return;
+
+        pending.merge(new Key(user, skill, source), amount, Double::sum);
+        if (flushScheduled.compareAndSet(false, true)) {
+            flushScheduler.accept(this::flush);
+        }
+    }
+
+    /**
+     * Gives all pending xp now, called when the window ends and before users are saved.
+     */
+    public void flush() {
+        flushScheduled.set(false);
+        List<Key> keys = new ArrayList<>(pending.keySet());
+        for (Key key : keys) {
+            Double amount = pending.remove(key);
+            if (amount == null) continue;
+            try {
+                giver.addXp(key.user(), key.skill(), key.source(), amount);
+            } catch (RuntimeException e) {
+                if (plugin != null) {
+                    plugin.logger().warn("Failed to give accumulated xp to user " + key.user().getUuid() + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Disables accumulation so burst xp is given right away, as requested by another plugin.
+     *
+     * @param pluginName the name of the plugin disabling it
+     */
+    public void disable(String pluginName) {
+        if (disabledBy.add(pluginName) && plugin != null) {
+            plugin.logger().info("XP accumulation was disabled by " + pluginName);
+        }
+    }
+
+    public boolean isDisabled() {
+        return !disabledBy.isEmpty();
+    }
+
+    @FunctionalInterface
+    interface XpGiver {
+
+        void addXp(User user, Skill skill, @Nullable XpSource source, double amount);
+
+    }
+
+    private record Key(User user, Skill skill, @Nullable XpSource source) {
+
+    }
+
+}
@@ -9,6 +9,7 @@ public class ManaAbilityData {
     private boolean ready;
     private boolean activated;
     private int errorTimer;
+    private volatile boolean changed; // Only the cooldown is persisted
 
     public ManaAbilityData(ManaAbility manaAbility) {
         this.manaAbility = manaAbility;
@@ -23,9 +24,24 @@ public class ManaAbilityData {
     }
 
     public void setCooldown(int cooldown) {
+        if (this.cooldown != cooldown) {
+            changed = true;
+        }
         this.cooldown = cooldown;
     }
 
+    public boolean pollChanged() {
+        if (changed) {
+            changed = false;
+            return true;
+        }
+        return false;
+    }
+
+    public boolean isChanged() {
+        return changed;
+    }
+
     public boolean isReady() {
         return ready;
     }
@@ -50,7 +50,7 @@ public enum CommandMessage implements MessageKey {
     BACKUP_LOAD_LOADING,
     BACKUP_LOAD_LOADED,
     BACKUP_LOAD_ERROR,
-    BACKUP_LOAD_MUST_BE_YAML(Command.BACKUP_LOAD, "must_be_yaml"),
+    BACKUP_LOAD_INVALID_FILE(Command.BACKUP_LOAD, "invalid_file"),
     BACKUP_LOAD_FILE_NOT_FOUND(Command.BACKUP_LOAD, "file_not_found"),
     BACKUP_SAVE_SAVING,
     BACKUP_SAVE_SAVED,
@@ -1,20 +1,23 @@
 package dev.aurelium.auraskills.common.region;
 
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import dev.aurelium.auraskills.common.region.RegionFile.EncodedChunk;
+import org.jetbrains.annotations.Nullable;
 
 public class ChunkData {
 
     private final Region region;
     private final byte x;
     private final byte z;
-    private final ConcurrentMap<BlockPosition, BlockPosition> placedBlocks;
+    private final PlacedBlockSet placedBlocks;
+    private volatile boolean dirty;
+    @Nullable
+    private volatile EncodedChunk savedChunk; // Encoded form from the last save or load
 
     public ChunkData(Region region, byte x, byte z) {
         this.region = region;
         this.x = x;
         this.z = z;
-        this.placedBlocks = new ConcurrentHashMap<>();
+        this.placedBlocks = new PlacedBlockSet();
     }
 
     public Region getRegion() {
@@ -29,20 +32,87 @@ public class ChunkData {
         return z;
     }
 
+    public boolean isPlacedBlock(int blockX, int blockY, int blockZ) {
+        return placedBlocks.contains(PlacedBlockSet.pack(blockX, blockY, blockZ));
+    }
+
     public boolean isPlacedBlock(BlockPosition blockPosition) {
-        return placedBlocks.containsKey(blockPosition);
+        return isPlacedBlock(blockPosition.getX(), blockPosition.getY(), blockPosition.getZ());
     }
 
-    public ConcurrentMap<BlockPosition, BlockPosition> getPlacedBlocks() {
+    public PlacedBlockSet getPlacedBlocks() {
         return placedBlocks;
     }
 
+    public void addPlacedBlock(int blockX, int blockY, int blockZ) {
+        if (placedBlocks.add(PlacedBlockSet.pack(blockX, blockY, blockZ))) {
+            markDirty();
+        }
+    }
+
     public void addPlacedBlock(BlockPosition blockPosition) {
-        this.placedBlocks.put(blockPosition, blockPosition);
+        addPlacedBlock(blockPosition.getX(), blockPosition.getY(), blockPosition.getZ());
+    }
+
+    public void removePlacedBlock(int blockX, int blockY, int blockZ) {
+        if (placedBlocks.remove(PlacedBlockSet.pack(blockX, blockY, blockZ))) {
+            markDirty();
+        }
     }
 
     public void removePlacedBlock(BlockPosition blockPosition) {
-        this.placedBlocks.remove(blockPosition);
+        removePlacedBlock(blockPosition.getX(), blockPosition.getY(), blockPosition.getZ());
+    }
+
+    // Adds blocks read from a region file, which don't need to be saved again
+    void loadPlacedBlocks(int[] packed, @Nullable EncodedChunk encoded) {
+        boolean wasEmpty = savedChunk == null && placedBlocks.isEmpty();
+        int added = placedBlocks.addAll(packed);
+        if (wasEmpty) {
+            this.savedChunk = encoded;
+        } else if (added > 0) {
+            // Blocks merged into a chunk that already had data make the saved form stale
+            markDirty();
+        }
+    }
+
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    public void markDirty() {
+        this.dirty = true;
+        region.markDirty();
+    }
+
+    /**
+     * Clears the dirty flag. Must be called before reading the placed blocks to save so that
+     * changes made during the save mark the chunk dirty again.
+     *
+     * @return whether the chunk was dirty
+     */
+    boolean clearDirty() {
+        boolean wasDirty = dirty;
+        this.dirty = false;
+        return wasDirty;
+    }
+
+    @Nullable
+    EncodedChunk getSavedChunk() {
+        return savedChunk;
+    }
+
+    void setSavedChunk(@Nullable EncodedChunk savedChunk) {
+        this.savedChunk = savedChunk;
+    }
+
+    // Absolute block coordinates of the chunk's minimum corner
+    public int getBlockX() {
+        return (region.getX() * 32 + x) * 16;
+    }
+
+    public int getBlockZ() {
+        return (region.getZ() * 32 + z) * 16;
     }
 
 }
@@ -0,0 +1,136 @@
+package dev.aurelium.auraskills.common.region;
+
+import dev.aurelium.auraskills.common.AuraSkillsPlugin;
+import net.querz.nbt.io.NBTUtil;
+import net.querz.nbt.io.NamedTag;
+import net.querz.nbt.tag.CompoundTag;
+import net.querz.nbt.tag.ListTag;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converts NBT region files (.asrg) under regiondata/ to the binary {@link RegionFile} format.
+ */
+public class LegacyRegionMigrator {
+
+    private final AuraSkillsPlugin plugin;
+    private final Object lock = new Object();
+
+    public LegacyRegionMigrator(AuraSkillsPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Migrates every legacy region file in the regiondata folder, then deletes them.
+     */
+    public void migrateAll() {
+        File[] worldFolders = new File(plugin.getPluginFolder(), "regiondata").listFiles(File::isDirectory);
+        if (worldFolders == null) return;
+
+        int migrated = 0;
+        long start = System.currentTimeMillis();
+        for (File worldFolder : worldFolders) {
+            File[] legacyFiles = worldFolder.listFiles((dir, name) -> name.startsWith("r.") && name.endsWith(RegionFile.LEGACY_EXTENSION));
+            if (legacyFiles == null) continue;
+
+            for (File legacyFile : legacyFiles) {
+                String baseName = legacyFile.getName().substring(0, legacyFile.getName().length() - RegionFile.LEGACY_EXTENSION.length());
+                if (migrate(legacyFile, new File(worldFolder, baseName + RegionFile.EXTENSION))) {
+                    migrated++;
+                }
+            }
+        }
+        if (migrated > 0) {
+            plugin.logger().info("[Migrator] Converted " + migrated + " region files to the binary format in " + (System.currentTimeMillis() - start) + "ms");
+        }
+    }
+
+    /**
+     * Converts a single legacy file if it exists and the binary file doesn't. Safe to call concurrently
+     * with {@link #migrateAll()}, which is how regions loaded before the bulk migration finishes are handled.
+     *
+     * @param legacyFile the .asrg file
+     * @param binaryFile the .asrb file to create
+     * @return whether a file was converted
+     */
+    public boolean migrate(File legacyFile, File binaryFile) {
+        synchronized (lock) {
+            if (!legacyFile.exists() || binaryFile.exists()) {
+                return false;
+            }
+            List<RegionFile.EncodedChunk> chunks;
+            try {
+                chunks = readLegacyFile(legacyFile);
+            } catch (IOException | RuntimeException e) {
+                // Only a legacy file that can't be read or parsed is deleted
+                if (legacyFile.delete()) {
+                    plugin.logger().warn("Deleted " + legacyFile.getName() + " because it was corrupted, this won't affect anything");
+                }
+                return false;
+            }
+            try {
+                File parent = binaryFile.getParentFile();
+                if (parent != null && !parent.exists() && !parent.mkdirs()) {
+                    plugin.logger().warn("Failed to create directory " + parent.getName());
+                }
+                if (!chunks.isEmpty()) {
+                    RegionFile.write(binaryFile.toPath(), chunks);
+                }
+            } catch (IOException | RuntimeException e) {
+                // Keep the legacy file so the migration is retried, and remove any partial output
+                deletePartial(binaryFile);
+                plugin.logger().warn("Failed to write region file " + binaryFile.getName() + ", keeping " + legacyFile.getName() + ": " + e.getMessage());
+                return false;
+            }
+            try {
+                Files.delete(legacyFile.toPath());
+            } catch (IOException e) {
+                plugin.logger().warn("Failed to delete migrated region file " + legacyFile.getName() + ": " + e.getMessage());
+            }
+            return true;
+        }
+    }
+
+    private void deletePartial(File binaryFile) {
+        try {
+            Files.deleteIfExists(binaryFile.toPath());
+            Files.deleteIfExists(binaryFile.toPath().resolveSibling(binaryFile.getName() + ".tmp"));
+        } catch (IOException e) {
+            plugin.logger().warn("Failed to delete partial region file " + binaryFile.getName() + ": " + e.getMessage());
+        }
+    }
+
+    private List<RegionFile.EncodedChunk> readLegacyFile(File file) throws IOException {
+        List<RegionFile.EncodedChunk> chunks = new ArrayList<>();
+        NamedTag namedTag = NBTUtil.read(file);
+        if (namedTag.getTag() instanceof CompoundTag compoundTag) {
+            for (String key : compoundTag.keySet()) {
+                // Load each chunk
+                if (!key.startsWith("chunk")) {
+                    continue;
+                }
+                // Get chunk coordinates
+                int commaIndex = key.indexOf(",");
+                byte chunkX = Byte.parseByte(key.substring(key.indexOf("[") + 1, commaIndex));
+                byte chunkZ = Byte.parseByte(key.substring(commaIndex + 1, key.lastIndexOf("]")));
+
+                ListTag<?> placedBlocks = compoundTag.getCompoundTag(key).getListTag("placed_blocks");
+                if (placedBlocks == null || placedBlocks.size() == 0) {
+                    continue;
+                }
+                int[] packed = new int[placedBlocks.size()];
+                int i = 0;
+                for (CompoundTag block : placedBlocks.asCompoundTagList()) {
+                    packed[i++] = PlacedBlockSet.pack(block.getInt("x"), block.getInt("y"), block.getInt("z"));
+                }
+                chunks.add(RegionFile.encodeChunk(chunkX, chunkZ, packed));
+            }
+        }
+        return chunks;
+    }
+
+}
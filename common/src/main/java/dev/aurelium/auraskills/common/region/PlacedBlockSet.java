@@ -0,0 +1,250 @@
+package dev.aurelium.auraskills.common.region;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Set of placed block positions within a single chunk. Positions are packed into
+ * a single int (chunk-local x and z, absolute y) and stored in an open-addressing
+ * table with linear probing, so lookups do not allocate and each tracked block
+ * costs a few bytes instead of a boxed map entry.
+ */
+public class PlacedBlockSet {
+
+    private static final int EMPTY = Integer.MIN_VALUE;
+    private static final int MIN_CAPACITY = 8;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final StampedLock lock = new StampedLock();
+    private int[] table;
+    private int size;
+
+    public PlacedBlockSet() {
+        this(MIN_CAPACITY);
+    }
+
+    public PlacedBlockSet(int expectedSize) {
+        this.table = newTable(capacityFor(expectedSize));
+        this.size = 0;
+    }
+
+    /**
+     * Packs a block position into the key format used by this set. Only the lowest
+     * 4 bits of x and z are kept since the set is scoped to one chunk.
+     *
+     * @param x the block x coordinate
+     * @param y the block y coordinate, must fit in 24 signed bits
+     * @param z the block z coordinate
+     * @return the packed key
+     */
+    public static int pack(int x, int y, int z) {
+        return (y << 8) | ((x & 15) << 4) | (z & 15);
+    }
+
+    public static int unpackX(int packed) {
+        return (packed >> 4) & 15;
+    }
+
+    public static int unpackY(int packed) {
+        return packed >> 8;
+    }
+
+    public static int unpackZ(int packed) {
+        return packed & 15;
+    }
+
+    public boolean contains(int packed) {
+        long stamp = lock.tryOptimisticRead();
+        boolean found = indexOf(table, packed) != -1;
+        if (lock.validate(stamp)) {
+            return found;
+        }
+        stamp = lock.readLock();
+        try {
+            return indexOf(table, packed) != -1;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public boolean add(int packed) {
+        long stamp = lock.writeLock();
+        try {
+            if (!insert(table, packed)) {
+                return false;
+            }
+            size++;
+            if (size > table.length * LOAD_FACTOR) {
+                rehash(table.length << 1);
+            }
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Adds every packed position in the array, resizing at most once.
+     *
+     * @param packed the packed positions to add
+     * @return the number of positions that were not already in the set
+     */
+    public int addAll(int[] packed) {
+        long stamp = lock.writeLock();
+        try {
+            int capacity = capacityFor(size + packed.length);
+            if (capacity > table.length) {
+                rehash(capacity);
+            }
+            int added = 0;
+            for (int key : packed) {
+                if (insert(table, key)) {
+                    added++;
+                }
+            }
+            size += added;
+            return added;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public boolean remove(int packed) {
+        long stamp = lock.writeLock();
+        try {
+            int index = indexOf(table, packed);
+            if (index == -1) {
+                return false;
+            }
+            shiftDelete(table, index);
+            size--;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Gets a snapshot of every packed position in the set, in no particular order.
+     *
+     * @return a new array of packed positions
+     */
+    public int[] toArray() {
+        long stamp = lock.readLock();
+        try {
+            int[] result = new int[size];
+            int i = 0;
+            for (int key : table) {
+                if (key != EMPTY) {
+                    result[i++] = key;
+                }
+            }
+            return result;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private void rehash(int capacity) {
+        int[] newTable = newTable(capacity);
+        for (int key : table) {
+            if (key != EMPTY) {
+                insert(newTable, key);
+            }
+        }
+        table = newTable;
+    }
+
+    private static int indexOf(int[] table, int key) {
+        int mask = table.length - 1;
+        int index = hash(key) & mask;
+        // Bounded so that an optimistic read racing a write can never spin forever
+        for (int probes = 0; probes <= mask; probes++) {
+            int current = table[index];
+            if (current == key) {
+                return index;
+            } else if (current == EMPTY) {
+                return -1;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private static boolean insert(int[] table, int key) {
+        int mask = table.length - 1;
+        int index = hash(key) & mask;
+        while (true) {
+            int current = table[index];
+            if (current == key) {
+                return false;
+            } else if (current == EMPTY) {
+                table[index] = key;
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    // Backward shift deletion keeps probe chains intact without tombstones
+    private static void shiftDelete(int[] table, int index) {
+        int mask = table.length - 1;
+        int hole = index;
+        int current = index;
+        while (true) {
+            current = (current + 1) & mask;
+            int key = table[current];
+            if (key == EMPTY) {
+                break;
+            }
+            int ideal = hash(key) & mask;
+            if (!isCyclicallyBetween(hole, ideal, current)) {
+                table[hole] = key;
+                hole = current;
+            }
+        }
+        table[hole] = EMPTY;
+    }
+
+    // Whether slot lies in the cyclic range (start, end]
+    private static boolean isCyclicallyBetween(int start, int slot, int end) {
+        if (start <= end) {
+            return start < slot && slot <= end;
+        } else {
+            return start < slot || slot <= end;
+        }
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * LOAD_FACTOR < expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int[] newTable(int capacity) {
+        int[] table = new int[capacity];
+        Arrays.fill(table, EMPTY);
+        return table;
+    }
+
+}
@@ -2,24 +2,29 @@ package dev.aurelium.auraskills.common.region;
 
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 public class Region {
 
+    public static final int CHUNKS_PER_SIDE = 32;
+
     private final String worldName;
     private final int x;
     private final int z;
-    private final ConcurrentMap<ChunkCoordinate, ChunkData> chunks;
+    // Indexed by region-relative chunk coordinates so lookups don't need a key object
+    private final AtomicReferenceArray<ChunkData> chunks;
+    private volatile boolean dirty;
     private boolean reload;
-    private boolean loading;
+    private volatile boolean loading;
+    private volatile boolean unsaveable;
 
     public Region(String worldName, int x, int z) {
         this.worldName = worldName;
         this.x = x;
         this.z = z;
-        this.chunks = new ConcurrentHashMap<>();
+        this.chunks = new AtomicReferenceArray<>(CHUNKS_PER_SIDE * CHUNKS_PER_SIDE);
         this.reload = false;
         this.loading = false;
     }
@@ -36,17 +41,66 @@ public class Region {
         return z;
     }
 
+    @Nullable
+    public ChunkData getChunkData(int chunkX, int chunkZ) {
+        return chunks.get(index(chunkX, chunkZ));
+    }
+
     @Nullable
     public ChunkData getChunkData(ChunkCoordinate chunkCoordinate) {
-        return chunks.get(chunkCoordinate);
+        return getChunkData(chunkCoordinate.getX(), chunkCoordinate.getZ());
+    }
+
+    public ChunkData getOrCreateChunkData(int chunkX, int chunkZ) {
+        int index = index(chunkX, chunkZ);
+        ChunkData chunkData = chunks.get(index);
+        if (chunkData != null) {
+            return chunkData;
+        }
+        ChunkData created = new ChunkData(this, (byte) chunkX, (byte) chunkZ);
+        if (chunks.compareAndSet(index, null, created)) {
+            return created;
+        }
+        return chunks.get(index);
     }
 
     public void setChunkData(ChunkCoordinate chunkCoordinate, ChunkData chunkData) {
-        chunks.put(chunkCoordinate, chunkData);
+        chunks.set(index(chunkCoordinate.getX(), chunkCoordinate.getZ()), chunkData);
+    }
+
+    public List<ChunkData> getChunks() {
+        List<ChunkData> list = new ArrayList<>();
+        for (int i = 0; i < chunks.length(); i++) {
+            ChunkData chunkData = chunks.get(i);
+            if (chunkData != null) {
+                list.add(chunkData);
+            }
+        }
+        return list;
+    }
+
+    public boolean hasChunks() {
+        for (int i = 0; i < chunks.length(); i++) {
+            if (chunks.get(i) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    public void markDirty() {
+        this.dirty = true;
     }
 
-    public Map<ChunkCoordinate, ChunkData> getChunkMap() {
-        return chunks;
+    // Cleared before chunks are serialized, see ChunkData#clearDirty
+    boolean clearDirty() {
+        boolean wasDirty = dirty;
+        this.dirty = false;
+        return wasDirty;
     }
 
     public void setReload(boolean reload) {
@@ -65,4 +119,35 @@ public class Region {
         this.loading = loading;
     }
 
+    /**
+     * Marks the region as loading unless it already is.
+     *
+     * @return whether the caller should load the region
+     */
+    synchronized boolean startLoading() {
+        if (loading) {
+            return false;
+        }
+        loading = true;
+        return true;
+    }
+
+    /**
+     * Whether the region file failed to load, in which case the region is never saved so the
+     * partially loaded data in memory doesn't overwrite the file.
+     *
+     * @return whether the region can't be saved
+     */
+    public boolean isUnsaveable() {
+        return unsaveable;
+    }
+
+    void markUnsaveable() {
+        this.unsaveable = true;
+    }
+
+    private int index(int chunkX, int chunkZ) {
+        return (chunkX & (CHUNKS_PER_SIDE - 1)) * CHUNKS_PER_SIDE + (chunkZ & (CHUNKS_PER_SIDE - 1));
+    }
+
 }
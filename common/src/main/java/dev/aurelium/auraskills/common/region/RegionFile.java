@@ -0,0 +1,199 @@
+package dev.aurelium.auraskills.common.region;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Binary placed block region format (.asrb). Layout, big endian:
+ * <pre>
+ * int    magic ("ASRB")
+ * short  version
+ * short  chunk count
+ * int    CRC32 of the chunk payloads
+ * chunk count x { short chunk index, int payload offset, int block count, int payload length }
+ * chunk payloads
+ * </pre>
+ * Each chunk payload is the sorted packed positions of {@link PlacedBlockSet}, stored as a zigzag
+ * varint for the first value followed by unsigned varint deltas.
+ */
+public class RegionFile {
+
+    public static final String EXTENSION = ".asrb";
+    public static final String LEGACY_EXTENSION = ".asrg";
+
+    private static final int MAGIC = 0x41535242;
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = 12;
+    private static final int ENTRY_SIZE = 14;
+
+    public record EncodedChunk(int chunkX, int chunkZ, int blockCount, byte[] data) {
+
+    }
+
+    public static EncodedChunk encodeChunk(int chunkX, int chunkZ, int[] packed) {
+        int[] sorted = packed.clone();
+        Arrays.sort(sorted);
+        ByteBuffer buffer = ByteBuffer.allocate(sorted.length * 5);
+        int previous = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0) {
+                writeVarInt(buffer, (sorted[0] << 1) ^ (sorted[0] >> 31));
+            } else {
+                writeVarInt(buffer, sorted[i] - previous);
+            }
+            previous = sorted[i];
+        }
+        byte[] data = Arrays.copyOf(buffer.array(), buffer.position());
+        return new EncodedChunk(chunkX, chunkZ, sorted.length, data);
+    }
+
+    public static int[] decodeChunk(ByteBuffer buffer, int blockCount) throws IOException {
+        int[] packed = new int[blockCount];
+        int previous = 0;
+        for (int i = 0; i < blockCount; i++) {
+            int value = readVarInt(buffer);
+            if (i == 0) {
+                previous = (value >>> 1) ^ -(value & 1);
+            } else {
+                previous += value;
+            }
+            packed[i] = previous;
+        }
+        return packed;
+    }
+
+    public static void write(Path path, List<EncodedChunk> chunks) throws IOException {
+        int payloadSize = 0;
+        for (EncodedChunk chunk : chunks) {
+            payloadSize += chunk.data().length;
+        }
+        int tableSize = chunks.size() * ENTRY_SIZE;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + tableSize + payloadSize);
+        CRC32 crc = new CRC32();
+        for (EncodedChunk chunk : chunks) {
+            crc.update(chunk.data());
+        }
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putShort((short) chunks.size());
+        buffer.putInt((int) crc.getValue());
+        int offset = HEADER_SIZE + tableSize;
+        for (EncodedChunk chunk : chunks) {
+            buffer.putShort((short) (chunk.chunkX() * Region.CHUNKS_PER_SIDE + chunk.chunkZ()));
+            buffer.putInt(offset);
+            buffer.putInt(chunk.blockCount());
+            buffer.putInt(chunk.data().length);
+            offset += chunk.data().length;
+        }
+        for (EncodedChunk chunk : chunks) {
+            buffer.put(chunk.data());
+        }
+        buffer.flip();
+        // Write to a temporary file first so a crash mid-write never leaves a truncated region file
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        try {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Reads a region file and adds its placed blocks to the region.
+     *
+     * @param path the path of the .asrb file
+     * @param region the region to load into
+     * @throws IOException if the file could not be read or is corrupted
+     */
+    public static void read(Path path, Region region) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Invalid region file size " + size);
+            }
+            buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) == -1) {
+                    throw new IOException("Unexpected end of region file");
+                }
+            }
+            buffer.flip();
+        }
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a region file");
+        }
+        short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported region file version " + version);
+        }
+        int chunkCount = buffer.getShort() & 0xFFFF;
+        int expectedCrc = buffer.getInt();
+        int payloadStart = HEADER_SIZE + chunkCount * ENTRY_SIZE;
+        if (payloadStart > buffer.limit()) {
+            throw new IOException("Truncated region file");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(payloadStart, buffer.limit() - payloadStart));
+        if ((int) crc.getValue() != expectedCrc) {
+            throw new IOException("Region file checksum mismatch");
+        }
+        try {
+            for (int i = 0; i < chunkCount; i++) {
+                int entry = HEADER_SIZE + i * ENTRY_SIZE;
+                int chunkIndex = buffer.getShort(entry);
+                int offset = buffer.getInt(entry + 2);
+                int blockCount = buffer.getInt(entry + 6);
+                int length = buffer.getInt(entry + 10);
+                // Every position takes at least one byte, which also bounds the decode array size
+                if (blockCount < 0 || length < blockCount) {
+                    throw new IOException("Corrupted region file");
+                }
+
+                int chunkX = chunkIndex / Region.CHUNKS_PER_SIDE;
+                int chunkZ = chunkIndex % Region.CHUNKS_PER_SIDE;
+                int[] packed = decodeChunk(buffer.slice(offset, length), blockCount);
+                byte[] data = new byte[length];
+                buffer.get(offset, data);
+
+                ChunkData chunkData = region.getOrCreateChunkData(chunkX, chunkZ);
+                chunkData.loadPlacedBlocks(packed, new EncodedChunk(chunkX, chunkZ, blockCount, data));
+            }
+        } catch (IndexOutOfBoundsException | BufferUnderflowException e) {
+            throw new IOException("Corrupted region file", e);
+        }
+    }
+
+    private static void writeVarInt(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static int readVarInt(ByteBuffer buffer) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Varint too long");
+    }
+
+}
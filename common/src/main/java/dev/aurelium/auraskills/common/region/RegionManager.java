@@ -1,34 +1,64 @@
 package dev.aurelium.auraskills.common.region;
 
 import dev.aurelium.auraskills.common.AuraSkillsPlugin;
-import net.querz.nbt.io.NBTUtil;
-import net.querz.nbt.io.NamedTag;
-import net.querz.nbt.tag.CompoundTag;
-import net.querz.nbt.tag.ListTag;
+import dev.aurelium.auraskills.common.region.RegionFile.EncodedChunk;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 public abstract class RegionManager {
 
     protected final AuraSkillsPlugin plugin;
-    protected final ConcurrentMap<RegionCoordinate, Region> regions;
+    private final RegionTable regions;
+    private final LegacyRegionMigrator legacyMigrator;
     private boolean saving;
 
     public RegionManager(AuraSkillsPlugin plugin) {
         this.plugin = plugin;
-        this.regions = new ConcurrentHashMap<>();
+        this.regions = new RegionTable();
+        this.legacyMigrator = new LegacyRegionMigrator(plugin);
         this.saving = false;
     }
 
     @Nullable
     public Region getRegion(RegionCoordinate regionCoordinate) {
-        return regions.get(regionCoordinate);
+        return regions.get(regionCoordinate.getWorldName(), regionCoordinate.getX(), regionCoordinate.getZ());
+    }
+
+    @Nullable
+    public Region getRegion(String worldName, int regionX, int regionZ) {
+        return regions.get(worldName, regionX, regionZ);
+    }
+
+    /**
+     * Gets a region, creating it and loading its file if it isn't in memory. Regions are created
+     * already marked as loading, so changes made before the file is read are merged into the
+     * loaded data instead of being saved over the file.
+     *
+     * @param worldName The name of the world
+     * @param regionX The x coordinate of the region
+     * @param regionZ The z coordinate of the region
+     * @return The region, which may still be loading on another thread
+     */
+    public Region getOrLoadRegion(String worldName, int regionX, int regionZ) {
+        boolean[] created = new boolean[1];
+        Region region = regions.computeIfAbsent(worldName, regionX, regionZ, () -> {
+            Region newRegion = new Region(worldName, regionX, regionZ);
+            newRegion.setLoading(true);
+            created[0] = true;
+            return newRegion;
+        });
+        if (created[0]) {
+            readRegion(region);
+        } else if (region.shouldReload()) {
+            loadRegion(region);
+        }
+        return region;
     }
 
     public abstract boolean isChunkLoaded(String worldName, int chunkX, int chunkZ);
@@ -37,26 +67,29 @@ public abstract class RegionManager {
         regions.clear();
     }
 
-    public void setRegion(RegionCoordinate coordinate, Region region) {
-        regions.put(coordinate, region);
+    public LegacyRegionMigrator getLegacyMigrator() {
+        return legacyMigrator;
     }
 
     public void loadRegion(Region region) {
-        if (region.isLoading()) return;
-        region.setLoading(true);
-
-        RegionCoordinate regionCoordinate = new RegionCoordinate(region.getWorldName(), region.getX(), region.getZ());
-        String worldName = regionCoordinate.getWorldName();
-        int regionX = regionCoordinate.getX();
-        int regionZ = regionCoordinate.getZ();
+        if (!region.startLoading()) return;
+        readRegion(region);
+    }
 
-        File file = new File(plugin.getPluginFolder() + "/regiondata/" + worldName + "/r." + regionX + "." + regionZ + ".asrg");
+    // Must be called with the region marked as loading
+    private void readRegion(Region region) {
+        File file = getRegionFile(region.getWorldName(), region.getX(), region.getZ(), RegionFile.EXTENSION);
+        if (!file.exists()) {
+            // Convert the old NBT file first if the startup migration hasn't reached it yet
+            legacyMigrator.migrate(getRegionFile(region.getWorldName(), region.getX(), region.getZ(), RegionFile.LEGACY_EXTENSION), file);
+        }
         if (file.exists()) {
             if (saving) {
                 region.setReload(true);
             }
             try {
-                loadNbtFile(file, region);
+                RegionFile.read(file.toPath(), region);
+                region.setReload(false);
             } catch (IOException e) {
                 boolean deleted = file.delete();
                 if (deleted) {
@@ -64,76 +97,31 @@ public abstract class RegionManager {
                 }
                 region.setReload(false);
             } catch (Exception e) {
-                e.printStackTrace();
+                // Keep the file as is since saving would replace it with only the blocks loaded so far
+                region.markUnsaveable();
+                plugin.logger().warn("Failed to load region file " + file.getName() + ", placed blocks in it won't be saved until it loads", e);
                 region.setReload(false);
             }
         }
         region.setLoading(false);
     }
 
-    private void loadNbtFile(File file, Region region) throws IOException {
-        NamedTag namedTag = NBTUtil.read(file);
-        if (namedTag.getTag() instanceof CompoundTag compoundTag) {
-            for (String key : compoundTag.keySet()) {
-                // Load each chunk
-                if (!key.startsWith("chunk")) {
-                    continue;
-                }
-                // Get chunk coordinates
-                int commaIndex = key.indexOf(",");
-                byte chunkX = Byte.parseByte(key.substring(key.indexOf("[") + 1, commaIndex));
-                byte chunkZ = Byte.parseByte(key.substring(commaIndex + 1, key.lastIndexOf("]")));
-                // Load chunk
-                CompoundTag chunkCompound = compoundTag.getCompoundTag(key);
-                ChunkCoordinate chunkCoordinate = new ChunkCoordinate(chunkX, chunkZ);
-                loadChunk(region, chunkCoordinate, chunkCompound);
-            }
-        }
-        region.setReload(false);
-    }
-
-    private void loadChunk(Region region, ChunkCoordinate chunkCoordinate, CompoundTag compound) {
-        ChunkData chunkData = region.getChunkData(chunkCoordinate);
-        if (chunkData == null) {
-            chunkData = new ChunkData(region, chunkCoordinate.getX(), chunkCoordinate.getZ());
-        }
-        ListTag<?> placedBlocks = compound.getListTag("placed_blocks");
-        for (CompoundTag block : placedBlocks.asCompoundTagList()) {
-            int x = block.getInt("x");
-            int y = block.getInt("y");
-            int z = block.getInt("z");
-            chunkData.addPlacedBlock(new BlockPosition(x, y, z));
-        }
-        region.setChunkData(chunkCoordinate, chunkData);
-    }
+    private void saveRegion(Region region) {
+        // Regions that haven't changed since they were loaded or last saved are skipped entirely
+        if (!region.isDirty() || region.isLoading() || region.isUnsaveable()) return;
 
-    private void saveRegion(String worldName, int regionX, int regionZ) {
-        RegionCoordinate regionCoordinate = new RegionCoordinate(worldName, regionX, regionZ);
-        Region region = getRegion(regionCoordinate);
-        if (region == null) return;
-        if (region.getChunkMap().isEmpty()) return;
-
-        File file = new File(plugin.getPluginFolder() + "/regiondata/" + worldName + "/r." + regionX + "." + regionZ + ".asrg");
+        File file = getRegionFile(region.getWorldName(), region.getX(), region.getZ(), RegionFile.EXTENSION);
+        region.clearDirty();
         try {
-            if (!file.exists()) {
-                File parent = file.getParentFile();
-                if (parent != null && !parent.exists()) {
-                    if (!parent.mkdirs()) {
-                        plugin.logger().warn("Failed to create directory " + parent.getName());
-                    }
+            // Every chunk in the file is loaded into memory, so the file is rebuilt without reading it first
+            List<EncodedChunk> chunks = new ArrayList<>();
+            for (ChunkData chunkData : region.getChunks()) {
+                EncodedChunk chunk = getEncodedChunk(chunkData);
+                if (chunk.blockCount() > 0) {
+                    chunks.add(chunk);
                 }
-                NBTUtil.write(new NamedTag(file.getName(), new CompoundTag()), file);
-            }
-            NamedTag namedTag = NBTUtil.read(file);
-            if (!(namedTag.getTag() instanceof CompoundTag)) {
-                namedTag.setTag(new CompoundTag());
             }
-            CompoundTag compoundTag = (CompoundTag) namedTag.getTag();
-            for (ChunkData chunkData : region.getChunkMap().values()) {
-                // Save each chunk
-                saveChunk(compoundTag, chunkData);
-            }
-            if (compoundTag.keySet().isEmpty()) {
+            if (chunks.isEmpty()) {
                 if (file.exists()) {
                     try {
                         Files.delete(file.toPath());
@@ -141,49 +129,33 @@ public abstract class RegionManager {
                     }
                 }
             } else {
-                NBTUtil.write(namedTag, file);
+                File parent = file.getParentFile();
+                if (parent != null && !parent.exists()) {
+                    if (!parent.mkdirs()) {
+                        plugin.logger().warn("Failed to create directory " + parent.getName());
+                    }
+                }
+                RegionFile.write(file.toPath(), chunks);
             }
         } catch (IOException e) {
-            e.printStackTrace();
-            boolean deleted = file.delete();
-            if (deleted) {
-                plugin.logger().warn("Deleted " + file.getName() + " because it was corrupted, this won't affect anything");
-            }
+            region.markDirty(); // Retry on the next save
+            plugin.logger().warn("Failed to save region file " + file.getName() + ": " + e.getMessage());
         }
     }
 
-    private void saveChunk(CompoundTag compound, ChunkData chunkData) {
-        String chunkName = "chunk[" + chunkData.getX() + "," + chunkData.getZ() + "]";
-        CompoundTag chunk = compound.getCompoundTag(chunkName);
-        if (chunk == null) {
-            chunk = new CompoundTag();
-            compound.put(chunkName, chunk);
-        }
-        ListTag<?> listTag = chunk.getListTag("placed_blocks");
-        ListTag<CompoundTag> placedBlocks;
-        if (listTag != null) {
-            placedBlocks = listTag.asCompoundTagList();
-        } else {
-            // Create and add placed_blocks ListTag if not exists
-            placedBlocks = new ListTag<>(CompoundTag.class);
-            chunk.put("placed_blocks", placedBlocks);
-        }
-        placedBlocks.clear(); // Clears list of block positions to account for removed positions
-        // Adds all positions to nbt compound list
-        for (BlockPosition block : chunkData.getPlacedBlocks().keySet()) {
-            CompoundTag blockCompound = new CompoundTag();
-            blockCompound.putInt("x", block.getX());
-            blockCompound.putInt("y", block.getY());
-            blockCompound.putInt("z", block.getZ());
-            placedBlocks.add(blockCompound);
-        }
-        // Remove tags that are empty
-        if (placedBlocks.size() == 0) {
-            chunk.remove("placed_blocks");
-        }
-        if (chunk.keySet().isEmpty()) {
-            compound.remove(chunkName);
+    private EncodedChunk getEncodedChunk(ChunkData chunkData) {
+        EncodedChunk saved = chunkData.getSavedChunk();
+        // Only chunks that changed since the last save are encoded again
+        if (!chunkData.clearDirty() && saved != null) {
+            return saved;
         }
+        EncodedChunk chunk = RegionFile.encodeChunk(chunkData.getX(), chunkData.getZ(), chunkData.getPlacedBlocks().toArray());
+        chunkData.setSavedChunk(chunk);
+        return chunk;
+    }
+
+    private File getRegionFile(String worldName, int regionX, int regionZ, String extension) {
+        return new File(plugin.getPluginFolder() + "/regiondata/" + worldName + "/r." + regionX + "." + regionZ + extension);
     }
 
     public void saveAllRegions(boolean clearUnused, boolean serverShutdown) {
@@ -191,11 +163,11 @@ public abstract class RegionManager {
         saving = true;
         for (Region region : regions.values()) {
             try {
-                saveRegion(region.getWorldName(), region.getX(), region.getZ());
-                // Clear region from memory if no chunks are loaded in it
+                saveRegion(region);
+                // Clear region from memory if no chunks are loaded in it, unsaveable regions try loading again next time
                 if (clearUnused) {
-                    if (isRegionUnused(region)) {
-                        regions.remove(new RegionCoordinate(region.getWorldName(), region.getX(), region.getZ()));
+                    if ((!region.isDirty() || region.isUnsaveable()) && isRegionUnused(region)) {
+                        regions.remove(region);
                     }
                 }
             } catch (Exception e) {
@@ -0,0 +1,113 @@
+package dev.aurelium.auraskills.common.region;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Copy-on-write hash table of loaded regions keyed by world name and region coordinates.
+ * Reads are lock-free and don't allocate a key object, writes are rare (region load/unload)
+ * and rebuild the table under a lock.
+ */
+class RegionTable {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private volatile Region[] slots;
+    private int size; // Guarded by this
+
+    RegionTable() {
+        this.slots = new Region[MIN_CAPACITY];
+        this.size = 0;
+    }
+
+    @Nullable
+    Region get(String worldName, int x, int z) {
+        Region[] slots = this.slots;
+        int mask = slots.length - 1;
+        int index = hash(worldName, x, z) & mask;
+        while (true) {
+            Region region = slots[index];
+            if (region == null) {
+                return null;
+            } else if (region.getX() == x && region.getZ() == z && region.getWorldName().equals(worldName)) {
+                return region;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    synchronized void put(Region region) {
+        List<Region> values = values();
+        values.removeIf(r -> matches(r, region));
+        values.add(region);
+        rebuild(values);
+    }
+
+    synchronized Region computeIfAbsent(String worldName, int x, int z, Supplier<Region> supplier) {
+        Region existing = get(worldName, x, z);
+        if (existing != null) {
+            return existing;
+        }
+        Region region = supplier.get();
+        List<Region> values = values();
+        values.add(region);
+        rebuild(values);
+        return region;
+    }
+
+    synchronized void remove(Region region) {
+        List<Region> values = values();
+        if (values.removeIf(r -> r == region)) {
+            rebuild(values);
+        }
+    }
+
+    synchronized void clear() {
+        slots = new Region[MIN_CAPACITY];
+        size = 0;
+    }
+
+    List<Region> values() {
+        Region[] slots = this.slots;
+        List<Region> values = new ArrayList<>();
+        for (Region region : slots) {
+            if (region != null) {
+                values.add(region);
+            }
+        }
+        return values;
+    }
+
+    private void rebuild(List<Region> values) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < values.size() * 2) { // Keep load factor at or below 0.5
+            capacity <<= 1;
+        }
+        Region[] newSlots = new Region[capacity];
+        int mask = capacity - 1;
+        for (Region region : values) {
+            int index = hash(region.getWorldName(), region.getX(), region.getZ()) & mask;
+            while (newSlots[index] != null) {
+                index = (index + 1) & mask;
+            }
+            newSlots[index] = region;
+        }
+        this.size = values.size();
+        this.slots = newSlots;
+    }
+
+    private boolean matches(Region a, Region b) {
+        return a.getX() == b.getX() && a.getZ() == b.getZ() && a.getWorldName().equals(b.getWorldName());
+    }
+
+    private static int hash(String worldName, int x, int z) {
+        int h = worldName.hashCode() * 31 + x;
+        h = h * 0x9E3779B9 + z;
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+}
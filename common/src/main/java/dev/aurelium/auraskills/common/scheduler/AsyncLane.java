@@ -0,0 +1,218 @@
+package dev.aurelium.auraskills.common.scheduler;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import dev.aurelium.auraskills.common.message.PlatformLogger;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An executor for one kind of async work that records how long tasks wait and run. Lanes are
+ * either backed by a bounded thread pool, which overflows to virtual threads once its queue is full,
+ * or by one virtual thread per task. Tasks are never run in the submitting thread, since that may be
+ * the server thread, and tasks submitted after shutdown are dropped with a warning.
+ */
+public class AsyncLane {
+
+    private final String name;
+    private final ExecutorService executor;
+    @Nullable
+    private final ExecutorService overflow;
+    @Nullable
+    private final PlatformLogger logger;
+    private final int threads;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder overflowed;
+    private final LongAdder dropped = new LongAdder();
+    private final LatencySamples waitTimes = new LatencySamples();
+    private final LatencySamples runTimes = new LatencySamples();
+
+    private AsyncLane(String name, int threads, ExecutorService executor, @Nullable ExecutorService overflow,
+                      LongAdder overflowed, @Nullable PlatformLogger logger) {
+        this.name = name;
+        this.threads = threads;
+        this.executor = executor;
+        this.overflow = overflow;
+        this.overflowed = overflowed;
+        this.logger = logger;
+    }
+
+    public static AsyncLane bounded(String name, int threads, int queueSize, @Nullable PlatformLogger logger) {
+        LongAdder overflowed = new LongAdder();
+        ExecutorService overflow = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("auraskills-" + name + "-overflow-", 0).factory());
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(Math.max(queueSize, 1)),
+                new ThreadFactoryBuilder().setNameFormat("auraskills-" + name + "-%d").build(),
+                (task, executor) -> {
+                    if (executor.isShutdown()) {
+                        throw new RejectedExecutionException("Lane " + name + " is shut down");
+                    }
+                    overflowed.increment();
+                    overflow.execute(task);
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return new AsyncLane(name, threads, pool, overflow, overflowed, logger);
+    }
+
+    public static AsyncLane virtual(String name, @Nullable PlatformLogger logger) {
+        ThreadFactory factory = Thread.ofVirtual().name("auraskills-" + name + "-", 0).factory();
+        return new AsyncLane(name, -1, Executors.newThreadPerTaskExecutor(factory), null, new LongAdder(), logger);
+    }
+
+    /**
+     * Submits a task to the lane.
+     *
+     * @param runnable the task
+     * @return the future of the task, which fails if the lane was shut down and the task was dropped
+     */
+    public Future<?> submit(Runnable runnable) {
+        long submitted = System.nanoTime();
+        queued.incrementAndGet();
+        try {
+            return executor.submit(wrap(runnable, submitted));
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            dropped.increment();
+            if (logger != null) {
+                logger.warn("Dropped a task submitted to the " + name + " lane after it was shut down");
+            }
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private Runnable wrap(Runnable runnable, long submitted) {
+        return () -> {
+            long started = System.nanoTime();
+            queued.decrementAndGet();
+            active.incrementAndGet();
+            waitTimes.record(started - submitted);
+            try {
+                runnable.run();
+            } finally {
+                active.decrementAndGet();
+                completed.increment();
+                runTimes.record(System.nanoTime() - started);
+            }
+        };
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isVirtual() {
+        return threads == -1;
+    }
+
+    /**
+     * Gets the maximum number of threads of a bounded lane.
+     *
+     * @return the number of threads, or -1 for virtual thread lanes
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Gets the number of submitted tasks that haven't started running.
+     *
+     * @return the queue depth
+     */
+    public int getQueued() {
+        return queued.get();
+    }
+
+    public int getActive() {
+        return active.get();
+    }
+
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    /**
+     * Gets the number of tasks that ran on an overflow virtual thread because the queue was full.
+     *
+     * @return the number of overflowed tasks
+     */
+    public long getOverflowed() {
+        return overflowed.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Gets a percentile of the time recent tasks spent queued before running.
+     *
+     * @param percentile the percentile between 0 and 100
+     * @return the time in milliseconds
+     */
+    public double getWaitPercentile(double percentile) {
+        return waitTimes.percentile(percentile);
+    }
+
+    /**
+     * Gets a percentile of the time recent tasks took to run.
+     *
+     * @param percentile the percentile between 0 and 100
+     * @return the time in milliseconds
+     */
+    public double getRunPercentile(double percentile) {
+        return runTimes.percentile(percentile);
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+        if (overflow != null) {
+            overflow.shutdown();
+        }
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        boolean terminated = executor.awaitTermination(timeout, unit);
+        if (overflow != null) {
+            terminated &= overflow.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+        return terminated;
+    }
+
+    // Keeps the most recent durations in a ring buffer
+    private static class LatencySamples {
+
+        private static final int SIZE = 1024;
+
+        private final long[] samples = new long[SIZE];
+        private int count;
+        private int next;
+
+        private synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % SIZE;
+            if (count < SIZE) {
+                count++;
+            }
+        }
+
+        private double percentile(double percentile) {
+            long[] sorted;
+            synchronized (this) {
+                if (count == 0) return 0;
+                sorted = Arrays.copyOf(samples, count);
+            }
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+            return sorted[Math.clamp(index, 0, sorted.length - 1)] / 1_000_000.0;
+        }
+
+    }
+
+}
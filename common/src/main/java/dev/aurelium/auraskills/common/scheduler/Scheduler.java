@@ -2,51 +2,118 @@ package dev.aurelium.auraskills.common.scheduler;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import dev.aurelium.auraskills.common.AuraSkillsPlugin;
+import dev.aurelium.auraskills.common.config.Option;
 
-import java.util.concurrent.ExecutorService;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 public abstract class Scheduler {
 
+    private static final int DEFAULT_IO_THREADS = 8;
+    private static final int DEFAULT_COMPUTE_THREADS = 2;
+    private static final int DEFAULT_QUEUE_SIZE = 10000;
+
     private final AuraSkillsPlugin plugin;
 
-    private final ExecutorService asyncExecutor = Executors.newCachedThreadPool(
-            new ThreadFactoryBuilder().setNameFormat("auraskills-async-task-%d").build());
-    private final ScheduledExecutorService asyncScheduler = Executors.newScheduledThreadPool(0,
-            new ThreadFactoryBuilder().setNameFormat("auraskills-async-scheduler-%d").build());
+    // Delayed tasks are handed off to the I/O lane, so one thread is enough for waiting
+    private final ScheduledExecutorService asyncScheduler = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("auraskills-async-scheduler").build());
+    private volatile AsyncLane ioLane;
+    private volatile AsyncLane computeLane;
 
     public Scheduler(final AuraSkillsPlugin plugin) {
         this.plugin = plugin;
+        this.ioLane = AsyncLane.bounded("async-io", DEFAULT_IO_THREADS, DEFAULT_QUEUE_SIZE, plugin.logger());
+        this.computeLane = AsyncLane.bounded("async-compute", DEFAULT_COMPUTE_THREADS, DEFAULT_QUEUE_SIZE, plugin.logger());
+    }
+
+    /**
+     * Replaces the async lanes with ones using the async_executor options. Should be called
+     * once when the config is first loaded, since tasks already queued finish on the old lanes.
+     */
+    public void loadAsyncOptions() {
+        int queueSize = plugin.configInt(Option.ASYNC_EXECUTOR_QUEUE_SIZE);
+        AsyncLane oldIo = ioLane;
+        AsyncLane oldCompute = computeLane;
+        if (plugin.configString(Option.ASYNC_EXECUTOR_TYPE).toLowerCase(Locale.ROOT).equals("virtual")) {
+            ioLane = AsyncLane.virtual("async-io", plugin.logger());
+        } else {
+            ioLane = AsyncLane.bounded("async-io", Math.max(plugin.configInt(Option.ASYNC_EXECUTOR_IO_THREADS), 1), queueSize, plugin.logger());
+        }
+        // Virtual threads don't help CPU bound work, so computing always uses a bounded pool
+        int computeThreads = plugin.configInt(Option.ASYNC_EXECUTOR_COMPUTE_THREADS);
+        if (computeThreads <= 0) {
+            computeThreads = Math.max(Runtime.getRuntime().availableProcessors() / 2, 1);
+        }
+        computeLane = AsyncLane.bounded("async-compute", computeThreads, queueSize, plugin.logger());
+        oldIo.shutdown();
+        oldCompute.shutdown();
     }
 
     public abstract Task executeSync(final Runnable runnable);
 
+    /**
+     * Runs a task asynchronously on the I/O lane, meant for tasks that mostly wait on storage or the network.
+     */
     public Task executeAsync(final Runnable runnable) {
-        return new SubmittedTask(asyncExecutor.submit(runnable));
+        return new SubmittedTask(ioLane.submit(runnable));
+    }
+
+    /**
+     * Runs a task asynchronously on the compute lane, meant for CPU bound tasks like sorting.
+     */
+    public Task executeAsyncCompute(final Runnable runnable) {
+        return new SubmittedTask(computeLane.submit(runnable));
     }
 
     public abstract Task scheduleSync(final Runnable runnable, final long delay, final TimeUnit timeUnit);
 
     public Task scheduleAsync(final Runnable runnable, final long delay, final TimeUnit timeUnit) {
-        return new ScheduledTask(asyncScheduler.schedule(runnable, delay, timeUnit));
+        try {
+            // The lane never runs tasks in the submitting thread, so the scheduler thread only hands them off
+            return new ScheduledTask(asyncScheduler.schedule(() -> {
+                ioLane.submit(runnable);
+            }, delay, timeUnit));
+        } catch (RejectedExecutionException e) {
+            plugin.logger().warn("Dropped a delayed async task scheduled after the scheduler was shut down");
+            return new SubmittedTask(CompletableFuture.failedFuture(e));
+        }
     }
 
     public abstract Task timerSync(final TaskRunnable runnable, final long delay, final long period, final TimeUnit timeUnit);
 
     public abstract Task timerAsync(final TaskRunnable runnable, final long delay, final long period, final TimeUnit timeUnit);
 
+    public List<AsyncLane> getAsyncLanes() {
+        return List.of(ioLane, computeLane);
+    }
+
     // Should be run by the implementation when server is shutdown
     public void shutdown() {
-        asyncExecutor.shutdown();
         asyncScheduler.shutdown();
+        AsyncLane io = ioLane;
+        AsyncLane compute = computeLane;
 
         try {
-            boolean asyncExecutorDone = asyncExecutor.awaitTermination(2, TimeUnit.SECONDS);
             boolean asyncSchedulerDone = asyncScheduler.awaitTermination(2, TimeUnit.SECONDS);
+            if (!asyncSchedulerDone) {
+                int dropped = asyncScheduler.shutdownNow().size();
+                if (dropped > 0) {
+                    plugin.logger().warn("Dropped " + dropped + " delayed async tasks that were still waiting on shutdown");
+                }
+            }
+            // Shut down after the scheduler so delayed tasks can still be handed off
+            io.shutdown();
+            compute.shutdown();
+            boolean ioDone = io.awaitTermination(2, TimeUnit.SECONDS);
+            boolean computeDone = compute.awaitTermination(2, TimeUnit.SECONDS);
 
-            if (!asyncExecutorDone || !asyncSchedulerDone) {
+            if (!asyncSchedulerDone || !ioDone || !computeDone) {
                 plugin.logger().warn("Scheduler had incomplete tasks when shutting down");
             }
         } catch (final InterruptedException e) {
@@ -28,7 +28,8 @@ public class SkillManager {
     private final Map<SourceTag, List<XpSource>> sourceTagMap;
     private final SkillSupplier supplier;
     private final Set<File> contentDirectories;
-    private final Map<SourceType, Boolean> sourceEnabledCache = new ConcurrentHashMap<>();
+    @Nullable
+    private volatile SourceSnapshot sourceSnapshot; // Rebuilt lazily after skills are registered or unregistered
 
     public SkillManager(AuraSkillsPlugin plugin) {
         this.plugin = plugin;
@@ -42,12 +43,14 @@ public class SkillManager {
         return supplier;
     }
 
-    public void register(Skill skill, LoadedSkill loadedSkill) {
+    public synchronized void register(Skill skill, LoadedSkill loadedSkill) {
         skillMap.put(skill, loadedSkill);
+        sourceSnapshot = null;
     }
 
-    public void unregisterAll() {
+    public synchronized void unregisterAll() {
         skillMap.clear();
+        sourceSnapshot = null;
     }
 
     @NotNull
@@ -86,18 +89,23 @@ public class SkillManager {
         return skillMap.containsKey(skill);
     }
 
+    /**
+     * Gets the sources of enabled skills that are instances of a given type. The returned list is
+     * immutable and shared between calls until skills are loaded again, so lookups don't allocate.
+     *
+     * @param typeClass the class of the source type
+     * @param <T> the source type
+     * @return an unmodifiable list of sources
+     */
     @SuppressWarnings("unchecked")
     @NotNull
     public <T extends XpSource> List<SkillSource<T>> getSourcesOfType(Class<T> typeClass) {
-        var list = new ArrayList<SkillSource<T>>();
-        for (Skill skill : getEnabledSkills()) {
-            for (XpSource source : skill.getSources()) {
-                if (typeClass.isAssignableFrom(source.getClass())) {
-                    list.add(new SkillSource<>((T) source, skill));
-                }
-            }
+        SourceSnapshot snapshot = getSourceSnapshot();
+        List<SkillSource<?>> sources = snapshot.sourcesByType.get(typeClass);
+        if (sources == null) {
+            sources = snapshot.sourcesByType.computeIfAbsent(typeClass, snapshot::filterByType);
         }
-        return list;
+        return (List<SkillSource<T>>) (List<?>) sources;
     }
 
     /**
@@ -107,27 +115,46 @@ public class SkillManager {
      * @return Whether the source is enabled
      */
     public boolean isSourceEnabled(SourceType sourceType) {
-        Boolean enabled = sourceEnabledCache.get(sourceType);
+        SourceSnapshot snapshot = getSourceSnapshot();
+        Boolean enabled = snapshot.sourceEnabled.get(sourceType);
         if (enabled != null) {
             // Cache hit
             return enabled;
         } else {
             // Cache miss
             boolean foundEnabled = false;
-            outerLoop:
-            for (Skill skill : getEnabledSkills()) {
-                for (XpSource source : skill.getSources()) {
-                    if (sourceType.equals(source.getType())) {
-                        foundEnabled = true;
-                        break outerLoop;
-                    }
+            for (SkillSource<?> entry : snapshot.allSources) {
+                if (sourceType.equals(entry.source().getType())) {
+                    foundEnabled = true;
+                    break;
                 }
             }
-            sourceEnabledCache.put(sourceType, foundEnabled);
+            snapshot.sourceEnabled.put(sourceType, foundEnabled);
             return foundEnabled;
         }
     }
 
+    private SourceSnapshot getSourceSnapshot() {
+        SourceSnapshot snapshot = sourceSnapshot;
+        if (snapshot != null) {
+            return snapshot;
+        }
+        synchronized (this) {
+            snapshot = sourceSnapshot;
+            if (snapshot == null) {
+                List<SkillSource<?>> allSources = new ArrayList<>();
+                for (Skill skill : getEnabledSkills()) {
+                    for (XpSource source : skill.getSources()) {
+                        allSources.add(new SkillSource<>(source, skill));
+                    }
+                }
+                snapshot = new SourceSnapshot(List.copyOf(allSources));
+                sourceSnapshot = snapshot;
+            }
+            return snapshot;
+        }
+    }
+
     @Nullable
     public XpSource getSourceById(NamespacedId id) {
         for (Skill skill : getSkillValues()) {
@@ -161,6 +188,31 @@ public class SkillManager {
         return sourceTagMap.getOrDefault(tag, new ArrayList<>()).contains(source);
     }
 
+    // Sources of enabled skills at the time skills were last loaded, with per-type views built on first use
+    private static class SourceSnapshot {
+
+        private final List<SkillSource<?>> allSources;
+        private final Map<Class<?>, List<SkillSource<?>>> sourcesByType;
+        private final Map<SourceType, Boolean> sourceEnabled;
+
+        private SourceSnapshot(List<SkillSource<?>> allSources) {
+            this.allSources = allSources;
+            this.sourcesByType = new ConcurrentHashMap<>();
+            this.sourceEnabled = new ConcurrentHashMap<>();
+        }
+
+        private List<SkillSource<?>> filterByType(Class<?> typeClass) {
+            List<SkillSource<?>> filtered = new ArrayList<>();
+            for (SkillSource<?> entry : allSources) {
+                if (typeClass.isAssignableFrom(entry.source().getClass())) {
+                    filtered.add(entry);
+                }
+            }
+            return List.copyOf(filtered);
+        }
+
+    }
+
     public Set<File> getContentDirectories() {
         return contentDirectories;
     }
@@ -1,37 +1,35 @@
 package dev.aurelium.auraskills.common.source.income;
 
 import com.ezylang.evalex.EvaluationException;
-import com.ezylang.evalex.Expression;
-import com.ezylang.evalex.data.EvaluationValue;
 import com.ezylang.evalex.parser.ParseException;
 import dev.aurelium.auraskills.api.skill.Skill;
 import dev.aurelium.auraskills.api.source.SourceIncome;
 import dev.aurelium.auraskills.api.source.SourceValues;
 import dev.aurelium.auraskills.api.user.SkillsUser;
 import dev.aurelium.auraskills.common.AuraSkillsPlugin;
+import dev.aurelium.auraskills.common.formula.Formula;
 
 public class ExpressionIncome implements SourceIncome {
 
+    private static final String[] VARIABLES = {"xp", "base_xp", "level", "power", "skill_average"};
+
     private final AuraSkillsPlugin plugin;
-    private final Expression expression;
+    private final Formula formula;
 
-    public ExpressionIncome(AuraSkillsPlugin plugin, Expression expression) {
+    public ExpressionIncome(AuraSkillsPlugin plugin, Formula formula) {
         this.plugin = plugin;
-        this.expression = expression;
+        this.formula = formula;
+    }
+
+    public static Formula compile(String expression) throws ParseException {
+        return Formula.compile(expression, VARIABLES);
     }
 
     @Override
     public double getIncomeEarned(SkillsUser user, SourceValues sourceValues, Skill skill, double finalXp) {
-        // Set expression variables
-        expression.with("xp", finalXp)
-                .with("base_xp", sourceValues.getXp())
-                .with("level", user.getSkillLevel(skill))
-                .with("power", user.getPowerLevel())
-                .with("skill_average", user.getSkillAverage());
         try {
-            EvaluationValue value = expression.evaluate();
-            return value.getNumberValue().doubleValue();
-        } catch (EvaluationException | ParseException e) {
+            return formula.evaluate(finalXp, sourceValues.getXp(), user.getSkillLevel(skill), user.getPowerLevel(), user.getSkillAverage());
+        } catch (EvaluationException e) {
             plugin.logger().warn("Error evaluating ExpressionIncome for source with id " + sourceValues.getId() + ": " + e.getMessage());
             e.printStackTrace();
         }
@@ -1,6 +1,6 @@
 package dev.aurelium.auraskills.common.source.income;
 
-import com.ezylang.evalex.Expression;
+import com.ezylang.evalex.parser.ParseException;
 import dev.aurelium.auraskills.api.source.SourceIncome;
 import dev.aurelium.auraskills.common.AuraSkillsPlugin;
 import dev.aurelium.auraskills.common.config.Option;
@@ -23,9 +23,8 @@ public class IncomeLoader {
             double income = source.node("income").getDouble();
             return new FixedIncome(income);
         } else if (!source.node("income_expression").virtual()) {
-            String incomeExpression = source.node("income_expression").getString();
-            Expression expression = new Expression(incomeExpression);
-            return new ExpressionIncome(plugin, expression);
+            String incomeExpression = source.node("income_expression").getString("");
+            return loadExpressionIncome(incomeExpression);
         }
         // Use the config.yml default income
         return getConfigDefaultIncome();
@@ -34,12 +33,20 @@ public class IncomeLoader {
     private SourceIncome getConfigDefaultIncome() {
         if (plugin.configBoolean(Option.JOBS_INCOME_USE_EXPRESSION)) {
             String expString = plugin.configString(Option.JOBS_INCOME_DEFAULT_EXPRESSION);
-            Expression expression = new Expression(expString);
-            return new ExpressionIncome(plugin, expression);
+            return loadExpressionIncome(expString);
         } else {
             double incomePerXp = plugin.configDouble(Option.JOBS_INCOME_DEFAULT_INCOME_PER_XP);
             return new XpIncome(plugin, incomePerXp);
         }
     }
 
+    private SourceIncome loadExpressionIncome(String expression) {
+        try {
+            return new ExpressionIncome(plugin, ExpressionIncome.compile(expression));
+        } catch (ParseException e) {
+            plugin.logger().warn("Failed to parse income expression " + expression + ": " + e.getMessage());
+            return new FixedIncome(0);
+        }
+    }
+
 }
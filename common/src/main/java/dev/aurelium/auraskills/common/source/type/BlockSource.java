@@ -7,14 +7,20 @@ import com.google.common.collect.ImmutableMap;
 import dev.aurelium.auraskills.api.source.SourceValues;
 import dev.aurelium.auraskills.api.source.type.BlockXpSource;
 import dev.aurelium.auraskills.common.AuraSkillsPlugin;
+import dev.aurelium.auraskills.common.formula.Formula;
+import dev.aurelium.auraskills.common.formula.MemoizedFormula;
 import dev.aurelium.auraskills.common.source.Source;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class BlockSource extends Source implements BlockXpSource {
 
     public static final int DEFAULT_MAX_BLOCKS = 100;
+    // Covers crop ages and sea pickle counts
+    private static final int MEMOIZED_STATE_VALUES = 32;
 
     private final String[] blocks;
     private final int maxBlocks;
@@ -24,6 +30,7 @@ public class BlockSource extends Source implements BlockXpSource {
     private final BlockXpSourceState[] afterStates;
     private final String stateMultiplier;
     private final SupportBlockType supportBlockType;
+    private final Map<String, Optional<MemoizedFormula>> stateMultiplierFormulas = new ConcurrentHashMap<>();
 
     public BlockSource(AuraSkillsPlugin plugin, SourceValues values, String[] blocks, int maxBlocks, BlockTriggers[] triggers, boolean checkReplace, BlockXpSourceState[] states, BlockXpSourceState[] afterStates, String stateMultiplier, SupportBlockType supportBlockType) {
         super(plugin, values);
@@ -73,6 +80,32 @@ public class BlockSource extends Source implements BlockXpSource {
 
     @Override
     public double getStateMultiplier(String stateKey, Object stateValue) {
+        if (!(stateValue instanceof Number number)) {
+            return evaluateReplaced(stateKey, stateValue);
+        }
+        Optional<MemoizedFormula> formula = stateMultiplierFormulas.computeIfAbsent(stateKey, this::compileStateMultiplier);
+        if (formula.isEmpty()) {
+            return 1;
+        }
+        try {
+            return formula.get().evaluate(number.doubleValue());
+        } catch (EvaluationException e) {
+            e.printStackTrace();
+            return 1;
+        }
+    }
+
+    // Compiles the multiplier with the state key as its only variable
+    private Optional<MemoizedFormula> compileStateMultiplier(String stateKey) {
+        try {
+            return Optional.of(Formula.compile(stateMultiplier, stateKey).memoize(0, MEMOIZED_STATE_VALUES - 1));
+        } catch (ParseException e) {
+            plugin.logger().warn("Failed to parse state_multiplier of source " + getId() + " for state " + stateKey + ": " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private double evaluateReplaced(String stateKey, Object stateValue) {
         String replaced = stateMultiplier.replace(stateKey, stateValue.toString());
         // Create and evaluate expression
         Expression expression = new Expression(replaced);
@@ -0,0 +1,17 @@
+package dev.aurelium.auraskills.common.storage;
+
+/**
+ * Thrown when user data couldn't be saved. The unsaved changes are kept in memory
+ * so they are written by the next save.
+ */
+public class StorageException extends RuntimeException {
+
+    public StorageException(String message) {
+        super(message);
+    }
+
+    public StorageException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
@@ -6,8 +6,11 @@ import dev.aurelium.auraskills.common.storage.file.FileStorageProvider;
 import dev.aurelium.auraskills.common.storage.sql.DatabaseCredentials;
 import dev.aurelium.auraskills.common.storage.sql.SqlStorageProvider;
 import dev.aurelium.auraskills.common.storage.sql.pool.ConnectionPool;
+import dev.aurelium.auraskills.common.storage.sql.pool.H2ConnectionPool;
 import dev.aurelium.auraskills.common.storage.sql.pool.MySqlConnectionPool;
 
+import java.io.File;
+
 public abstract class StorageFactory {
 
     protected final AuraSkillsPlugin plugin;
@@ -22,6 +25,10 @@ public abstract class StorageFactory {
                 ConnectionPool pool = new MySqlConnectionPool(plugin, getCredentials());
                 pool.enable();
                 return new SqlStorageProvider(plugin, pool);
+            case H2:
+                ConnectionPool h2Pool = new H2ConnectionPool(plugin, new File(plugin.getPluginFolder(), plugin.configString(Option.SQL_DATABASE)));
+                h2Pool.enable();
+                return new SqlStorageProvider(plugin, h2Pool);
             case YAML:
                 return new FileStorageProvider(plugin, getDataDirectory());
             default:
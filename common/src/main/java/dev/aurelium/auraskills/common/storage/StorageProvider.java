@@ -4,17 +4,20 @@ import dev.aurelium.auraskills.api.skill.Skill;
 import dev.aurelium.auraskills.api.stat.StatModifier;
 import dev.aurelium.auraskills.api.trait.TraitModifier;
 import dev.aurelium.auraskills.common.AuraSkillsPlugin;
+import dev.aurelium.auraskills.common.antiafk.AntiAfkLogSink;
 import dev.aurelium.auraskills.common.config.Option;
+import dev.aurelium.auraskills.common.leaderboard.LeaderboardQueries;
 import dev.aurelium.auraskills.common.ref.PlayerRef;
 import dev.aurelium.auraskills.common.scheduler.TaskRunnable;
-import dev.aurelium.auraskills.common.user.AntiAfkLog;
 import dev.aurelium.auraskills.common.user.User;
+import dev.aurelium.auraskills.common.user.UserChanges;
 import dev.aurelium.auraskills.common.user.UserManager;
 import dev.aurelium.auraskills.common.user.UserState;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
@@ -29,6 +32,7 @@ public abstract class StorageProvider {
     public final AuraSkillsPlugin plugin;
     public final UserManager userManager;
     private final ConcurrentHashMap<UUID, ReentrantReadWriteLock> userLocks = new ConcurrentHashMap<>();
+    private final UserPrefetcher prefetcher = new UserPrefetcher();
 
     public StorageProvider(AuraSkillsPlugin plugin) {
         this.userManager = plugin.getUserManager();
@@ -45,21 +49,10 @@ public abstract class StorageProvider {
             }
 
             User user = loadRaw(uuid, platformPlayer);
+            user.takeChanges(); // Loaded data is already saved
             fixInvalidData(user);
 
-            plugin.getUserManager().addUser(user);
-
-            plugin.getScheduler().executeSync(() -> {
-                plugin.getStatManager().recalculateStats(user, false);
-                // Applies user item/armor modifiers for the first time
-                plugin.getModifierManager().applyModifiers(user, false);
-                plugin.getStatManager().reloadAllTraits(user);
-
-                plugin.getEventHandler().callUserLoadEvent(user); // Call event
-            });
-
-            // Update permissions
-            plugin.getRewardManager().updatePermissions(user);
+            addLoadedUser(user);
         } catch (InterruptedException e) {
             e.printStackTrace();
         } finally {
@@ -70,6 +63,73 @@ public abstract class StorageProvider {
         }
     }
 
+    /**
+     * Loads a user whose player is logging in so that {@link #promotePrefetched} can add it
+     * once the player joins. Should be called on the async login thread.
+     *
+     * @param uuid The uuid of the player logging in
+     */
+    public void prefetch(UUID uuid) throws Exception {
+        prefetcher.removeExpired();
+        if (userManager.hasUser(uuid)) {
+            return; // Still loaded from a previous session, so the join keeps that user
+        }
+        ReentrantReadWriteLock lock = getUserLock(uuid);
+        boolean lockAcquired = false;
+        try {
+            lockAcquired = lock.readLock().tryLock(LOAD_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            if (!lockAcquired) {
+                return; // A save is taking long, so load normally on join
+            }
+            User user = loadRaw(uuid, null);
+            user.takeChanges();
+            fixInvalidData(user);
+            prefetcher.put(user);
+        } finally {
+            if (lockAcquired) {
+                lock.readLock().unlock();
+            }
+            removeUserLock(uuid, lock);
+        }
+    }
+
+    /**
+     * Adds the user prefetched while the player was logging in.
+     *
+     * @param uuid The uuid of the joining player
+     * @param platformPlayer The joining player
+     * @return true if a prefetched user was added, false if the user must be loaded with {@link #load}
+     */
+    public boolean promotePrefetched(UUID uuid, PlayerRef platformPlayer) {
+        User user = prefetcher.take(uuid);
+        if (user == null) {
+            return false;
+        }
+        user.attachPlayer(platformPlayer);
+        addLoadedUser(user);
+        return true;
+    }
+
+    public UserPrefetcher getPrefetcher() {
+        return prefetcher;
+    }
+
+    private void addLoadedUser(User user) {
+        plugin.getUserManager().addUser(user);
+
+        plugin.getScheduler().executeSync(() -> {
+            plugin.getStatManager().recalculateStats(user, false);
+            // Applies user item/armor modifiers for the first time
+            plugin.getModifierManager().applyModifiers(user, false);
+            plugin.getStatManager().reloadAllTraits(user);
+
+            plugin.getEventHandler().callUserLoadEvent(user); // Call event
+        });
+
+        // Update permissions
+        plugin.getRewardManager().updatePermissions(user);
+    }
+
     protected abstract User loadRaw(UUID uuid, PlayerRef platformPlayer) throws Exception;
 
     /**
@@ -89,18 +149,91 @@ public abstract class StorageProvider {
      */
     public abstract void applyState(UserState state) throws Exception;
 
+    /**
+     * Applies several states to storage, overriding previously saved data.
+     * Storage types that can write several users at once override this to do so.
+     *
+     * @param states The states to apply
+     */
+    public void applyStates(List<UserState> states) throws Exception {
+        for (UserState state : states) {
+            applyState(state);
+        }
+    }
+
+    /**
+     * Saves all of a user's data, returning once it is written.
+     *
+     * @param user The user to save
+     * @throws StorageException if the user couldn't be saved, in which case the changes are kept in memory
+     */
     public void saveSafely(@NotNull User user) {
+        saveSafely(user, false);
+    }
+
+    /**
+     * Saves only the data that changed since the last successful save, doing nothing
+     * if the user has no unsaved changes.
+     *
+     * @param user The user to save
+     * @throws StorageException if the user couldn't be saved, in which case the changes are kept in memory
+     */
+    public void saveChangesSafely(@NotNull User user) {
+        if (!user.hasUnsavedChanges()) {
+            return;
+        }
+        saveSafely(user, true);
+    }
+
+    /**
+     * Saves every given user, returning once all of them are saved. Users that fail to save
+     * don't prevent the rest from being saved.
+     *
+     * @param users The users to save
+     * @throws StorageException if any user couldn't be saved
+     */
+    public void saveAllSafely(Collection<User> users) {
+        int failed = 0;
+        StorageException failure = null;
+        for (User user : users) {
+            try {
+                saveSafely(user);
+            } catch (StorageException e) {
+                plugin.logger().severe(e.getMessage(), e.getCause());
+                failed++;
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw new StorageException("Failed to save data of " + failed + " users", failure.getCause());
+        }
+    }
+
+    /**
+     * Writes any pending data and releases resources, called when the plugin is disabled.
+     */
+    public void shutdown() {
+
+    }
+
+    private void saveSafely(@NotNull User user, boolean onlyChanges) {
         ReentrantReadWriteLock lock = getUserLock(user.getUuid());
         boolean lockAcquired = false;
         try {
             lockAcquired = lock.writeLock().tryLock(SAVE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
             if (!lockAcquired) {
-                plugin.logger().warn("Save timeout exceeded for user " + user.getUuid());
-                return;
+                throw new StorageException("Save timeout exceeded for user " + user.getUuid());
             }
-            save(user);
+            saveLocked(user, onlyChanges);
+            // A user prefetched before this save would overwrite the newer data
+            prefetcher.invalidate(user.getUuid());
+        } catch (StorageException e) {
+            throw e;
         } catch (Exception e) {
-            e.printStackTrace();
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new StorageException("Failed to save data of user " + user.getUuid(), e);
         } finally {
             if (lockAcquired) {
                 lock.writeLock().unlock();
@@ -109,8 +242,41 @@ public abstract class StorageProvider {
         }
     }
 
+    /**
+     * Writes a user while its save lock is held, returning once the data is written. If the
+     * write fails, the changes taken for it must be restored to the user.
+     *
+     * @param user The user to save
+     * @param onlyChanges Whether to only write the data that changed since the last save
+     */
+    protected void saveLocked(@NotNull User user, boolean onlyChanges) throws Exception {
+        // Cleared before reading the data so changes made during the save aren't lost
+        UserChanges changes = user.takeChanges();
+        try {
+            if (onlyChanges) {
+                saveChanges(user, changes);
+            } else {
+                save(user);
+            }
+        } catch (Exception e) {
+            user.restoreChanges(changes);
+            throw e;
+        }
+    }
+
     public abstract void save(@NotNull User user) throws Exception;
 
+    /**
+     * Saves the parts of a user's data that changed. Storage types that can't write part of
+     * a user's data save everything.
+     *
+     * @param user The user to save
+     * @param changes The data changed since the last save
+     */
+    protected void saveChanges(@NotNull User user, @NotNull UserChanges changes) throws Exception {
+        save(user);
+    }
+
     public abstract void delete(UUID uuid) throws Exception;
 
     public List<UserState> loadStates(boolean ignoreOnline, boolean skipKeyValues) throws Exception {
@@ -119,7 +285,30 @@ public abstract class StorageProvider {
 
     public abstract List<UserState> loadStates(boolean ignoreOnline, boolean skipKeyValues, long previousFetchTime) throws Exception;
 
-    public abstract List<AntiAfkLog> loadAntiAfkLogs(UUID uuid);
+    /**
+     * Passes the state of every user in storage to the consumer one at a time, so that every
+     * state doesn't need to be in memory at once. Storage types that can't read users in parts
+     * load all states first.
+     *
+     * @param consumer The consumer of each state
+     */
+    public void forEachState(StateConsumer consumer) throws Exception {
+        for (UserState state : loadStates(false, false)) {
+            consumer.accept(state);
+        }
+    }
+
+    public abstract AntiAfkLogSink getAntiAfkLogSink();
+
+    /**
+     * Gets queries that rank leaderboards in storage, if the storage type supports it.
+     *
+     * @return the queries, or null if leaderboards must be ranked in memory
+     */
+    @Nullable
+    public LeaderboardQueries getLeaderboardQueries() {
+        return null;
+    }
 
     public void startAutoSaving() {
         if (!plugin.configBoolean(Option.AUTO_SAVE_ENABLED)) {
@@ -131,7 +320,7 @@ public abstract class StorageProvider {
             public void run() {
                 for (User user : userManager.getOnlineUsers()) {
                     try {
-                        saveSafely(user);
+                        saveChangesSafely(user);
                     } catch (Exception e) {
                         plugin.logger().warn("Error running auto-save on user data:");
                         e.printStackTrace();
@@ -185,4 +374,11 @@ public abstract class StorageProvider {
         }
     }
 
+    @FunctionalInterface
+    public interface StateConsumer {
+
+        void accept(UserState state) throws Exception;
+
+    }
+
 }
@@ -3,6 +3,7 @@ package dev.aurelium.auraskills.common.storage;
 public enum StorageType {
 
     YAML,
-    MYSQL
+    MYSQL,
+    H2
 
 }
@@ -0,0 +1,94 @@
+package dev.aurelium.auraskills.common.storage;
+
+import dev.aurelium.auraskills.common.user.User;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Holds users loaded while their player was logging in until the player joins. Entries not taken
+ * within {@link #EXPIRY_MS} are discarded, since storage may have changed since they were loaded.
+ */
+public class UserPrefetcher {
+
+    // Long enough to cover downloading a resource pack during the configuration phase
+    public static final long EXPIRY_MS = 30000;
+
+    private final Map<UUID, Prefetched> prefetched = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+
+    public void put(User user) {
+        prefetched.put(user.getUuid(), new Prefetched(user, System.currentTimeMillis()));
+    }
+
+    /**
+     * Removes and returns the prefetched user, counting whether the join found one.
+     *
+     * @param uuid the uuid of the joining player
+     * @return the user, or null if none was prefetched or it expired
+     */
+    @Nullable
+    public User take(UUID uuid) {
+        Prefetched entry = prefetched.remove(uuid);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (System.currentTimeMillis() - entry.time() > EXPIRY_MS) {
+            expired.increment();
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.user();
+    }
+
+    /**
+     * Discards a prefetched user because its stored data changed.
+     *
+     * @param uuid the uuid of the user
+     */
+    public void invalidate(UUID uuid) {
+        prefetched.remove(uuid);
+    }
+
+    /**
+     * Discards users whose player never joined.
+     */
+    public void removeExpired() {
+        long now = System.currentTimeMillis();
+        prefetched.values().removeIf(entry -> {
+            if (now - entry.time() > EXPIRY_MS) {
+                expired.increment();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getExpired() {
+        return expired.sum();
+    }
+
+    public int getSize() {
+        return prefetched.size();
+    }
+
+    private record Prefetched(User user, long time) {
+
+    }
+
+}
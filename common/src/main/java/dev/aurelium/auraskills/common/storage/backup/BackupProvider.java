@@ -1,30 +1,39 @@
 package dev.aurelium.auraskills.common.storage.backup;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import dev.aurelium.auraskills.api.registry.NamespacedId;
 import dev.aurelium.auraskills.api.skill.Skill;
 import dev.aurelium.auraskills.api.stat.Stat;
 import dev.aurelium.auraskills.api.stat.StatModifier;
 import dev.aurelium.auraskills.api.trait.Trait;
 import dev.aurelium.auraskills.api.trait.TraitModifier;
+import dev.aurelium.auraskills.api.util.AuraSkillsModifier;
 import dev.aurelium.auraskills.api.util.AuraSkillsModifier.Operation;
 import dev.aurelium.auraskills.common.AuraSkillsPlugin;
-import dev.aurelium.auraskills.common.config.Option;
-import dev.aurelium.auraskills.common.user.User;
+import dev.aurelium.auraskills.common.storage.StorageException;
 import dev.aurelium.auraskills.common.user.UserManager;
 import dev.aurelium.auraskills.common.user.UserState;
 import org.jetbrains.annotations.Nullable;
-import org.spongepowered.configurate.BasicConfigurationNode;
 import org.spongepowered.configurate.ConfigurationNode;
 import org.spongepowered.configurate.yaml.YamlConfigurationLoader;
 
-import java.io.File;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 public class BackupProvider {
 
+    public static final String COMPRESSED_EXTENSION = ".jsonl.gz";
+    private static final int APPLY_BATCH_SIZE = 500;
+
     public final AuraSkillsPlugin plugin;
     public final UserManager playerManager;
 
@@ -42,71 +51,45 @@ public class BackupProvider {
         }
     }
 
+    /**
+     * Saves a gzip-compressed backup with one JSON line per user. Users are read from storage
+     * and written one at a time, so memory use doesn't grow with the number of users.
+     *
+     * @param savePlayerData whether to save online players first
+     * @return the backup file
+     */
     public File saveBackup(boolean savePlayerData) throws Exception {
         // Save online players
         if (savePlayerData) {
-            for (User user : plugin.getUserManager().getOnlineUsers()) {
-                plugin.getStorageProvider().saveSafely(user);
+            try {
+                plugin.getStorageProvider().saveAllSafely(plugin.getUserManager().getOnlineUsers());
+            } catch (StorageException e) {
+                // Still back up what was saved before
+                plugin.logger().warn(e.getMessage() + ", the backup will contain their last saved data");
             }
         }
 
         createBackupFolder();
         LocalTime time = LocalTime.now();
         File backupFile = new File(plugin.getPluginFolder() + "/backups/backup-" + LocalDate.now()
-                + "_" + time.getHour() + "-" + time.getMinute() + "-" + time.getSecond() + ".yml");
-
-        YamlConfigurationLoader loader = YamlConfigurationLoader.builder()
-                .defaultOptions(opts -> opts.shouldCopyDefaults(false))
-                .path(backupFile.toPath()).build();
-
-        ConfigurationNode config = BasicConfigurationNode.root(); // Create empty node
-
-        config.node("backup_version").set(2);
+                + "_" + time.getHour() + "-" + time.getMinute() + "-" + time.getSecond() + COMPRESSED_EXTENSION);
 
-        List<UserState> states = plugin.getStorageProvider().loadStates(false, false);
-        if (states.size() > plugin.configInt(Option.AUTOMATIC_BACKUPS_MAX_USERS)) {
-            plugin.logger().info("Automatic backup saving was skipped due to too many users (" + states.size() + "), use your own backup system.");
-            return null;
-        }
-        for (UserState state : states) {
-            ConfigurationNode userNode = config.node("users", state.uuid().toString());
-            // Save skill levels and xp
-            for (Skill skill : state.skillLevels().keySet()) {
-                int level = state.skillLevels().getOrDefault(skill, plugin.config().getStartLevel());
-                double xp = state.skillXp().getOrDefault(skill, 0.0);
-
-                ConfigurationNode skillNode = userNode.node("skills", skill.getId().toString());
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(new FileOutputStream(backupFile)), StandardCharsets.UTF_8))) {
+            JsonObject header = new JsonObject();
+            header.addProperty("backup_version", 3);
+            writeLine(writer, header);
 
-                skillNode.node("level").set(level);
-                skillNode.node("xp").set(xp);
-            }
-            // Save mana
-            userNode.node("mana").set(state.mana());
-            // Save skill coins
-            userNode.node("skill_coins").set(state.skillCoins());
-            // Save stat modifiers
-            for (StatModifier modifier : state.statModifiers().values()) {
-                ConfigurationNode modifierNode = userNode.node("stat_modifiers").appendListNode();
-                modifierNode.node("name").set(modifier.name());
-                modifierNode.node("stat").set(modifier.stat().getId().toString());
-                modifierNode.node("operation").set(modifier.operation().toString());
-                modifierNode.node("value").set(modifier.value());
-            }
-            // Save trait modifiers
-            for (TraitModifier modifier : state.traitModifiers().values()) {
-                ConfigurationNode modifierNode = userNode.node("trait_modifiers").appendListNode();
-                modifierNode.node("name").set(modifier.name());
-                modifierNode.node("trait").set(modifier.trait().getId().toString());
-                modifierNode.node("operation").set(modifier.operation().toString());
-                modifierNode.node("value").set(modifier.value());
-            }
+            plugin.getStorageProvider().forEachState(state -> writeLine(writer, serializeState(state)));
         }
-        // Save the backup file
-        loader.save(config);
         return backupFile;
     }
 
     public void loadBackup(File file) throws Exception {
+        if (file.getName().endsWith(COMPRESSED_EXTENSION)) {
+            loadCompressed(file);
+            return;
+        }
         ConfigurationNode root = YamlConfigurationLoader.builder()
                 .defaultOptions(opts -> opts.shouldCopyDefaults(false))
                 .path(file.toPath()).build().load();
@@ -122,6 +105,125 @@ public class BackupProvider {
         }
     }
 
+    private void loadCompressed(File file) throws Exception {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new FileInputStream(file)), StandardCharsets.UTF_8))) {
+            String headerLine = reader.readLine();
+            if (headerLine == null || JsonParser.parseString(headerLine).getAsJsonObject().get("backup_version").getAsInt() != 3) {
+                throw new IllegalStateException("Invalid backup_version");
+            }
+            // Applied in batches so storage can write many users at once without holding the whole backup
+            List<UserState> batch = new ArrayList<>(APPLY_BATCH_SIZE);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                batch.add(deserializeState(JsonParser.parseString(line).getAsJsonObject()));
+                if (batch.size() >= APPLY_BATCH_SIZE) {
+                    plugin.getStorageProvider().applyStates(batch);
+                    batch.clear();
+                }
+            }
+            plugin.getStorageProvider().applyStates(batch);
+        }
+    }
+
+    private void writeLine(Writer writer, JsonObject object) throws IOException {
+        writer.write(object.toString());
+        writer.write('\n');
+    }
+
+    private JsonObject serializeState(UserState state) {
+        JsonObject object = new JsonObject();
+        object.addProperty("uuid", state.uuid().toString());
+        JsonObject skills = new JsonObject();
+        for (Skill skill : state.skillLevels().keySet()) {
+            JsonObject skillObject = new JsonObject();
+            skillObject.addProperty("level", state.skillLevels().getOrDefault(skill, plugin.config().getStartLevel()));
+            skillObject.addProperty("xp", state.skillXp().getOrDefault(skill, 0.0));
+            skills.add(skill.getId().toString(), skillObject);
+        }
+        object.add("skills", skills);
+        object.addProperty("mana", state.mana());
+        object.addProperty("skill_coins", state.skillCoins());
+
+        JsonArray statModifiers = new JsonArray();
+        for (StatModifier modifier : state.statModifiers().values()) {
+            JsonObject modifierObject = serializeModifier(modifier);
+            modifierObject.addProperty("stat", modifier.stat().getId().toString());
+            statModifiers.add(modifierObject);
+        }
+        object.add("stat_modifiers", statModifiers);
+
+        JsonArray traitModifiers = new JsonArray();
+        for (TraitModifier modifier : state.traitModifiers().values()) {
+            JsonObject modifierObject = serializeModifier(modifier);
+            modifierObject.addProperty("trait", modifier.trait().getId().toString());
+            traitModifiers.add(modifierObject);
+        }
+        object.add("trait_modifiers", traitModifiers);
+        return object;
+    }
+
+    private JsonObject serializeModifier(AuraSkillsModifier<?> modifier) {
+        JsonObject object = new JsonObject();
+        object.addProperty("name", modifier.name());
+        object.addProperty("operation", modifier.operation().toString());
+        object.addProperty("value", modifier.value());
+        if (modifier.isTemporary()) {
+            object.addProperty("expiration_time", modifier.getExpirationTime());
+            object.addProperty("pause_offline", modifier.isPauseOffline());
+        }
+        return object;
+    }
+
+    private UserState deserializeState(JsonObject object) {
+        UUID uuid = UUID.fromString(object.get("uuid").getAsString());
+
+        Map<Skill, Integer> skillLevels = new ConcurrentHashMap<>();
+        Map<Skill, Double> skillXp = new ConcurrentHashMap<>();
+        for (Map.Entry<String, JsonElement> entry : object.getAsJsonObject("skills").entrySet()) {
+            Skill skill = plugin.getSkillRegistry().getOrNull(NamespacedId.fromString(entry.getKey()));
+            if (skill == null) continue;
+            JsonObject skillObject = entry.getValue().getAsJsonObject();
+            skillLevels.put(skill, skillObject.get("level").getAsInt());
+            skillXp.put(skill, skillObject.get("xp").getAsDouble());
+        }
+
+        Map<String, StatModifier> statModifiers = new ConcurrentHashMap<>();
+        for (JsonElement element : object.getAsJsonArray("stat_modifiers")) {
+            JsonObject modifierObject = element.getAsJsonObject();
+            Stat stat = plugin.getStatRegistry().getOrNull(NamespacedId.fromString(modifierObject.get("stat").getAsString()));
+            if (stat == null) continue;
+            String name = modifierObject.get("name").getAsString();
+            StatModifier modifier = new StatModifier(name, stat, modifierObject.get("value").getAsDouble(),
+                    Operation.parse(modifierObject.get("operation").getAsString()));
+            deserializeTemporary(modifierObject, modifier);
+            statModifiers.put(name, modifier);
+        }
+
+        Map<String, TraitModifier> traitModifiers = new ConcurrentHashMap<>();
+        for (JsonElement element : object.getAsJsonArray("trait_modifiers")) {
+            JsonObject modifierObject = element.getAsJsonObject();
+            Trait trait = plugin.getTraitRegistry().getOrNull(NamespacedId.fromString(modifierObject.get("trait").getAsString()));
+            if (trait == null) continue;
+            String name = modifierObject.get("name").getAsString();
+            TraitModifier modifier = new TraitModifier(name, trait, modifierObject.get("value").getAsDouble(),
+                    Operation.parse(modifierObject.get("operation").getAsString()));
+            deserializeTemporary(modifierObject, modifier);
+            traitModifiers.put(name, modifier);
+        }
+
+        double mana = object.get("mana").getAsDouble();
+        double skillCoins = object.get("skill_coins").getAsDouble();
+        return new UserState(uuid, skillLevels, skillXp, statModifiers, traitModifiers, mana, skillCoins);
+    }
+
+    private void deserializeTemporary(JsonObject object, AuraSkillsModifier<?> modifier) {
+        if (object.has("expiration_time")) {
+            modifier.makeTemporary(object.get("expiration_time").getAsLong(), object.get("pause_offline").getAsBoolean());
+        }
+    }
+
     private void loadV2(ConfigurationNode config) throws Exception {
         for (ConfigurationNode userNode : config.node("users").childrenMap().values()) {
             UUID uuid = getFromKey(userNode);
@@ -0,0 +1,230 @@
+package dev.aurelium.auraskills.common.storage.file;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import dev.aurelium.auraskills.common.AuraSkillsPlugin;
+import dev.aurelium.auraskills.common.antiafk.AntiAfkLogSink;
+import dev.aurelium.auraskills.common.region.BlockPosition;
+import dev.aurelium.auraskills.common.user.AntiAfkLog;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Appends anti-AFK logs of all players to one JSON lines file. Once the file reaches
+ * {@link #MAX_FILE_SIZE}, it is compressed into a file named after the time it was rolled
+ * and a new file is started.
+ */
+public class FileAntiAfkLogSink extends AntiAfkLogSink {
+
+    private static final long MAX_FILE_SIZE = 1024 * 1024;
+    private static final String CURRENT_FILE_NAME = "current.log";
+    private static final String ROLLED_PREFIX = "anti_afk-";
+    private static final String ROLLED_SUFFIX = ".log.gz";
+
+    private final Path directory;
+    private final Function<UUID, List<AntiAfkLog>> legacyLoader;
+
+    /**
+     * Creates the sink.
+     *
+     * @param plugin the plugin
+     * @param directory the folder the log files are in
+     * @param legacyLoader loads logs saved in player data files by older versions
+     */
+    public FileAntiAfkLogSink(AuraSkillsPlugin plugin, Path directory, Function<UUID, List<AntiAfkLog>> legacyLoader) {
+        super(plugin);
+        this.directory = directory;
+        this.legacyLoader = legacyLoader;
+    }
+
+    @Override
+    protected synchronized void write(List<Entry> entries) throws IOException {
+        Files.createDirectories(directory);
+        Path current = directory.resolve(CURRENT_FILE_NAME);
+        try (Writer writer = Files.newBufferedWriter(current, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (Entry entry : entries) {
+                JsonObject object = new JsonObject();
+                object.addProperty("uuid", entry.uuid().toString());
+                object.addProperty("time", entry.log().timestamp());
+                object.addProperty("message", entry.log().message());
+                object.addProperty("coords", entry.log().coords().toString());
+                object.addProperty("world", entry.log().world());
+                writer.write(object.toString());
+                writer.write('\n');
+            }
+        }
+        if (Files.size(current) >= MAX_FILE_SIZE) {
+            roll(current);
+        }
+    }
+
+    private void roll(Path current) throws IOException {
+        Path rolled = directory.resolve(ROLLED_PREFIX + System.currentTimeMillis() + ROLLED_SUFFIX);
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(rolled))) {
+            Files.copy(current, out);
+        }
+        Files.delete(current);
+    }
+
+    /**
+     * Reads the logs newest first: the current file, then rolled files from newest to oldest, then
+     * legacy logs. Only logs inside the page are parsed, the rest are just counted.
+     */
+    @Override
+    protected synchronized LogPage query(UUID uuid, int offset, int limit) throws IOException {
+        PageCollector collector = new PageCollector(offset, limit);
+        String prefix = linePrefix(uuid);
+        Path current = directory.resolve(CURRENT_FILE_NAME);
+        if (Files.exists(current)) {
+            try (BufferedReader reader = Files.newBufferedReader(current, StandardCharsets.UTF_8)) {
+                readMatching(reader, prefix, collector);
+            }
+        }
+        List<Path> rolledFiles = new ArrayList<>(listRolled().values());
+        for (Path rolled : rolledFiles.reversed()) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(Files.newInputStream(rolled)), StandardCharsets.UTF_8))) {
+                readMatching(reader, prefix, collector);
+            }
+        }
+        List<AntiAfkLog> legacy = new ArrayList<>(legacyLoader.apply(uuid));
+        legacy.sort(Comparator.comparingLong(AntiAfkLog::timestamp).reversed());
+        for (AntiAfkLog log : legacy) {
+            if (collector.next()) {
+                collector.logs.add(log);
+            }
+        }
+        return new LogPage(collector.logs, collector.total);
+    }
+
+    private void readMatching(BufferedReader reader, String prefix, PageCollector collector) throws IOException {
+        // Lines are appended oldest first, so the matching lines of the file are walked backwards
+        List<String> lines = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            // Skip lines of other players without parsing them
+            if (line.startsWith(prefix)) {
+                lines.add(line);
+            }
+        }
+        for (String matching : lines.reversed()) {
+            if (!collector.next()) continue;
+            AntiAfkLog log = parse(matching);
+            if (log != null) {
+                collector.logs.add(log);
+            }
+        }
+    }
+
+    @Nullable
+    private AntiAfkLog parse(String line) {
+        try {
+            JsonObject object = JsonParser.parseString(line).getAsJsonObject();
+            return new AntiAfkLog(object.get("time").getAsLong(), object.get("message").getAsString(),
+                    BlockPosition.fromCommaString(object.get("coords").getAsString()), object.get("world").getAsString());
+        } catch (RuntimeException e) {
+            return null; // Line cut off by a crash while writing
+        }
+    }
+
+    // Lines are written with the uuid as the first property
+    private String linePrefix(UUID uuid) {
+        JsonObject object = new JsonObject();
+        object.addProperty("uuid", uuid.toString());
+        String json = object.toString();
+        return json.substring(0, json.length() - 1) + ",";
+    }
+
+    /**
+     * Deletes rolled files rolled before the time. Since rolled files are named after the time
+     * they were rolled, every log in them is older than that. Logs in the current file older than
+     * the time are removed by rewriting it.
+     */
+    @Override
+    protected synchronized void deleteBefore(long time) throws IOException {
+        for (Map.Entry<Long, Path> entry : listRolled().entrySet()) {
+            if (entry.getKey() < time) {
+                Files.delete(entry.getValue());
+            }
+        }
+        Path current = directory.resolve(CURRENT_FILE_NAME);
+        if (!Files.exists(current)) {
+            return;
+        }
+        List<String> kept = new ArrayList<>();
+        boolean removed = false;
+        try (BufferedReader reader = Files.newBufferedReader(current, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                AntiAfkLog log = parse(line);
+                if (log != null && log.timestamp() >= time) {
+                    kept.add(line);
+                } else {
+                    removed = true;
+                }
+            }
+        }
+        if (!removed) {
+            return;
+        }
+        if (kept.isEmpty()) {
+            Files.delete(current);
+            return;
+        }
+        Path temp = directory.resolve(CURRENT_FILE_NAME + ".tmp");
+        Files.write(temp, kept, StandardCharsets.UTF_8);
+        Files.move(temp, current, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Rolled files by the time they were rolled
+    private SortedMap<Long, Path> listRolled() throws IOException {
+        SortedMap<Long, Path> rolled = new TreeMap<>();
+        if (!Files.isDirectory(directory)) {
+            return rolled;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, ROLLED_PREFIX + "*" + ROLLED_SUFFIX)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                try {
+                    rolled.put(Long.parseLong(name.substring(ROLLED_PREFIX.length(), name.length() - ROLLED_SUFFIX.length())), path);
+                } catch (NumberFormatException ignored) {
+                }
+            }
+        }
+        return rolled;
+    }
+
+    // Counts matching logs in order and keeps those inside the page
+    private static class PageCollector {
+
+        private final int offset;
+        private final int limit;
+        private final List<AntiAfkLog> logs = new ArrayList<>();
+        private int total;
+
+        private PageCollector(int offset, int limit) {
+            this.offset = offset;
+            this.limit = limit;
+        }
+
+        // Counts the next log and returns whether it is inside the page
+        private boolean next() {
+            int index = total++;
+            return index >= offset && index - offset < limit;
+        }
+
+    }
+
+}
@@ -11,6 +11,7 @@ import dev.aurelium.auraskills.api.trait.TraitModifier;
 import dev.aurelium.auraskills.api.util.AuraSkillsModifier;
 import dev.aurelium.auraskills.api.util.AuraSkillsModifier.Operation;
 import dev.aurelium.auraskills.common.AuraSkillsPlugin;
+import dev.aurelium.auraskills.common.antiafk.AntiAfkLogSink;
 import dev.aurelium.auraskills.common.mana.ManaAbilityData;
 import dev.aurelium.auraskills.common.ref.PlayerRef;
 import dev.aurelium.auraskills.common.region.BlockPosition;
@@ -30,19 +31,30 @@ import org.spongepowered.configurate.serialize.SerializationException;
 import org.spongepowered.configurate.yaml.NodeStyle;
 import org.spongepowered.configurate.yaml.YamlConfigurationLoader;
 
-import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 
 public class FileStorageProvider extends StorageProvider {
 
+    private static final String INDEX_FILE_NAME = "index.dat";
+
     private final String dataDirectory;
+    private final UserIndex index;
+    private final FileAntiAfkLogSink antiAfkLogSink;
 
     public FileStorageProvider(AuraSkillsPlugin plugin, String dataDirectory) {
         super(plugin);
         this.dataDirectory = dataDirectory;
+        this.index = new UserIndex(Path.of(dataDirectory, INDEX_FILE_NAME));
+        this.antiAfkLogSink = new FileAntiAfkLogSink(plugin, plugin.getPluginFolder().toPath().resolve("logs/anti_afk"),
+                this::loadLegacyAntiAfkLogs);
     }
 
     @Override
@@ -253,13 +265,15 @@ public class FileStorageProvider extends StorageProvider {
         }
     }
 
+    private Path getPath(UUID uuid) {
+        return Path.of(dataDirectory, uuid.toString() + ".yml");
+    }
+
     @NotNull
     private CommentedConfigurationNode loadYamlFile(UUID uuid) throws ConfigurateException {
-        Path path = Path.of(dataDirectory, uuid.toString() + ".yml");
-
         YamlConfigurationLoader loader = YamlConfigurationLoader.builder()
                 .defaultOptions(opts -> opts.shouldCopyDefaults(false))
-                .path(path)
+                .path(getPath(uuid))
                 .build();
 
         return loader.load();
@@ -328,6 +342,7 @@ public class FileStorageProvider extends StorageProvider {
         applyTraitModifiers(traitModifiersNode, state.traitModifiers());
 
         saveYamlFile(root, state.uuid());
+        updateIndex(state.uuid(), state.skillLevels(), state.skillXp(), state.mana(), state.skillCoins());
     }
 
     @Override
@@ -414,31 +429,24 @@ public class FileStorageProvider extends StorageProvider {
             root.node("last_job_select_time").set(selectTime);
         }
 
-        // Save anti-AFK logs
-        if (!user.getSessionAntiAfkLogs().isEmpty()) {
-            // Since logs are not loaded on join, we should append new logs instead of overriding
-            ConfigurationNode node = root.node("logs", "anti_afk");
-            List<ConfigurationNode> nodeList = node.getList(ConfigurationNode.class, new ArrayList<>());
-
-            for (AntiAfkLog log : user.getSessionAntiAfkLogs()) {
-                var logNode = CommentedConfigurationNode.root();
-                logNode.node("time").set(log.timestamp());
-                logNode.node("message").set(log.message());
-                logNode.node("coords").set(log.coords().toString());
-                logNode.node("world").set(log.world());
+        saveYamlFile(root, user.getUuid());
+        updateIndex(user.getUuid(), user.getSkillLevelMap(), user.getSkillXpMap(), user.getMana(), user.getSkillCoins());
+    }
 
-                nodeList.add(logNode);
-            }
-            node.setList(ConfigurationNode.class, nodeList);
+    private void updateIndex(UUID uuid, Map<Skill, Integer> levels, Map<Skill, Double> xp, double mana, double skillCoins) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(getPath(uuid), BasicFileAttributes.class);
+            index.put(uuid, UserIndex.Entry.of(attributes, levels, xp, mana, skillCoins));
+        } catch (IOException e) {
+            // The file is parsed again on the next load since the index entry won't match
+            index.remove(uuid);
         }
-
-        saveYamlFile(root, user.getUuid());
     }
 
     private void saveYamlFile(CommentedConfigurationNode root, UUID uuid) throws ConfigurateException {
         // Create a Yaml loader
         YamlConfigurationLoader loader = YamlConfigurationLoader.builder()
-                .path(Path.of(dataDirectory, uuid.toString() + ".yml"))
+                .path(getPath(uuid))
                 .defaultOptions(opts -> opts.shouldCopyDefaults(false))
                 .nodeStyle(NodeStyle.BLOCK)
                 .indent(2)
@@ -491,41 +499,155 @@ public class FileStorageProvider extends StorageProvider {
 
     @Override
     public void delete(UUID uuid) throws Exception {
-        Path path = Path.of(dataDirectory, uuid.toString() + ".yml");
-        Files.deleteIfExists(path);
+        Files.deleteIfExists(getPath(uuid));
+        index.remove(uuid);
     }
 
     @Override
-    public List<UserState> loadStates(boolean ignoreOnline, boolean skipKeyValues, long previousFetchTime) {
+    public void shutdown() {
+        saveIndex();
+        antiAfkLogSink.shutdown();
+    }
+
+    /**
+     * Loads the states of every player data file. When modifiers aren't needed, states come from the
+     * index and only files changed since they were indexed are parsed. Files are parsed in parallel.
+     */
+    @Override
+    public List<UserState> loadStates(boolean ignoreOnline, boolean skipKeyValues, long previousFetchTime) throws Exception {
+        Map<UUID, BasicFileAttributes> files = listDataFiles();
+        try {
+            index.load();
+        } catch (IOException e) {
+            plugin.logger().warn("Failed to read user index, player data files will be parsed instead: " + e.getMessage());
+        }
+        index.retainAll(files.keySet());
+
+        Map<String, Skill> skillsById = new HashMap<>();
+        for (Skill skill : plugin.getSkillRegistry().getValues()) {
+            skillsById.put(skill.getId().toString(), skill);
+        }
+
         List<UserState> states = new ArrayList<>();
-        // Get all files in data directory
-        File[] files = new File(dataDirectory).listFiles();
-        if (files == null) {
-            return states;
-        }
-        // Loop through files and get UUID from file name
-        for (File file : files) {
-            String fileName = file.getName();
-            if (fileName.endsWith(".yml")) {
-                String uuidString = fileName.substring(0, fileName.length() - 4);
-                try {
-                    UUID uuid = UUID.fromString(uuidString);
+        Map<UUID, BasicFileAttributes> toParse = new HashMap<>();
+        for (Map.Entry<UUID, BasicFileAttributes> file : files.entrySet()) {
+            UUID uuid = file.getKey();
+            BasicFileAttributes attributes = file.getValue();
+            if (ignoreOnline && userManager.hasUser(uuid)) {
+                continue; // Skip if player is online
+            }
+            if (previousFetchTime > 0 && attributes.lastModifiedTime().toMillis() < previousFetchTime) {
+                continue; // Unchanged since the last fetch
+            }
+            UserIndex.Entry entry = index.get(uuid);
+            if (skipKeyValues && entry != null && entry.matches(attributes)) {
+                states.add(entry.toState(uuid, skillsById));
+            } else {
+                toParse.put(uuid, attributes);
+            }
+        }
+        states.addAll(parseStates(toParse));
 
-                    if (ignoreOnline && userManager.hasUser(uuid)) {
-                        continue; // Skip if player is online
-                    }
+        saveIndex();
+        return states;
+    }
 
-                    states.add(loadState(uuid)); // Load state from file
+    /**
+     * Walks the data directory, parsing one file at a time.
+     */
+    @Override
+    public void forEachState(StateConsumer consumer) throws Exception {
+        Path directory = Path.of(dataDirectory);
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.yml")) {
+            for (Path path : stream) {
+                String fileName = path.getFileName().toString();
+                UUID uuid;
+                try {
+                    uuid = UUID.fromString(fileName.substring(0, fileName.length() - 4));
+                } catch (IllegalArgumentException e) {
+                    plugin.logger().warn("Invalid player data file name: " + fileName);
+                    continue;
+                }
+                UserState state;
+                try {
+                    state = loadState(uuid);
                 } catch (Exception e) {
+                    plugin.logger().warn("Failed to load player data file of " + uuid + ": " + e.getMessage());
+                    continue;
+                }
+                consumer.accept(state);
+            }
+        }
+    }
+
+    private Map<UUID, BasicFileAttributes> listDataFiles() throws IOException {
+        Map<UUID, BasicFileAttributes> files = new HashMap<>();
+        Path directory = Path.of(dataDirectory);
+        if (!Files.isDirectory(directory)) {
+            return files;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.yml")) {
+            for (Path path : stream) {
+                String fileName = path.getFileName().toString();
+                String uuidString = fileName.substring(0, fileName.length() - 4);
+                try {
+                    files.put(UUID.fromString(uuidString), Files.readAttributes(path, BasicFileAttributes.class));
+                } catch (IllegalArgumentException e) {
                     plugin.logger().warn("Invalid player data file name: " + fileName);
+                } catch (IOException e) {
+                    plugin.logger().warn("Failed to read player data file " + fileName + ": " + e.getMessage());
                 }
             }
         }
-        return states;
+        return files;
+    }
+
+    private List<UserState> parseStates(Map<UUID, BasicFileAttributes> files) throws Exception {
+        if (files.isEmpty()) {
+            return new ArrayList<>();
+        }
+        ForkJoinPool pool = new ForkJoinPool(Math.max(Runtime.getRuntime().availableProcessors() - 1, 1));
+        try {
+            return pool.submit(() -> files.entrySet().parallelStream()
+                    .map(file -> parseState(file.getKey(), file.getValue()))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList())).get();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Nullable
+    private UserState parseState(UUID uuid, BasicFileAttributes attributes) {
+        try {
+            UserState state = loadState(uuid);
+            // Indexed with the attributes read before parsing so a file changed while parsing is parsed again next time
+            index.put(uuid, UserIndex.Entry.of(attributes, state.skillLevels(), state.skillXp(), state.mana(), state.skillCoins()));
+            return state;
+        } catch (Exception e) {
+            plugin.logger().warn("Failed to load player data file of " + uuid + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void saveIndex() {
+        try {
+            index.saveIfDirty();
+        } catch (IOException e) {
+            plugin.logger().warn("Failed to save user index: " + e.getMessage());
+        }
     }
 
     @Override
-    public List<AntiAfkLog> loadAntiAfkLogs(UUID uuid) {
+    public AntiAfkLogSink getAntiAfkLogSink() {
+        return antiAfkLogSink;
+    }
+
+    // Logs were saved in player data files before they had their own files
+    private List<AntiAfkLog> loadLegacyAntiAfkLogs(UUID uuid) {
         try {
             ConfigurationNode root = loadYamlFile(uuid);
 
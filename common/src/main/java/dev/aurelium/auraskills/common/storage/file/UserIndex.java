@@ -0,0 +1,187 @@
+package dev.aurelium.auraskills.common.storage.file;
+
+import dev.aurelium.auraskills.api.skill.Skill;
+import dev.aurelium.auraskills.common.user.UserState;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A compact index of the skills, mana, and skill coins in every player data file, read in one
+ * sequential pass instead of parsing each YAML file. Each entry remembers the modification time and
+ * size of the file it describes, so a file only needs to be parsed again once it no longer matches.
+ */
+public class UserIndex {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final Path path;
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private boolean loaded;
+    private volatile boolean dirty;
+
+    public UserIndex(Path path) {
+        this.path = path;
+    }
+
+    @Nullable
+    public Entry get(UUID uuid) {
+        return entries.get(uuid);
+    }
+
+    public void put(UUID uuid, Entry entry) {
+        entries.put(uuid, entry);
+        dirty = true;
+    }
+
+    public void remove(UUID uuid) {
+        if (entries.remove(uuid) != null) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Removes the entries of files that no longer exist.
+     *
+     * @param existing the UUIDs of every existing data file
+     */
+    public void retainAll(Set<UUID> existing) {
+        if (entries.keySet().retainAll(existing)) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Reads the index file if it hasn't been read yet. A missing or outdated index file is ignored,
+     * since entries are rebuilt from the data files.
+     *
+     * @throws IOException if the index file can't be read
+     */
+    public synchronized void load() throws IOException {
+        if (loaded) return;
+        loaded = true;
+        if (!Files.exists(path)) return;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                dirty = true;
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                UUID uuid = new UUID(in.readLong(), in.readLong());
+                long modified = in.readLong();
+                long size = in.readLong();
+                double mana = in.readDouble();
+                double skillCoins = in.readDouble();
+                int numSkills = in.readInt();
+                String[] skills = new String[numSkills];
+                int[] levels = new int[numSkills];
+                double[] xp = new double[numSkills];
+                for (int j = 0; j < numSkills; j++) {
+                    skills[j] = in.readUTF();
+                    levels[j] = in.readInt();
+                    xp[j] = in.readDouble();
+                }
+                // Entries added since startup are newer than the file
+                entries.putIfAbsent(uuid, new Entry(modified, size, skills, levels, xp, mana, skillCoins));
+            }
+        }
+    }
+
+    /**
+     * Writes the index file if any entry changed since it was last written.
+     *
+     * @throws IOException if the index file can't be written
+     */
+    public synchronized void saveIfDirty() throws IOException {
+        if (!dirty) return;
+        dirty = false;
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            List<Map.Entry<UUID, Entry>> snapshot = new ArrayList<>(entries.entrySet());
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(snapshot.size());
+            for (Map.Entry<UUID, Entry> mapEntry : snapshot) {
+                UUID uuid = mapEntry.getKey();
+                Entry entry = mapEntry.getValue();
+                out.writeLong(uuid.getMostSignificantBits());
+                out.writeLong(uuid.getLeastSignificantBits());
+                out.writeLong(entry.modified());
+                out.writeLong(entry.size());
+                out.writeDouble(entry.mana());
+                out.writeDouble(entry.skillCoins());
+                out.writeInt(entry.skills().length);
+                for (int i = 0; i < entry.skills().length; i++) {
+                    out.writeUTF(entry.skills()[i]);
+                    out.writeInt(entry.levels()[i]);
+                    out.writeDouble(entry.xp()[i]);
+                }
+            }
+        } catch (IOException e) {
+            dirty = true;
+            throw e;
+        }
+        // Replace the old index only once the new one is complete
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * The indexed data of a player data file.
+     *
+     * @param modified the modification time of the file in milliseconds
+     * @param size the size of the file in bytes
+     */
+    public record Entry(long modified, long size, String[] skills, int[] levels, double[] xp, double mana, double skillCoins) {
+
+        public static Entry of(BasicFileAttributes attributes, Map<Skill, Integer> skillLevels, Map<Skill, Double> skillXp,
+                double mana, double skillCoins) {
+            int numSkills = skillLevels.size();
+            String[] skills = new String[numSkills];
+            int[] levels = new int[numSkills];
+            double[] xp = new double[numSkills];
+            int i = 0;
+            for (Map.Entry<Skill, Integer> entry : skillLevels.entrySet()) {
+                if (i == numSkills) break; // Skill added concurrently
+                skills[i] = entry.getKey().getId().toString();
+                levels[i] = entry.getValue();
+                xp[i] = skillXp.getOrDefault(entry.getKey(), 0.0);
+                i++;
+            }
+            return new Entry(attributes.lastModifiedTime().toMillis(), attributes.size(),
+                    Arrays.copyOf(skills, i), Arrays.copyOf(levels, i), Arrays.copyOf(xp, i), mana, skillCoins);
+        }
+
+        public boolean matches(BasicFileAttributes attributes) {
+            return modified == attributes.lastModifiedTime().toMillis() && size == attributes.size();
+        }
+
+        /**
+         * Creates a state from the entry, without modifiers since they aren't indexed.
+         *
+         * @param uuid the UUID of the player
+         * @param skillsById registered skills by their id string
+         * @return the state
+         */
+        public UserState toState(UUID uuid, Map<String, Skill> skillsById) {
+            Map<Skill, Integer> levelMap = new ConcurrentHashMap<>();
+            Map<Skill, Double> xpMap = new ConcurrentHashMap<>();
+            for (int i = 0; i < skills.length; i++) {
+                Skill skill = skillsById.get(skills[i]);
+                if (skill == null) continue;
+                levelMap.put(skill, levels[i]);
+                xpMap.put(skill, xp[i]);
+            }
+            return new UserState(uuid, levelMap, xpMap, Map.of(), Map.of(), mana, skillCoins);
+        }
+
+    }
+
+}
@@ -0,0 +1,111 @@
+package dev.aurelium.auraskills.common.storage.sql;
+
+import dev.aurelium.auraskills.common.AuraSkillsPlugin;
+import dev.aurelium.auraskills.common.antiafk.AntiAfkLogSink;
+import dev.aurelium.auraskills.common.region.BlockPosition;
+import dev.aurelium.auraskills.common.storage.sql.pool.ConnectionPool;
+import dev.aurelium.auraskills.common.user.AntiAfkLog;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static dev.aurelium.auraskills.common.storage.sql.SqlStorageProvider.*;
+
+/**
+ * Writes anti-AFK logs to the logs table with one batch insert per flush.
+ */
+public class SqlAntiAfkLogSink extends AntiAfkLogSink {
+
+    private final ConnectionPool pool;
+
+    public SqlAntiAfkLogSink(AuraSkillsPlugin plugin, ConnectionPool pool) {
+        super(plugin);
+        this.pool = pool;
+    }
+
+    @Override
+    protected void write(List<Entry> entries) throws SQLException {
+        String query = "INSERT INTO " + TABLE_PREFIX + "logs (log_type, log_time, log_level, log_message, player_uuid, player_coords, world_name) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        try (Connection connection = pool.getConnection(); PreparedStatement statement = connection.prepareStatement(query)) {
+            for (Entry entry : entries) {
+                AntiAfkLog log = entry.log();
+                statement.setString(1, LOG_TYPE_ANTI_AFK);
+                statement.setTimestamp(2, new Timestamp(log.timestamp()));
+                statement.setInt(3, LOG_LEVEL_WARN);
+                statement.setString(4, log.message());
+                statement.setString(5, entry.uuid().toString());
+                statement.setString(6, log.coords().toString());
+                statement.setString(7, log.world());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    @Override
+    protected LogPage query(UUID uuid, int offset, int limit) throws SQLException {
+        try (Connection connection = pool.getConnection()) {
+            int total = 0;
+            String countQuery = "SELECT COUNT(*) FROM " + TABLE_PREFIX + "logs WHERE player_uuid=? AND log_type=?";
+            try (PreparedStatement statement = connection.prepareStatement(countQuery)) {
+                statement.setString(1, uuid.toString());
+                statement.setString(2, LOG_TYPE_ANTI_AFK);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (resultSet.next()) {
+                        total = resultSet.getInt(1);
+                    }
+                }
+            }
+
+            List<AntiAfkLog> logs = new ArrayList<>();
+            String query = "SELECT log_time, log_message, player_coords, world_name FROM " + TABLE_PREFIX +
+                    "logs WHERE player_uuid=? AND log_type=? ORDER BY log_time DESC, log_id DESC LIMIT ? OFFSET ?";
+            try (PreparedStatement statement = connection.prepareStatement(query)) {
+                statement.setString(1, uuid.toString());
+                statement.setString(2, LOG_TYPE_ANTI_AFK);
+                statement.setInt(3, limit);
+                statement.setInt(4, offset);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        long timestamp = resultSet.getTimestamp("log_time").getTime();
+
+                        String message = resultSet.getString("log_message");
+                        if (message == null) {
+                            message = "";
+                        }
+
+                        String coordsStr = resultSet.getString("player_coords");
+                        if (coordsStr == null) {
+                            coordsStr = "";
+                        }
+                        var coords = BlockPosition.fromCommaString(coordsStr);
+
+                        String worldName = resultSet.getString("world_name");
+                        if (worldName == null) {
+                            worldName = "";
+                        }
+
+                        logs.add(new AntiAfkLog(timestamp, message, coords, worldName));
+                    }
+                }
+            }
+            return new LogPage(logs, total);
+        }
+    }
+
+    @Override
+    protected void deleteBefore(long time) throws SQLException {
+        String query = "DELETE FROM " + TABLE_PREFIX + "logs WHERE log_type=? AND log_time < ?";
+        try (Connection connection = pool.getConnection(); PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setString(1, LOG_TYPE_ANTI_AFK);
+            statement.setTimestamp(2, new Timestamp(time));
+            int deleted = statement.executeUpdate();
+            if (deleted > 0) {
+                plugin.logger().info("Deleted " + deleted + " expired anti-AFK logs");
+            }
+        }
+    }
+
+}
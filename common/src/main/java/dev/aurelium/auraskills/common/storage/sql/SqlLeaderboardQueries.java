@@ -0,0 +1,169 @@
+package dev.aurelium.auraskills.common.storage.sql;
+
+import dev.aurelium.auraskills.api.skill.Skill;
+import dev.aurelium.auraskills.common.AuraSkillsPlugin;
+import dev.aurelium.auraskills.common.leaderboard.LeaderboardKey;
+import dev.aurelium.auraskills.common.leaderboard.LeaderboardQueries;
+import dev.aurelium.auraskills.common.leaderboard.SkillValue;
+import dev.aurelium.auraskills.common.storage.sql.pool.ConnectionPool;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+import static dev.aurelium.auraskills.common.storage.sql.SqlStorageProvider.TABLE_PREFIX;
+
+/**
+ * Ranks leaderboards in MySQL. Skill leaderboards are read in order from the
+ * (skill_name, skill_level, skill_xp) index, while power and average leaderboards are
+ * aggregated by the database. Only the requested rows are sent back in both cases.
+ */
+public class SqlLeaderboardQueries implements LeaderboardQueries {
+
+    private static final String FROM = " FROM " + TABLE_PREFIX + "skill_levels s JOIN " + TABLE_PREFIX + "users u ON u.user_id = s.user_id";
+
+    private final AuraSkillsPlugin plugin;
+    private final ConnectionPool pool;
+
+    public SqlLeaderboardQueries(AuraSkillsPlugin plugin, ConnectionPool pool) {
+        this.plugin = plugin;
+        this.pool = pool;
+    }
+
+    @Override
+    public List<SkillValue> getValues(LeaderboardKey key, int offset, int limit, Set<UUID> excluded) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        String query = "SELECT u.player_uuid, " + valueColumns(key) + FROM + where(key, excluded, params) +
+                groupBy(key) + " ORDER BY " + orderBy(key) + ", u.player_uuid LIMIT ? OFFSET ?";
+        params.add(limit);
+        params.add(offset);
+        try (Connection connection = pool.getConnection(); PreparedStatement statement = prepare(connection, query, params);
+                ResultSet rs = statement.executeQuery()) {
+            List<SkillValue> values = new ArrayList<>();
+            while (rs.next()) {
+                values.add(readValue(key, rs));
+            }
+            return values;
+        }
+    }
+
+    @Override
+    @Nullable
+    public SkillValue getValue(LeaderboardKey key, UUID id) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        String query = "SELECT u.player_uuid, " + valueColumns(key) + FROM + where(key, Set.of(), params) +
+                " AND u.player_uuid = ?" + groupBy(key);
+        params.add(id.toString());
+        try (Connection connection = pool.getConnection(); PreparedStatement statement = prepare(connection, query, params);
+                ResultSet rs = statement.executeQuery()) {
+            return rs.next() ? readValue(key, rs) : null;
+        }
+    }
+
+    @Override
+    public int countAhead(LeaderboardKey key, SkillValue value, Set<UUID> excluded) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        String query = switch (key.type()) {
+            case SKILL -> "SELECT COUNT(*)" + FROM + where(key, excluded, params) +
+                    " AND (s.skill_level > ? OR (s.skill_level = ? AND s.skill_xp > ?))";
+            case POWER -> "SELECT COUNT(*) FROM (SELECT " + valueColumns(key) + FROM + where(key, excluded, params) + groupBy(key) + ") t" +
+                    " WHERE t.level > ? OR (t.level = ? AND t.xp > ?)";
+            case AVERAGE -> "SELECT COUNT(*) FROM (SELECT " + valueColumns(key) + FROM + where(key, excluded, params) + groupBy(key) + ") t" +
+                    " WHERE t.level > ?";
+        };
+        if (key.type() == LeaderboardKey.Type.AVERAGE) {
+            params.add(value.xp()); // Average values store the average level as the xp
+        } else {
+            params.add(value.level());
+            params.add(value.level());
+            params.add(value.xp());
+        }
+        return queryInt(query, params);
+    }
+
+    @Override
+    public int count(LeaderboardKey key, Set<UUID> excluded) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        String select = key.type() == LeaderboardKey.Type.SKILL ? "SELECT COUNT(*)" : "SELECT COUNT(DISTINCT s.user_id)";
+        return queryInt(select + FROM + where(key, excluded, params), params);
+    }
+
+    private String valueColumns(LeaderboardKey key) {
+        return switch (key.type()) {
+            case SKILL -> "s.skill_level AS level, s.skill_xp AS xp";
+            case POWER -> "SUM(s.skill_level) AS level, SUM(s.skill_xp) AS xp";
+            case AVERAGE -> "AVG(s.skill_level) AS level, 0 AS xp";
+        };
+    }
+
+    private String orderBy(LeaderboardKey key) {
+        return key.type() == LeaderboardKey.Type.SKILL ? "s.skill_level DESC, s.skill_xp DESC" : "level DESC, xp DESC";
+    }
+
+    private String groupBy(LeaderboardKey key) {
+        return key.type() == LeaderboardKey.Type.SKILL ? "" : " GROUP BY s.user_id, u.player_uuid";
+    }
+
+    private String where(LeaderboardKey key, Set<UUID> excluded, List<Object> params) {
+        StringBuilder sb = new StringBuilder(" WHERE ");
+        if (key.type() == LeaderboardKey.Type.SKILL) {
+            sb.append("s.skill_name = ?");
+            params.add(Objects.requireNonNull(key.skill()).getId().toString());
+        } else {
+            // Power and average only count enabled skills, matching the in-memory leaderboards
+            List<String> skillNames = new ArrayList<>();
+            for (Skill skill : plugin.getSkillManager().getEnabledSkills()) {
+                skillNames.add(skill.getId().toString());
+            }
+            if (skillNames.isEmpty()) {
+                sb.append("1 = 0");
+            } else {
+                sb.append("s.skill_name IN (").append(placeholders(skillNames.size())).append(")");
+                params.addAll(skillNames);
+            }
+        }
+        if (!excluded.isEmpty()) {
+            sb.append(" AND u.player_uuid NOT IN (").append(placeholders(excluded.size())).append(")");
+            for (UUID id : excluded) {
+                params.add(id.toString());
+            }
+        }
+        return sb.toString();
+    }
+
+    private SkillValue readValue(LeaderboardKey key, ResultSet rs) throws SQLException {
+        UUID id = UUID.fromString(rs.getString("player_uuid"));
+        if (key.type() == LeaderboardKey.Type.AVERAGE) {
+            return new SkillValue(id, 0, rs.getDouble("level"));
+        }
+        return new SkillValue(id, rs.getInt("level"), rs.getDouble("xp"));
+    }
+
+    private int queryInt(String query, List<Object> params) throws SQLException {
+        try (Connection connection = pool.getConnection(); PreparedStatement statement = prepare(connection, query, params);
+                ResultSet rs = statement.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private PreparedStatement prepare(Connection connection, String query, List<Object> params) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(query);
+        try {
+            for (int i = 0; i < params.size(); i++) {
+                statement.setObject(i + 1, params.get(i));
+            }
+        } catch (SQLException e) {
+            statement.close();
+            throw e;
+        }
+        return statement;
+    }
+
+    private String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+
+}
@@ -12,17 +12,19 @@ import dev.aurelium.auraskills.api.util.AuraSkillsModifier;
 import dev.aurelium.auraskills.api.util.AuraSkillsModifier.Operation;
 import dev.aurelium.auraskills.common.AuraSkillsPlugin;
 import dev.aurelium.auraskills.common.ability.AbilityData;
+import dev.aurelium.auraskills.common.antiafk.AntiAfkLogSink;
 import dev.aurelium.auraskills.common.config.Option;
+import dev.aurelium.auraskills.common.leaderboard.LeaderboardQueries;
 import dev.aurelium.auraskills.common.mana.ManaAbilityData;
 import dev.aurelium.auraskills.common.ref.PlayerRef;
-import dev.aurelium.auraskills.common.region.BlockPosition;
+import dev.aurelium.auraskills.common.storage.StorageException;
 import dev.aurelium.auraskills.common.storage.StorageProvider;
 import dev.aurelium.auraskills.common.storage.sql.migration.SqlMigrator;
 import dev.aurelium.auraskills.common.storage.sql.pool.ConnectionPool;
 import dev.aurelium.auraskills.common.ui.ActionBarType;
-import dev.aurelium.auraskills.common.user.AntiAfkLog;
 import dev.aurelium.auraskills.common.user.SkillLevelMaps;
 import dev.aurelium.auraskills.common.user.User;
+import dev.aurelium.auraskills.common.user.UserChanges;
 import dev.aurelium.auraskills.common.user.UserState;
 import dev.aurelium.auraskills.common.util.data.KeyIntPair;
 import org.intellij.lang.annotations.Language;
@@ -31,6 +33,8 @@ import org.jetbrains.annotations.Nullable;
 
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
@@ -38,6 +42,11 @@ public class SqlStorageProvider extends StorageProvider {
 
     private final ConnectionPool pool;
     private final SqlUserLoader userLoader;
+    private final SqlWriteQueue writeQueue;
+    private final SqlLeaderboardQueries leaderboardQueries;
+    private final SqlAntiAfkLogSink antiAfkLogSink;
+    // Cached for the session since a user_id never changes unless the user is deleted
+    private final Map<UUID, Integer> userIds = new ConcurrentHashMap<>();
     public static final String TABLE_PREFIX = "auraskills_";
 
     public static final int STAT_MODIFIER_ID = 1; // Deprecated, only used in SqlUserMigrator
@@ -50,11 +59,16 @@ public class SqlStorageProvider extends StorageProvider {
     public static final String LOG_TYPE_ANTI_AFK = "anti_afk";
     public static final int LOG_LEVEL_WARN = 2;
     public static final String JOBS_LAST_SELECT_TIME = "last_select_time";
+    private static final int STATE_CHUNK_SIZE = 500;
 
     public SqlStorageProvider(AuraSkillsPlugin plugin, ConnectionPool pool) {
         super(plugin);
         this.pool = pool;
         this.userLoader = new SqlUserLoader(plugin);
+        this.writeQueue = new SqlWriteQueue(this, plugin.configInt(Option.SQL_WRITE_QUEUE_BATCH_SIZE),
+                plugin.configInt(Option.SQL_WRITE_QUEUE_CAPACITY));
+        this.leaderboardQueries = new SqlLeaderboardQueries(plugin, pool);
+        this.antiAfkLogSink = new SqlAntiAfkLogSink(plugin, pool);
         attemptTableCreation();
 
         try {
@@ -69,6 +83,11 @@ public class SqlStorageProvider extends StorageProvider {
         return pool;
     }
 
+    @Override
+    public LeaderboardQueries getLeaderboardQueries() {
+        return leaderboardQueries;
+    }
+
     public void attemptTableCreation() {
         TableCreator tableCreator = new TableCreator(plugin, pool, TABLE_PREFIX);
         tableCreator.createTables();
@@ -76,9 +95,14 @@ public class SqlStorageProvider extends StorageProvider {
 
     @Override
     protected User loadRaw(UUID uuid, @Nullable PlayerRef platformPlayer) throws Exception {
+        writeQueue.awaitWritten(uuid); // Don't load data older than a queued save
         try (Connection connection = pool.getConnection()) {
             User user = userManager.createNewUser(uuid, platformPlayer);
-            userLoader.loadUser(uuid, user, connection);
+            int userId = userLoader.loadUser(uuid, user, connection);
+            if (userId != -1) {
+                // Saves of the user reuse the id instead of looking it up again
+                userIds.put(uuid, userId);
+            }
 
             return user;
         }
@@ -203,6 +227,7 @@ public class SqlStorageProvider extends StorageProvider {
                         return UserState.createEmpty(uuid, plugin);
                     }
                     int userId = resultSet.getInt("user_id");
+                    userIds.put(uuid, userId);
                     // Load skill levels and xp
                     SkillLevelMaps skillLevelMaps = loadSkillLevels(connection, uuid, userId);
                     // Load stat modifiers
@@ -223,50 +248,85 @@ public class SqlStorageProvider extends StorageProvider {
 
     @Override
     public void applyState(UserState state) throws Exception {
-        // Insert into users database
-        String usersQuery = "INSERT INTO " + TABLE_PREFIX + "users (player_uuid, mana, skill_coins) VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE mana = ?, skill_coins = ?, last_updated = CURRENT_TIMESTAMP";
+        applyStates(List.of(state));
+    }
+
+    /**
+     * Applies the states in one transaction, using one batch per table.
+     */
+    @Override
+    public void applyStates(List<UserState> states) throws Exception {
+        if (states.isEmpty()) return;
         try (Connection connection = pool.getConnection()) {
-            try (PreparedStatement statement = connection.prepareStatement(usersQuery)) {
-                statement.setString(1, state.uuid().toString());
-                statement.setDouble(2, state.mana());
-                statement.setDouble(3, state.skillCoins());
-                statement.setDouble(4, state.mana());
-                statement.setDouble(5, state.skillCoins());
-                statement.executeUpdate();
-            }
-            // Insert into skill_levels database
-            int userId = getUserId(connection, state.uuid());
-            String skillLevelsQuery = "INSERT INTO " + TABLE_PREFIX + "skill_levels (user_id, skill_name, skill_level, skill_xp) VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE skill_level=?, skill_xp=?";
-            try (PreparedStatement statement = connection.prepareStatement(skillLevelsQuery)) {
-                statement.setInt(1, userId);
-                for (Map.Entry<Skill, Integer> entry : state.skillLevels().entrySet()) {
-                    String skillName = entry.getKey().getId().toString();
-                    int level = entry.getValue();
-                    double xp = state.skillXp().get(entry.getKey());
-                    statement.setString(2, skillName);
-                    statement.setInt(3, level);
-                    statement.setDouble(4, xp);
-                    statement.setInt(5, level);
-                    statement.setDouble(6, xp);
-                    statement.executeUpdate();
+            connection.setAutoCommit(false);
+            try {
+                String usersQuery = "INSERT INTO " + TABLE_PREFIX + "users (player_uuid, mana, skill_coins) VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE mana = ?, skill_coins = ?, last_updated = CURRENT_TIMESTAMP";
+                try (PreparedStatement statement = connection.prepareStatement(usersQuery)) {
+                    for (UserState state : states) {
+                        statement.setString(1, state.uuid().toString());
+                        statement.setDouble(2, state.mana());
+                        statement.setDouble(3, state.skillCoins());
+                        statement.setDouble(4, state.mana());
+                        statement.setDouble(5, state.skillCoins());
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
                 }
-            }
-            Map<String, AuraSkillsModifier<?>> modifiers = new ConcurrentHashMap<>();
-            modifiers.putAll(state.statModifiers());
-            modifiers.putAll(state.traitModifiers());
+                Map<UUID, Integer> ids = getUserIds(connection, states.stream().map(UserState::uuid).toList());
+
+                String skillLevelsQuery = "INSERT INTO " + TABLE_PREFIX + "skill_levels (user_id, skill_name, skill_level, skill_xp) VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE skill_level=?, skill_xp=?";
+                Map<Integer, List<ModifierRow>> modifierRows = new LinkedHashMap<>();
+                try (PreparedStatement statement = connection.prepareStatement(skillLevelsQuery)) {
+                    boolean empty = true;
+                    for (UserState state : states) {
+                        int userId = ids.get(state.uuid());
+                        statement.setInt(1, userId);
+                        for (Map.Entry<Skill, Integer> entry : state.skillLevels().entrySet()) {
+                            int level = entry.getValue();
+                            double xp = state.skillXp().getOrDefault(entry.getKey(), 0.0);
+                            statement.setString(2, entry.getKey().getId().toString());
+                            statement.setInt(3, level);
+                            statement.setDouble(4, xp);
+                            statement.setInt(5, level);
+                            statement.setDouble(6, xp);
+                            statement.addBatch();
+                            empty = false;
+                        }
+                        Map<String, AuraSkillsModifier<?>> modifiers = new HashMap<>();
+                        modifiers.putAll(state.statModifiers());
+                        modifiers.putAll(state.traitModifiers());
+                        modifierRows.put(userId, getModifierRows(modifiers));
+                    }
+                    if (!empty) {
+                        statement.executeBatch();
+                    }
+                }
+                saveModifierRows(connection, modifierRows);
 
-            saveModifierRows(connection, userId, getModifierRows(modifiers));
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
         }
     }
 
     public int getUserId(Connection connection, UUID uuid) throws SQLException {
+        Integer cached = userIds.get(uuid);
+        if (cached != null) {
+            return cached;
+        }
         // Get user_id from users database
         String query = "SELECT user_id FROM " + TABLE_PREFIX + "users WHERE player_uuid=?";
         try (PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, uuid.toString());
             try (ResultSet resultSet = statement.executeQuery()) {
                 if (resultSet.next()) {
-                    return resultSet.getInt("user_id");
+                    int userId = resultSet.getInt("user_id");
+                    userIds.put(uuid, userId);
+                    return userId;
                 } else {
                     throw new RuntimeException("Failed to get user_id for player " + uuid);
                 }
@@ -274,120 +334,258 @@ public class SqlStorageProvider extends StorageProvider {
         }
     }
 
+    // Gets the user_id of every user with a single query for the ones that aren't cached
+    private Map<UUID, Integer> getUserIds(Connection connection, Collection<UUID> uuids) throws SQLException {
+        Map<UUID, Integer> ids = new HashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        for (UUID uuid : uuids) {
+            Integer cached = userIds.get(uuid);
+            if (cached != null) {
+                ids.put(uuid, cached);
+            } else {
+                missing.add(uuid);
+            }
+        }
+        if (missing.isEmpty()) {
+            return ids;
+        }
+        String query = "SELECT user_id, player_uuid FROM " + TABLE_PREFIX + "users WHERE player_uuid IN (" +
+                String.join(",", Collections.nCopies(missing.size(), "?")) + ")";
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            for (int i = 0; i < missing.size(); i++) {
+                statement.setString(i + 1, missing.get(i).toString());
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    UUID uuid = UUID.fromString(resultSet.getString("player_uuid"));
+                    int userId = resultSet.getInt("user_id");
+                    ids.put(uuid, userId);
+                    userIds.put(uuid, userId);
+                }
+            }
+        }
+        for (UUID uuid : missing) {
+            if (!ids.containsKey(uuid)) {
+                throw new SQLException("Failed to get user_id for player " + uuid);
+            }
+        }
+        return ids;
+    }
+
     @Override
-    public void save(@NotNull User user) throws Exception {
-        if (user.shouldNotSave()) return;
+    protected void saveLocked(@NotNull User user, boolean onlyChanges) throws Exception {
+        CompletableFuture<Void> future = writeQueue.submit(user, !onlyChanges);
+        writeQueue.flush();
+        try {
+            future.join(); // Changes are restored by the queue if the write fails
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
 
-        // Don't save blank profiles if the option is disabled
-        if (!plugin.configBoolean(Option.SAVE_BLANK_PROFILES) && user.isBlankProfile()) {
-            try (Connection connection = pool.getConnection()) {
-                deleteUser(connection, user);
-                connection.setAutoCommit(true);
-            } catch (SQLException e) {
-                plugin.logger().severe("Error deleting blank profile of user with UUID " + user.getUuid());
-                throw e;
+    @Override
+    public void saveChangesSafely(@NotNull User user) {
+        // Written behind by the queue instead of waiting, failures are restored and saved again later
+        if (user.hasUnsavedChanges()) {
+            writeQueue.submit(user, false);
+        }
+    }
+
+    @Override
+    public void saveAllSafely(Collection<User> users) {
+        Map<User, CompletableFuture<Void>> futures = new LinkedHashMap<>();
+        for (User user : users) {
+            futures.put(user, writeQueue.submit(user, true));
+        }
+        writeQueue.flush();
+        int failed = 0;
+        Throwable cause = null;
+        for (Map.Entry<User, CompletableFuture<Void>> entry : futures.entrySet()) {
+            try {
+                entry.getValue().join();
+            } catch (CompletionException e) {
+                plugin.logger().severe("Failed to save data of user " + entry.getKey().getUuid(), e.getCause());
+                failed++;
+                cause = e.getCause();
+            }
+        }
+        if (cause != null) {
+            throw new StorageException("Failed to save data of " + failed + " users", cause);
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        writeQueue.shutdown();
+        antiAfkLogSink.shutdown();
+    }
+
+    @Override
+    public void save(@NotNull User user) throws Exception {
+        saveBatch(Map.of(user, UserChanges.all(user)));
+    }
+
+    /**
+     * Writes the data of several users in one transaction, using one batch per table.
+     * Users with blank profiles are deleted in the same transaction if blank profiles aren't saved.
+     *
+     * @param changes the users to save mapped to the parts of their data to write
+     */
+    void saveBatch(Map<User, UserChanges> changes) throws SQLException {
+        Map<User, UserChanges> toSave = new LinkedHashMap<>();
+        List<User> toDelete = new ArrayList<>();
+        for (Map.Entry<User, UserChanges> entry : changes.entrySet()) {
+            User user = entry.getKey();
+            if (entry.getValue().isEmpty() || user.shouldNotSave()) continue;
+
+            if (shouldDeleteBlank(user)) {
+                toDelete.add(user);
+            } else {
+                toSave.put(user, entry.getValue());
             }
-            return;
         }
+        if (toSave.isEmpty() && toDelete.isEmpty()) return;
 
         try (Connection connection = pool.getConnection()) {
             connection.setAutoCommit(false); // Start transaction
+            try {
+                for (User user : toDelete) {
+                    deleteUser(connection, user);
+                }
+                if (!toSave.isEmpty()) {
+                    // Always written since it creates the row for new users and updates last_updated for leaderboards
+                    saveUsersTable(connection, toSave.keySet());
+                    Map<UUID, Integer> userIds = getUserIds(connection, toSave.keySet().stream().map(User::getUuid).toList());
+                    saveSkillLevelsTable(connection, toSave, userIds);
+                    saveKeyValuesTable(connection, withChange(toSave, UserChanges.Type.KEY_VALUES), userIds);
+                    saveModifiersTable(connection, withChange(toSave, UserChanges.Type.MODIFIERS), userIds);
+                }
 
-            saveUsersTable(connection, user);
-            saveSkillLevelsTable(connection, user);
-            int userId = getUserId(connection, user.getUuid());
-            saveKeyValuesTable(connection, user, userId);
-            saveModifiersTable(connection, user, userId);
-            saveLogsTable(connection, user);
+                connection.commit();
+                for (User user : toDelete) {
+                    userIds.remove(user.getUuid());
+                }
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
 
-            connection.commit();
-            connection.setAutoCommit(true);
+    private List<User> withChange(Map<User, UserChanges> changes, UserChanges.Type type) {
+        List<User> users = new ArrayList<>();
+        for (Map.Entry<User, UserChanges> entry : changes.entrySet()) {
+            if (entry.getValue().has(type)) {
+                users.add(entry.getKey());
+            }
         }
+        return users;
     }
 
-    private void saveUsersTable(Connection connection, User user) throws SQLException {
+    // Blank profiles are deleted instead of saved unless blank profiles are saved
+    private boolean shouldDeleteBlank(User user) {
+        return !plugin.configBoolean(Option.SAVE_BLANK_PROFILES) && user.isBlankProfile();
+    }
+
+    private void saveUsersTable(Connection connection, Collection<User> users) throws SQLException {
         String usersQuery = "INSERT INTO " + TABLE_PREFIX + "users (player_uuid, locale, mana, skill_coins) VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE locale = ?, mana = ?, skill_coins = ?, last_updated = CURRENT_TIMESTAMP";
         try (PreparedStatement statement = connection.prepareStatement(usersQuery)) {
-            statement.setString(1, user.getUuid().toString());
-            int curr = 2; // Current index to set
-            for (int i = 0; i < 2; i++) { // Repeat twice to set duplicate values
-                if (user.hasLocale()) {
-                    statement.setString(curr++, user.getLocale().toLanguageTag());
-                } else {
-                    statement.setNull(curr++, Types.VARCHAR);
+            for (User user : users) {
+                statement.setString(1, user.getUuid().toString());
+                int curr = 2; // Current index to set
+                for (int i = 0; i < 2; i++) { // Repeat twice to set duplicate values
+                    if (user.hasLocale()) {
+                        statement.setString(curr++, user.getLocale().toLanguageTag());
+                    } else {
+                        statement.setNull(curr++, Types.VARCHAR);
+                    }
+                    statement.setDouble(curr++, user.getMana());
+                    statement.setDouble(curr++, user.getSkillCoins());
                 }
-                statement.setDouble(curr++, user.getMana());
-                statement.setDouble(curr++, user.getSkillCoins());
+                statement.addBatch();
             }
-            statement.executeUpdate();
+            statement.executeBatch();
         }
     }
 
-    private void saveSkillLevelsTable(Connection connection, User user) throws SQLException {
-        int userId = getUserId(connection, user.getUuid());
+    private void saveSkillLevelsTable(Connection connection, Map<User, UserChanges> changes, Map<UUID, Integer> userIds) throws SQLException {
         String skillLevelsQuery = "INSERT INTO " + TABLE_PREFIX + "skill_levels (user_id, skill_name, skill_level, skill_xp) VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE skill_level=?, skill_xp=?";
         try (PreparedStatement statement = connection.prepareStatement(skillLevelsQuery)) {
-            statement.setInt(1, userId);
-            for (Map.Entry<Skill, Integer> entry : user.getSkillLevelMap().entrySet()) {
-                String skillName = entry.getKey().getId().toString();
-                int level = entry.getValue();
-                double xp = user.getSkillXpMap().get(entry.getKey());
-                statement.setString(2, skillName);
-                statement.setInt(3, level);
-                statement.setDouble(4, xp);
-                statement.setInt(5, level);
-                statement.setDouble(6, xp);
-                statement.executeUpdate();
+            boolean empty = true;
+            for (Map.Entry<User, UserChanges> entry : changes.entrySet()) {
+                User user = entry.getKey();
+                statement.setInt(1, userIds.get(user.getUuid()));
+                for (Skill skill : entry.getValue().skills()) {
+                    int level = user.getSkillLevel(skill);
+                    double xp = user.getSkillXp(skill);
+                    statement.setString(2, skill.getId().toString());
+                    statement.setInt(3, level);
+                    statement.setDouble(4, xp);
+                    statement.setInt(5, level);
+                    statement.setDouble(6, xp);
+                    statement.addBatch();
+                    empty = false;
+                }
+            }
+            if (!empty) {
+                statement.executeBatch();
             }
         }
     }
 
-    private void saveKeyValuesTable(Connection connection, User user, int userId) throws SQLException {
+    private void saveKeyValuesTable(Connection connection, List<User> users, Map<UUID, Integer> userIds) throws SQLException {
+        if (users.isEmpty()) return;
         // Delete existing key values
-        deleteKeyValues(connection, userId);
+        deleteByUserId(connection, TABLE_PREFIX + "key_values", users, userIds);
         // Save key values
-        List<KeyValueRow> rows = new ArrayList<>();
-        rows.addAll(getAbilityDataRows(user.getAbilityDataMap(), user.getManaAbilityDataMap()));
-        rows.addAll(getUnclaimedItemsRow(user.getUnclaimedItems()));
-        rows.addAll(getActionBarRow(user));
-        rows.addAll(getJobsRow(user, user.getJobs()));
+        Map<Integer, List<KeyValueRow>> rows = new LinkedHashMap<>();
+        for (User user : users) {
+            List<KeyValueRow> userRows = new ArrayList<>();
+            userRows.addAll(getAbilityDataRows(user.getAbilityDataMap(), user.getManaAbilityDataMap()));
+            userRows.addAll(getUnclaimedItemsRow(user.getUnclaimedItems()));
+            userRows.addAll(getActionBarRow(user));
+            userRows.addAll(getJobsRow(user, user.getJobs()));
+            rows.put(userIds.get(user.getUuid()), userRows);
+        }
         // Insert all key values in a batch
-        saveKeyValueRows(connection, userId, rows);
+        saveKeyValueRows(connection, rows);
     }
 
-    private void saveModifiersTable(Connection connection, User user, int userId) throws SQLException {
-        deleteModifiers(connection, userId);
-
-        Map<String, AuraSkillsModifier<?>> modifiers = new ConcurrentHashMap<>();
-        modifiers.putAll(user.getStatModifiers());
-        modifiers.putAll(user.getTraitModifiers());
+    private void saveModifiersTable(Connection connection, List<User> users, Map<UUID, Integer> userIds) throws SQLException {
+        if (users.isEmpty()) return;
+        deleteByUserId(connection, TABLE_PREFIX + "modifiers", users, userIds);
 
-        List<ModifierRow> rows = getModifierRows(modifiers);
-
-        saveModifierRows(connection, userId, rows);
-    }
-
-    private void saveLogsTable(Connection connection, User user) throws SQLException {
-        saveAntiAfkLogs(user.getSessionAntiAfkLogs(), connection, user);
+        Map<Integer, List<ModifierRow>> rows = new LinkedHashMap<>();
+        for (User user : users) {
+            Map<String, AuraSkillsModifier<?>> modifiers = new HashMap<>();
+            modifiers.putAll(user.getStatModifiers());
+            modifiers.putAll(user.getTraitModifiers());
+            rows.put(userIds.get(user.getUuid()), getModifierRows(modifiers));
+        }
+        saveModifierRows(connection, rows);
     }
 
-    private void saveKeyValueRows(Connection connection, int userId, List<KeyValueRow> rows) throws SQLException {
+    private void saveKeyValueRows(Connection connection, Map<Integer, List<KeyValueRow>> rowsByUserId) throws SQLException {
         final String query = "INSERT INTO " + TABLE_PREFIX + "key_values (user_id, data_id, category_id, key_name, value) VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE value=?";
         try (PreparedStatement ps = connection.prepareStatement(query)) {
-            for (KeyValueRow row : rows) {
-                ps.setInt(1, userId);
-                ps.setInt(2, row.dataId());
-                ps.setString(3, row.categoryId());
-                ps.setString(4, row.keyName());
-                ps.setString(5, row.value());
-                ps.setString(6, row.value());
-                ps.addBatch();
+            for (Map.Entry<Integer, List<KeyValueRow>> entry : rowsByUserId.entrySet()) {
+                for (KeyValueRow row : entry.getValue()) {
+                    ps.setInt(1, entry.getKey());
+                    ps.setInt(2, row.dataId());
+                    ps.setString(3, row.categoryId());
+                    ps.setString(4, row.keyName());
+                    ps.setString(5, row.value());
+                    ps.setString(6, row.value());
+                    ps.addBatch();
+                }
             }
             ps.executeBatch();
         }
     }
 
-    private void saveModifierRows(Connection connection, int userId, List<ModifierRow> rows) throws SQLException {
+    private void saveModifierRows(Connection connection, Map<Integer, List<ModifierRow>> rowsByUserId) throws SQLException {
         String sql = """
                 INSERT INTO auraskills_modifiers (
                     user_id,
@@ -408,34 +606,47 @@ public class SqlStorageProvider extends StorageProvider {
                 """;
 
         try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            for (ModifierRow row : rows) {
-                ps.setInt(1, userId);
-                ps.setString(2, row.modifierType());
-                if (row.typeId() != null) {
-                    ps.setString(3, row.typeId());
-                } else {
-                    ps.setNull(3, Types.VARCHAR);
-                }
-                ps.setString(4, row.modifierName());
-                ps.setDouble(5, row.modifierValue());
-                ps.setByte(6, row.modifierOperation());
-                ps.setLong(7, row.expirationTime());
-                ps.setLong(8, row.remainingDuration());
-                if (row.metadata() != null) {
-                    ps.setString(9, row.metadata());
-                } else {
-                    ps.setNull(9, Types.LONGVARCHAR);
-                }
+            for (Map.Entry<Integer, List<ModifierRow>> entry : rowsByUserId.entrySet()) {
+                for (ModifierRow row : entry.getValue()) {
+                    ps.setInt(1, entry.getKey());
+                    ps.setString(2, row.modifierType());
+                    if (row.typeId() != null) {
+                        ps.setString(3, row.typeId());
+                    } else {
+                        ps.setNull(3, Types.VARCHAR);
+                    }
+                    ps.setString(4, row.modifierName());
+                    ps.setDouble(5, row.modifierValue());
+                    ps.setByte(6, row.modifierOperation());
+                    ps.setLong(7, row.expirationTime());
+                    ps.setLong(8, row.remainingDuration());
+                    if (row.metadata() != null) {
+                        ps.setString(9, row.metadata());
+                    } else {
+                        ps.setNull(9, Types.LONGVARCHAR);
+                    }
 
-                ps.addBatch();
+                    ps.addBatch();
+                }
             }
 
             ps.executeBatch();
         }
     }
 
+    private void deleteByUserId(Connection connection, String table, List<User> users, Map<UUID, Integer> userIds) throws SQLException {
+        String query = "DELETE FROM " + table + " WHERE user_id=?";
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            for (User user : users) {
+                statement.setInt(1, userIds.get(user.getUuid()));
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    // Runs in the transaction of the connection
     private void deleteUser(Connection connection, User user) throws SQLException {
-        connection.setAutoCommit(false);
         String getUserIdQuery = "SELECT user_id FROM " + TABLE_PREFIX + "users WHERE player_uuid=?";
         try (PreparedStatement statement = connection.prepareStatement(getUserIdQuery)) {
             statement.setString(1, user.getUuid().toString());
@@ -450,17 +661,8 @@ public class SqlStorageProvider extends StorageProvider {
                     }
 
                     deleteSkillLevelsUsers(connection, userId);
-
-                    connection.commit();
-                } else {
-                    connection.rollback();
                 }
             }
-        } catch (SQLException e) {
-            connection.rollback();
-            throw e;
-        } finally {
-            connection.setAutoCommit(true);
         }
     }
 
@@ -478,22 +680,6 @@ public class SqlStorageProvider extends StorageProvider {
         }
     }
 
-    private void deleteKeyValues(Connection connection, int userId) throws SQLException {
-        String query = "DELETE FROM " + TABLE_PREFIX + "key_values WHERE user_id=?";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setInt(1, userId);
-            statement.executeUpdate();
-        }
-    }
-
-    private void deleteModifiers(Connection connection, int userId) throws SQLException {
-        String query = "DELETE FROM " + TABLE_PREFIX + "modifiers WHERE user_id=?";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setInt(1, userId);
-            statement.executeUpdate();
-        }
-    }
-
     private List<ModifierRow> getModifierRows(Map<String, AuraSkillsModifier<?>> modifiers) {
         List<ModifierRow> rows = new ArrayList<>();
         if (modifiers.isEmpty()) {
@@ -600,29 +786,14 @@ public class SqlStorageProvider extends StorageProvider {
         return rows;
     }
 
-    private void saveAntiAfkLogs(List<AntiAfkLog> logs, Connection connection, User user) throws SQLException {
-        final String query = "INSERT IGNORE INTO " + TABLE_PREFIX + "logs (log_type, log_time, log_level, log_message, player_uuid, player_coords, world_name) VALUES (?, ?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement ps = connection.prepareStatement(query)) {
-            for (AntiAfkLog log : logs) {
-                ps.setString(1, LOG_TYPE_ANTI_AFK);
-                ps.setTimestamp(2, new Timestamp(log.timestamp()));
-                ps.setInt(3, LOG_LEVEL_WARN);
-                ps.setString(4, log.message());
-                ps.setString(5, user.getUuid().toString());
-                ps.setString(6, log.coords().toString());
-                ps.setString(7, log.world());
-                ps.addBatch();
-            }
-            ps.executeBatch();
-        }
-    }
-
     @Override
     public void delete(UUID uuid) throws Exception {
+        writeQueue.awaitWritten(uuid);
         try (Connection connection = pool.getConnection()) {
             int userId = getUserId(connection, uuid);
 
             deleteSkillLevelsUsers(connection, userId);
+            userIds.remove(uuid);
         }
     }
 
@@ -679,6 +850,98 @@ public class SqlStorageProvider extends StorageProvider {
         return states;
     }
 
+    /**
+     * Reads users in chunks ordered by user_id, so only one chunk of states is in memory at a time.
+     */
+    @Override
+    public void forEachState(StateConsumer consumer) throws Exception {
+        int lastUserId = 0;
+        while (true) {
+            Map<Integer, UserState> chunk = new LinkedHashMap<>();
+            try (Connection connection = pool.getConnection()) {
+                String usersQuery = "SELECT user_id, player_uuid, mana, skill_coins FROM " + TABLE_PREFIX + "users WHERE user_id > ? ORDER BY user_id LIMIT ?";
+                try (PreparedStatement statement = connection.prepareStatement(usersQuery)) {
+                    statement.setInt(1, lastUserId);
+                    statement.setInt(2, STATE_CHUNK_SIZE);
+                    try (ResultSet rs = statement.executeQuery()) {
+                        while (rs.next()) {
+                            UUID uuid = UUID.fromString(rs.getString("player_uuid"));
+                            chunk.put(rs.getInt("user_id"), new UserState(uuid, new ConcurrentHashMap<>(), new ConcurrentHashMap<>(),
+                                    new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), rs.getDouble("mana"), rs.getDouble("skill_coins")));
+                        }
+                    }
+                }
+                if (chunk.isEmpty()) {
+                    return;
+                }
+                loadChunkSkillLevels(connection, chunk);
+                loadChunkModifiers(connection, chunk);
+            }
+            for (Map.Entry<Integer, UserState> entry : chunk.entrySet()) {
+                consumer.accept(entry.getValue());
+                lastUserId = entry.getKey();
+            }
+        }
+    }
+
+    private void loadChunkSkillLevels(Connection connection, Map<Integer, UserState> chunk) throws SQLException {
+        String query = "SELECT user_id, skill_name, skill_level, skill_xp FROM " + TABLE_PREFIX + "skill_levels WHERE user_id IN (" +
+                String.join(",", Collections.nCopies(chunk.size(), "?")) + ")";
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            setUserIds(statement, chunk.keySet());
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    UserState state = chunk.get(rs.getInt("user_id"));
+                    Skill skill = plugin.getSkillRegistry().getOrNull(NamespacedId.fromString(rs.getString("skill_name")));
+                    if (state == null || skill == null) continue;
+
+                    state.skillLevels().put(skill, rs.getInt("skill_level"));
+                    state.skillXp().put(skill, rs.getDouble("skill_xp"));
+                }
+            }
+        }
+    }
+
+    private void loadChunkModifiers(Connection connection, Map<Integer, UserState> chunk) throws SQLException {
+        String query = "SELECT user_id, modifier_type, type_id, modifier_name, modifier_value, modifier_operation, expiration_time, remaining_duration FROM " +
+                TABLE_PREFIX + "modifiers WHERE user_id IN (" + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")";
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            setUserIds(statement, chunk.keySet());
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    UserState state = chunk.get(rs.getInt("user_id"));
+                    String typeId = rs.getString("type_id");
+                    if (state == null || typeId == null) continue;
+
+                    String modifierName = rs.getString("modifier_name");
+                    double value = rs.getDouble("modifier_value");
+                    Operation operation = Operation.fromSqlId(rs.getByte("modifier_operation"));
+                    String modifierType = rs.getString("modifier_type");
+                    if (MODIFIER_TYPE_STAT.equals(modifierType)) {
+                        Stat stat = plugin.getStatRegistry().getOrNull(NamespacedId.fromString(typeId));
+                        if (stat == null) continue;
+                        StatModifier modifier = new StatModifier(modifierName, stat, value, operation);
+                        loadTemporary(rs, modifier);
+                        state.statModifiers().put(modifierName, modifier);
+                    } else if (MODIFIER_TYPE_TRAIT.equals(modifierType)) {
+                        Trait trait = plugin.getTraitRegistry().getOrNull(NamespacedId.fromString(typeId));
+                        if (trait == null) continue;
+                        TraitModifier modifier = new TraitModifier(modifierName, trait, value, operation);
+                        loadTemporary(rs, modifier);
+                        state.traitModifiers().put(modifierName, modifier);
+                    }
+                }
+            }
+        }
+    }
+
+    private void setUserIds(PreparedStatement statement, Collection<Integer> ids) throws SQLException {
+        int index = 1;
+        for (int id : ids) {
+            statement.setInt(index++, id);
+        }
+    }
+
     @NotNull
     @Language("SQL")
     private String getLoadStatesQuery(boolean enableLastUpdatedFilter) {
@@ -721,44 +984,8 @@ public class SqlStorageProvider extends StorageProvider {
     }
 
     @Override
-    public List<AntiAfkLog> loadAntiAfkLogs(UUID uuid) {
-        try (Connection connection = pool.getConnection()) {
-            String query = "SELECT log_time, log_message, player_coords, world_name FROM " + TABLE_PREFIX + "logs WHERE player_uuid=? AND log_type=?";
-
-            List<AntiAfkLog> logs = new ArrayList<>();
-
-            try (PreparedStatement statement = connection.prepareStatement(query)) {
-                statement.setString(1, uuid.toString());
-                statement.setString(2, LOG_TYPE_ANTI_AFK);
-
-                try (ResultSet resultSet = statement.executeQuery()) {
-                    while (resultSet.next()) {
-                        long timestamp = resultSet.getTimestamp("log_time").getTime();
-
-                        String message = resultSet.getString("log_message");
-                        if (message == null) {
-                            message = "";
-                        }
-
-                        String coordsStr = resultSet.getString("player_coords");
-                        if (coordsStr == null) {
-                            coordsStr = "";
-                        }
-                        var coords = BlockPosition.fromCommaString(coordsStr);
-
-                        String worldName = resultSet.getString("world_name");
-
-                        logs.add(new AntiAfkLog(timestamp, message, coords, worldName));
-                    }
-                }
-            }
-
-            return logs;
-        } catch (SQLException e) {
-            plugin.logger().warn("Failed to load anti-AFK logs from storage for UUID " + uuid);
-            e.printStackTrace();
-            return new ArrayList<>();
-        }
+    public AntiAfkLogSink getAntiAfkLogSink() {
+        return antiAfkLogSink;
     }
 
 }
@@ -77,20 +77,30 @@ public class SqlUserLoader {
         this.plugin = plugin;
     }
 
-    public void loadUser(UUID uuid, User user, Connection connection) {
+    /**
+     * Loads the data of a user from the database into the user.
+     *
+     * @param uuid the uuid of the user
+     * @param user the user to load data into
+     * @param connection the connection to use
+     * @return the user_id of the user, or -1 if the user isn't in the database
+     */
+    public int loadUser(UUID uuid, User user, Connection connection) {
         try (PreparedStatement statement = connection.prepareStatement(LOAD_QUERY)) {
             statement.setString(1, uuid.toString());
 
             try (ResultSet rs = statement.executeQuery()) {
                 if (!rs.next()) { // If the player doesn't exist in the database
-                    return;
+                    return -1;
                 }
                 // Parses and sets query results to user
                 processResultSet(rs, user);
+                return rs.getInt("user_id");
             }
         } catch (SQLException e) {
             e.printStackTrace();
         }
+        return -1;
     }
 
     private void processResultSet(ResultSet rs, User user) throws SQLException {
@@ -0,0 +1,236 @@
+package dev.aurelium.auraskills.common.storage.sql;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import dev.aurelium.auraskills.common.user.User;
+import dev.aurelium.auraskills.common.user.UserChanges;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind queue for SQL saves. Users are queued once no matter how often they are submitted,
+ * and a single writer thread saves them together so each table is written with one batch per flush.
+ * When the queue is full, submitting blocks until the writer catches up.
+ */
+public class SqlWriteQueue {
+
+    private static final long FLUSH_DELAY_MS = 1000;
+    private static final long SHUTDOWN_TIMEOUT_MS = 30000;
+
+    private final SqlStorageProvider storage;
+    private final int batchSize;
+    private final int capacity;
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("auraskills-sql-writer").build());
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Map<UUID, PendingSave> pending = new LinkedHashMap<>();
+    private final Set<UUID> writing = new HashSet<>();
+    // Users whose last save failed on its own, written separately so they don't fail other batches
+    private final Set<UUID> isolated = new HashSet<>(); // Only used by the writer thread
+    private boolean flushScheduled;
+    private boolean shutdown;
+
+    public SqlWriteQueue(SqlStorageProvider storage, int batchSize, int capacity) {
+        this.storage = storage;
+        this.batchSize = Math.max(batchSize, 1);
+        this.capacity = Math.max(capacity, this.batchSize);
+    }
+
+    /**
+     * Queues a user to be saved.
+     *
+     * @param user the user to save
+     * @param full whether to save all of the user's data instead of only what changed
+     * @return a future completed once the user is written
+     */
+    public CompletableFuture<Void> submit(User user, boolean full) {
+        lock.lock();
+        try {
+            if (shutdown) {
+                return CompletableFuture.failedFuture(new IllegalStateException("SQL write queue is shut down"));
+            }
+            PendingSave existing = pending.get(user.getUuid());
+            if (existing != null) {
+                existing.full |= full;
+                return existing.future;
+            }
+            while (pending.size() >= capacity) {
+                scheduleFlush(0);
+                notFull.await();
+                if (shutdown) {
+                    return CompletableFuture.failedFuture(new IllegalStateException("SQL write queue is shut down"));
+                }
+            }
+            PendingSave save = new PendingSave(user, full);
+            pending.put(user.getUuid(), save);
+            scheduleFlush(pending.size() >= batchSize ? 0 : FLUSH_DELAY_MS);
+            return save.future;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes everything queued as soon as possible.
+     *
+     * @return a future completed once everything queued before this call is written
+     */
+    public CompletableFuture<Void> flush() {
+        return CompletableFuture.runAsync(this::flushPending, writer);
+    }
+
+    /**
+     * Blocks until any queued or in progress save of the user is written, so data loaded
+     * afterward is not older than the data in memory.
+     *
+     * @param uuid the uuid of the user
+     */
+    public void awaitWritten(UUID uuid) {
+        boolean queued;
+        lock.lock();
+        try {
+            queued = pending.containsKey(uuid) || writing.contains(uuid);
+        } finally {
+            lock.unlock();
+        }
+        if (queued) {
+            flush().join();
+        }
+    }
+
+    /**
+     * Writes everything queued and stops the writer thread.
+     */
+    public void shutdown() {
+        try {
+            flush().get(SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            storage.plugin.logger().severe("Failed to write queued user data on shutdown");
+            e.printStackTrace();
+        }
+        lock.lock();
+        try {
+            shutdown = true;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        writer.shutdown();
+    }
+
+    private void scheduleFlush(long delay) {
+        if (flushScheduled && delay > 0) {
+            return;
+        }
+        flushScheduled = true;
+        writer.schedule(this::flushPending, delay, TimeUnit.MILLISECONDS);
+    }
+
+    // Only runs on the writer thread
+    private void flushPending() {
+        while (true) {
+            List<PendingSave> batch = new ArrayList<>();
+            lock.lock();
+            try {
+                writing.clear();
+                if (pending.isEmpty()) {
+                    flushScheduled = false;
+                    return;
+                }
+                Iterator<PendingSave> iterator = pending.values().iterator();
+                while (iterator.hasNext() && batch.size() < batchSize) {
+                    PendingSave save = iterator.next();
+                    iterator.remove();
+                    batch.add(save);
+                    writing.add(save.user.getUuid());
+                }
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            write(batch);
+        }
+    }
+
+    private void write(List<PendingSave> batch) {
+        List<PendingSave> batched = new ArrayList<>();
+        for (PendingSave save : batch) {
+            if (isolated.contains(save.user.getUuid())) {
+                writeSingle(save);
+            } else {
+                batched.add(save);
+            }
+        }
+        if (batched.isEmpty()) return;
+
+        Map<User, UserChanges> changes = takeChanges(batched);
+        try {
+            storage.saveBatch(changes);
+            for (PendingSave save : batched) {
+                complete(save);
+            }
+        } catch (Exception e) {
+            changes.forEach(User::restoreChanges);
+            if (batched.size() > 1) {
+                storage.plugin.logger().warn("Failed to save a batch of " + batched.size() + " users, saving them one at a time: " + e.getMessage());
+            }
+            // Retry each user in its own transaction so one bad user doesn't fail the rest
+            for (PendingSave save : batched) {
+                writeSingle(save);
+            }
+        }
+    }
+
+    private void writeSingle(PendingSave save) {
+        UUID uuid = save.user.getUuid();
+        Map<User, UserChanges> changes = takeChanges(List.of(save));
+        try {
+            storage.saveBatch(changes);
+            isolated.remove(uuid);
+            complete(save);
+        } catch (Exception e) {
+            changes.forEach(User::restoreChanges);
+            isolated.add(uuid);
+            storage.plugin.logger().warn("Failed to save data of user " + uuid + ", it will be saved again with the next save", e);
+            save.future.completeExceptionally(e);
+        }
+    }
+
+    private void complete(PendingSave save) {
+        // A user prefetched before this write would otherwise be loaded with older data
+        storage.getPrefetcher().invalidate(save.user.getUuid());
+        save.future.complete(null);
+    }
+
+    private Map<User, UserChanges> takeChanges(List<PendingSave> saves) {
+        Map<User, UserChanges> changes = new LinkedHashMap<>();
+        for (PendingSave save : saves) {
+            // Taken before reading the data so changes made during the write are kept for the next save
+            UserChanges taken = save.user.takeChanges();
+            changes.put(save.user, save.full ? UserChanges.all(save.user) : taken);
+        }
+        return changes;
+    }
+
+    private static class PendingSave {
+
+        private final User user;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private boolean full;
+
+        private PendingSave(User user, boolean full) {
+            this.user = user;
+            this.full = full;
+        }
+
+    }
+
+}
@@ -6,7 +6,9 @@ public enum Migrations {
 
     V1__MODIFIERS_TABLE,
     V2__LAST_UPDATED_COL,
-    V3__SKILL_COINS_COL;
+    V3__SKILL_COINS_COL,
+    V4__SKILL_LEVELS_RANK_INDEX,
+    V5__LOGS_PLAYER_INDEX;
 
     // Excluding .sql
     private final String fileName;
@@ -34,7 +34,7 @@ public class SqlMigrator {
                 // Skip already applied migrations
                 if (applied.contains(fileName)) continue;
 
-                InputStream is = plugin.getResource("db/migrations/" + fileName + ".sql");
+                InputStream is = getMigrationResource(fileName);
 
                 String sql = new String(is.readAllBytes(), StandardCharsets.UTF_8);
 
@@ -51,6 +51,17 @@ public class SqlMigrator {
         }
     }
 
+    private InputStream getMigrationResource(String fileName) {
+        String overrideFolder = pool.getMigrationOverrideFolder();
+        if (overrideFolder != null) {
+            InputStream is = plugin.getResource("db/migrations/" + overrideFolder + "/" + fileName + ".sql");
+            if (is != null) {
+                return is;
+            }
+        }
+        return plugin.getResource("db/migrations/" + fileName + ".sql");
+    }
+
     private void createSchemaMigrationsTable(Connection connection) throws SQLException {
         DatabaseMetaData dbm = connection.getMetaData();
         ResultSet tables = dbm.getTables(pool.getDatabaseName(), null, TABLE_PREFIX + MIGRATION_TABLE, null);
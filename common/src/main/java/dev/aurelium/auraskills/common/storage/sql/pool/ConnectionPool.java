@@ -5,6 +5,7 @@ import com.zaxxer.hikari.HikariDataSource;
 import dev.aurelium.auraskills.common.AuraSkillsPlugin;
 import dev.aurelium.auraskills.common.config.Option;
 import dev.aurelium.auraskills.common.storage.sql.DatabaseCredentials;
+import org.jetbrains.annotations.Nullable;
 
 import java.sql.Connection;
 import java.sql.SQLException;
@@ -13,19 +14,32 @@ import java.util.concurrent.TimeUnit;
 public abstract class ConnectionPool {
 
     private final AuraSkillsPlugin plugin;
+    @Nullable
     private final DatabaseCredentials credentials;
     private HikariDataSource dataSource;
 
-    public ConnectionPool(AuraSkillsPlugin plugin, DatabaseCredentials credentials) {
+    public ConnectionPool(AuraSkillsPlugin plugin, @Nullable DatabaseCredentials credentials) {
         this.plugin = plugin;
         this.credentials = credentials;
     }
 
+    @Nullable
     public String getDatabaseName() {
-        return credentials.database();
+        return credentials != null ? credentials.database() : null;
     }
 
-    public abstract void configure(HikariConfig config, DatabaseCredentials credentials);
+    /**
+     * Gets the folder in db/migrations containing versions of migrations written for this database,
+     * which are used instead of the default migrations with the same name.
+     *
+     * @return the folder name, or null if only the default migrations are used
+     */
+    @Nullable
+    public String getMigrationOverrideFolder() {
+        return null;
+    }
+
+    public abstract void configure(HikariConfig config, @Nullable DatabaseCredentials credentials);
 
     public void enable() {
         HikariConfig config = new HikariConfig();
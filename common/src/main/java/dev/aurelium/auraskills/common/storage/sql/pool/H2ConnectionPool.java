@@ -0,0 +1,54 @@
+package dev.aurelium.auraskills.common.storage.sql.pool;
+
+import com.zaxxer.hikari.HikariConfig;
+import dev.aurelium.auraskills.common.AuraSkillsPlugin;
+import dev.aurelium.auraskills.common.storage.sql.DatabaseCredentials;
+
+import java.io.File;
+
+/**
+ * Connection pool for an embedded H2 database stored in a single file in the plugin folder.
+ * H2 runs in MySQL compatibility mode so the same schema, migrations, and queries as MySQL work.
+ */
+public class H2ConnectionPool extends ConnectionPool {
+
+    private static final int MAXIMUM_POOL_SIZE = 4;
+
+    private final File file;
+
+    /**
+     * Creates a pool for an embedded database.
+     *
+     * @param plugin the plugin instance
+     * @param file the database file without the .mv.db extension
+     */
+    public H2ConnectionPool(AuraSkillsPlugin plugin, File file) {
+        super(plugin, null);
+        this.file = file;
+    }
+
+    @Override
+    public String getDatabaseName() {
+        return null; // Table lookups match any catalog
+    }
+
+    @Override
+    public String getMigrationOverrideFolder() {
+        return "h2";
+    }
+
+    @Override
+    public void configure(HikariConfig config, DatabaseCredentials credentials) {
+        config.setDriverClassName("org.h2.Driver");
+        config.setJdbcUrl("jdbc:h2:file:" + file.getAbsolutePath() +
+                ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=VALUE" +
+                ";QUERY_CACHE_SIZE=64" + // Cache parsed statements since the same few are prepared on every save
+                ";DB_CLOSE_ON_EXIT=FALSE"); // The plugin saves users and closes the pool on shutdown
+        // Not a driver property H2 knows
+        config.getDataSourceProperties().remove("socketTimeout");
+        // Writes come from the single SQL writer thread, so only a few connections are needed for loads
+        config.setMaximumPoolSize(Math.min(config.getMaximumPoolSize(), MAXIMUM_POOL_SIZE));
+        config.setMinimumIdle(Math.min(config.getMinimumIdle(), 1));
+    }
+
+}
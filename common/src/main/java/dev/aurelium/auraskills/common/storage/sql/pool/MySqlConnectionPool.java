@@ -16,6 +16,8 @@ public class MySqlConnectionPool extends ConnectionPool {
         config.setJdbcUrl("jdbc:mysql://" + credentials.host() + ":" + credentials.port() + "/" + credentials.database() + "?useSSL=" + credentials.ssl());
         config.setUsername(credentials.username());
         config.setPassword(credentials.password());
+        // Sends each batch of saves as one multi-row statement instead of one round trip per row
+        config.addDataSourceProperty("rewriteBatchedStatements", "true");
     }
 
 }
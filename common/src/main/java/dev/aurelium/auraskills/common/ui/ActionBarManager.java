@@ -1,6 +1,5 @@
 package dev.aurelium.auraskills.common.ui;
 
-import com.google.common.collect.Sets;
 import dev.aurelium.auraskills.api.skill.Skill;
 import dev.aurelium.auraskills.api.util.NumberUtil;
 import dev.aurelium.auraskills.common.AuraSkillsPlugin;
@@ -12,6 +11,7 @@ import dev.aurelium.auraskills.common.ui.UiProvider.FormatType;
 import dev.aurelium.auraskills.common.user.User;
 import dev.aurelium.auraskills.common.util.text.TextUtil;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -20,107 +20,121 @@ import java.util.concurrent.TimeUnit;
 public abstract class ActionBarManager {
 
     public static final int PAUSE_MS = 750;
+    // How long the XP action bar keeps showing after the last XP gain
+    private static final long XP_DURATION_MS = 41 * 50L;
+    private static final int PRUNE_INTERVAL_TICKS = 1200;
     protected final AuraSkillsPlugin plugin;
     private final UiProvider uiProvider;
 
-    private final Set<UUID> isPaused = Sets.newConcurrentHashSet();
-    private final Set<UUID> isGainingXp = Sets.newConcurrentHashSet();
-    private final Map<UUID, Integer> timer = new ConcurrentHashMap<>();
-    private final Map<UUID, Integer> currentAction = new ConcurrentHashMap<>();
+    private final Map<UUID, ActionBarState> states = new ConcurrentHashMap<>();
     private final Map<Locale, String> idleMessageCache = new ConcurrentHashMap<>();
+    private long currentTick;
 
     public ActionBarManager(AuraSkillsPlugin plugin, UiProvider uiProvider) {
         this.plugin = plugin;
         this.uiProvider = uiProvider;
-        startTimerCountdown();
-        startUpdatingIdleActionBar();
+        startDispatcher();
     }
 
-    public void startTimerCountdown() {
+    /**
+     * Starts the single task that renders every player's action bar. XP gains and pauses only
+     * update per-player state, so the number of scheduled tasks doesn't depend on the XP event rate.
+     */
+    private void startDispatcher() {
         var task = new TaskRunnable() {
             @Override
             public void run() {
-                if (!plugin.configBoolean(Option.ACTION_BAR_ENABLED)) {
-                    return;
-                }
-
-                for (User user : plugin.getUserManager().getOnlineUsers()) {
-                    UUID uuid = user.getUuid();
-                    Integer time = timer.get(uuid);
-                    if (time != null) {
-                        if (time > 0) {
-                            timer.put(uuid, time - 1);
-                        }
-                    } else {
-                        timer.put(uuid, 0);
-                    }
-                }
+                dispatch();
             }
         };
-        plugin.getScheduler().timerSync(task, 0, 2 * 50L, TimeUnit.MILLISECONDS);
+        if (plugin.configBoolean(Option.ACTION_BAR_UPDATE_ASYNC)) {
+            plugin.getScheduler().timerAsync(task, 0, 50L, TimeUnit.MILLISECONDS);
+        } else {
+            plugin.getScheduler().timerSync(task, 0, 50L, TimeUnit.MILLISECONDS);
+        }
     }
 
-    public void startUpdatingIdleActionBar() {
-        var task = new TaskRunnable() {
-            @Override
-            public void run() {
-                if (!plugin.configBoolean(Option.ACTION_BAR_IDLE) || !plugin.configBoolean(Option.ACTION_BAR_ENABLED)) {
-                    return;
+    private void dispatch() {
+        long tick = ++currentTick;
+        if (tick % PRUNE_INTERVAL_TICKS == 0) {
+            states.keySet().removeIf(uuid -> !plugin.getUserManager().hasUser(uuid));
+        }
+        if (!plugin.configBoolean(Option.ACTION_BAR_ENABLED)) {
+            return;
+        }
+        int period = Math.max(1, plugin.configInt(Option.ACTION_BAR_UPDATE_PERIOD));
+        boolean idleEnabled = plugin.configBoolean(Option.ACTION_BAR_IDLE);
+        long now = System.currentTimeMillis();
+
+        for (User user : plugin.getUserManager().getOnlineUsers()) {
+            ActionBarState state = states.get(user.getUuid());
+            if (state != null) {
+                if (state.pausedUntil > now) {
+                    continue;
                 }
-                for (User user : plugin.getUserManager().getOnlineUsers()) {
-                    UUID uuid = user.getUuid();
-                    // Check player setting
-                    if (!user.isActionBarEnabled(ActionBarType.IDLE)) {
-                        continue;
-                    }
-                    // Check disabled worlds
-                    if (plugin.getWorldManager().isDisabledWorld(getWorldName(user))) {
+                // Bursts of XP gains within one period are rendered once with the latest values
+                if (tick - state.lastRenderTick < period) {
+                    continue;
+                }
+                XpActionBar xpBar = state.xpBar;
+                if (xpBar != null) {
+                    if (xpBar.expiresAt > now) {
+                        String message = getXpActionBarMessage(user, xpBar.skill, xpBar.currentXp, xpBar.levelXp,
+                                xpBar.xpGained, xpBar.level, xpBar.maxed, xpBar.income);
+                        uiProvider.sendActionBar(user, message);
+                        state.lastRenderTick = tick;
                         continue;
                     }
+                    state.xpBar = null;
+                }
+            } else if (tick % period != 0) {
+                continue;
+            }
+            if (idleEnabled && sendIdleActionBar(user)) {
+                getState(user).lastRenderTick = tick;
+            }
+        }
+    }
 
-                    if (!currentAction.containsKey(uuid)) {
-                        currentAction.put(uuid, 0);
-                    }
-                    if (isGainingXp.contains(uuid) || isPaused.contains(uuid)) {
-                        continue;
-                    }
+    private boolean sendIdleActionBar(User user) {
+        // Check player setting
+        if (!user.isActionBarEnabled(ActionBarType.IDLE)) {
+            return false;
+        }
+        // Check disabled worlds
+        if (plugin.getWorldManager().isDisabledWorld(getWorldName(user))) {
+            return false;
+        }
 
-                    boolean formatLast = plugin.configBoolean(Option.ACTION_BAR_FORMAT_LAST);
-                    Locale locale = user.getLocale();
-
-                    String base;
-                    if (formatLast) {
-                        base = plugin.getMessageProvider().getRaw(ActionBarMessage.IDLE, locale);
-                    } else {
-                        String cache = idleMessageCache.get(locale);
-                        if (cache != null) { // Cache hit
-                            base = cache;
-                        } else { // Cache miss
-                            base = plugin.getMsg(ActionBarMessage.IDLE, locale);
-                            idleMessageCache.put(locale, base);
-                        }
-                    }
+        boolean formatLast = plugin.configBoolean(Option.ACTION_BAR_FORMAT_LAST);
+        Locale locale = user.getLocale();
 
-                    String message = TextUtil.replace(base,
-                            "{hp}", getHp(user),
-                            "{max_hp}", getMaxHp(user),
-                            "{mana}", getMana(user),
-                            "{max_mana}", getMaxMana(user));
-                    message = replacePlaceholderApi(user, message);
+        String base;
+        if (formatLast) {
+            base = plugin.getMessageProvider().getRaw(ActionBarMessage.IDLE, locale);
+        } else {
+            String cache = idleMessageCache.get(locale);
+            if (cache != null) { // Cache hit
+                base = cache;
+            } else { // Cache miss
+                base = plugin.getMsg(ActionBarMessage.IDLE, locale);
+                idleMessageCache.put(locale, base);
+            }
+        }
 
-                    if (formatLast) {
-                        message = plugin.getMessageProvider().applyFormatting(message);
-                    }
+        String message = TextUtil.replace(base,
+                "{hp}", getHp(user),
+                "{max_hp}", getMaxHp(user),
+                "{mana}", getMana(user),
+                "{max_mana}", getMaxMana(user));
+        message = replacePlaceholderApi(user, message);
 
-                    uiProvider.sendActionBar(user, message);
-                }
-            }
-        };
-        if (plugin.configBoolean(Option.ACTION_BAR_UPDATE_ASYNC)) {
-            plugin.getScheduler().timerAsync(task, 0, plugin.configInt(Option.ACTION_BAR_UPDATE_PERIOD) * 50L, TimeUnit.MILLISECONDS);
-        } else {
-            plugin.getScheduler().timerSync(task, 0, plugin.configInt(Option.ACTION_BAR_UPDATE_PERIOD) * 50L, TimeUnit.MILLISECONDS);
+        if (formatLast) {
+            message = plugin.getMessageProvider().applyFormatting(message);
         }
+
+        uiProvider.sendActionBar(user, message);
+        return true;
     }
 
     public void sendXpActionBar(User user, Skill skill, double currentXp, double levelXp, double xpGained, int level, boolean maxed, double income) {
@@ -135,86 +149,33 @@ public abstract class ActionBarManager {
             return;
         }
 
-        UUID uuid = user.getUuid();
-        if (isPaused.contains(uuid)) {
+        ActionBarState state = getState(user);
+        long now = System.currentTimeMillis();
+        if (state.pausedUntil > now) {
             return;
         }
-        // Set timer and is gaining xp
-        isGainingXp.add(uuid);
-        timer.put(uuid, 20);
-
-        // Increment action number
-        int thisAction = currentAction.getOrDefault(uuid, 0) + 1;
-        currentAction.put(uuid, thisAction);
-        // Schedule timer task to update action bar
-        plugin.getScheduler().timerSync(
-                new TaskRunnable() {
-                    @Override
-                    public void run() {
-                        if (!isGainingXp.contains(uuid)) {
-                            cancel();
-                            return;
-                        }
-                        // Cancel if a later action bar is sent
-                        Integer actionNum = currentAction.get(uuid);
-                        if (actionNum == null) {
-                            cancel();
-                            return;
-                        }
-                        if (thisAction != actionNum) {
-                            cancel();
-                            return;
-                        }
-
-                        String message = getXpActionBarMessage(user, skill, currentXp, levelXp, xpGained, level, maxed, income);
-                        uiProvider.sendActionBar(user, message);
-                    }
-                }, 0, plugin.configInt(Option.ACTION_BAR_UPDATE_PERIOD) * 50L, TimeUnit.MILLISECONDS);
-        // Schedule task to stop updating action bar
-        plugin.getScheduler().scheduleSync(() -> {
-            Integer timerNum = timer.get(uuid);
-            if (timerNum != null) {
-                if (timerNum.equals(0)) {
-                    isGainingXp.remove(uuid);
-                }
-            }
-        }, 41 * 50L, TimeUnit.MILLISECONDS);
+        // Only the latest values are kept, the dispatcher renders them on its next update
+        state.xpBar = new XpActionBar(skill, currentXp, levelXp, xpGained, level, maxed, income, now + XP_DURATION_MS);
     }
 
     public void resetActionBars() {
-        isGainingXp.clear();
-        timer.clear();
-        currentAction.clear();
-        isPaused.clear();
+        states.clear();
         clearMessageCache();
     }
 
     public void resetActionBar(User user) {
-        UUID uuid = user.getUuid();
-        isGainingXp.remove(uuid);
-        timer.remove(uuid);
-        currentAction.remove(uuid);
-        isPaused.remove(uuid);
+        states.remove(user.getUuid());
     }
 
     public void setPaused(User user, int time, TimeUnit timeUnit) {
-        UUID uuid = user.getUuid();
-        isPaused.add(uuid);
-        Integer action = currentAction.get(uuid);
-        if (action != null) {
-            currentAction.put(uuid, action + 1);
-        } else {
-            currentAction.put(uuid, 0);
-        }
-        int thisAction = this.currentAction.get(uuid);
-        plugin.getScheduler().scheduleSync(() -> {
-            Integer actionBarCurrentAction = currentAction.get(uuid);
-            if (actionBarCurrentAction != null) {
-                if (thisAction == actionBarCurrentAction) {
-                    isPaused.remove(uuid);
-                }
-            }
-        }, time, timeUnit);
+        ActionBarState state = getState(user);
+        state.pausedUntil = System.currentTimeMillis() + timeUnit.toMillis(time);
+        // A pause ends the current XP action bar instead of resuming it afterward
+        state.xpBar = null;
+    }
+
+    private ActionBarState getState(User user) {
+        return states.computeIfAbsent(user.getUuid(), id -> new ActionBarState());
     }
 
     public void sendAbilityActionBar(User user, String message) {
@@ -308,4 +269,18 @@ public abstract class ActionBarManager {
         idleMessageCache.clear();
     }
 
+    private static class ActionBarState {
+
+        @Nullable
+        private volatile XpActionBar xpBar;
+        private volatile long pausedUntil;
+        private long lastRenderTick = Long.MIN_VALUE / 2;
+
+    }
+
+    private record XpActionBar(Skill skill, double currentXp, double levelXp, double xpGained, int level,
+            boolean maxed, double income, long expiresAt) {
+
+    }
+
 }
@@ -21,6 +21,7 @@ import dev.aurelium.auraskills.common.api.implementation.ApiSkillsUser;
 import dev.aurelium.auraskills.common.config.Option;
 import dev.aurelium.auraskills.common.jobs.JobsBatchData;
 import dev.aurelium.auraskills.common.mana.ManaAbilityData;
+import dev.aurelium.auraskills.common.ref.PlayerRef;
 import dev.aurelium.auraskills.common.ui.ActionBarType;
 import dev.aurelium.auraskills.common.util.data.KeyIntPair;
 import net.kyori.adventure.text.Component;
@@ -29,11 +30,12 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
@@ -60,18 +62,18 @@ public abstract class User {
     private final Map<ActionBarType, Boolean> actionBarSettings;
     private final Set<Skill> jobs;
     private long lastJobSelectTime;
-    private final List<AntiAfkLog> sessionAntiAfkLogs;
     private final Set<String> purchasedAbilities; // Shop-exclusive abilities that have been purchased
 
     private boolean shouldSave;
     private boolean blank = true;
+    // Data changed since the last successful save, so auto-save can skip or narrow saves
+    private final Set<Skill> changedSkills = ConcurrentHashMap.newKeySet();
+    private final Set<UserChanges.Type> changedTypes = ConcurrentHashMap.newKeySet();
 
     // Not persistent data
     private final Map<String, Multiplier> multipliers;
     private final JobsBatchData jobsBatchData;
     private final Map<CheckType, CheckData> checkData = new ConcurrentHashMap<>();
-    @Nullable
-    private List<AntiAfkLog> storedAntiAfkLogs;
     private double currentOriginalDamage;
 
     public User(UUID uuid, AuraSkillsPlugin plugin) {
@@ -91,7 +93,6 @@ public abstract class User {
         this.multipliers = new ConcurrentHashMap<>();
         this.jobs = Sets.newConcurrentHashSet();
         this.jobsBatchData = new JobsBatchData();
-        this.sessionAntiAfkLogs = new ArrayList<>();
         this.lastJobSelectTime = 0;
         this.purchasedAbilities = Sets.newConcurrentHashSet();
     }
@@ -123,6 +124,13 @@ public abstract class User {
 
     public abstract boolean hasPermission(String permission);
 
+    /**
+     * Sets the platform player of a user loaded before the player joined.
+     *
+     * @param ref the joined player
+     */
+    public abstract void attachPlayer(PlayerRef ref);
+
     public int getSkillLevel(Skill skill) {
         return skillLevels.getOrDefault(skill, plugin.config().getStartLevel());
     }
@@ -157,6 +165,7 @@ public abstract class User {
 
     public void setSkillLevel(Skill skill, int level) {
         skillLevels.put(skill, level);
+        changedSkills.add(skill);
         if (level > plugin.config().getStartLevel()) { // Mark as modified
             blank = false;
         }
@@ -172,6 +181,7 @@ public abstract class User {
 
     public void setSkillXp(Skill skill, double xp) {
         skillXp.put(skill, xp);
+        changedSkills.add(skill);
         if (xp > 0.0) { // Mark as modified
             blank = false;
         }
@@ -182,6 +192,7 @@ public abstract class User {
 
         // Add XP while ensuring it is not negative
         skillXp.merge(skill, amount, (existing, added) -> Math.max(existing + added, 0.0));
+        changedSkills.add(skill);
         if (amount > 0.0) { // Mark as modified
             blank = false;
         }
@@ -277,6 +288,9 @@ public abstract class User {
     }
 
     public void setMana(double mana) {
+        if (this.mana != mana) {
+            changedTypes.add(UserChanges.Type.PROFILE);
+        }
         this.mana = mana;
     }
 
@@ -286,6 +300,7 @@ public abstract class User {
 
     public void setSkillCoins(double skillCoins) {
         this.skillCoins = Math.max(0, skillCoins);
+        changedTypes.add(UserChanges.Type.PROFILE);
         if (skillCoins > 0) {
             blank = false;
         }
@@ -317,6 +332,7 @@ public abstract class User {
 
     public void setLocale(Locale locale) {
         this.locale = locale;
+        changedTypes.add(UserChanges.Type.PROFILE);
         setCommandLocale(locale);
     }
 
@@ -445,12 +461,24 @@ public abstract class User {
         }
         // Remove from unclaimed items list
         for (KeyIntPair unclaimedItemToRemove : toRemove) {
-            unclaimedItems.remove(unclaimedItemToRemove);
+            removeUnclaimedItem(unclaimedItemToRemove);
         }
     }
 
     public void setUnclaimedItems(@NotNull List<KeyIntPair> unclaimedItems) {
         this.unclaimedItems = unclaimedItems;
+        changedTypes.add(UserChanges.Type.KEY_VALUES);
+    }
+
+    public void addUnclaimedItem(KeyIntPair item) {
+        unclaimedItems.add(item);
+        changedTypes.add(UserChanges.Type.KEY_VALUES);
+    }
+
+    public void removeUnclaimedItem(KeyIntPair item) {
+        if (unclaimedItems.remove(item)) {
+            changedTypes.add(UserChanges.Type.KEY_VALUES);
+        }
     }
 
     public Set<Skill> getJobs() {
@@ -460,6 +488,7 @@ public abstract class User {
     public void addJob(Skill skill) {
         if (jobs.size() < getJobLimit() && canSelectJob(skill)) {
             jobs.add(skill);
+            changedTypes.add(UserChanges.Type.KEY_VALUES);
             setLastJobSelectTime(System.currentTimeMillis());
             blank = false;
         }
@@ -467,11 +496,13 @@ public abstract class User {
 
     public void removeJob(Skill skill) {
         jobs.remove(skill);
+        changedTypes.add(UserChanges.Type.KEY_VALUES);
         blank = false;
     }
 
     public void clearAllJobs() {
         jobs.clear();
+        changedTypes.add(UserChanges.Type.KEY_VALUES);
     }
 
     public int getJobLimit() {
@@ -522,6 +553,7 @@ public abstract class User {
 
     public void setActionBarSetting(ActionBarType type, boolean enabled) {
         this.actionBarSettings.put(type, enabled);
+        changedTypes.add(UserChanges.Type.KEY_VALUES);
     }
 
     public JobsBatchData getJobsBatchData() {
@@ -534,10 +566,7 @@ public abstract class User {
 
     public void setLastJobSelectTime(long lastJobSelectTime) {
         this.lastJobSelectTime = lastJobSelectTime;
-    }
-
-    public List<AntiAfkLog> getSessionAntiAfkLogs() {
-        return sessionAntiAfkLogs;
+        changedTypes.add(UserChanges.Type.KEY_VALUES);
     }
 
     @NotNull
@@ -545,14 +574,6 @@ public abstract class User {
         return checkData.computeIfAbsent(type, t -> new CheckData());
     }
 
-    public Optional<List<AntiAfkLog>> getStoredAntiAfkLogs() {
-        return Optional.ofNullable(storedAntiAfkLogs);
-    }
-
-    public void setStoredAntiAfkLogs(@NotNull List<AntiAfkLog> logs) {
-        this.storedAntiAfkLogs = logs;
-    }
-
     public double getCurrentOriginalDamage() {
         return currentOriginalDamage;
     }
@@ -608,10 +629,76 @@ public abstract class User {
         this.userStats.getTraitModifiers().putAll(state.traitModifiers());
 
         this.mana = state.mana();
+        markAllChanged();
 
         plugin.getStatManager().recalculateStats(this);
     }
 
+    /**
+     * Checks if any persistent data changed since the last successful save.
+     *
+     * @return true if the user needs to be saved
+     */
+    public boolean hasUnsavedChanges() {
+        if (!changedSkills.isEmpty() || !changedTypes.isEmpty()) {
+            return true;
+        }
+        for (AbilityData data : abilityData.values()) {
+            if (data.isChanged()) return true;
+        }
+        for (ManaAbilityData data : manaAbilityData.values()) {
+            if (data.isChanged()) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Gets the data changed since the last save and clears the changes. Call this before reading
+     * the data to save so that changes made during the save are kept for the next one, and pass
+     * the result to {@link #restoreChanges(UserChanges)} if the save fails.
+     *
+     * @return the changes that were cleared
+     */
+    public UserChanges takeChanges() {
+        Set<Skill> skills = new HashSet<>();
+        for (Skill skill : changedSkills) {
+            if (changedSkills.remove(skill)) {
+                skills.add(skill);
+            }
+        }
+        Set<UserChanges.Type> types = EnumSet.noneOf(UserChanges.Type.class);
+        for (UserChanges.Type type : changedTypes) {
+            if (changedTypes.remove(type)) {
+                types.add(type);
+            }
+        }
+        // Poll every flag so none are left set
+        boolean keyValues = false;
+        for (AbilityData data : abilityData.values()) {
+            keyValues |= data.pollChanged();
+        }
+        for (ManaAbilityData data : manaAbilityData.values()) {
+            keyValues |= data.pollChanged();
+        }
+        if (keyValues) {
+            types.add(UserChanges.Type.KEY_VALUES);
+        }
+        return new UserChanges(skills, types);
+    }
+
+    public void restoreChanges(UserChanges changes) {
+        changedSkills.addAll(changes.skills());
+        changedTypes.addAll(changes.types());
+    }
+
+    public void markModifiersChanged() {
+        changedTypes.add(UserChanges.Type.MODIFIERS);
+    }
+
+    public void markAllChanged() {
+        restoreChanges(UserChanges.all(this));
+    }
+
     public void cleanUp() {
 
     }
@@ -0,0 +1,52 @@
+package dev.aurelium.auraskills.common.user;
+
+import dev.aurelium.auraskills.api.skill.Skill;
+
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The parts of a user's persistent data that changed since the last successful save.
+ *
+ * @param skills the skills whose level or XP changed
+ * @param types the other parts of the data that changed
+ */
+public record UserChanges(Set<Skill> skills, Set<Type> types) {
+
+    /**
+     * Gets changes covering all of a user's data, used when saving everything.
+     *
+     * @param user the user
+     * @return changes containing every skill and type
+     */
+    public static UserChanges all(User user) {
+        return new UserChanges(new HashSet<>(user.getSkillLevelMap().keySet()), EnumSet.allOf(Type.class));
+    }
+
+    public boolean isEmpty() {
+        return skills.isEmpty() && types.isEmpty();
+    }
+
+    public boolean has(Type type) {
+        return types.contains(type);
+    }
+
+    public enum Type {
+
+        /**
+         * Mana, skill coins, and locale
+         */
+        PROFILE,
+        /**
+         * Ability data, mana ability cooldowns, unclaimed items, action bar settings, and jobs
+         */
+        KEY_VALUES,
+        /**
+         * Persistent stat and trait modifiers
+         */
+        MODIFIERS
+
+    }
+
+}
@@ -26,6 +26,8 @@ public class UserStats {
     private final Map<String, StatModifier> statModifiers = new ConcurrentHashMap<>();
     private final Map<String, TraitModifier> traitModifiers = new ConcurrentHashMap<>();
     private final PriorityQueue<TemporaryModifier> tempModExpiryQueue = new PriorityQueue<>();
+    // Replaced instead of cleared so a value computed during an invalidation can't be cached
+    private volatile Map<Trait, Double> bonusTraitLevels = new ConcurrentHashMap<>();
 
     public UserStats(AuraSkillsPlugin plugin, User user) {
         this.plugin = plugin;
@@ -84,26 +86,65 @@ public class UserStats {
         return base + getBonusTraitLevel(trait);
     }
 
+    /**
+     * Gets the level of a trait from stats and modifiers. The value is cached until a stat is
+     * recalculated, a modifier changes, or {@link #invalidateTraitLevels()} is called.
+     *
+     * @param trait the trait
+     * @return the bonus level
+     */
     public double getBonusTraitLevel(Trait trait) {
+        Map<Trait, Double> cache = bonusTraitLevels;
+        Double cached = cache.get(trait);
+        if (cached != null) {
+            return cached;
+        }
+        double level = calculateBonusTraitLevel(trait);
+        cache.put(trait, level);
+        return level;
+    }
+
+    /**
+     * Clears cached trait levels, must be called when something trait levels depend on changes
+     * outside of this class, such as the user's world.
+     */
+    public void invalidateTraitLevels() {
+        bonusTraitLevels = new ConcurrentHashMap<>();
+    }
+
+    private double calculateBonusTraitLevel(Trait trait) {
         if (!trait.isEnabled() || plugin.getWorldManager().isDisabledWorld(user.getWorld())) {
             return 0.0;
         }
 
         double level = getTraitLevelFromStats(trait, 0.0);
 
-        List<AuraSkillsModifier<?>> modifiers = new ArrayList<>(traitModifiers.values());
-        for (var statMod : statModifiers.values()) {
+        // Trait modifiers and the stat modifiers of a direct stat are applied together without copying them to a list
+        double addModSum = 0.0;
+        double multiplyModProduct = 1.0;
+        double addPercentSum = 0.0;
+        for (TraitModifier modifier : traitModifiers.values()) {
+            if (!modifier.type().equals(trait)) continue;
+
+            switch (modifier.operation()) {
+                case ADD -> addModSum += modifier.value();
+                case MULTIPLY -> multiplyModProduct *= modifier.value();
+                case ADD_PERCENT -> addPercentSum += modifier.value();
+            }
+        }
+        for (StatModifier statMod : statModifiers.values()) {
             if (statMod.stat() == null) continue;
             // If the trait is linked to a direct stat, add the "multiply" and "add_percent" stat modifiers for that stat
             if (statMod.stat().hasDirectTrait() && trait.equals(statMod.stat().getTraits().get(0))) {
-                if (statMod.operation() == Operation.MULTIPLY || statMod.operation() == Operation.ADD_PERCENT) {
-                    modifiers.add(statMod);
+                if (statMod.operation() == Operation.MULTIPLY) {
+                    multiplyModProduct *= statMod.value();
+                } else if (statMod.operation() == Operation.ADD_PERCENT) {
+                    addPercentSum += statMod.value();
                 }
             }
         }
 
-        level = calculateModifiers(level, modifiers, trait);
-        return level;
+        return (level + addModSum) * multiplyModProduct * (1 + addPercentSum / 100);
     }
 
     @Nullable
@@ -143,6 +184,10 @@ public class UserStats {
             removeModifier(modifier.name(), false, map);
         }
         map.put(modifier.name(), modifier);
+        invalidateTraitLevels();
+        if (!modifier.isNonPersistent()) {
+            user.markModifiersChanged();
+        }
 
         if (modifier instanceof StatModifier statModifier) {
             recalculateStat(statModifier.stat());
@@ -157,6 +202,10 @@ public class UserStats {
         AuraSkillsModifier<V> modifier = map.get(name);
         if (modifier == null) return false;
         map.remove(name);
+        invalidateTraitLevels();
+        if (!modifier.isNonPersistent()) {
+            user.markModifiersChanged();
+        }
 
         if (modifier instanceof StatModifier statModifier) {
             recalculateStat(statModifier.stat());
@@ -180,6 +229,7 @@ public class UserStats {
 
         statLevels.put(stat, level);
         baseStatLevels.put(stat, base);
+        invalidateTraitLevels();
     }
 
     private <T> double calculateModifiers(double base, Collection<? extends AuraSkillsModifier<?>> modifiers, T filter) {
@@ -0,0 +1,4 @@
+ALTER TABLE auraskills_users
+    ADD COLUMN IF NOT EXISTS skill_coins DOUBLE
+        NOT NULL
+        DEFAULT 0.0;
@@ -0,0 +1,2 @@
+CREATE INDEX skill_levels_rank_idx
+    ON auraskills_skill_levels (skill_name, skill_level DESC, skill_xp DESC);
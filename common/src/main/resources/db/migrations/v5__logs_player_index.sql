@@ -0,0 +1,2 @@
+CREATE INDEX logs_player_idx
+    ON auraskills_logs (player_uuid, log_type, log_time);
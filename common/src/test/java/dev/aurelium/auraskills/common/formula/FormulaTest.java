@@ -0,0 +1,106 @@
+package dev.aurelium.auraskills.common.formula;
+
+import com.ezylang.evalex.EvaluationException;
+import com.ezylang.evalex.Expression;
+import com.ezylang.evalex.parser.ParseException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FormulaTest {
+
+    @Test
+    void testMatchesEvalEx() throws Exception {
+        String[] sources = {
+                "-1 * 1.025^(-1 * value) + 1",
+                "-1 * 1.01^(-1 * value) + 1",
+                "value-1",
+                "0.1*value",
+                "value % 3 + value / 4",
+                "MIN(value, 10) + MAX(2, value, 5)",
+                "IF(value > 3 && value <= 20, SQRT(value), ABS(-value))",
+                "ROUND(value / 3, 2) + FLOOR(value / 7) + CEILING(value / 7)",
+                "PI * value + E",
+                "IF(!(value = 4), 1, 0) + IF(value != 5 || value < 2, 2, 0)"
+        };
+        for (String source : sources) {
+            Formula formula = Formula.compile(source, "value");
+            assertTrue(formula.isCompiled(), source);
+            for (int value = 0; value <= 30; value++) {
+                double expected = new Expression(source).with("value", value).evaluate().getNumberValue().doubleValue();
+                assertEquals(expected, formula.evaluate(value), 1e-9, source + " with value " + value);
+            }
+        }
+    }
+
+    @Test
+    void testVariableOrder() throws Exception {
+        Formula formula = Formula.compile("xp * 2 + LEVEL", "xp", "level");
+        assertEquals(13, formula.evaluate(5, 3));
+        assertThrows(IllegalArgumentException.class, () -> formula.evaluate(5));
+    }
+
+    @Test
+    void testUnknownVariable() {
+        assertThrows(ParseException.class, () -> Formula.compile("age-1", "pickles"));
+        assertThrows(ParseException.class, () -> Formula.compile("value +", "value"));
+    }
+
+    @Test
+    void testDivisionByZero() throws Exception {
+        Formula formula = Formula.compile("1 / value", "value");
+        assertThrows(EvaluationException.class, () -> formula.evaluate(0));
+        assertEquals(0.5, formula.evaluate(2));
+    }
+
+    @Test
+    void testInterpretedFallback() throws Exception {
+        Formula formula = Formula.compile("SIN(value) + FACT(3)", "value");
+        assertFalse(formula.isCompiled());
+        assertEquals(7, formula.evaluate(90), 1e-9);
+    }
+
+    @Test
+    void testMemoize() throws Exception {
+        MemoizedFormula memoized = Formula.compile("10 / (value - 2)", "value").memoize(0, 7);
+        assertEquals(-5, memoized.evaluate(0));
+        assertEquals(2, memoized.evaluate(7));
+        assertEquals(1, memoized.evaluate(12));
+        assertEquals(4, memoized.evaluate(4.5));
+        // Failed values aren't stored
+        assertThrows(EvaluationException.class, () -> memoized.evaluate(2));
+    }
+
+    @Test
+    void testConcurrentEvaluation() throws Exception {
+        Formula compiled = Formula.compile("value * 2 + 1", "value");
+        Formula interpreted = Formula.compile("SIN(0) + value * 2 + 1", "value");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                int offset = thread * 1000;
+                futures.add(executor.submit(() -> {
+                    for (int i = offset; i < offset + 1000; i++) {
+                        if (compiled.evaluate(i) != i * 2 + 1 || interpreted.evaluate(i) != i * 2 + 1) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> future : futures) {
+                assertTrue(future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+}
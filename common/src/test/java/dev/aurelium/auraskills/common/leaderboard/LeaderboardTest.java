@@ -0,0 +1,70 @@
+package dev.aurelium.auraskills.common.leaderboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class LeaderboardTest {
+
+    @Test
+    void testRanks() {
+        Leaderboard leaderboard = new Leaderboard(new LeaderboardSorter());
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        leaderboard.update(new SkillValue(second, 5, 10.0));
+        leaderboard.update(new SkillValue(first, 6, 0.0));
+        leaderboard.update(new SkillValue(third, 5, 2.0));
+
+        assertEquals(1, leaderboard.getRank(first));
+        assertEquals(2, leaderboard.getRank(second));
+        assertEquals(3, leaderboard.getRank(third));
+        assertEquals(0, leaderboard.getRank(UUID.randomUUID()));
+
+        // Moving a player updates everyone's rank
+        leaderboard.update(new SkillValue(third, 7, 0.0));
+        assertEquals(1, leaderboard.getRank(third));
+        assertEquals(2, leaderboard.getRank(first));
+        assertEquals(3, leaderboard.getRank(second));
+        assertEquals(3, leaderboard.size());
+
+        leaderboard.remove(first);
+        assertEquals(0, leaderboard.getRank(first));
+        assertEquals(2, leaderboard.getRank(second));
+        assertEquals(List.of(second), leaderboard.getPage(2, 1).stream().map(SkillValue::id).toList());
+    }
+
+    @Test
+    void testMatchesSortedList() {
+        Random random = new Random(7);
+        LeaderboardSorter sorter = new LeaderboardSorter();
+        Leaderboard leaderboard = new Leaderboard(sorter);
+        Map<UUID, SkillValue> expected = new HashMap<>();
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        for (int i = 0; i < 5000; i++) {
+            UUID id = ids.get(random.nextInt(ids.size()));
+            if (random.nextInt(10) == 0) {
+                leaderboard.remove(id);
+                expected.remove(id);
+            } else {
+                SkillValue value = new SkillValue(id, random.nextInt(20), random.nextInt(50));
+                leaderboard.update(value);
+                expected.put(id, value);
+            }
+        }
+        List<SkillValue> sorted = new ArrayList<>(expected.values());
+        sorted.sort(sorter.thenComparing(SkillValue::id));
+
+        assertEquals(sorted, leaderboard.getValues());
+        assertEquals(sorted.subList(20, 30), leaderboard.getPage(3, 10));
+        for (int i = 0; i < sorted.size(); i++) {
+            assertEquals(i + 1, leaderboard.getRank(sorted.get(i).id()));
+        }
+    }
+
+}
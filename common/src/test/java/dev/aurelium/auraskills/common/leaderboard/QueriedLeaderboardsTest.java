@@ -0,0 +1,140 @@
+package dev.aurelium.auraskills.common.leaderboard;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueriedLeaderboardsTest {
+
+    private final List<Runnable> pending = new ArrayList<>();
+    private FakeQueries queries;
+    private LeaderboardExclusion exclusion;
+    private QueriedLeaderboards leaderboards;
+
+    @BeforeEach
+    void setUp() {
+        queries = new FakeQueries();
+        exclusion = new LeaderboardExclusion(null) {};
+        leaderboards = new QueriedLeaderboards(null, queries, exclusion, pending::add);
+    }
+
+    @Test
+    void testAsyncWaitsForFirstQuery() {
+        queries.fill(25);
+
+        CompletableFuture<List<SkillValue>> page = leaderboards.getPageAsync(LeaderboardKey.POWER, 1, 10);
+        assertFalse(page.isDone());
+        // Sync lookups don't wait
+        assertEquals(List.of(), leaderboards.getPage(LeaderboardKey.POWER, 1, 10));
+
+        runPending();
+        assertTrue(page.isDone());
+        assertEquals(queries.values.subList(0, 10), page.join());
+        assertEquals(1, queries.calls);
+    }
+
+    @Test
+    void testCachedResultReused() {
+        queries.fill(25);
+        leaderboards.getPageAsync(LeaderboardKey.POWER, 1, 10);
+        runPending();
+
+        // Pages inside the same block share the query
+        CompletableFuture<List<SkillValue>> page = leaderboards.getPageAsync(LeaderboardKey.POWER, 2, 5);
+        assertTrue(page.isDone());
+        assertEquals(queries.values.subList(5, 10), page.join());
+        assertEquals(queries.values.subList(0, 10), leaderboards.getPage(LeaderboardKey.POWER, 1, 10));
+        assertTrue(pending.isEmpty());
+        assertEquals(1, queries.calls);
+
+        // A different block is a miss
+        CompletableFuture<List<SkillValue>> next = leaderboards.getPageAsync(LeaderboardKey.POWER, 2, 10);
+        assertFalse(next.isDone());
+        runPending();
+        assertEquals(queries.values.subList(10, 20), next.join());
+        assertEquals(2, queries.calls);
+    }
+
+    @Test
+    void testRankAndSize() {
+        queries.fill(5);
+        UUID third = queries.values.get(2).id();
+
+        CompletableFuture<Integer> rank = leaderboards.getRankAsync(LeaderboardKey.POWER, third, null);
+        CompletableFuture<Integer> size = leaderboards.getSizeAsync(LeaderboardKey.POWER);
+        runPending();
+        assertEquals(3, rank.join());
+        assertEquals(5, size.join());
+
+        exclusion.addExcludedPlayer(third);
+        assertEquals(0, leaderboards.getRankAsync(LeaderboardKey.POWER, third, null).join());
+    }
+
+    @Test
+    void testFailedQueryCompletesWithFallback() {
+        queries.failing = true;
+
+        CompletableFuture<Integer> size = leaderboards.getSizeAsync(LeaderboardKey.POWER);
+        runPending();
+        assertEquals(0, size.join());
+    }
+
+    @Test
+    void testGetAllPages() throws Exception {
+        queries.fill(2500);
+
+        List<SkillValue> all = leaderboards.getAll(LeaderboardKey.POWER);
+        assertEquals(queries.values, all);
+        assertEquals(3, queries.calls);
+        assertTrue(pending.isEmpty());
+    }
+
+    private void runPending() {
+        List<Runnable> tasks = new ArrayList<>(pending);
+        pending.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    private static class FakeQueries implements LeaderboardQueries {
+
+        private final List<SkillValue> values = new ArrayList<>();
+        private int calls;
+        private boolean failing;
+
+        private void fill(int count) {
+            for (int i = 0; i < count; i++) {
+                values.add(new SkillValue(UUID.randomUUID(), count - i, 0.0));
+            }
+        }
+
+        @Override
+        public List<SkillValue> getValues(LeaderboardKey key, int offset, int limit, Set<UUID> excluded) {
+            calls++;
+            return values.subList(Math.min(offset, values.size()), Math.min(offset + limit, values.size()));
+        }
+
+        @Override
+        public SkillValue getValue(LeaderboardKey key, UUID id) {
+            return values.stream().filter(v -> v.id().equals(id)).findFirst().orElse(null);
+        }
+
+        @Override
+        public int countAhead(LeaderboardKey key, SkillValue value, Set<UUID> excluded) {
+            return (int) values.stream().filter(v -> v.level() > value.level() && !excluded.contains(v.id())).count();
+        }
+
+        @Override
+        public int count(LeaderboardKey key, Set<UUID> excluded) throws Exception {
+            if (failing) {
+                throw new Exception("Query failed");
+            }
+            return values.size();
+        }
+
+    }
+
+}
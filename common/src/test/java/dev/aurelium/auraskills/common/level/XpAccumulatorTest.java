@@ -0,0 +1,76 @@
+package dev.aurelium.auraskills.common.level;
+
+import dev.aurelium.auraskills.api.skill.Skill;
+import dev.aurelium.auraskills.api.skill.Skills;
+import dev.aurelium.auraskills.common.user.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class XpAccumulatorTest {
+
+    // Users are only used as keys, so no user needs to be created
+    private static final User USER = null;
+
+    private final Map<Skill, Double> given = new HashMap<>();
+    private final List<Runnable> scheduled = new ArrayList<>();
+    private int gains;
+    private XpAccumulator accumulator;
+
+    @BeforeEach
+    void setUp() {
+        accumulator = new XpAccumulator(null, (user, skill, source, amount) -> {
+            given.merge(skill, amount, Double::sum);
+            gains++;
+        }, scheduled::add);
+    }
+
+    @Test
+    void testMergesGainsInWindow() {
+        accumulator.add(USER, Skills.FORAGING, null, 5.0);
+        accumulator.add(USER, Skills.FORAGING, null, 2.5);
+        accumulator.add(USER, Skills.MINING, null, 1.0);
+        accumulator.add(USER, Skills.MINING, null, 0.0);
+
+        assertEquals(2, accumulator.getPendingCount());
+        assertEquals(1, scheduled.size());
+        assertTrue(given.isEmpty());
+
+        scheduled.removeFirst().run();
+        assertEquals(7.5, given.get(Skills.FORAGING));
+        assertEquals(1.0, given.get(Skills.MINING));
+        assertEquals(2, gains);
+        assertEquals(0, accumulator.getPendingCount());
+    }
+
+    @Test
+    void testFlushStartsNewWindow() {
+        accumulator.add(USER, Skills.FORAGING, null, 5.0);
+        accumulator.flush();
+        assertEquals(5.0, given.get(Skills.FORAGING));
+
+        // Flushing early doesn't give the xp again when the scheduled flush runs
+        scheduled.removeFirst().run();
+        assertEquals(1, gains);
+
+        accumulator.add(USER, Skills.FORAGING, null, 3.0);
+        assertEquals(1, scheduled.size());
+        scheduled.removeFirst().run();
+        assertEquals(8.0, given.get(Skills.FORAGING));
+        assertEquals(2, gains);
+    }
+
+    @Test
+    void testDisable() {
+        assertFalse(accumulator.isDisabled());
+        accumulator.disable("OtherPlugin");
+        assertTrue(accumulator.isDisabled());
+    }
+
+}
@@ -0,0 +1,59 @@
+package dev.aurelium.auraskills.common.region;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlacedBlockSetTest {
+
+    @Test
+    void testPack() {
+        int packed = PlacedBlockSet.pack(-17, -64, 35);
+        assertEquals(15, PlacedBlockSet.unpackX(packed));
+        assertEquals(-64, PlacedBlockSet.unpackY(packed));
+        assertEquals(3, PlacedBlockSet.unpackZ(packed));
+        assertEquals(0, PlacedBlockSet.pack(0, 0, 0));
+    }
+
+    @Test
+    void testAddContainsRemove() {
+        PlacedBlockSet set = new PlacedBlockSet();
+        int packed = PlacedBlockSet.pack(1, 70, 2);
+        assertFalse(set.contains(packed));
+        assertTrue(set.add(packed));
+        assertFalse(set.add(packed));
+        assertTrue(set.contains(packed));
+        assertEquals(1, set.size());
+        assertTrue(set.remove(packed));
+        assertFalse(set.remove(packed));
+        assertFalse(set.contains(packed));
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    void testMatchesHashSet() {
+        PlacedBlockSet set = new PlacedBlockSet();
+        Set<Integer> expected = new HashSet<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 20000; i++) {
+            int packed = PlacedBlockSet.pack(random.nextInt(16), random.nextInt(64) - 32, random.nextInt(16));
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(packed), set.remove(packed));
+            } else {
+                assertEquals(expected.add(packed), set.add(packed));
+            }
+        }
+        assertEquals(expected.size(), set.size());
+        for (int packed : set.toArray()) {
+            assertTrue(expected.contains(packed));
+        }
+        for (int packed : expected) {
+            assertTrue(set.contains(packed));
+        }
+    }
+
+}
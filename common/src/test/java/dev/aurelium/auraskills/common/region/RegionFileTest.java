@@ -0,0 +1,54 @@
+package dev.aurelium.auraskills.common.region;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RegionFileTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRoundTrip() throws IOException {
+        int[] first = {PlacedBlockSet.pack(0, -64, 0), PlacedBlockSet.pack(15, 319, 15), PlacedBlockSet.pack(3, 70, 9)};
+        int[] second = {PlacedBlockSet.pack(7, 0, 2)};
+        Path path = tempDir.resolve("r.-1.2" + RegionFile.EXTENSION);
+        RegionFile.write(path, List.of(RegionFile.encodeChunk(0, 0, first), RegionFile.encodeChunk(31, 5, second)));
+
+        Region region = new Region("world", -1, 2);
+        RegionFile.read(path, region);
+
+        ChunkData chunk = region.getChunkData(0, 0);
+        assertNotNull(chunk);
+        assertEquals(3, chunk.getPlacedBlocks().size());
+        assertTrue(chunk.isPlacedBlock(-512, -64, 1024));
+        assertTrue(chunk.isPlacedBlock(-497, 319, 1039));
+        assertTrue(chunk.isPlacedBlock(-509, 70, 1033));
+        assertFalse(chunk.isPlacedBlock(-509, 71, 1033));
+
+        ChunkData other = region.getChunkData(31, 5);
+        assertNotNull(other);
+        assertTrue(other.isPlacedBlock(7, 0, 2));
+        // Loading doesn't count as a change that needs saving
+        assertFalse(region.isDirty());
+    }
+
+    @Test
+    void testCorruptedFile() throws IOException {
+        Path path = tempDir.resolve("r.0.0" + RegionFile.EXTENSION);
+        RegionFile.write(path, List.of(RegionFile.encodeChunk(1, 1, new int[] {PlacedBlockSet.pack(1, 2, 3)})));
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length - 1] ^= 0x7F;
+        Files.write(path, bytes);
+
+        assertThrows(IOException.class, () -> RegionFile.read(path, new Region("world", 0, 0)));
+    }
+
+}
@@ -0,0 +1,90 @@
+package dev.aurelium.auraskills.common.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncLaneTest {
+
+    @Test
+    void testBoundedOverflowsWhenFull() throws Exception {
+        AsyncLane lane = AsyncLane.bounded("test", 1, 1, null);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> blocking = lane.submit(() -> {
+            started.countDown();
+            await(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<?> queued = lane.submit(() -> {});
+
+        assertEquals(1, lane.getActive());
+        assertEquals(1, lane.getQueued());
+
+        // The queue is full, so the task runs on an overflow virtual thread instead of this one
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+        lane.submit(() -> ranOn.set(Thread.currentThread())).get(5, TimeUnit.SECONDS);
+        assertNotEquals(Thread.currentThread(), ranOn.get());
+        assertTrue(ranOn.get().isVirtual());
+        assertEquals(1, lane.getOverflowed());
+
+        release.countDown();
+        blocking.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+        assertEquals(3, lane.getCompleted());
+        assertEquals(0, lane.getQueued());
+        assertEquals(0, lane.getActive());
+        lane.shutdown();
+    }
+
+    @Test
+    void testVirtualRecordsLatency() throws Exception {
+        AsyncLane lane = AsyncLane.virtual("test", null);
+        assertEquals(0, lane.getRunPercentile(99));
+        lane.submit(() -> sleep(20)).get(5, TimeUnit.SECONDS);
+
+        assertTrue(lane.isVirtual());
+        assertEquals(1, lane.getCompleted());
+        assertTrue(lane.getRunPercentile(50) >= 20);
+        assertTrue(lane.getRunPercentile(99) >= lane.getRunPercentile(50));
+        lane.shutdown();
+    }
+
+    @Test
+    void testDropsAfterShutdown() throws Exception {
+        AsyncLane lane = AsyncLane.bounded("test", 1, 1, null);
+        lane.shutdown();
+        assertTrue(lane.awaitTermination(5, TimeUnit.SECONDS));
+
+        AtomicBoolean ran = new AtomicBoolean();
+        Future<?> future = lane.submit(() -> ran.set(true));
+        assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertFalse(ran.get());
+        assertEquals(1, lane.getDropped());
+        assertEquals(0, lane.getQueued());
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,104 @@
+package dev.aurelium.auraskills.common.storage.file;
+
+import dev.aurelium.auraskills.common.antiafk.AntiAfkLogSink;
+import dev.aurelium.auraskills.common.region.BlockPosition;
+import dev.aurelium.auraskills.common.user.AntiAfkLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileAntiAfkLogSinkTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testQueryPages() throws IOException {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        AntiAfkLog legacy = log(1, "legacy");
+        FileAntiAfkLogSink sink = new FileAntiAfkLogSink(null, tempDir, uuid -> uuid.equals(first) ? List.of(legacy) : List.of());
+
+        sink.write(List.of(entry(first, log(10, "a")), entry(second, log(15, "other")), entry(first, log(20, "b"))));
+        sink.write(List.of(entry(first, log(30, "c"))));
+
+        AntiAfkLogSink.LogPage page = sink.query(first, 0, 2);
+        assertEquals(4, page.total());
+        assertEquals(List.of("c", "b"), page.logs().stream().map(AntiAfkLog::message).toList());
+
+        page = sink.query(first, 2, 2);
+        assertEquals(List.of(log(10, "a"), legacy), page.logs());
+
+        page = sink.query(second, 5, 10);
+        assertEquals(1, page.total());
+        assertTrue(page.logs().isEmpty());
+    }
+
+    @Test
+    void testRollAndDelete() throws IOException {
+        UUID uuid = UUID.randomUUID();
+        FileAntiAfkLogSink sink = new FileAntiAfkLogSink(null, tempDir, id -> List.of());
+
+        List<AntiAfkLogSink.Entry> entries = new ArrayList<>();
+        String message = "x".repeat(200);
+        for (int i = 0; i < 6000; i++) {
+            entries.add(entry(uuid, log(i, message)));
+        }
+        sink.write(entries);
+        assertEquals(1, countRolled());
+        assertFalse(Files.exists(tempDir.resolve("current.log")));
+
+        long now = System.currentTimeMillis();
+        sink.write(List.of(entry(uuid, log(now + 60000, "after roll"))));
+        AntiAfkLogSink.LogPage page = sink.query(uuid, 0, 1);
+        assertEquals(6001, page.total());
+        assertEquals("after roll", page.logs().getFirst().message());
+
+        // Pages continue from the current file into the rolled file
+        page = sink.query(uuid, 1, 2);
+        assertEquals(List.of(5999L, 5998L), page.logs().stream().map(AntiAfkLog::timestamp).toList());
+
+        sink.deleteBefore(now + 1);
+        assertEquals(0, countRolled());
+        assertEquals(1, sink.query(uuid, 0, 10).total());
+    }
+
+    @Test
+    void testDeleteBeforeInCurrentFile() throws IOException {
+        UUID uuid = UUID.randomUUID();
+        FileAntiAfkLogSink sink = new FileAntiAfkLogSink(null, tempDir, id -> List.of());
+        sink.write(List.of(entry(uuid, log(10, "a")), entry(uuid, log(20, "b")), entry(uuid, log(30, "c"))));
+
+        sink.deleteBefore(20);
+        AntiAfkLogSink.LogPage page = sink.query(uuid, 0, 10);
+        assertEquals(List.of("c", "b"), page.logs().stream().map(AntiAfkLog::message).toList());
+
+        sink.deleteBefore(100);
+        assertFalse(Files.exists(tempDir.resolve("current.log")));
+        assertEquals(0, sink.query(uuid, 0, 10).total());
+    }
+
+    private long countRolled() throws IOException {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".log.gz")).count();
+        }
+    }
+
+    private AntiAfkLogSink.Entry entry(UUID uuid, AntiAfkLog log) {
+        return new AntiAfkLogSink.Entry(uuid, log);
+    }
+
+    private AntiAfkLog log(long time, String message) {
+        return new AntiAfkLog(time, message, new BlockPosition(1, 64, -3), "world");
+    }
+
+}
@@ -0,0 +1,85 @@
+package dev.aurelium.auraskills.common.storage.file;
+
+import dev.aurelium.auraskills.api.skill.Skill;
+import dev.aurelium.auraskills.api.skill.Skills;
+import dev.aurelium.auraskills.common.user.UserState;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRoundTrip() throws IOException {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        BasicFileAttributes attributes = createDataFile(first);
+
+        UserIndex index = new UserIndex(tempDir.resolve("index.dat"));
+        index.put(first, UserIndex.Entry.of(attributes, Map.of(Skills.FARMING, 12, Skills.MINING, 3),
+                Map.of(Skills.FARMING, 40.5, Skills.MINING, 2.0), 20.0, 150.0));
+        index.put(second, UserIndex.Entry.of(attributes, Map.of(), Map.of(), 0.0, 0.0));
+        index.saveIfDirty();
+
+        UserIndex loaded = new UserIndex(tempDir.resolve("index.dat"));
+        loaded.load();
+        UserIndex.Entry entry = loaded.get(first);
+        assertNotNull(entry);
+        assertTrue(entry.matches(attributes));
+        assertNotNull(loaded.get(second));
+
+        UserState state = entry.toState(first, Map.of("auraskills/farming", Skills.FARMING));
+        assertEquals(first, state.uuid());
+        // Skills that aren't registered are left out
+        assertEquals(Map.<Skill, Integer>of(Skills.FARMING, 12), state.skillLevels());
+        assertEquals(40.5, state.skillXp().get(Skills.FARMING));
+        assertEquals(20.0, state.mana());
+        assertEquals(150.0, state.skillCoins());
+    }
+
+    @Test
+    void testChangedFileDoesNotMatch() throws IOException {
+        UUID uuid = UUID.randomUUID();
+        BasicFileAttributes attributes = createDataFile(uuid);
+        UserIndex.Entry entry = UserIndex.Entry.of(attributes, Map.of(), Map.of(), 0.0, 0.0);
+
+        Path file = tempDir.resolve(uuid + ".yml");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(attributes.lastModifiedTime().toMillis() + 5000));
+        assertFalse(entry.matches(Files.readAttributes(file, BasicFileAttributes.class)));
+    }
+
+    @Test
+    void testRetainAll() throws IOException {
+        UUID kept = UUID.randomUUID();
+        UUID removed = UUID.randomUUID();
+        BasicFileAttributes attributes = createDataFile(kept);
+
+        UserIndex index = new UserIndex(tempDir.resolve("index.dat"));
+        index.put(kept, UserIndex.Entry.of(attributes, Map.of(), Map.of(), 0.0, 0.0));
+        index.put(removed, UserIndex.Entry.of(attributes, Map.of(), Map.of(), 0.0, 0.0));
+        index.retainAll(Set.of(kept));
+
+        assertNotNull(index.get(kept));
+        assertNull(index.get(removed));
+    }
+
+    private BasicFileAttributes createDataFile(UUID uuid) throws IOException {
+        Path file = tempDir.resolve(uuid + ".yml");
+        Files.writeString(file, "uuid: " + uuid + "\n");
+        return Files.readAttributes(file, BasicFileAttributes.class);
+    }
+
+}